@@ -0,0 +1,103 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.benchmark;
+
+import org.activiti.engine.HistoryService;
+import org.activiti.engine.ManagementService;
+import org.activiti.engine.ProcessEngine;
+import org.activiti.engine.ProcessEngineConfiguration;
+import org.activiti.engine.RepositoryService;
+import org.activiti.engine.RuntimeService;
+import org.activiti.engine.TaskService;
+import org.activiti.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.activiti.engine.repository.DeploymentBuilder;
+import org.activiti.engine.task.Task;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Boots a process engine on a private in-memory H2 database for each benchmark trial
+ * and deploys the benchmark process models.
+ */
+@State(Scope.Benchmark)
+public abstract class AbstractProcessEngineBenchmark {
+
+  protected static final String[] PROCESS_RESOURCES = {
+    "org/activiti/benchmark/linear.bpmn20.xml",
+    "org/activiti/benchmark/parallelGateway.bpmn20.xml",
+    "org/activiti/benchmark/multiInstance.bpmn20.xml",
+    "org/activiti/benchmark/callActivity.bpmn20.xml",
+    "org/activiti/benchmark/async.bpmn20.xml"
+  };
+
+  protected ProcessEngine processEngine;
+  protected ProcessEngineConfigurationImpl processEngineConfiguration;
+  protected RepositoryService repositoryService;
+  protected RuntimeService runtimeService;
+  protected TaskService taskService;
+  protected HistoryService historyService;
+  protected ManagementService managementService;
+
+  @Setup(Level.Trial)
+  public void setUpProcessEngine() {
+    ProcessEngineConfiguration configuration = ProcessEngineConfiguration
+      .createStandaloneInMemProcessEngineConfiguration()
+      .setProcessEngineName(getClass().getSimpleName())
+      .setJdbcUrl("jdbc:h2:mem:" + getClass().getSimpleName() + ";DB_CLOSE_DELAY=1000")
+      .setDatabaseSchemaUpdate(ProcessEngineConfiguration.DB_SCHEMA_UPDATE_CREATE_DROP);
+    configure(configuration);
+
+    processEngine = configuration.buildProcessEngine();
+    processEngineConfiguration = (ProcessEngineConfigurationImpl) configuration;
+    repositoryService = processEngine.getRepositoryService();
+    runtimeService = processEngine.getRuntimeService();
+    taskService = processEngine.getTaskService();
+    historyService = processEngine.getHistoryService();
+    managementService = processEngine.getManagementService();
+
+    DeploymentBuilder deploymentBuilder = repositoryService.createDeployment();
+    for (String resource : PROCESS_RESOURCES) {
+      deploymentBuilder.addClasspathResource(resource);
+    }
+    deploymentBuilder.deploy();
+
+    initializeData();
+  }
+
+  @TearDown(Level.Trial)
+  public void closeProcessEngine() {
+    processEngine.close();
+  }
+
+  /**
+   * Hook to change the process engine configuration before the engine is built.
+   */
+  protected void configure(ProcessEngineConfiguration configuration) {
+  }
+
+  /**
+   * Hook to create the data the benchmark operates on, called once per trial.
+   */
+  protected void initializeData() {
+  }
+
+  protected void completeTasks(String processInstanceId) {
+    for (Task task : taskService.createTaskQuery().processInstanceId(processInstanceId).list()) {
+      taskService.complete(task.getId());
+    }
+  }
+
+}
@@ -0,0 +1,79 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.activiti.bpmn.converter.BpmnXMLConverter;
+import org.activiti.bpmn.model.BpmnModel;
+import org.activiti.engine.impl.util.io.BytesStreamSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Converts BPMN 2.0 xml to a {@link BpmnModel}, with and without xsd validation,
+ * as done when a deployment is parsed or a process definition is not in the cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+public class BpmnXmlParsingBenchmark {
+
+  @Param({"linear", "parallelGateway", "callActivity"})
+  public String model;
+
+  protected byte[] bpmnXml;
+
+  @Setup(Level.Trial)
+  public void readModel() throws IOException {
+    InputStream inputStream = getClass().getClassLoader().getResourceAsStream("org/activiti/benchmark/" + model + ".bpmn20.xml");
+    try {
+      ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+      byte[] buffer = new byte[4096];
+      int read;
+      while ((read = inputStream.read(buffer)) != -1) {
+        outputStream.write(buffer, 0, read);
+      }
+      bpmnXml = outputStream.toByteArray();
+    } finally {
+      inputStream.close();
+    }
+  }
+
+  @Benchmark
+  public BpmnModel convert() {
+    return new BpmnXMLConverter().convertToBpmnModel(new BytesStreamSource(bpmnXml), false, false);
+  }
+
+  @Benchmark
+  public BpmnModel convertWithSchemaValidation() {
+    return new BpmnXMLConverter().convertToBpmnModel(new BytesStreamSource(bpmnXml), true, false);
+  }
+
+}
@@ -0,0 +1,109 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.benchmark;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.activiti.engine.ProcessEngineConfiguration;
+import org.activiti.engine.impl.Condition;
+import org.activiti.engine.impl.RepositoryServiceImpl;
+import org.activiti.engine.impl.bpmn.parser.BpmnParse;
+import org.activiti.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.activiti.engine.impl.context.Context;
+import org.activiti.engine.impl.pvm.PvmTransition;
+import org.activiti.engine.impl.pvm.ReadOnlyProcessDefinition;
+import org.activiti.engine.repository.ProcessDefinition;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Selects the outgoing sequence flow of an exclusive gateway the way the
+ * ExclusiveGatewayActivityBehavior does, using the conditions of the parsed
+ * process definition, with and without simple expression compilation.
+ * None of the conditions is true, so all of them are evaluated.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+public class ExclusiveGatewayBenchmark extends AbstractProcessEngineBenchmark {
+
+  @Param({"false", "true"})
+  public boolean compiled;
+
+  protected List<PvmTransition> outgoingSequenceFlows;
+  protected String defaultSequenceFlow;
+  protected Map<String, Object> variables;
+
+  @Override
+  protected void configure(ProcessEngineConfiguration configuration) {
+    ((ProcessEngineConfigurationImpl) configuration).setEnableSimpleExpressionCompilation(compiled);
+  }
+
+  @Override
+  protected void initializeData() {
+    repositoryService.createDeployment()
+      .addClasspathResource("org/activiti/benchmark/exclusiveGateway.bpmn20.xml")
+      .deploy();
+    ProcessDefinition processDefinition = repositoryService.createProcessDefinitionQuery()
+      .processDefinitionKey("exclusiveGateway")
+      .singleResult();
+    ReadOnlyProcessDefinition deployedProcessDefinition = ((RepositoryServiceImpl) repositoryService)
+      .getDeployedProcessDefinition(processDefinition.getId());
+
+    outgoingSequenceFlows = deployedProcessDefinition.findActivity("decision").getOutgoingTransitions();
+    defaultSequenceFlow = (String) deployedProcessDefinition.findActivity("decision").getProperty("default");
+
+    variables = new HashMap<String, Object>();
+    variables.put("amount", 1500L);
+    variables.put("approved", Boolean.TRUE);
+    variables.put("status", "standard");
+  }
+
+  @Setup(Level.Iteration)
+  public void setUpContext() {
+    Context.setProcessEngineConfiguration(processEngineConfiguration);
+  }
+
+  @TearDown(Level.Iteration)
+  public void removeContext() {
+    Context.removeProcessEngineConfiguration();
+  }
+
+  @Benchmark
+  public String selectOutgoingSequenceFlow() {
+    MapDelegateExecution execution = new MapDelegateExecution(variables);
+    for (PvmTransition sequenceFlow : outgoingSequenceFlows) {
+      Condition condition = (Condition) sequenceFlow.getProperty(BpmnParse.PROPERTYNAME_CONDITION);
+      if ((condition == null && !sequenceFlow.getId().equals(defaultSequenceFlow))
+              || (condition != null && condition.evaluate(execution))) {
+        return sequenceFlow.getId();
+      }
+    }
+    return defaultSequenceFlow;
+  }
+
+}
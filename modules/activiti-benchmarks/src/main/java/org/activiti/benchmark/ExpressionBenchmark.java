@@ -0,0 +1,121 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.benchmark;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.activiti.engine.delegate.Expression;
+import org.activiti.engine.impl.context.Context;
+import org.activiti.engine.impl.el.ExpressionManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Evaluates JUEL expressions as used in sequence flow conditions and activity
+ * attributes, without database access.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+public class ExpressionBenchmark extends AbstractProcessEngineBenchmark {
+
+  protected ExpressionManager expressionManager;
+  protected MapVariableScope variableScope;
+  protected Expression simpleCondition;
+  protected Expression compoundCondition;
+  protected Expression beanProperty;
+
+  @Override
+  protected void initializeData() {
+    expressionManager = processEngineConfiguration.getExpressionManager();
+
+    Map<String, Object> variables = new HashMap<String, Object>();
+    variables.put("amount", 1500L);
+    variables.put("approved", Boolean.TRUE);
+    variables.put("customer", new Customer("Kermit", 3));
+    variableScope = new MapVariableScope(variables);
+
+    simpleCondition = expressionManager.createExpression("${amount > 1000}");
+    compoundCondition = expressionManager.createExpression("${approved && amount > 1000 && amount <= 5000}");
+    beanProperty = expressionManager.createExpression("${customer.name == 'Kermit' && customer.rating >= 2}");
+  }
+
+  /**
+   * Expressions are evaluated by the benchmark threads, which need the process
+   * engine configuration in their context.
+   */
+  @Setup(Level.Iteration)
+  public void setUpContext() {
+    Context.setProcessEngineConfiguration(processEngineConfiguration);
+  }
+
+  @TearDown(Level.Iteration)
+  public void removeContext() {
+    Context.removeProcessEngineConfiguration();
+  }
+
+  @Benchmark
+  public Object simpleCondition() {
+    return simpleCondition.getValue(variableScope);
+  }
+
+  @Benchmark
+  public Object compoundCondition() {
+    return compoundCondition.getValue(variableScope);
+  }
+
+  @Benchmark
+  public Object beanProperty() {
+    return beanProperty.getValue(variableScope);
+  }
+
+  @Benchmark
+  public Object createAndEvaluate() {
+    return expressionManager.createExpression("${amount > 1000}").getValue(variableScope);
+  }
+
+  public static class Customer implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    protected String name;
+    protected int rating;
+
+    public Customer(String name, int rating) {
+      this.name = name;
+      this.rating = rating;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public int getRating() {
+      return rating;
+    }
+  }
+
+}
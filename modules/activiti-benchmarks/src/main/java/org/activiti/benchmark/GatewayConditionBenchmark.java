@@ -0,0 +1,89 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.activiti.engine.delegate.Expression;
+import org.activiti.engine.impl.context.Context;
+import org.activiti.engine.impl.el.ExpressionManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Evaluates the outgoing sequence flow conditions of an exclusive gateway, the way
+ * a new execution arriving in the gateway does: the variable scope has no el
+ * context yet, so one is created for the first condition.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+public class GatewayConditionBenchmark extends AbstractProcessEngineBenchmark {
+
+  protected ExpressionManager expressionManager;
+  protected Map<String, Object> variables;
+  protected Expression[] conditions;
+
+  @Override
+  protected void initializeData() {
+    expressionManager = processEngineConfiguration.getExpressionManager();
+
+    variables = new HashMap<String, Object>();
+    variables.put("amount", 1500L);
+    variables.put("approved", Boolean.TRUE);
+    variables.put("customer", new ExpressionBenchmark.Customer("Kermit", 3));
+
+    conditions = new Expression[] {
+      expressionManager.createExpression("${amount < 1000}"),
+      expressionManager.createExpression("${amount >= 1000 && !approved}"),
+      expressionManager.createExpression("${approved && customer.rating >= 2}")
+    };
+  }
+
+  @Setup(Level.Iteration)
+  public void setUpContext() {
+    Context.setProcessEngineConfiguration(processEngineConfiguration);
+  }
+
+  @TearDown(Level.Iteration)
+  public void removeContext() {
+    Context.removeProcessEngineConfiguration();
+  }
+
+  /**
+   * Returns the index of the first outgoing sequence flow whose condition is true.
+   */
+  @Benchmark
+  public int selectOutgoingFlow() {
+    MapVariableScope execution = new MapVariableScope(variables);
+    for (int i = 0; i < conditions.length; i++) {
+      if (Boolean.TRUE.equals(conditions[i].getValue(execution))) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+}
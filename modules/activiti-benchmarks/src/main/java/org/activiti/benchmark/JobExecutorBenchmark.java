@@ -0,0 +1,59 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.activiti.engine.ProcessEngineConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how many async continuations per second the job executor works off:
+ * each invocation starts a batch of process instances with an async service task
+ * and waits until all their jobs are executed.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(3)
+public class JobExecutorBenchmark extends AbstractProcessEngineBenchmark {
+
+  protected static final int NR_OF_JOBS = 100;
+
+  @Override
+  protected void configure(ProcessEngineConfiguration configuration) {
+    // Row level locking, so starting process instances doesn't deadlock with the job executor
+    configuration.setJdbcUrl(configuration.getJdbcUrl() + ";MVCC=TRUE");
+    configuration.setJobExecutorActivate(true);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(NR_OF_JOBS)
+  public void asyncContinuations() throws InterruptedException {
+    for (int i = 0; i < NR_OF_JOBS; i++) {
+      runtimeService.startProcessInstanceByKey("async");
+    }
+    while (managementService.createJobQuery().count() > 0) {
+      Thread.sleep(1);
+    }
+  }
+
+}
@@ -0,0 +1,74 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.benchmark;
+
+import java.util.Map;
+
+import org.activiti.engine.EngineServices;
+import org.activiti.engine.delegate.DelegateExecution;
+
+/**
+ * Execution backed by a plain map of variables, to evaluate sequence flow
+ * conditions without a command context or database.
+ */
+public class MapDelegateExecution extends MapVariableScope implements DelegateExecution {
+
+  public MapDelegateExecution(Map<String, Object> variables) {
+    super(variables);
+  }
+
+  public String getId() {
+    return null;
+  }
+
+  public String getProcessInstanceId() {
+    return null;
+  }
+
+  public String getEventName() {
+    return null;
+  }
+
+  public String getBusinessKey() {
+    return null;
+  }
+
+  public String getProcessBusinessKey() {
+    return null;
+  }
+
+  public String getProcessDefinitionId() {
+    return null;
+  }
+
+  public String getParentId() {
+    return null;
+  }
+
+  public String getCurrentActivityId() {
+    return null;
+  }
+
+  public String getCurrentActivityName() {
+    return null;
+  }
+
+  public EngineServices getEngineServices() {
+    return null;
+  }
+
+  public String updateProcessBusinessKey(String bzKey) {
+    return null;
+  }
+
+}
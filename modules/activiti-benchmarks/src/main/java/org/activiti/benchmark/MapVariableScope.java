@@ -0,0 +1,53 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.activiti.engine.impl.el.NoExecutionVariableScope;
+
+/**
+ * Variable scope backed by a plain map, to evaluate expressions without
+ * a command context or database.
+ */
+public class MapVariableScope extends NoExecutionVariableScope {
+
+  protected Map<String, Object> variables = new HashMap<String, Object>();
+
+  public MapVariableScope(Map<String, Object> variables) {
+    this.variables.putAll(variables);
+  }
+
+  @Override
+  public Map<String, Object> getVariables() {
+    return variables;
+  }
+
+  @Override
+  public Object getVariable(String variableName) {
+    return variables.get(variableName);
+  }
+
+  @Override
+  public Set<String> getVariableNames() {
+    return variables.keySet();
+  }
+
+  @Override
+  public boolean hasVariable(String variableName) {
+    return variables.containsKey(variableName);
+  }
+
+}
@@ -0,0 +1,97 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.activiti.engine.runtime.Execution;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of joining the branches of a parallel gateway as the fan-out grows. Every branch waits 
+ * in a receive task and is signalled in its own transaction, so each arrival at the join 
+ * happens without the sibling executions being loaded. The score covers all arrivals of 
+ * one process instance: divide by the fan-out for the cost of a single arrival.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+public class ParallelGatewayJoinBenchmark extends AbstractProcessEngineBenchmark {
+
+  protected static final String PROCESS_KEY = "parallelGatewayJoin";
+
+  @Param({"2", "10", "50", "200"})
+  public int fanOut;
+
+  protected List<String> waitingExecutionIds;
+
+  @Override
+  protected void initializeData() {
+    repositoryService.createDeployment()
+      .addString(PROCESS_KEY + ".bpmn20.xml", createProcessXml(fanOut))
+      .deploy();
+  }
+
+  @Setup(Level.Invocation)
+  public void startProcessInstance() {
+    String processInstanceId = runtimeService.startProcessInstanceByKey(PROCESS_KEY).getId();
+    waitingExecutionIds = new ArrayList<String>();
+    for (Execution execution : runtimeService.createExecutionQuery().processInstanceId(processInstanceId).list()) {
+      if (execution.getActivityId() != null && execution.getActivityId().startsWith("wait")) {
+        waitingExecutionIds.add(execution.getId());
+      }
+    }
+  }
+
+  @Benchmark
+  public void join() {
+    for (String executionId : waitingExecutionIds) {
+      runtimeService.signal(executionId);
+    }
+  }
+
+  protected static String createProcessXml(int nrOfBranches) {
+    StringBuilder xml = new StringBuilder()
+      .append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+      .append("<definitions xmlns=\"http://www.omg.org/spec/BPMN/20100524/MODEL\" targetNamespace=\"Benchmarks\">\n")
+      .append("  <process id=\"").append(PROCESS_KEY).append("\">\n")
+      .append("    <startEvent id=\"theStart\" />\n")
+      .append("    <sequenceFlow id=\"toFork\" sourceRef=\"theStart\" targetRef=\"fork\" />\n")
+      .append("    <parallelGateway id=\"fork\" />\n");
+    for (int i = 0; i < nrOfBranches; i++) {
+      xml.append("    <sequenceFlow id=\"toWait").append(i).append("\" sourceRef=\"fork\" targetRef=\"wait").append(i).append("\" />\n")
+        .append("    <receiveTask id=\"wait").append(i).append("\" />\n")
+        .append("    <sequenceFlow id=\"toJoin").append(i).append("\" sourceRef=\"wait").append(i).append("\" targetRef=\"join\" />\n");
+    }
+    xml.append("    <parallelGateway id=\"join\" />\n")
+      .append("    <sequenceFlow id=\"toEnd\" sourceRef=\"join\" targetRef=\"theEnd\" />\n")
+      .append("    <endEvent id=\"theEnd\" />\n")
+      .append("  </process>\n")
+      .append("</definitions>\n");
+    return xml.toString();
+  }
+
+}
@@ -0,0 +1,73 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.benchmark;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.activiti.engine.runtime.ProcessInstance;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Starts a process instance of a representative model and drives it to the end
+ * by completing its user tasks.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+public class ProcessExecutionBenchmark extends AbstractProcessEngineBenchmark {
+
+  protected static final List<String> REVIEWERS = Arrays.asList("kermit", "gonzo", "fozzie", "piggy", "animal");
+
+  @Benchmark
+  public void linear() {
+    String processInstanceId = runtimeService.startProcessInstanceByKey("linear").getId();
+    completeTasks(processInstanceId);
+    completeTasks(processInstanceId);
+  }
+
+  @Benchmark
+  public void parallelGateway() {
+    String processInstanceId = runtimeService.startProcessInstanceByKey("parallelGateway").getId();
+    completeTasks(processInstanceId);
+  }
+
+  @Benchmark
+  public void multiInstance() {
+    Map<String, Object> variables = Collections.<String, Object>singletonMap("reviewers", REVIEWERS);
+    String processInstanceId = runtimeService.startProcessInstanceByKey("multiInstance", variables).getId();
+    completeTasks(processInstanceId);
+  }
+
+  @Benchmark
+  public void callActivity() {
+    Map<String, Object> variables = Collections.<String, Object>singletonMap("amount", 100L);
+    String processInstanceId = runtimeService.startProcessInstanceByKey("callActivity", variables).getId();
+    ProcessInstance subProcessInstance = runtimeService.createProcessInstanceQuery()
+      .superProcessInstanceId(processInstanceId)
+      .singleResult();
+    completeTasks(subProcessInstance.getId());
+  }
+
+}
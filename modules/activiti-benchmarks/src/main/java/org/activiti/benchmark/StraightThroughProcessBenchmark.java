@@ -0,0 +1,88 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.benchmark;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.activiti.engine.ProcessEngineConfiguration;
+import org.activiti.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Runs a process without wait states from start to end in one transaction: a parallel 
+ * gateway forks into service tasks that each set a local variable, followed by a join. 
+ * Only history has to be written, with or without transient executions.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+public class StraightThroughProcessBenchmark extends AbstractProcessEngineBenchmark {
+
+  protected static final String PROCESS_KEY = "straightThrough";
+
+  @Param({"4", "20"})
+  public int fanOut;
+
+  @Param({"false", "true"})
+  public boolean transientExecutions;
+
+  @Override
+  protected void configure(ProcessEngineConfiguration configuration) {
+    ((ProcessEngineConfigurationImpl) configuration).setEnableTransientExecutions(transientExecutions);
+  }
+
+  @Override
+  protected void initializeData() {
+    repositoryService.createDeployment()
+      .addString(PROCESS_KEY + ".bpmn20.xml", createProcessXml(fanOut))
+      .deploy();
+  }
+
+  @Benchmark
+  public void startToEnd() {
+    runtimeService.startProcessInstanceByKey(PROCESS_KEY, Collections.<String, Object>singletonMap("input", "value"));
+  }
+
+  protected static String createProcessXml(int nrOfBranches) {
+    StringBuilder xml = new StringBuilder()
+      .append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+      .append("<definitions xmlns=\"http://www.omg.org/spec/BPMN/20100524/MODEL\" ")
+      .append("xmlns:activiti=\"http://activiti.org/bpmn\" targetNamespace=\"Benchmarks\">\n")
+      .append("  <process id=\"").append(PROCESS_KEY).append("\">\n")
+      .append("    <startEvent id=\"theStart\" />\n")
+      .append("    <sequenceFlow id=\"toFork\" sourceRef=\"theStart\" targetRef=\"fork\" />\n")
+      .append("    <parallelGateway id=\"fork\" />\n");
+    for (int i = 0; i < nrOfBranches; i++) {
+      xml.append("    <sequenceFlow id=\"toService").append(i).append("\" sourceRef=\"fork\" targetRef=\"service").append(i).append("\" />\n")
+        .append("    <serviceTask id=\"service").append(i).append("\" activiti:expression=\"${execution.setVariableLocal('branch', input)}\" />\n")
+        .append("    <sequenceFlow id=\"toJoin").append(i).append("\" sourceRef=\"service").append(i).append("\" targetRef=\"join\" />\n");
+    }
+    xml.append("    <parallelGateway id=\"join\" />\n")
+      .append("    <sequenceFlow id=\"toEnd\" sourceRef=\"join\" targetRef=\"theEnd\" />\n")
+      .append("    <endEvent id=\"theEnd\" />\n")
+      .append("  </process>\n")
+      .append("</definitions>\n");
+    return xml.toString();
+  }
+
+}
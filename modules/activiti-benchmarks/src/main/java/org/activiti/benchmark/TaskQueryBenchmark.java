@@ -0,0 +1,96 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.activiti.engine.task.Task;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Typical task list queries against a runtime task table with a few thousand tasks.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+public class TaskQueryBenchmark extends AbstractProcessEngineBenchmark {
+
+  protected static final int NR_OF_TASKS = 2000;
+  protected static final int NR_OF_USERS = 20;
+  protected static final int NR_OF_GROUPS = 5;
+
+  @Override
+  protected void initializeData() {
+    for (int i = 0; i < NR_OF_TASKS; i++) {
+      Task task = taskService.newTask();
+      task.setName("task " + i);
+      task.setPriority(i % 100);
+      if (i % 2 == 0) {
+        task.setAssignee("user" + (i % NR_OF_USERS));
+      }
+      taskService.saveTask(task);
+      if (i % 2 == 1) {
+        taskService.addCandidateGroup(task.getId(), "group" + (i % NR_OF_GROUPS));
+      }
+      taskService.setVariableLocal(task.getId(), "customer", "customer" + (i % 50));
+    }
+  }
+
+  @Benchmark
+  public List<Task> assignee() {
+    return taskService.createTaskQuery()
+      .taskAssignee("user4")
+      .orderByTaskPriority().desc()
+      .listPage(0, 20);
+  }
+
+  @Benchmark
+  public List<Task> candidateGroup() {
+    return taskService.createTaskQuery()
+      .taskCandidateGroup("group3")
+      .orderByTaskCreateTime().asc()
+      .listPage(0, 20);
+  }
+
+  @Benchmark
+  public long countByCandidateGroup() {
+    return taskService.createTaskQuery()
+      .taskCandidateGroup("group3")
+      .count();
+  }
+
+  @Benchmark
+  public List<Task> variableValue() {
+    return taskService.createTaskQuery()
+      .taskVariableValueEquals("customer", "customer7")
+      .listPage(0, 20);
+  }
+
+  @Benchmark
+  public List<Task> includeTaskLocalVariables() {
+    return taskService.createTaskQuery()
+      .taskAssignee("user4")
+      .includeTaskLocalVariables()
+      .listPage(0, 20);
+  }
+
+}
@@ -0,0 +1,85 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Writes and reads process variables of the different variable types, including
+ * the serialization of java objects and byte arrays.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+public class VariableSerializationBenchmark extends AbstractProcessEngineBenchmark {
+
+  protected String processInstanceId;
+  protected HashMap<String, String> serializableValue;
+  protected byte[] bytesValue;
+
+  @Override
+  protected void initializeData() {
+    processInstanceId = runtimeService.startProcessInstanceByKey("linear").getId();
+
+    serializableValue = new HashMap<String, String>();
+    for (int i = 0; i < 20; i++) {
+      serializableValue.put("key" + i, "value" + i);
+    }
+    bytesValue = new byte[10 * 1024];
+
+    runtimeService.setVariable(processInstanceId, "serializable", serializableValue);
+  }
+
+  @Benchmark
+  public void setString() {
+    runtimeService.setVariable(processInstanceId, "string", "some string value");
+  }
+
+  @Benchmark
+  public void setLong() {
+    runtimeService.setVariable(processInstanceId, "long", 123456789L);
+  }
+
+  @Benchmark
+  public void setSerializable() {
+    runtimeService.setVariable(processInstanceId, "serializable", serializableValue);
+  }
+
+  @Benchmark
+  public void setBytes() {
+    runtimeService.setVariable(processInstanceId, "bytes", bytesValue);
+  }
+
+  @Benchmark
+  public Object getSerializable() {
+    return runtimeService.getVariable(processInstanceId, "serializable");
+  }
+
+  @Benchmark
+  public Map<String, Object> getAll() {
+    return runtimeService.getVariables(processInstanceId);
+  }
+
+}
@@ -1,5 +1,6 @@
 package org.activiti.rest.diagram.application;
 
+import org.activiti.rest.diagram.services.ProcessDefinitionActivityStatisticsResource;
 import org.activiti.rest.diagram.services.ProcessDefinitionDiagramLayoutResource;
 import org.activiti.rest.diagram.services.ProcessInstanceHighlightsResource;
 import org.restlet.routing.Router;
@@ -10,5 +11,6 @@ public class DiagramServicesInit {
     router.attach("/process-instance/{processInstanceId}/highlights", ProcessInstanceHighlightsResource.class);
     router.attach("/process-instance/{processInstanceId}/diagram-layout", ProcessDefinitionDiagramLayoutResource.class);
     router.attach("/process-definition/{processDefinitionId}/diagram-layout", ProcessDefinitionDiagramLayoutResource.class);
+    router.attach("/process-definition/{processDefinitionId}/activity-statistics", ProcessDefinitionActivityStatisticsResource.class);
   }
 }
@@ -0,0 +1,49 @@
+package org.activiti.rest.diagram.services;
+
+import java.util.List;
+
+import org.activiti.engine.ActivitiException;
+import org.activiti.engine.ManagementService;
+import org.activiti.engine.management.ActivityStatistics;
+import org.activiti.rest.common.api.ActivitiUtil;
+import org.activiti.rest.common.api.SecuredResource;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.codehaus.jackson.node.ArrayNode;
+import org.codehaus.jackson.node.ObjectNode;
+import org.restlet.resource.Get;
+
+/**
+ * Number of active executions, open tasks and failed jobs per activity of a process definition,
+ * eg. to render a heatmap on the process diagram.
+ */
+public class ProcessDefinitionActivityStatisticsResource extends SecuredResource {
+
+  private ManagementService managementService = ActivitiUtil.getManagementService();
+
+  @Get
+  public ObjectNode getActivityStatistics() {
+    String processDefinitionId = (String) getRequest().getAttributes().get("processDefinitionId");
+
+    if (processDefinitionId == null) {
+      throw new ActivitiException("No process definition id provided");
+    }
+
+    ObjectMapper objectMapper = new ObjectMapper();
+    ObjectNode responseJSON = objectMapper.createObjectNode();
+    responseJSON.put("processDefinitionId", processDefinitionId);
+
+    ArrayNode activitiesArray = objectMapper.createArrayNode();
+    List<ActivityStatistics> statistics = managementService.getActivityStatistics(processDefinitionId);
+    for (ActivityStatistics activityStatistics : statistics) {
+      ObjectNode activityJSON = objectMapper.createObjectNode();
+      activityJSON.put("activityId", activityStatistics.getActivityId());
+      activityJSON.put("executionCount", activityStatistics.getExecutionCount());
+      activityJSON.put("openTaskCount", activityStatistics.getOpenTaskCount());
+      activityJSON.put("failedJobCount", activityStatistics.getFailedJobCount());
+      activitiesArray.add(activityJSON);
+    }
+    responseJSON.put("activities", activitiesArray);
+
+    return responseJSON;
+  }
+}
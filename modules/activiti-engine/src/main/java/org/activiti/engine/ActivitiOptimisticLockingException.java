@@ -23,9 +23,28 @@ package org.activiti.engine;
 public class ActivitiOptimisticLockingException extends ActivitiException {
 
   private static final long serialVersionUID = 1L;
+  
+  protected Class<?> entityClass;
+  protected String entityId;
 
   public ActivitiOptimisticLockingException(String message) {
     super(message);
   }
+  
+  public ActivitiOptimisticLockingException(String message, Class<?> entityClass, String entityId) {
+    super(message);
+    this.entityClass = entityClass;
+    this.entityId = entityId;
+  }
+  
+  /** The class of the entity that was concurrently modified, if known. */
+  public Class<?> getEntityClass() {
+    return entityClass;
+  }
+  
+  /** The id of the entity that was concurrently modified, if known. */
+  public String getEntityId() {
+    return entityId;
+  }
 
 }
@@ -23,6 +23,8 @@ import org.activiti.engine.history.HistoricDetailQuery;
 import org.activiti.engine.history.HistoricIdentityLink;
 import org.activiti.engine.history.HistoricProcessInstance;
 import org.activiti.engine.history.HistoricProcessInstanceQuery;
+import org.activiti.engine.history.HistoricStatistics;
+import org.activiti.engine.history.HistoricStatisticsQuery;
 import org.activiti.engine.history.HistoricTaskInstance;
 import org.activiti.engine.history.HistoricTaskInstanceQuery;
 import org.activiti.engine.history.HistoricVariableInstance;
@@ -58,6 +60,12 @@ public interface HistoryService {
   /** Creates a new programmatic query to search for {@link HistoricTaskInstance}s. */
   HistoricTaskInstanceQuery createHistoricTaskInstanceQuery();
 
+  /** 
+   * Creates a new programmatic query for the pre-aggregated {@link HistoricStatistics}, 
+   * which are only maintained when enabled in the process engine configuration. 
+   */
+  HistoricStatisticsQuery createHistoricStatisticsQuery();
+
   /** Creates a new programmatic query to search for {@link HistoricDetail}s. */
   HistoricDetailQuery createHistoricDetailQuery();
 
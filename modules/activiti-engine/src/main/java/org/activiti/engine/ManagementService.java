@@ -13,11 +13,15 @@
 package org.activiti.engine;
 
 import java.sql.Connection;
+import java.util.Date;
+import java.util.List;
 import java.util.Map;
 
 import org.activiti.engine.impl.cmd.CustomSqlExecution;
 import org.activiti.engine.impl.interceptor.Command;
 import org.activiti.engine.impl.interceptor.CommandConfig;
+import org.activiti.engine.management.ActivityStatistics;
+import org.activiti.engine.management.Batch;
 import org.activiti.engine.management.TableMetaData;
 import org.activiti.engine.management.TablePage;
 import org.activiti.engine.management.TablePageQuery;
@@ -40,9 +44,19 @@ public interface ManagementService {
   /**
    * Get the mapping containing {table name, row count} entries of the
    * Activiti database schema.
+   * 
+   * When table row count estimates are enabled in the process engine configuration,
+   * the row counts are (cached) approximations taken from the database statistics.
    */
   Map<String, Long> getTableCount();
   
+  /**
+   * Get the mapping containing {table name, row count} entries of the
+   * Activiti database schema, counting all rows of every table, even when 
+   * table row count estimates are enabled.
+   */
+  Map<String, Long> getExactTableCount();
+  
   /**
    * Gets the table name (including any configured prefix) for an Activiti entity like Task, Execution or the like.
    */
@@ -60,6 +74,17 @@ public interface ManagementService {
    */
   TablePageQuery createTablePageQuery();
   
+  /**
+   * Returns, for every activity of the given process definition that has any, the number of 
+   * executions, open tasks and failed jobs over all running process instances. 
+   * The counts are grouped in the database, no process instances are fetched.
+   * 
+   * @param processDefinitionId id of the process definition, cannot be null.
+   * @return the statistics, ordered by activity id. Activities without executions, tasks 
+   *   or failed jobs are not included.
+   */
+  List<ActivityStatistics> getActivityStatistics(String processDefinitionId);
+  
   /**
    * Returns a new JobQuery implementation, that can be used
    * to dynamically query the jobs.
@@ -102,6 +127,121 @@ public interface ManagementService {
    * @throws ActivitiObjectNotFoundException when no job exists with the given id.
    */
   String getJobExceptionStacktrace(String jobId);
+  
+  /**
+   * Migrates the given process instances to the given version of their process definition, 
+   * the same way the SetProcessDefinitionVersionCmd migrates a single process instance. 
+   * The process instances are migrated asynchronously, in chunks that the job executors process in parallel.
+   * 
+   * @param processInstanceIds ids of the process instances, cannot be null.
+   * @param processDefinitionVersion the version to migrate to, must be 1 or higher.
+   * @return the batch, which can be used to follow the progress with {@link #getBatch(String)}.
+   */
+  Batch setProcessDefinitionVersionInBatch(List<String> processInstanceIds, int processDefinitionVersion);
+  
+  /**
+   * Migrates all process instances of the source process definition to the target process definition.
+   * 
+   * The migration is validated once, when the batch is created: every activity that the process instances 
+   * are in, or have a timer or event subscription for, must exist in the target process definition, either 
+   * with the same id or with the id it is mapped to. The process instances are then migrated asynchronously,
+   * in chunks that the job executors process in parallel. The executions, tasks, jobs, event subscriptions 
+   * and history of all process instances in a chunk are updated with one update statement per table. 
+   * Ended activity and task instances in the history keep their activity id. 
+   * 
+   * No migration logic is executed: the process instances simply continue in the target process definition, 
+   * so it is up to the caller to make sure that this is a valid state for them (see SetProcessDefinitionVersionCmd).
+   * 
+   * @param sourceProcessDefinitionId id of the process definition to migrate from, cannot be null.
+   * @param targetProcessDefinitionId id of the process definition to migrate to, cannot be null.
+   * @param activityMapping ids of activities in the source process definition mapped to the id of 
+   *   the corresponding activity in the target process definition, can be null when all ids are the same.
+   * @return the batch, which can be used to follow the progress with {@link #getBatch(String)}.
+   * @throws ActivitiObjectNotFoundException when one of the process definitions doesn't exist.
+   * @throws ActivitiException when process instances are in activities that don't exist in the target process definition.
+   */
+  Batch migrateProcessInstancesInBatch(String sourceProcessDefinitionId, String targetProcessDefinitionId, Map<String, String> activityMapping);
+  
+  /**
+   * Deletes the given process instances asynchronously, in chunks that the job executors process in parallel.
+   * 
+   * @param processInstanceIds ids of the process instances, cannot be null.
+   * @param deleteReason reason for deleting, can be null.
+   * @return the batch, which can be used to follow the progress with {@link #getBatch(String)}.
+   */
+  Batch deleteProcessInstancesInBatch(List<String> processInstanceIds, String deleteReason);
+  
+  /**
+   * Sets the number of retries of the given jobs asynchronously, in chunks that the job executors 
+   * process in parallel.
+   * 
+   * @param jobIds ids of the jobs, cannot be null.
+   * @param retries number of retries, cannot be negative.
+   * @return the batch, which can be used to follow the progress with {@link #getBatch(String)}.
+   */
+  Batch setJobRetriesInBatch(List<String> jobIds, int retries);
+  
+  /**
+   * Sets the number of retries of all jobs that have failed with an exception, asynchronously. 
+   * The jobs are selected when the batch is created.
+   * 
+   * @param retries number of retries, cannot be negative.
+   * @return the batch, which can be used to follow the progress with {@link #getBatch(String)}.
+   */
+  Batch setFailedJobRetriesInBatch(int retries);
+  
+  /**
+   * Creates a batch that applies the operation registered for the given type (see 
+   * ProcessEngineConfigurationImpl#setCustomBatchOperations) to every given item.
+   * 
+   * @param type the type of the batch, cannot be null.
+   * @param itemIds ids of the items, cannot be null.
+   * @param configuration passed to the operation for every item, can be null.
+   * @throws ActivitiIllegalArgumentException when no operation is registered for the given type.
+   */
+  Batch createBatch(String type, List<String> itemIds, String configuration);
+  
+  /**
+   * Returns the batch with the given id, including its progress, or null when no batch exists with the given id.
+   */
+  Batch getBatch(String batchId);
+  
+  /**
+   * Returns all batches, the most recently created first. Completed batches are kept until they are deleted.
+   */
+  List<Batch> getBatches();
+  
+  /**
+   * Deletes the given batch. Items that haven't been processed yet won't be processed anymore.
+   * @throws ActivitiObjectNotFoundException when no batch exists with the given id.
+   */
+  void deleteBatch(String batchId);
+  
+  /**
+   * Creates the missing monthly partitions of the history tables, up to and including the month 
+   * of the given date. Only available when the history tables are partitioned (see 
+   * {@link org.activiti.engine.impl.cfg.ProcessEngineConfigurationImpl#isDbHistoryPartitioned()}): 
+   * the partitions for the next months are also created when the process engine updates the schema.
+   * @return the number of partitions that were created.
+   * @throws ActivitiException when the history tables are not partitioned.
+   */
+  int createHistoryPartitions(Date until);
+  
+  /**
+   * Removes old history by dropping the monthly partitions of the history tables that only hold 
+   * process instances, activity instances, tasks, variables and details of process instances and 
+   * tasks that ended before the given date. 
+   * 
+   * Partitions are dropped per month, and only when all process instances and tasks that started in 
+   * the dropped months also ended in them, so the history of a process instance or task is never partly 
+   * dropped. A process instance or task that didn't end before the given date keeps the partitions from 
+   * the month of its start on, so the history dropped can be less than requested. The comments, 
+   * attachments, identity links and byte arrays of the dropped history are deleted as well.
+   * Only available when the history tables are partitioned.
+   * @return the number of partitions that were dropped.
+   * @throws ActivitiException when the history tables are not partitioned.
+   */
+  int dropHistoryPartitions(Date before);
 
   /** get the list of properties. */
   Map<String, String> getProperties();
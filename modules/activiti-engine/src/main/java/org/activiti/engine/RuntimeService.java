@@ -26,6 +26,8 @@ import org.activiti.engine.runtime.ExecutionQuery;
 import org.activiti.engine.runtime.NativeExecutionQuery;
 import org.activiti.engine.runtime.NativeProcessInstanceQuery;
 import org.activiti.engine.runtime.ProcessInstance;
+import org.activiti.engine.runtime.ProcessInstanceCreateRequest;
+import org.activiti.engine.runtime.ProcessInstanceCreateResult;
 import org.activiti.engine.runtime.ProcessInstanceQuery;
 import org.activiti.engine.task.IdentityLink;
 import org.activiti.engine.task.IdentityLinkType;
@@ -211,6 +213,43 @@ public interface RuntimeService {
    */
   ProcessInstance startProcessInstanceById(String processDefinitionId, String businessKey, Map<String, Object> variables);
 
+  /**
+   * Starts a process instance for each of the given requests. The process definition of 
+   * requests that refer to the same definition is only looked up once per chunk.
+   * 
+   * Same as {@link #startProcessInstances(List, int)} with the chunk size configured as 
+   * bulkOperationChunkSize on the process engine configuration. As described there, the 
+   * requests of a chunk with a failing request are executed again.
+   * 
+   * @param requests
+   *          the process instances to start, cannot be null.
+   * @return one result per request, in the order of the requests.
+   */
+  List<ProcessInstanceCreateResult> startProcessInstances(List<ProcessInstanceCreateRequest> requests);
+
+  /**
+   * Starts a process instance for each of the given requests, in one transaction per chunk of
+   * at most chunkSize requests. 
+   * 
+   * When a request fails, the transaction of its chunk is rolled back and the requests of that 
+   * chunk are started again, each in its own transaction. A failing request therefore does not 
+   * prevent the others from being started: its result holds the exception instead of a process 
+   * instance. 
+   * 
+   * Note that the requests of such a chunk are executed twice. Only the database changes of the 
+   * first execution are rolled back: everything else that happened up to the failure, like service 
+   * tasks calling other systems, mails being sent or non-transactional listeners, happens again. 
+   * Use a chunk size of 1 when the processes have such side effects before their first wait state.
+   * 
+   * @param requests
+   *          the process instances to start, cannot be null.
+   * @param chunkSize
+   *          the maximum number of process instances started in one transaction, 
+   *          0 or less for the bulkOperationChunkSize of the process engine configuration.
+   * @return one result per request, in the order of the requests.
+   */
+  List<ProcessInstanceCreateResult> startProcessInstances(List<ProcessInstanceCreateRequest> requests, int chunkSize);
+
   /**
    * <p>
    * Signals the process engine that a message is received and starts a new
@@ -327,6 +366,40 @@ public interface RuntimeService {
    *           when no process instance is found with the given id.
    */
   void deleteProcessInstance(String processInstanceId, String deleteReason);
+  
+  /**
+   * Deletes the given process instances, their sub process instances and all their history.
+   * 
+   * Same as {@link #deleteProcessInstancesWithHistory(List, int)} with the chunk size configured 
+   * as bulkCascadeDeleteChunkSize on the process engine configuration.
+   * 
+   * @param processInstanceIds
+   *          ids of the process instances to delete, cannot be null.
+   */
+  void deleteProcessInstancesWithHistory(List<String> processInstanceIds);
+  
+  /**
+   * Deletes the given process instances, their sub process instances and all their history
+   * with one set-based statement per table, in chunks that are each deleted in their own transaction.
+   * 
+   * Unlike {@link #deleteProcessInstance(String, String)}, no execution or task is loaded: no 
+   * listeners are invoked, the process instances don't get a delete reason in the history (as it is 
+   * deleted as well) and instead of an event per entity, one 
+   * {@link ActivitiEventType#PROCESS_INSTANCES_DELETED} event is dispatched per chunk.
+   * 
+   * @param processInstanceIds
+   *          ids of the root process instances to delete, cannot be null. Process instances 
+   *          that already ended are deleted from the history.
+   * @param chunkSize
+   *          the maximum number of process instances deleted in one transaction, 
+   *          0 or less for the bulkCascadeDeleteChunkSize of the process engine configuration.
+   * @throws ActivitiObjectNotFoundException
+   *           when no process instance is found for one of the ids of a chunk. 
+   *           The chunks before it are deleted.
+   * @throws ActivitiIllegalArgumentException
+   *           when one of the ids belongs to a sub process instance.
+   */
+  void deleteProcessInstancesWithHistory(List<String> processInstanceIds, int chunkSize);
 
   /**
    * Finds the activity ids for all executions that are waiting in activities.
@@ -457,6 +530,32 @@ public interface RuntimeService {
    */
   Map<String, Object> getVariablesLocal(String executionId, Collection<String> variableNames);
 
+  /**
+   * The variables of many executions at once, taking all variables into account
+   * which are visible from each execution scope (including parent scopes). The
+   * variables of all executions are fetched with a few set-based queries instead
+   * of a query per execution.
+   * 
+   * @param executionIds
+   *          ids of the executions, cannot be null.
+   * @param variableNames
+   *          the collection of variable names that should be retrieved, or null
+   *          (or empty) to retrieve all variables.
+   * @return the variables per execution id, in the order of the given execution
+   *         ids.
+   * @throws ActivitiObjectNotFoundException
+   *           when one of the executions doesn't exist.
+   */
+  Map<String, Map<String, Object>> getVariablesForExecutions(Collection<String> executionIds, Collection<String> variableNames);
+
+  /**
+   * The variables of many executions at once, only taking the execution scopes
+   * themselves into account, not looking in outer scopes.
+   * 
+   * @see #getVariablesForExecutions(Collection, Collection)
+   */
+  Map<String, Map<String, Object>> getVariablesLocalForExecutions(Collection<String> executionIds, Collection<String> variableNames);
+
   /**
    * The variable value. Searching for the variable is done in all scopes that
    * are visible to the given execution (including parent scopes). Returns null
@@ -836,6 +935,69 @@ public interface RuntimeService {
    */
   void messageEventReceivedAsync(String messageName, String executionId);
 
+  /**
+   * Correlates a message to the process instance with the given business key.
+   * 
+   * When an execution of that process instance has a subscription to the message, 
+   * the message is delivered to it, as with {@link #messageEventReceived(String, String)}. 
+   * Otherwise, a new process instance with the given business key is started by the message, 
+   * as with {@link #startProcessInstanceByMessage(String, String)}.
+   * 
+   * @param messageName
+   *          the name of the message event
+   * @param businessKey
+   *          the business key of the process instance the message belongs to
+   * @return the process instance that received the message or was started by it
+   * @throws ActivitiException
+   *           if more than one execution of the process instances with the business key is
+   *           subscribed to the message, or if the subscribed execution is suspended
+   * @throws ActivitiObjectNotFoundException
+   *           if no execution is subscribed to the message and no process definition 
+   *           can be started by it
+   */
+  ProcessInstance correlateMessage(String messageName, String businessKey);
+
+  /**
+   * Same as {@link #correlateMessage(String, String)}, the given variables are set on the
+   * execution receiving the message or on the process instance started by it.
+   * 
+   * @param messageName
+   *          the name of the message event
+   * @param businessKey
+   *          the business key of the process instance the message belongs to
+   * @param processVariables
+   *          the variables to pass, can be null.
+   * @return the process instance that received the message or was started by it
+   */
+  ProcessInstance correlateMessage(String messageName, String businessKey, Map<String, Object> processVariables);
+
+  /**
+   * Correlates a message to the process instances with the given business keys, in one transaction. 
+   * The subscriptions of all business keys are looked up at once, each business key is then 
+   * handled as with {@link #correlateMessage(String, String, Map)}.
+   * 
+   * @param messageName
+   *          the name of the message event
+   * @param processVariablesByBusinessKey
+   *          the variables to pass (can be null) per business key
+   * @return the process instances that received the message or were started by it, in the 
+   *          iteration order of the given business keys
+   */
+  List<ProcessInstance> correlateMessages(String messageName, Map<String, Map<String, Object>> processVariablesByBusinessKey);
+  
+  /**
+   * Similar to {@link #correlateMessage(String, String, Map)}, but using a specific tenant identifier: 
+   * only process instances of that tenant receive the message, and only a process definition of 
+   * that tenant is started by it.
+   */
+  ProcessInstance correlateMessageAndTenantId(String messageName, String businessKey, Map<String, Object> processVariables, String tenantId);
+  
+  /**
+   * Similar to {@link #correlateMessages(String, Map)}, but using a specific tenant identifier, 
+   * see {@link #correlateMessageAndTenantId(String, String, Map, String)}.
+   */
+  List<ProcessInstance> correlateMessagesAndTenantId(String messageName, Map<String, Map<String, Object>> processVariablesByBusinessKey, String tenantId);
+
   /**
    * Adds an event-listener which will be notified of ALL events by the
    * dispatcher.
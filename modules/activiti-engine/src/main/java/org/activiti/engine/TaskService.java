@@ -27,6 +27,7 @@ import org.activiti.engine.task.IdentityLink;
 import org.activiti.engine.task.IdentityLinkType;
 import org.activiti.engine.task.NativeTaskQuery;
 import org.activiti.engine.task.Task;
+import org.activiti.engine.task.TaskOperationResult;
 import org.activiti.engine.task.TaskQuery;
 
 /** Service which provides access to {@link Task} and form related operations.
@@ -201,6 +202,54 @@ public interface TaskService {
    */
   void complete(String taskId, Map<String, Object> variables, boolean localScope);
 
+  /**
+   * Completes the given tasks.
+   * Same as {@link #completeTasks(List, Map, int)} without variables and with the chunk size 
+   * configured as bulkOperationChunkSize on the process engine configuration.
+   * @param taskIds the ids of the tasks to complete, cannot be null.
+   * @return one result per task, in the order of the task ids.
+   */
+  List<TaskOperationResult> completeTasks(List<String> taskIds);
+
+  /**
+   * Completes the given tasks, in one transaction per chunk of at most chunkSize tasks.
+   * The tasks of a chunk, their executions and identity links are fetched at once.
+   * 
+   * When a task can't be completed, the transaction of its chunk is rolled back and the tasks of 
+   * that chunk are completed again, each in its own transaction. The other tasks are therefore 
+   * still completed: the result of the failing task holds the exception. Note that everything 
+   * besides the database changes that happened before the failure, like service tasks calling 
+   * other systems, happens again.
+   * @param taskIds the ids of the tasks to complete, cannot be null.
+   * @param variables task parameters, set on every task as with {@link #complete(String, Map)}. May be null or empty.
+   * @param chunkSize the maximum number of tasks completed in one transaction, 
+   * 0 or less for the bulkOperationChunkSize of the process engine configuration.
+   * @return one result per task, in the order of the task ids.
+   */
+  List<TaskOperationResult> completeTasks(List<String> taskIds, Map<String, Object> variables, int chunkSize);
+
+  /**
+   * Claims the given tasks for the given user.
+   * Same as {@link #claimTasks(List, String, int)} with the chunk size configured 
+   * as bulkOperationChunkSize on the process engine configuration.
+   * @param taskIds the ids of the tasks to claim, cannot be null.
+   * @param userId user that claims the tasks. When userId is null the tasks are unclaimed.
+   * @return one result per task, in the order of the task ids.
+   */
+  List<TaskOperationResult> claimTasks(List<String> taskIds, String userId);
+
+  /**
+   * Claims the given tasks for the given user as with {@link #claim(String, String)}, 
+   * in one transaction per chunk of at most chunkSize tasks. Failures are isolated 
+   * per task as with {@link #completeTasks(List, Map, int)}.
+   * @param taskIds the ids of the tasks to claim, cannot be null.
+   * @param userId user that claims the tasks. When userId is null the tasks are unclaimed.
+   * @param chunkSize the maximum number of tasks claimed in one transaction, 
+   * 0 or less for the bulkOperationChunkSize of the process engine configuration.
+   * @return one result per task, in the order of the task ids.
+   */
+  List<TaskOperationResult> claimTasks(List<String> taskIds, String userId, int chunkSize);
+
   /**
    * Changes the assignee of the given task to the given userId.
    * No check is done whether the user is known by the identity component.
@@ -371,6 +420,19 @@ public interface TaskService {
 
   /** get a variable on a task */
   Map<String, Object> getVariablesLocal(String taskId, Collection<String> variableNames);
+
+  /** get the variables of many tasks at once, searching in the task scope and if available also the execution scopes.
+   * The variables of all tasks are fetched with a few set-based queries instead of a query per task, 
+   * which makes this the preferred way to show variables in a task list.
+   * @param taskIds the ids of the tasks, cannot be null. 
+   * @param variableNames the names of the variables to fetch, or null (or empty) to fetch all variables.
+   * @return the variables per task id, in the order of the given task ids.
+   * @throws ActivitiObjectNotFoundException when one of the tasks doesn't exist. */
+  Map<String, Map<String, Object>> getVariablesForTasks(Collection<String> taskIds, Collection<String> variableNames);
+
+  /** get the variables of many tasks at once, searching only in the task scope.
+   * @see #getVariablesForTasks(Collection, Collection) */
+  Map<String, Map<String, Object>> getVariablesLocalForTasks(Collection<String> taskIds, Collection<String> variableNames);
   
   /**
    * Removes the variable from the task.
@@ -176,7 +176,26 @@ public enum ActivitiEventType {
 	 * be dispatched due to possible performance reasons. The event is dispatched before the memberships are deleted,
 	 * so they can still be accessed in the dispatch method of the listener.
 	 */
-	MEMBERSHIPS_DELETED;
+	MEMBERSHIPS_DELETED,
+	
+	/**
+	 * Process instances, together with their sub process instances and history, have been deleted at once 
+	 * with set-based statements. No individual {@link #ENTITY_DELETED} events are dispatched for the deleted 
+	 * process instances, executions, tasks, variables, jobs and identity links.
+	 */
+	PROCESS_INSTANCES_DELETED,
+	
+	/**
+	 * The process instances of a process definition have been suspended at once with set-based statements,
+	 * together with their executions and tasks. No individual {@link #ENTITY_SUSPENDED} events are dispatched.
+	 */
+	PROCESS_INSTANCES_SUSPENDED,
+	
+	/**
+	 * The process instances of a process definition have been activated at once with set-based statements,
+	 * together with their executions and tasks. No individual {@link #ENTITY_ACTIVATED} events are dispatched.
+	 */
+	PROCESS_INSTANCES_ACTIVATED;
 	
 	public static final ActivitiEventType[] EMPTY_ARRAY =  new ActivitiEventType[] {};
 	
@@ -0,0 +1,26 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.engine.delegate.event;
+
+import java.util.List;
+
+/**
+ * An event related to many process instances at once, e.g. when they are deleted in bulk.
+ */
+public interface ActivitiProcessInstancesEvent extends ActivitiEvent {
+
+	/**
+	 * @return ids of the related process instances.
+	 */
+	List<String> getProcessInstanceIds();
+}
@@ -12,6 +12,8 @@
  */
 package org.activiti.engine.delegate.event.impl;
 
+import java.util.List;
+
 import org.activiti.engine.delegate.DelegateExecution;
 import org.activiti.engine.delegate.event.ActivitiActivityEvent;
 import org.activiti.engine.delegate.event.ActivitiEntityEvent;
@@ -21,6 +23,7 @@ import org.activiti.engine.delegate.event.ActivitiEventType;
 import org.activiti.engine.delegate.event.ActivitiExceptionEvent;
 import org.activiti.engine.delegate.event.ActivitiMembershipEvent;
 import org.activiti.engine.delegate.event.ActivitiMessageEvent;
+import org.activiti.engine.delegate.event.ActivitiProcessInstancesEvent;
 import org.activiti.engine.delegate.event.ActivitiSignalEvent;
 import org.activiti.engine.delegate.event.ActivitiVariableEvent;
 import org.activiti.engine.impl.context.Context;
@@ -177,6 +180,13 @@ public class ActivitiEventBuilder {
 		return newEvent;
 	}
 	
+	public static ActivitiProcessInstancesEvent createProcessInstancesEvent(ActivitiEventType type, String processDefinitionId, List<String> processInstanceIds) {
+		ActivitiProcessInstancesEventImpl newEvent = new ActivitiProcessInstancesEventImpl(type);
+		newEvent.setProcessDefinitionId(processDefinitionId);
+		newEvent.setProcessInstanceIds(processInstanceIds);
+		return newEvent;
+	}
+	
 	protected static void populateEventWithCurrentContext(ActivitiEventImpl event) {
 		boolean extractedFromContext = false;
 		if(Context.isExecutionContextActive()) {
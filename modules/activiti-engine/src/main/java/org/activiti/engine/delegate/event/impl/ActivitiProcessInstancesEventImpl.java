@@ -0,0 +1,38 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.engine.delegate.event.impl;
+
+import java.util.List;
+
+import org.activiti.engine.delegate.event.ActivitiEventType;
+import org.activiti.engine.delegate.event.ActivitiProcessInstancesEvent;
+
+/**
+ * Implementation of {@link ActivitiProcessInstancesEvent}.
+ */
+public class ActivitiProcessInstancesEventImpl extends ActivitiEventImpl implements ActivitiProcessInstancesEvent {
+
+	protected List<String> processInstanceIds;
+	
+	public ActivitiProcessInstancesEventImpl(ActivitiEventType type) {
+	  super(type);
+  }
+	
+	public void setProcessInstanceIds(List<String> processInstanceIds) {
+	  this.processInstanceIds = processInstanceIds;
+  }
+	
+	public List<String> getProcessInstanceIds() {
+	  return processInstanceIds;
+  }
+}
@@ -0,0 +1,60 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.engine.history;
+
+import java.util.Date;
+import java.util.SortedMap;
+
+/**
+ * Number and duration of the process instances, activity instances or tasks of a process 
+ * definition that ended within a period (of one hour), as aggregated by the engine 
+ * when historic statistics are enabled in the process engine configuration.
+ * 
+ * Unlike the {@link HistoricProcessInstance}s and friends, the statistics are not removed
+ * when history is deleted: only undeploying the process definition with cascade removes them.
+ */
+public interface HistoricStatistics {
+
+  String TYPE_PROCESS_INSTANCE = "process-instance";
+  String TYPE_ACTIVITY = "activity";
+  String TYPE_TASK = "task";
+
+  /** The process definition the process instances, activities or tasks belong to. */
+  String getProcessDefinitionId();
+
+  /** One of {@link #TYPE_PROCESS_INSTANCE}, {@link #TYPE_ACTIVITY} or {@link #TYPE_TASK}. */
+  String getType();
+
+  /** The activity id, or the task definition key for tasks. Null for process instances. */
+  String getActivityId();
+
+  /** Start of the period, or null when the periods are aggregated. */
+  Date getPeriod();
+
+  /** Number of process instances, activities or tasks that ended. */
+  long getCount();
+
+  /** Sum of the durations in milliseconds. */
+  long getTotalDuration();
+
+  /** Average duration in milliseconds. */
+  long getAverageDuration();
+
+  /**
+   * Maps the (exclusive) upper bound of each duration range in milliseconds to the number
+   * of process instances, activities or tasks that took that long. The ranges double in size:
+   * below 1 second, below 2 seconds, below 4 seconds, ... Only non-empty ranges are included.
+   */
+  SortedMap<Long, Long> getDurationHistogram();
+
+}
@@ -0,0 +1,61 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.engine.history;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Allows to query the {@link HistoricStatistics}. The statistics are pre-aggregated per
+ * period, so the cost of a query depends on the number of periods and not on the
+ * number of historic process instances, activities or tasks.
+ */
+public interface HistoricStatisticsQuery {
+
+  /** Only select statistics of the given process definition. */
+  HistoricStatisticsQuery processDefinitionId(String processDefinitionId);
+
+  /** Only select statistics of the process definitions with the given key (all versions). */
+  HistoricStatisticsQuery processDefinitionKey(String processDefinitionKey);
+
+  /** Only select statistics of ended process instances. */
+  HistoricStatisticsQuery processInstances();
+
+  /** Only select statistics of ended activities. */
+  HistoricStatisticsQuery activities();
+
+  /** Only select statistics of ended tasks. */
+  HistoricStatisticsQuery tasks();
+
+  /** Only select statistics of the activity with the given id (or tasks with the given task definition key). */
+  HistoricStatisticsQuery activityId(String activityId);
+
+  /** Only select statistics of periods starting on or after the given date. */
+  HistoricStatisticsQuery periodStartAfter(Date date);
+
+  /** Only select statistics of periods starting before the given date. */
+  HistoricStatisticsQuery periodStartBefore(Date date);
+
+  /** 
+   * Aggregates the selected periods: one {@link HistoricStatistics} is returned per 
+   * process definition, type and activity, without {@link HistoricStatistics#getPeriod() period}.
+   */
+  HistoricStatisticsQuery aggregatePeriods();
+
+  /** 
+   * Executes the query. The results are ordered by process definition id, type,
+   * activity id and period. 
+   */
+  List<HistoricStatistics> list();
+
+}
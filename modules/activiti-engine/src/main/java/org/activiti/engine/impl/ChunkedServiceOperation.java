@@ -0,0 +1,89 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.engine.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.activiti.engine.impl.interceptor.Command;
+import org.activiti.engine.impl.interceptor.CommandContext;
+import org.activiti.engine.impl.interceptor.CommandExecutor;
+import org.activiti.engine.impl.util.CollectionUtil;
+
+/**
+ * Executes a bulk operation of a service in chunks of items, each chunk in its own transaction.
+ * 
+ * When a chunk fails, its transaction is rolled back and its items are executed again one by one, 
+ * each in its own transaction, so a failing item doesn't prevent the others from being executed:
+ * every item gets a result of its own. The other items of a failing chunk are thus executed twice.
+ */
+public abstract class ChunkedServiceOperation<T, R> {
+
+  protected CommandExecutor commandExecutor;
+  
+  public ChunkedServiceOperation(CommandExecutor commandExecutor) {
+    this.commandExecutor = commandExecutor;
+  }
+  
+  /**
+   * @param chunkSize the maximum number of items executed in one transaction, 
+   * 0 or less for the bulkOperationChunkSize of the process engine configuration.
+   * @return one result per item, in the order of the items.
+   */
+  public List<R> execute(List<T> items, int chunkSize) {
+    if (chunkSize <= 0) {
+      chunkSize = getDefaultChunkSize();
+    }
+    List<R> results = new ArrayList<R>(items.size());
+    for (List<T> chunk : CollectionUtil.partition(items, chunkSize)) {
+      results.addAll(executeChunk(chunk));
+    }
+    return results;
+  }
+  
+  protected List<R> executeChunk(List<T> chunk) {
+    try {
+      return executeInTransaction(chunk);
+      
+    } catch (RuntimeException e) {
+      if (chunk.size() == 1) {
+        return Collections.singletonList(createFailedResult(chunk.get(0), e));
+      }
+      // The whole chunk was rolled back: execute the items one by one to isolate the failing ones
+      List<R> results = new ArrayList<R>(chunk.size());
+      for (T item : chunk) {
+        results.addAll(executeChunk(Collections.singletonList(item)));
+      }
+      return results;
+    }
+  }
+  
+  protected int getDefaultChunkSize() {
+    // the configuration is only reachable from within a command
+    return commandExecutor.execute(new Command<Integer>() {
+      public Integer execute(CommandContext commandContext) {
+        return Math.max(commandContext.getProcessEngineConfiguration().getBulkOperationChunkSize(), 1);
+      }
+    });
+  }
+  
+  /**
+   * Executes the items of the chunk in one transaction. 
+   * @return one result per item, in the order of the items.
+   */
+  protected abstract List<R> executeInTransaction(List<T> chunk);
+  
+  protected abstract R createFailedResult(T item, RuntimeException exception);
+  
+}
@@ -53,6 +53,7 @@ public class HistoricProcessInstanceQueryImpl extends AbstractVariableQueryImpl<
   protected String tenantId;
   protected String tenantIdLike;
   protected boolean withoutTenantId;
+  protected boolean historyPartitioned;
   
   public HistoricProcessInstanceQueryImpl() {
   }
@@ -219,6 +220,7 @@ public class HistoricProcessInstanceQueryImpl extends AbstractVariableQueryImpl<
   public long executeCount(CommandContext commandContext) {
     checkQueryOk();
     ensureVariablesInitialized();
+    historyPartitioned = commandContext.getProcessEngineConfiguration().isDbHistoryPartitioned();
     return commandContext
       .getHistoricProcessInstanceEntityManager()
       .findHistoricProcessInstanceCountByQueryCriteria(this);
@@ -227,6 +229,7 @@ public class HistoricProcessInstanceQueryImpl extends AbstractVariableQueryImpl<
   public List<HistoricProcessInstance> executeList(CommandContext commandContext, Page page) {
     checkQueryOk();
     ensureVariablesInitialized();
+    historyPartitioned = commandContext.getProcessEngineConfiguration().isDbHistoryPartitioned();
     if (includeProcessVariables) {
       return commandContext
           .getHistoricProcessInstanceEntityManager()
@@ -287,6 +290,28 @@ public class HistoricProcessInstanceQueryImpl extends AbstractVariableQueryImpl<
     return involvedUser;
   }
   
+  /**
+   * Returns the latest start time of the process instances that can match the criteria on the end time, 
+   * when the history tables are partitioned on the start time: passed to the query so the database 
+   * only reads the partitions up to that time. Returns null when there is no such bound.
+   */
+  public Date getPartitionStartTimeUpperBound() {
+    if (!historyPartitioned) {
+      return null;
+    }
+    Date upperBound = null;
+    for (Date finishedBeforeDate : new Date[] {finishedBefore, finishDateBy, finishDateOnEnd}) {
+      if (finishedBeforeDate != null && (upperBound == null || finishedBeforeDate.before(upperBound))) {
+        upperBound = finishedBeforeDate;
+      }
+    }
+    if (upperBound != null && startedBefore != null && !startedBefore.after(upperBound)) {
+      // already bounded by the start time criteria
+      return null;
+    }
+    return upperBound;
+  }
+  
   // below is deprecated and to be removed in 5.12
   
   protected Date startDateBy;
@@ -0,0 +1,148 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.engine.impl;
+
+import java.io.Serializable;
+import java.util.Date;
+import java.util.List;
+
+import org.activiti.engine.ActivitiIllegalArgumentException;
+import org.activiti.engine.history.HistoricStatistics;
+import org.activiti.engine.history.HistoricStatisticsQuery;
+import org.activiti.engine.impl.interceptor.Command;
+import org.activiti.engine.impl.interceptor.CommandContext;
+import org.activiti.engine.impl.interceptor.CommandExecutor;
+
+
+public class HistoricStatisticsQueryImpl implements HistoricStatisticsQuery, Command<List<HistoricStatistics>>, Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  transient CommandExecutor commandExecutor;
+
+  protected String processDefinitionId;
+  protected String processDefinitionKey;
+  protected String type;
+  protected String activityId;
+  protected Date periodStartAfter;
+  protected Date periodStartBefore;
+  protected boolean aggregatePeriods;
+
+  public HistoricStatisticsQueryImpl() {
+  }
+
+  public HistoricStatisticsQueryImpl(CommandExecutor commandExecutor) {
+    this.commandExecutor = commandExecutor;
+  }
+
+  public HistoricStatisticsQueryImpl processDefinitionId(String processDefinitionId) {
+    if (processDefinitionId == null) {
+      throw new ActivitiIllegalArgumentException("Process definition id is null");
+    }
+    this.processDefinitionId = processDefinitionId;
+    return this;
+  }
+
+  public HistoricStatisticsQueryImpl processDefinitionKey(String processDefinitionKey) {
+    if (processDefinitionKey == null) {
+      throw new ActivitiIllegalArgumentException("Process definition key is null");
+    }
+    this.processDefinitionKey = processDefinitionKey;
+    return this;
+  }
+
+  public HistoricStatisticsQueryImpl processInstances() {
+    this.type = HistoricStatistics.TYPE_PROCESS_INSTANCE;
+    return this;
+  }
+
+  public HistoricStatisticsQueryImpl activities() {
+    this.type = HistoricStatistics.TYPE_ACTIVITY;
+    return this;
+  }
+
+  public HistoricStatisticsQueryImpl tasks() {
+    this.type = HistoricStatistics.TYPE_TASK;
+    return this;
+  }
+
+  public HistoricStatisticsQueryImpl activityId(String activityId) {
+    if (activityId == null) {
+      throw new ActivitiIllegalArgumentException("Activity id is null");
+    }
+    this.activityId = activityId;
+    return this;
+  }
+
+  public HistoricStatisticsQueryImpl periodStartAfter(Date date) {
+    if (date == null) {
+      throw new ActivitiIllegalArgumentException("Date is null");
+    }
+    this.periodStartAfter = date;
+    return this;
+  }
+
+  public HistoricStatisticsQueryImpl periodStartBefore(Date date) {
+    if (date == null) {
+      throw new ActivitiIllegalArgumentException("Date is null");
+    }
+    this.periodStartBefore = date;
+    return this;
+  }
+
+  public HistoricStatisticsQueryImpl aggregatePeriods() {
+    this.aggregatePeriods = true;
+    return this;
+  }
+
+  public List<HistoricStatistics> list() {
+    return commandExecutor.execute(this);
+  }
+
+  public List<HistoricStatistics> execute(CommandContext commandContext) {
+    return commandContext
+      .getHistoricStatisticsEntityManager()
+      .findHistoricStatisticsByQueryCriteria(this);
+  }
+
+  // getters //////////////////////////////////////////////////////////////////
+
+  public String getProcessDefinitionId() {
+    return processDefinitionId;
+  }
+
+  public String getProcessDefinitionKey() {
+    return processDefinitionKey;
+  }
+
+  public String getType() {
+    return type;
+  }
+
+  public String getActivityId() {
+    return activityId;
+  }
+
+  public Date getPeriodStartAfter() {
+    return periodStartAfter;
+  }
+
+  public Date getPeriodStartBefore() {
+    return periodStartBefore;
+  }
+
+  public boolean isAggregatePeriods() {
+    return aggregatePeriods;
+  }
+
+}
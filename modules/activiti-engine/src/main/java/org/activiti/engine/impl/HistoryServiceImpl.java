@@ -21,6 +21,7 @@ import org.activiti.engine.history.HistoricActivityInstanceQuery;
 import org.activiti.engine.history.HistoricDetailQuery;
 import org.activiti.engine.history.HistoricIdentityLink;
 import org.activiti.engine.history.HistoricProcessInstanceQuery;
+import org.activiti.engine.history.HistoricStatisticsQuery;
 import org.activiti.engine.history.HistoricTaskInstanceQuery;
 import org.activiti.engine.history.HistoricVariableInstanceQuery;
 import org.activiti.engine.history.NativeHistoricActivityInstanceQuery;
@@ -52,6 +53,10 @@ public class HistoryServiceImpl extends ServiceImpl implements HistoryService {
     return new HistoricTaskInstanceQueryImpl(commandExecutor);
   }
 
+  public HistoricStatisticsQuery createHistoricStatisticsQuery() {
+    return new HistoricStatisticsQueryImpl(commandExecutor);
+  }
+
   public HistoricDetailQuery createHistoricDetailQuery() {
     return new HistoricDetailQueryImpl(commandExecutor);
   }
@@ -14,16 +14,27 @@ package org.activiti.engine.impl;
 
 import java.lang.reflect.ParameterizedType;
 import java.sql.Connection;
+import java.util.Date;
+import java.util.List;
 import java.util.Map;
 
 import org.activiti.engine.ActivitiIllegalArgumentException;
 import org.activiti.engine.ManagementService;
+import org.activiti.engine.impl.cmd.CreateBatchCmd;
+import org.activiti.engine.impl.cmd.CreateFailedJobRetriesBatchCmd;
+import org.activiti.engine.impl.cmd.CreateHistoryPartitionsCmd;
+import org.activiti.engine.impl.cmd.CreateProcessInstanceMigrationBatchCmd;
 import org.activiti.engine.impl.cmd.CustomSqlExecution;
+import org.activiti.engine.impl.cmd.DeleteBatchCmd;
 import org.activiti.engine.impl.cmd.DeleteJobCmd;
+import org.activiti.engine.impl.cmd.DropHistoryPartitionsCmd;
 import org.activiti.engine.impl.cmd.ExecuteCustomSqlCmd;
 import org.activiti.engine.impl.cmd.ExecuteJobsCmd;
 import org.activiti.engine.impl.cmd.GetJobExceptionStacktraceCmd;
 import org.activiti.engine.impl.cmd.GetPropertiesCmd;
+import org.activiti.engine.impl.cmd.GetActivityStatisticsCmd;
+import org.activiti.engine.impl.cmd.GetBatchCmd;
+import org.activiti.engine.impl.cmd.GetBatchesCmd;
 import org.activiti.engine.impl.cmd.GetTableCountCmd;
 import org.activiti.engine.impl.cmd.GetTableMetaDataCmd;
 import org.activiti.engine.impl.cmd.GetTableNameCmd;
@@ -33,6 +44,8 @@ import org.activiti.engine.impl.db.DbSqlSessionFactory;
 import org.activiti.engine.impl.interceptor.Command;
 import org.activiti.engine.impl.interceptor.CommandConfig;
 import org.activiti.engine.impl.interceptor.CommandContext;
+import org.activiti.engine.management.ActivityStatistics;
+import org.activiti.engine.management.Batch;
 import org.activiti.engine.management.TableMetaData;
 import org.activiti.engine.management.TablePageQuery;
 import org.activiti.engine.runtime.JobQuery;
@@ -50,6 +63,10 @@ public class ManagementServiceImpl extends ServiceImpl implements ManagementServ
     return commandExecutor.execute(new GetTableCountCmd());
   }
   
+  public Map<String, Long> getExactTableCount() {
+    return commandExecutor.execute(new GetTableCountCmd(true));
+  }
+  
   public String getTableName(Class<?> activitiEntityClass) {
     return commandExecutor.execute(new GetTableNameCmd(activitiEntityClass));    
   }
@@ -70,6 +87,10 @@ public class ManagementServiceImpl extends ServiceImpl implements ManagementServ
     commandExecutor.execute(new SetJobRetriesCmd(jobId, retries));
   }
 
+  public List<ActivityStatistics> getActivityStatistics(String processDefinitionId) {
+    return commandExecutor.execute(new GetActivityStatisticsCmd(processDefinitionId));
+  }
+  
   public TablePageQuery createTablePageQuery() {
     return new TablePageQueryImpl(commandExecutor);
   }
@@ -81,6 +102,59 @@ public class ManagementServiceImpl extends ServiceImpl implements ManagementServ
   public String getJobExceptionStacktrace(String jobId) {
     return commandExecutor.execute(new GetJobExceptionStacktraceCmd(jobId));
   }
+  
+  public Batch setProcessDefinitionVersionInBatch(List<String> processInstanceIds, int processDefinitionVersion) {
+    if (processDefinitionVersion < 1) {
+      throw new ActivitiIllegalArgumentException("The process definition version must be positive: " + processDefinitionVersion);
+    }
+    return createBatch(Batch.TYPE_SET_PROCESS_DEFINITION_VERSION, processInstanceIds, String.valueOf(processDefinitionVersion));
+  }
+  
+  public Batch migrateProcessInstancesInBatch(String sourceProcessDefinitionId, String targetProcessDefinitionId, Map<String, String> activityMapping) {
+    return commandExecutor.execute(new CreateProcessInstanceMigrationBatchCmd(sourceProcessDefinitionId, targetProcessDefinitionId, activityMapping));
+  }
+  
+  public Batch deleteProcessInstancesInBatch(List<String> processInstanceIds, String deleteReason) {
+    return createBatch(Batch.TYPE_DELETE_PROCESS_INSTANCES, processInstanceIds, deleteReason);
+  }
+  
+  public Batch setJobRetriesInBatch(List<String> jobIds, int retries) {
+    if (retries < 0) {
+      throw new ActivitiIllegalArgumentException("The number of job retries must be a non-negative Integer, but '" + retries + "' has been provided.");
+    }
+    return createBatch(Batch.TYPE_SET_JOB_RETRIES, jobIds, String.valueOf(retries));
+  }
+  
+  public Batch setFailedJobRetriesInBatch(int retries) {
+    if (retries < 0) {
+      throw new ActivitiIllegalArgumentException("The number of job retries must be a non-negative Integer, but '" + retries + "' has been provided.");
+    }
+    return commandExecutor.execute(new CreateFailedJobRetriesBatchCmd(retries));
+  }
+  
+  public Batch createBatch(String type, List<String> itemIds, String configuration) {
+    return commandExecutor.execute(new CreateBatchCmd(type, itemIds, configuration));
+  }
+  
+  public Batch getBatch(String batchId) {
+    return commandExecutor.execute(new GetBatchCmd(batchId));
+  }
+  
+  public List<Batch> getBatches() {
+    return commandExecutor.execute(new GetBatchesCmd());
+  }
+  
+  public void deleteBatch(String batchId) {
+    commandExecutor.execute(new DeleteBatchCmd(batchId));
+  }
+  
+  public int createHistoryPartitions(Date until) {
+    return commandExecutor.execute(new CreateHistoryPartitionsCmd(until));
+  }
+  
+  public int dropHistoryPartitions(Date before) {
+    return commandExecutor.execute(new DropHistoryPartitionsCmd(before));
+  }
 
   public Map<String, String> getProperties() {
     return commandExecutor.execute(new GetPropertiesCmd());
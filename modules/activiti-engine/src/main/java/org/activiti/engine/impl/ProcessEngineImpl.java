@@ -31,6 +31,8 @@ import org.activiti.engine.impl.el.ExpressionManager;
 import org.activiti.engine.impl.interceptor.CommandExecutor;
 import org.activiti.engine.impl.interceptor.SessionFactory;
 import org.activiti.engine.impl.jobexecutor.JobExecutor;
+import org.activiti.engine.impl.metrics.JmxMetrics;
+import org.activiti.engine.impl.persistence.deploy.ProcessDefinitionCacheWarmUp;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -55,6 +57,7 @@ public class ProcessEngineImpl implements ProcessEngine {
   protected ExpressionManager expressionManager;
   protected TransactionContextFactory transactionContextFactory;
   protected ProcessEngineConfigurationImpl processEngineConfiguration;
+  protected JmxMetrics jmxMetrics;
 
   public ProcessEngineImpl(ProcessEngineConfigurationImpl processEngineConfiguration) {
     this.processEngineConfiguration = processEngineConfiguration;
@@ -72,6 +75,10 @@ public class ProcessEngineImpl implements ProcessEngine {
     this.transactionContextFactory = processEngineConfiguration.getTransactionContextFactory();
     
     commandExecutor.execute(processEngineConfiguration.getSchemaCommandConfig(), new SchemaOperationsProcessEngineBuild());
+    
+    if (processEngineConfiguration.isEnableProcessDefinitionCacheWarmUp()) {
+      new ProcessDefinitionCacheWarmUp(processEngineConfiguration).warmUp();
+    }
 
     if (name == null) {
       log.info("default activiti ProcessEngine created");
@@ -80,11 +87,20 @@ public class ProcessEngineImpl implements ProcessEngine {
     }
     
     ProcessEngines.registerProcessEngine(this);
+    
+    if (processEngineConfiguration.getMetricsRegistry() != null && processEngineConfiguration.isEnableMetricsJmx()) {
+      jmxMetrics = new JmxMetrics(processEngineConfiguration.getMetricsRegistry(), name);
+      jmxMetrics.register();
+    }
 
     if ((jobExecutor != null) && (jobExecutor.isAutoActivate())) {
       jobExecutor.start();
     }
     
+    if (processEngineConfiguration.isEnableAsyncMailDelivery()) {
+      processEngineConfiguration.getAsyncMailSender().start();
+    }
+    
     if (processEngineConfiguration.getProcessEngineLifecycleListener() != null) {
       processEngineConfiguration.getProcessEngineLifecycleListener().onProcessEngineBuilt(this);
     }
@@ -98,9 +114,17 @@ public class ProcessEngineImpl implements ProcessEngine {
     if ((jobExecutor != null) && (jobExecutor.isActive())) {
       jobExecutor.shutdown();
     }
+    
+    if (processEngineConfiguration.getAsyncMailSender().isActive()) {
+      processEngineConfiguration.getAsyncMailSender().shutdown();
+    }
 
     commandExecutor.execute(processEngineConfiguration.getSchemaCommandConfig(), new SchemaOperationProcessEngineClose());
     
+    if (jmxMetrics != null) {
+      jmxMetrics.unregister();
+    }
+    
     if (processEngineConfiguration.getProcessEngineLifecycleListener() != null) {
       processEngineConfiguration.getProcessEngineLifecycleListener().onProcessEngineClosed(this);
     }
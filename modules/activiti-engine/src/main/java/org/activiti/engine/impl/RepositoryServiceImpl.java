@@ -19,10 +19,12 @@ import java.util.List;
 
 import org.activiti.bpmn.model.BpmnModel;
 import org.activiti.engine.RepositoryService;
+import org.activiti.engine.impl.cfg.ProcessEngineConfigurationImpl;
 import org.activiti.engine.impl.cmd.ActivateProcessDefinitionCmd;
 import org.activiti.engine.impl.cmd.AddEditorSourceExtraForModelCmd;
 import org.activiti.engine.impl.cmd.AddEditorSourceForModelCmd;
 import org.activiti.engine.impl.cmd.AddIdentityLinkForProcessDefinitionCmd;
+import org.activiti.engine.impl.cmd.BulkDeleteProcessInstancesCmd;
 import org.activiti.engine.impl.cmd.ChangeDeploymentTenantIdCmd;
 import org.activiti.engine.impl.cmd.CreateModelCmd;
 import org.activiti.engine.impl.cmd.DeleteDeploymentCmd;
@@ -44,6 +46,8 @@ import org.activiti.engine.impl.cmd.SaveModelCmd;
 import org.activiti.engine.impl.cmd.SetDeploymentCategoryCmd;
 import org.activiti.engine.impl.cmd.SetProcessDefinitionCategoryCmd;
 import org.activiti.engine.impl.cmd.SuspendProcessDefinitionCmd;
+import org.activiti.engine.impl.interceptor.Command;
+import org.activiti.engine.impl.interceptor.CommandContext;
 import org.activiti.engine.impl.persistence.entity.ModelEntity;
 import org.activiti.engine.impl.pvm.ReadOnlyProcessDefinition;
 import org.activiti.engine.impl.repository.DeploymentBuilderImpl;
@@ -81,13 +85,40 @@ public class RepositoryServiceImpl extends ServiceImpl implements RepositoryServ
   }
 
   public void deleteDeploymentCascade(String deploymentId) {
-    commandExecutor.execute(new DeleteDeploymentCmd(deploymentId, true));
+    deleteDeployment(deploymentId, true);
   }
   
   public void deleteDeployment(String deploymentId, boolean cascade) {
+    if (cascade && deploymentId != null) {
+      bulkDeleteProcessInstances(deploymentId);
+    }
     commandExecutor.execute(new DeleteDeploymentCmd(deploymentId, cascade));
   }
   
+  /**
+   * With enableBulkCascadeDelete, deletes the process instances of the deployment chunk by chunk 
+   * with set-based statements, so the cascading delete of the deployment finds none left.
+   */
+  protected void bulkDeleteProcessInstances(String deploymentId) {
+    // the configuration is only reachable from within a command
+    int chunkSize = commandExecutor.execute(new Command<Integer>() {
+      public Integer execute(CommandContext commandContext) {
+        ProcessEngineConfigurationImpl processEngineConfiguration = commandContext.getProcessEngineConfiguration();
+        return processEngineConfiguration.isEnableBulkCascadeDelete() ? processEngineConfiguration.getBulkCascadeDeleteChunkSize() : 0;
+      }
+    });
+    if (chunkSize <= 0) {
+      return;
+    }
+    
+    for (ProcessDefinition processDefinition : createProcessDefinitionQuery().deploymentId(deploymentId).list()) {
+      List<String> deletedProcessInstanceIds = null;
+      do {
+        deletedProcessInstanceIds = commandExecutor.execute(new BulkDeleteProcessInstancesCmd(processDefinition.getId(), chunkSize));
+      } while (!deletedProcessInstanceIds.isEmpty());
+    }
+  }
+  
   public void setDeploymentCategory(String deploymentId, String category) {
     commandExecutor.execute(new SetDeploymentCategoryCmd(deploymentId, category));
   }
@@ -14,6 +14,7 @@ package org.activiti.engine.impl;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -27,11 +28,14 @@ import org.activiti.engine.form.FormData;
 import org.activiti.engine.impl.cmd.ActivateProcessInstanceCmd;
 import org.activiti.engine.impl.cmd.AddEventListenerCommand;
 import org.activiti.engine.impl.cmd.AddIdentityLinkForProcessInstanceCmd;
+import org.activiti.engine.impl.cmd.BulkDeleteProcessInstancesCmd;
+import org.activiti.engine.impl.cmd.CorrelateMessageCmd;
 import org.activiti.engine.impl.cmd.DeleteProcessInstanceCmd;
 import org.activiti.engine.impl.cmd.DispatchEventCommand;
 import org.activiti.engine.impl.cmd.FindActiveActivityIdsCmd;
 import org.activiti.engine.impl.cmd.GetExecutionVariableCmd;
 import org.activiti.engine.impl.cmd.GetExecutionVariablesCmd;
+import org.activiti.engine.impl.cmd.GetExecutionsVariablesCmd;
 import org.activiti.engine.impl.cmd.GetIdentityLinksForProcessInstanceCmd;
 import org.activiti.engine.impl.cmd.GetStartFormCmd;
 import org.activiti.engine.impl.cmd.HasExecutionVariableCmd;
@@ -44,11 +48,16 @@ import org.activiti.engine.impl.cmd.SignalCmd;
 import org.activiti.engine.impl.cmd.SignalEventReceivedCmd;
 import org.activiti.engine.impl.cmd.StartProcessInstanceByMessageCmd;
 import org.activiti.engine.impl.cmd.StartProcessInstanceCmd;
+import org.activiti.engine.impl.cmd.StartProcessInstancesCmd;
 import org.activiti.engine.impl.cmd.SuspendProcessInstanceCmd;
+import org.activiti.engine.impl.interceptor.Command;
+import org.activiti.engine.impl.interceptor.CommandContext;
 import org.activiti.engine.runtime.ExecutionQuery;
 import org.activiti.engine.runtime.NativeExecutionQuery;
 import org.activiti.engine.runtime.NativeProcessInstanceQuery;
 import org.activiti.engine.runtime.ProcessInstance;
+import org.activiti.engine.runtime.ProcessInstanceCreateRequest;
+import org.activiti.engine.runtime.ProcessInstanceCreateResult;
 import org.activiti.engine.runtime.ProcessInstanceQuery;
 import org.activiti.engine.task.IdentityLink;
 
@@ -106,9 +115,55 @@ public class RuntimeServiceImpl extends ServiceImpl implements RuntimeService {
     return commandExecutor.execute(new StartProcessInstanceCmd<ProcessInstance>(null, processDefinitionId, businessKey, variables));
   }
   
+  public List<ProcessInstanceCreateResult> startProcessInstances(List<ProcessInstanceCreateRequest> requests) {
+    return startProcessInstances(requests, 0);
+  }
+  
+  public List<ProcessInstanceCreateResult> startProcessInstances(List<ProcessInstanceCreateRequest> requests, int chunkSize) {
+    if (requests == null) {
+      throw new ActivitiIllegalArgumentException("requests is null");
+    }
+    return new ChunkedServiceOperation<ProcessInstanceCreateRequest, ProcessInstanceCreateResult>(commandExecutor) {
+      protected List<ProcessInstanceCreateResult> executeInTransaction(List<ProcessInstanceCreateRequest> chunk) {
+        List<ProcessInstance> processInstances = commandExecutor.execute(new StartProcessInstancesCmd(chunk));
+        List<ProcessInstanceCreateResult> results = new ArrayList<ProcessInstanceCreateResult>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+          results.add(new ProcessInstanceCreateResult(chunk.get(i), processInstances.get(i)));
+        }
+        return results;
+      }
+      protected ProcessInstanceCreateResult createFailedResult(ProcessInstanceCreateRequest request, RuntimeException exception) {
+        return new ProcessInstanceCreateResult(request, exception);
+      }
+    }.execute(requests, chunkSize);
+  }
+  
   public void deleteProcessInstance(String processInstanceId, String deleteReason) {
     commandExecutor.execute(new DeleteProcessInstanceCmd(processInstanceId, deleteReason));
   }
+  
+  public void deleteProcessInstancesWithHistory(List<String> processInstanceIds) {
+    deleteProcessInstancesWithHistory(processInstanceIds, 0);
+  }
+  
+  public void deleteProcessInstancesWithHistory(List<String> processInstanceIds, int chunkSize) {
+    if (processInstanceIds == null) {
+      throw new ActivitiIllegalArgumentException("processInstanceIds is null");
+    }
+    if (chunkSize <= 0) {
+      // the configuration is only reachable from within a command
+      chunkSize = commandExecutor.execute(new Command<Integer>() {
+        public Integer execute(CommandContext commandContext) {
+          return Math.max(commandContext.getProcessEngineConfiguration().getBulkCascadeDeleteChunkSize(), 1);
+        }
+      });
+    }
+    for (int from = 0; from < processInstanceIds.size(); from += chunkSize) {
+      List<String> chunk = new ArrayList<String>(
+          processInstanceIds.subList(from, Math.min(from + chunkSize, processInstanceIds.size())));
+      commandExecutor.execute(new BulkDeleteProcessInstancesCmd(chunk));
+    }
+  }
 
   public ExecutionQuery createExecutionQuery() {
     return new ExecutionQueryImpl(commandExecutor);
@@ -141,6 +196,14 @@ public class RuntimeServiceImpl extends ServiceImpl implements RuntimeService {
   public Map<String, Object> getVariablesLocal(String executionId, Collection<String> variableNames) {
     return commandExecutor.execute(new GetExecutionVariablesCmd(executionId, variableNames, true));
   }
+  
+  public Map<String, Map<String, Object>> getVariablesForExecutions(Collection<String> executionIds, Collection<String> variableNames) {
+    return commandExecutor.execute(new GetExecutionsVariablesCmd(executionIds, variableNames, false));
+  }
+  
+  public Map<String, Map<String, Object>> getVariablesLocalForExecutions(Collection<String> executionIds, Collection<String> variableNames) {
+    return commandExecutor.execute(new GetExecutionsVariablesCmd(executionIds, variableNames, true));
+  }
 
   public Object getVariable(String executionId, String variableName) {
     return commandExecutor.execute(new GetExecutionVariableCmd(executionId, variableName, false));
@@ -293,6 +356,26 @@ public class RuntimeServiceImpl extends ServiceImpl implements RuntimeService {
   public void messageEventReceivedAsync(String messageName, String executionId) {
 	  commandExecutor.execute(new MessageEventReceivedCmd(messageName, executionId, true));
   }
+  
+  public ProcessInstance correlateMessage(String messageName, String businessKey) {
+    return correlateMessage(messageName, businessKey, null);
+  }
+  
+  public ProcessInstance correlateMessage(String messageName, String businessKey, Map<String, Object> processVariables) {
+    return commandExecutor.execute(new CorrelateMessageCmd(messageName, businessKey, processVariables)).get(0);
+  }
+  
+  public List<ProcessInstance> correlateMessages(String messageName, Map<String, Map<String, Object>> processVariablesByBusinessKey) {
+    return commandExecutor.execute(new CorrelateMessageCmd(messageName, processVariablesByBusinessKey));
+  }
+  
+  public ProcessInstance correlateMessageAndTenantId(String messageName, String businessKey, Map<String, Object> processVariables, String tenantId) {
+    return commandExecutor.execute(new CorrelateMessageCmd(messageName, Collections.singletonMap(businessKey, processVariables), tenantId)).get(0);
+  }
+  
+  public List<ProcessInstance> correlateMessagesAndTenantId(String messageName, Map<String, Map<String, Object>> processVariablesByBusinessKey, String tenantId) {
+    return commandExecutor.execute(new CorrelateMessageCmd(messageName, processVariablesByBusinessKey, tenantId));
+  }
 
 	@Override
   public void addEventListener(ActivitiEventListener listenerToAdd) {
@@ -35,6 +35,7 @@ public class TablePageQueryImpl implements TablePageQuery, Command<TablePage>, S
   protected String order;
   protected int firstResult;
   protected int maxResults;
+  protected boolean exactTotal;
 
   public TablePageQueryImpl() {
   }
@@ -58,6 +59,11 @@ public class TablePageQueryImpl implements TablePageQuery, Command<TablePage>, S
     return this;
   }
   
+  public TablePageQueryImpl exactTotal() {
+    this.exactTotal = true;
+    return this;
+  }
+  
   public String getTableName() {
     return tableName;
   }
@@ -87,4 +93,8 @@ public class TablePageQueryImpl implements TablePageQuery, Command<TablePage>, S
     return order;
   }
   
+  public boolean isExactTotal() {
+    return exactTotal;
+  }
+  
 }
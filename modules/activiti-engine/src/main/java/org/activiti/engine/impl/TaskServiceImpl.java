@@ -46,8 +46,11 @@ import org.activiti.engine.impl.cmd.GetTaskEventCmd;
 import org.activiti.engine.impl.cmd.GetTaskEventsCmd;
 import org.activiti.engine.impl.cmd.GetTaskVariableCmd;
 import org.activiti.engine.impl.cmd.GetTaskVariablesCmd;
+import org.activiti.engine.impl.cmd.GetTasksVariablesCmd;
 import org.activiti.engine.impl.cmd.GetTypeCommentsCmd;
 import org.activiti.engine.impl.cmd.HasTaskVariableCmd;
+import org.activiti.engine.impl.cmd.NeedsActiveTaskCmd;
+import org.activiti.engine.impl.cmd.NeedsActiveTasksCmd;
 import org.activiti.engine.impl.cmd.RemoveTaskVariablesCmd;
 import org.activiti.engine.impl.cmd.ResolveTaskCmd;
 import org.activiti.engine.impl.cmd.SaveAttachmentCmd;
@@ -63,6 +66,7 @@ import org.activiti.engine.task.IdentityLink;
 import org.activiti.engine.task.IdentityLinkType;
 import org.activiti.engine.task.NativeTaskQuery;
 import org.activiti.engine.task.Task;
+import org.activiti.engine.task.TaskOperationResult;
 import org.activiti.engine.task.TaskQuery;
 
 
@@ -175,6 +179,52 @@ public class TaskServiceImpl extends ServiceImpl implements TaskService {
   public void complete(String taskId, Map<String, Object> variables,boolean localScope) {
   	commandExecutor.execute(new CompleteTaskCmd(taskId, variables, localScope));
   }
+  
+  public List<TaskOperationResult> completeTasks(List<String> taskIds) {
+    return completeTasks(taskIds, null, 0);
+  }
+  
+  public List<TaskOperationResult> completeTasks(List<String> taskIds, Map<String, Object> variables, int chunkSize) {
+    if (taskIds == null) {
+      throw new ActivitiIllegalArgumentException("taskIds is null");
+    }
+    List<NeedsActiveTaskCmd<?>> taskCmds = new ArrayList<NeedsActiveTaskCmd<?>>(taskIds.size());
+    for (String taskId : taskIds) {
+      taskCmds.add(new CompleteTaskCmd(taskId, variables));
+    }
+    return executeTaskCmds(taskCmds, chunkSize);
+  }
+  
+  public List<TaskOperationResult> claimTasks(List<String> taskIds, String userId) {
+    return claimTasks(taskIds, userId, 0);
+  }
+  
+  public List<TaskOperationResult> claimTasks(List<String> taskIds, String userId, int chunkSize) {
+    if (taskIds == null) {
+      throw new ActivitiIllegalArgumentException("taskIds is null");
+    }
+    List<NeedsActiveTaskCmd<?>> taskCmds = new ArrayList<NeedsActiveTaskCmd<?>>(taskIds.size());
+    for (String taskId : taskIds) {
+      taskCmds.add(new ClaimTaskCmd(taskId, userId));
+    }
+    return executeTaskCmds(taskCmds, chunkSize);
+  }
+  
+  protected List<TaskOperationResult> executeTaskCmds(List<NeedsActiveTaskCmd<?>> taskCmds, int chunkSize) {
+    return new ChunkedServiceOperation<NeedsActiveTaskCmd<?>, TaskOperationResult>(commandExecutor) {
+      protected List<TaskOperationResult> executeInTransaction(List<NeedsActiveTaskCmd<?>> chunk) {
+        commandExecutor.execute(new NeedsActiveTasksCmd(chunk));
+        List<TaskOperationResult> results = new ArrayList<TaskOperationResult>(chunk.size());
+        for (NeedsActiveTaskCmd<?> taskCmd : chunk) {
+          results.add(new TaskOperationResult(taskCmd.getTaskId()));
+        }
+        return results;
+      }
+      protected TaskOperationResult createFailedResult(NeedsActiveTaskCmd<?> taskCmd, RuntimeException exception) {
+        return new TaskOperationResult(taskCmd.getTaskId(), exception);
+      }
+    }.execute(taskCmds, chunkSize);
+  }
 
   public void delegateTask(String taskId, String userId) {
     commandExecutor.execute(new DelegateTaskCmd(taskId, userId));
@@ -219,6 +269,14 @@ public class TaskServiceImpl extends ServiceImpl implements TaskService {
   public Map<String, Object> getVariablesLocal(String executionId, Collection<String> variableNames) {
     return commandExecutor.execute(new GetTaskVariablesCmd(executionId, variableNames, true));
   }
+  
+  public Map<String, Map<String, Object>> getVariablesForTasks(Collection<String> taskIds, Collection<String> variableNames) {
+    return commandExecutor.execute(new GetTasksVariablesCmd(taskIds, variableNames, false));
+  }
+  
+  public Map<String, Map<String, Object>> getVariablesLocalForTasks(Collection<String> taskIds, Collection<String> variableNames) {
+    return commandExecutor.execute(new GetTasksVariablesCmd(taskIds, variableNames, true));
+  }
 
   public Object getVariable(String executionId, String variableName) {
     return commandExecutor.execute(new GetTaskVariableCmd(executionId, variableName, false));
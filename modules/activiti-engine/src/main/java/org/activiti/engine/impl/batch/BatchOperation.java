@@ -0,0 +1,41 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.engine.impl.batch;
+
+import org.activiti.engine.impl.interceptor.CommandContext;
+import org.activiti.engine.management.Batch;
+
+/**
+ * The operation a {@link Batch} applies to each of its items. 
+ * 
+ * The items of a chunk are processed in one transaction. When processing one of them fails, 
+ * the transaction is rolled back and the chunk is processed again item by item, each in its own 
+ * transaction, so a failing item doesn't fail the items next to it. An item is counted and removed 
+ * from its chunk in the transaction that processes it, so the changes the operation makes in the 
+ * database are committed exactly once per item. Side effects outside the transaction (eg. calls to 
+ * other systems) are not rolled back, and can thus happen more than once for the same item.
+ */
+public interface BatchOperation {
+
+  /** the type of the batches this operation processes, see the constants of {@link Batch} */
+  String getType();
+
+  /**
+   * Applies the operation to one item.
+   * 
+   * @param itemId id of the item, eg. the id of a process instance or job.
+   * @param configuration the configuration the batch was created with, can be null. 
+   */
+  void execute(String itemId, String configuration, CommandContext commandContext);
+
+}
@@ -0,0 +1,34 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.engine.impl.batch;
+
+import java.util.List;
+
+import org.activiti.engine.impl.interceptor.CommandContext;
+
+/**
+ * A {@link BatchOperation} that processes all items of a chunk at once, typically with 
+ * set-based statements, instead of one item at a time. When processing a chunk fails, 
+ * its items are still processed one by one with {@link #execute(String, String, CommandContext)}.
+ */
+public interface ChunkBatchOperation extends BatchOperation {
+
+  /**
+   * Applies the operation to all given items.
+   * 
+   * @param itemIds ids of the items of one chunk.
+   * @param configuration the configuration the batch was created with, can be null. 
+   */
+  void executeChunk(List<String> itemIds, String configuration, CommandContext commandContext);
+
+}
@@ -0,0 +1,96 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.engine.impl.batch;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.activiti.engine.ActivitiException;
+import org.activiti.engine.impl.history.HistoryLevel;
+import org.activiti.engine.impl.history.HistoryManager;
+import org.activiti.engine.impl.interceptor.CommandContext;
+import org.activiti.engine.impl.persistence.entity.ProcessDefinitionEntity;
+import org.activiti.engine.management.Batch;
+
+/**
+ * Migrates process instances to another process definition. The configuration is a 
+ * {@link ProcessInstanceMigration}.
+ * 
+ * The process definition id (and the mapped activity ids) of the executions, tasks, jobs, event 
+ * subscriptions and history of all process instances in a chunk are updated with one update 
+ * statement per table, without loading any of them. The revision of the runtime entities is 
+ * incremented, so concurrent transactions that loaded them before the migration fail with 
+ * an optimistic locking exception instead of overwriting it. Process instances that aren't 
+ * (or no longer) of the source process definition are left as they are.
+ */
+public class MigrateProcessInstancesBatchOperation implements ChunkBatchOperation {
+
+  public String getType() {
+    return Batch.TYPE_MIGRATE_PROCESS_INSTANCES;
+  }
+
+  public void execute(String processInstanceId, String configuration, CommandContext commandContext) {
+    executeChunk(Collections.singletonList(processInstanceId), configuration, commandContext);
+  }
+
+  public void executeChunk(List<String> processInstanceIds, String configuration, CommandContext commandContext) {
+    ProcessInstanceMigration migration = ProcessInstanceMigration.fromConfiguration(configuration);
+    migration.setProcessInstanceIds(processInstanceIds);
+    
+    // the process instances may have moved on since the migration was validated
+    validate(migration, commandContext);
+    
+    // the updates of the other tables select the process instances by their source process definition, 
+    // so the executions are updated last 
+    if (!migration.getActivityMapping().isEmpty()) {
+      commandContext.getEventSubscriptionEntityManager().updateEventSubscriptionActivityForProcessInstances(migration);
+    }
+    commandContext.getJobEntityManager().updateJobProcessDefinitionForProcessInstances(migration);
+    commandContext.getTaskEntityManager().updateTaskProcessDefinitionForProcessInstances(migration);
+    
+    HistoryManager historyManager = commandContext.getHistoryManager();
+    if (historyManager.isHistoryEnabled()) {
+      commandContext.getHistoricProcessInstanceEntityManager().updateHistoricProcessInstanceProcessDefinitionForProcessInstances(migration);
+    }
+    if (historyManager.isHistoryLevelAtLeast(HistoryLevel.ACTIVITY)) {
+      commandContext.getHistoricActivityInstanceEntityManager().updateHistoricActivityInstanceProcessDefinitionForProcessInstances(migration);
+      commandContext.getHistoricTaskInstanceEntityManager().updateHistoricTaskInstanceProcessDefinitionForProcessInstances(migration);
+    }
+    
+    commandContext.getExecutionEntityManager().updateExecutionProcessDefinitionForProcessInstances(migration);
+  }
+  
+  /**
+   * Checks that every activity the process instances of the migration are in (or have an event 
+   * subscription or timer for) exists in the target process definition, after mapping.
+   */
+  public static void validate(ProcessInstanceMigration migration, CommandContext commandContext) {
+    ProcessDefinitionEntity targetProcessDefinition = commandContext.getProcessEngineConfiguration()
+            .getDeploymentManager()
+            .findDeployedProcessDefinitionById(migration.getTargetProcessDefinitionId());
+    
+    List<String> activityIds = commandContext.getExecutionEntityManager().findActivityIdsForProcessInstanceMigration(migration);
+    for (String activityId : activityIds) {
+      String targetActivityId = migration.getTargetActivityId(activityId);
+      if (targetProcessDefinition.findActivity(targetActivityId) == null) {
+        throw new ActivitiException("The target process definition " 
+                + "(id = '" + targetProcessDefinition.getId() + "') "
+                + "does not contain activity '" + targetActivityId + "', "
+                + "which process instances of the source process definition " 
+                + "(id = '" + migration.getSourceProcessDefinitionId() + "') are in. "
+                + "Add the activity to the activity mapping.");
+      }
+    }
+  }
+
+}
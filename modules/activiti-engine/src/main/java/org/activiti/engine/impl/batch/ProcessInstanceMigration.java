@@ -0,0 +1,117 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.engine.impl.batch;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.activiti.engine.impl.jobexecutor.TimerCatchIntermediateEventJobHandler;
+import org.activiti.engine.impl.jobexecutor.TimerExecuteNestedActivityJobHandler;
+import org.activiti.engine.impl.util.json.JSONObject;
+
+/**
+ * Migration of process instances from one process definition to another, with a mapping 
+ * of the activities whose id differs in the target process definition. Activities that 
+ * aren't mapped must have the same id in both process definitions.
+ * 
+ * Also the parameter of the set-based statements that migrate a chunk of process instances.
+ */
+public class ProcessInstanceMigration implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+  
+  private static final String CFG_SOURCE_PROCESS_DEFINITION_ID = "sourceProcessDefinitionId";
+  private static final String CFG_TARGET_PROCESS_DEFINITION_ID = "targetProcessDefinitionId";
+  private static final String CFG_ACTIVITY_MAPPING = "activityMapping";
+  
+  protected String sourceProcessDefinitionId;
+  protected String targetProcessDefinitionId;
+  protected Map<String, String> activityMapping = new LinkedHashMap<String, String>();
+  protected List<String> processInstanceIds;
+
+  public ProcessInstanceMigration(String sourceProcessDefinitionId, String targetProcessDefinitionId, Map<String, String> activityMapping) {
+    this.sourceProcessDefinitionId = sourceProcessDefinitionId;
+    this.targetProcessDefinitionId = targetProcessDefinitionId;
+    if (activityMapping != null) {
+      for (Map.Entry<String, String> mapping : activityMapping.entrySet()) {
+        // activities that keep their id don't need to be updated
+        if (!mapping.getKey().equals(mapping.getValue())) {
+          this.activityMapping.put(mapping.getKey(), mapping.getValue());
+        }
+      }
+    }
+  }
+  
+  public String toConfiguration() {
+    JSONObject json = new JSONObject();
+    json.put(CFG_SOURCE_PROCESS_DEFINITION_ID, sourceProcessDefinitionId);
+    json.put(CFG_TARGET_PROCESS_DEFINITION_ID, targetProcessDefinitionId);
+    json.put(CFG_ACTIVITY_MAPPING, activityMapping);
+    return json.toString();
+  }
+  
+  @SuppressWarnings("unchecked")
+  public static ProcessInstanceMigration fromConfiguration(String configuration) {
+    JSONObject json = new JSONObject(configuration);
+    JSONObject activityMappingJson = json.getJSONObject(CFG_ACTIVITY_MAPPING);
+    Map<String, String> activityMapping = new LinkedHashMap<String, String>();
+    Iterator<String> sourceActivityIds = activityMappingJson.keys();
+    while (sourceActivityIds.hasNext()) {
+      String sourceActivityId = sourceActivityIds.next();
+      activityMapping.put(sourceActivityId, activityMappingJson.getString(sourceActivityId));
+    }
+    return new ProcessInstanceMigration(json.getString(CFG_SOURCE_PROCESS_DEFINITION_ID), 
+            json.getString(CFG_TARGET_PROCESS_DEFINITION_ID), activityMapping);
+  }
+  
+  /**
+   * Returns the id of the activity in the target process definition for the given activity 
+   * of the source process definition.
+   */
+  public String getTargetActivityId(String sourceActivityId) {
+    String targetActivityId = activityMapping.get(sourceActivityId);
+    return targetActivityId != null ? targetActivityId : sourceActivityId;
+  }
+
+  /** the types of the jobs that have an activity id as configuration */
+  public List<String> getTimerJobHandlerTypes() {
+    return Arrays.asList(TimerExecuteNestedActivityJobHandler.TYPE, TimerCatchIntermediateEventJobHandler.TYPE);
+  }
+
+  public String getSourceProcessDefinitionId() {
+    return sourceProcessDefinitionId;
+  }
+
+  public String getTargetProcessDefinitionId() {
+    return targetProcessDefinitionId;
+  }
+
+  /** only the activities whose id changes */
+  public Map<String, String> getActivityMapping() {
+    return activityMapping;
+  }
+
+  /** the process instances to migrate, or null for all process instances of the source process definition */
+  public List<String> getProcessInstanceIds() {
+    return processInstanceIds;
+  }
+
+  public void setProcessInstanceIds(List<String> processInstanceIds) {
+    this.processInstanceIds = processInstanceIds;
+  }
+
+}
@@ -0,0 +1,33 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.engine.impl.batch;
+
+import org.activiti.engine.impl.cmd.SetProcessDefinitionVersionCmd;
+import org.activiti.engine.impl.interceptor.CommandContext;
+import org.activiti.engine.management.Batch;
+
+/**
+ * Migrates process instances to another version of their process definition.
+ * The configuration is the version.
+ */
+public class SetProcessDefinitionVersionBatchOperation implements BatchOperation {
+
+  public String getType() {
+    return Batch.TYPE_SET_PROCESS_DEFINITION_VERSION;
+  }
+
+  public void execute(String processInstanceId, String configuration, CommandContext commandContext) {
+    new SetProcessDefinitionVersionCmd(processInstanceId, Integer.valueOf(configuration)).execute(commandContext);
+  }
+
+}
@@ -21,6 +21,8 @@ import org.activiti.engine.delegate.DelegateExecution;
 import org.activiti.engine.delegate.Expression;
 import org.activiti.engine.impl.cfg.ProcessEngineConfigurationImpl;
 import org.activiti.engine.impl.context.Context;
+import org.activiti.engine.impl.mail.AsyncMailSender;
+import org.activiti.engine.impl.persistence.entity.ExecutionEntity;
 import org.activiti.engine.impl.pvm.delegate.ActivityExecution;
 import org.apache.commons.mail.Email;
 import org.apache.commons.mail.EmailException;
@@ -66,13 +68,24 @@ public class MailActivityBehavior extends AbstractBpmnActivityBehavior {
     addCc(email, ccStr);
     addBcc(email, bccStr);
     setSubject(email, subjectStr);
-    setMailServerProperties(email);
-    setCharset(email, charSetStr);
-
-    try {
-      email.send();
-    } catch (EmailException e) {
-      throw new ActivitiException("Could not send e-mail", e);
+    
+    ProcessEngineConfigurationImpl processEngineConfiguration = Context.getProcessEngineConfiguration();
+    if (processEngineConfiguration.isEnableAsyncMailDelivery()) {
+      // sent after the transaction is committed, see AsyncMailSender
+      AsyncMailSender asyncMailSender = processEngineConfiguration.getAsyncMailSender();
+      email.setMailSession(asyncMailSender.getMailSession());
+      setCharset(email, charSetStr);
+      asyncMailSender.send(email, (ExecutionEntity) execution);
+      
+    } else {
+      setMailServerProperties(email);
+      setCharset(email, charSetStr);
+  
+      try {
+        email.send();
+      } catch (EmailException e) {
+        throw new ActivitiException("Could not send e-mail", e);
+      }
     }
     leave(execution);
   }
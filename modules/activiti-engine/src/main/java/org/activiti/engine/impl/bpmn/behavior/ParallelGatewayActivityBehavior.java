@@ -64,9 +64,10 @@ public class ParallelGatewayActivityBehavior extends GatewayActivityBehavior {
     execution.inactivate();
     lockConcurrentRoot(execution);
     
-    List<ActivityExecution> joinedExecutions = execution.findInactiveConcurrentExecutions(activity);
+    // Only count the executions waiting in the join: the sibling executions are 
+    // fetched when the gateway activates, not on every arrival
+    long nbrOfExecutionsJoined = ((ExecutionEntity) execution).countInactiveConcurrentExecutions(activity);
     int nbrOfExecutionsToJoin = execution.getActivity().getIncomingTransitions().size();
-    int nbrOfExecutionsJoined = joinedExecutions.size();
     Context.getCommandContext().getHistoryManager().recordActivityEnd((ExecutionEntity) execution);
     if (nbrOfExecutionsJoined==nbrOfExecutionsToJoin) {
       
@@ -74,6 +75,7 @@ public class ParallelGatewayActivityBehavior extends GatewayActivityBehavior {
       if(log.isDebugEnabled()) {
         log.debug("parallel gateway '{}' activates: {} of {} joined", activity.getId(), nbrOfExecutionsJoined, nbrOfExecutionsToJoin);
       }
+      List<ActivityExecution> joinedExecutions = execution.findInactiveConcurrentExecutions(activity);
       execution.takeAll(outgoingTransitions, joinedExecutions);
       
     } else if (log.isDebugEnabled()){
@@ -16,6 +16,8 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.activiti.engine.ActivitiIllegalArgumentException;
+import org.activiti.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.activiti.engine.impl.context.Context;
 import org.activiti.engine.impl.persistence.entity.ExecutionEntity;
 import org.activiti.engine.impl.pvm.delegate.ActivityBehavior;
 import org.activiti.engine.impl.pvm.delegate.ActivityExecution;
@@ -101,10 +103,15 @@ public class ParallelMultiInstanceBehavior extends MultiInstanceActivityBehavior
   public void leave(ActivityExecution execution) {
     callActivityEndListeners(execution);
     
+    boolean concurrentCompletion = Context.getProcessEngineConfiguration().isEnableConcurrentMultiInstanceCompletion();
     int loopCounter = getLoopVariable(execution, getCollectionElementIndexVariable());
     int nrOfInstances = getLoopVariable(execution, NUMBER_OF_INSTANCES);
-    int nrOfCompletedInstances = getLoopVariable(execution, NUMBER_OF_COMPLETED_INSTANCES) + 1;
-    int nrOfActiveInstances = getLoopVariable(execution, NUMBER_OF_ACTIVE_INSTANCES) - 1;
+    int nrOfCompletedInstances = 0;
+    int nrOfActiveInstances = 0;
+    if (!concurrentCompletion) {
+      nrOfCompletedInstances = getLoopVariable(execution, NUMBER_OF_COMPLETED_INSTANCES) + 1;
+      nrOfActiveInstances = getLoopVariable(execution, NUMBER_OF_ACTIVE_INSTANCES) - 1;
+    }
     
     if (isExtraScopeNeeded()) {
       // In case an extra scope was created, it must be destroyed first before going further
@@ -113,33 +120,99 @@ public class ParallelMultiInstanceBehavior extends MultiInstanceActivityBehavior
       extraScope.remove();
     }
     
-    setLoopVariable(execution.getParent(), NUMBER_OF_COMPLETED_INSTANCES, nrOfCompletedInstances);
-    setLoopVariable(execution.getParent(), NUMBER_OF_ACTIVE_INSTANCES, nrOfActiveInstances);
-    logLoopDetails(execution, "instance completed", loopCounter, nrOfCompletedInstances, nrOfActiveInstances, nrOfInstances);
-    
     ExecutionEntity executionEntity = (ExecutionEntity) execution;
+    if (!concurrentCompletion) {
+      setLoopVariable(execution.getParent(), NUMBER_OF_COMPLETED_INSTANCES, nrOfCompletedInstances);
+      setLoopVariable(execution.getParent(), NUMBER_OF_ACTIVE_INSTANCES, nrOfActiveInstances);
+      logLoopDetails(execution, "instance completed", loopCounter, nrOfCompletedInstances, nrOfActiveInstances, nrOfInstances);
+      
+      executionEntity.inactivate();
+      executionEntity.getParent().forceUpdate();
+      
+      List<ActivityExecution> joinedExecutions = executionEntity.findInactiveConcurrentExecutions(execution.getActivity());
+      if (joinedExecutions.size() == nrOfInstances || completionConditionSatisfied(execution)) {
+        joinInstances(executionEntity, nrOfInstances, joinedExecutions);
+      }
+      return;
+    }
+    
     executionEntity.inactivate();
-    executionEntity.getParent().forceUpdate();
     
-    List<ActivityExecution> joinedExecutions = executionEntity.findInactiveConcurrentExecutions(execution.getActivity());
-    if (joinedExecutions.size() == nrOfInstances || completionConditionSatisfied(execution)) {
-      
-      // Removing all active child executions (ie because completionCondition is true)
-      List<ExecutionEntity> executionsToRemove = new ArrayList<ExecutionEntity>();
-      for (ActivityExecution childExecution : executionEntity.getParent().getExecutions()) {
-        if (childExecution.isActive()) {
-          executionsToRemove.add((ExecutionEntity) childExecution);
-        }
+    // The inactive child executions are the completed instances: the loop counters are kept 
+    // on the completing execution instead of the parent, which all instances would update
+    long nrOfJoinedExecutions = executionEntity.countInactiveConcurrentExecutions(execution.getActivity());
+    nrOfCompletedInstances = (int) nrOfJoinedExecutions;
+    nrOfActiveInstances = nrOfInstances - nrOfCompletedInstances;
+    setLoopVariable(execution, NUMBER_OF_COMPLETED_INSTANCES, nrOfCompletedInstances);
+    setLoopVariable(execution, NUMBER_OF_ACTIVE_INSTANCES, nrOfActiveInstances);
+    logLoopDetails(execution, "instance completed", loopCounter, nrOfCompletedInstances, nrOfActiveInstances, nrOfInstances);
+    
+    if (nrOfJoinedExecutions == nrOfInstances || completionConditionSatisfied(execution)) {
+      joinInstances(executionEntity, nrOfInstances, executionEntity.findInactiveConcurrentExecutions(execution.getActivity()));
+    } else {
+      Context.getCommandContext()
+        .getExecutionEntityManager()
+        .scheduleParallelMultiInstanceCompletionCheck(executionEntity, activity.getId());
+    }
+  }
+  
+  /**
+   * Joins the instances if all of them are completed or the completion condition is satisfied. 
+   * Used when instances are completed concurrently, see 
+   * {@link ProcessEngineConfigurationImpl#isEnableConcurrentMultiInstanceCompletion()}.
+   * 
+   * The completion condition is evaluated on the parent execution, with the loop counters 
+   * set on it: variables local to the instances are not visible to it.
+   */
+  public boolean joinIfAllInstancesCompleted(ExecutionEntity parentExecution) {
+    Integer nrOfInstances = getLocalLoopVariable(parentExecution, NUMBER_OF_INSTANCES);
+    if (nrOfInstances == null) {
+      return false;
+    }
+    long nrOfCompletedInstances = parentExecution.countInactiveChildExecutionsInActivity(activity);
+    if (nrOfCompletedInstances < nrOfInstances) {
+      if (completionConditionExpression == null) {
+        return false;
+      }
+      setLoopVariable(parentExecution, NUMBER_OF_COMPLETED_INSTANCES, (int) nrOfCompletedInstances);
+      setLoopVariable(parentExecution, NUMBER_OF_ACTIVE_INSTANCES, nrOfInstances - (int) nrOfCompletedInstances);
+      if (!completionConditionSatisfied(parentExecution)) {
+        return false;
+      }
+    }
+    
+    for (ExecutionEntity childExecution : parentExecution.getExecutions()) {
+      if (!childExecution.isActive() && activity.getId().equals(childExecution.getActivityId())) {
+        joinInstances(childExecution, nrOfInstances, childExecution.findInactiveConcurrentExecutions(activity));
+        return true;
+      }
+    }
+    return false;
+  }
+  
+  protected void joinInstances(ExecutionEntity executionEntity, int nrOfInstances, List<ActivityExecution> joinedExecutions) {
+    if (Context.getProcessEngineConfiguration().isEnableConcurrentMultiInstanceCompletion()) {
+      setLoopVariable(executionEntity.getParent(), NUMBER_OF_COMPLETED_INSTANCES, joinedExecutions.size());
+      setLoopVariable(executionEntity.getParent(), NUMBER_OF_ACTIVE_INSTANCES, nrOfInstances - joinedExecutions.size());
+      // Only one of the transactions completing the last instances concurrently can join them
+      executionEntity.getParent().forceUpdate();
+    }
+    
+    // Removing all active child executions (ie because completionCondition is true)
+    List<ExecutionEntity> executionsToRemove = new ArrayList<ExecutionEntity>();
+    for (ActivityExecution childExecution : executionEntity.getParent().getExecutions()) {
+      if (childExecution.isActive()) {
+        executionsToRemove.add((ExecutionEntity) childExecution);
       }
-      for (ExecutionEntity executionToRemove : executionsToRemove) {
-        if (LOGGER.isDebugEnabled()) {
-          LOGGER.debug("Execution {} still active, but multi-instance is completed. Removing this execution.", executionToRemove);
-        }
-        executionToRemove.inactivate();
-        executionToRemove.deleteCascade("multi-instance completed");
+    }
+    for (ExecutionEntity executionToRemove : executionsToRemove) {
+      if (LOGGER.isDebugEnabled()) {
+        LOGGER.debug("Execution {} still active, but multi-instance is completed. Removing this execution.", executionToRemove);
       }
-      executionEntity.takeAll(executionEntity.getActivity().getOutgoingTransitions(), joinedExecutions);
-    } 
+      executionToRemove.inactivate();
+      executionToRemove.deleteCascade("multi-instance completed");
+    }
+    executionEntity.takeAll(executionEntity.getActivity().getOutgoingTransitions(), joinedExecutions);
   }
 
 }
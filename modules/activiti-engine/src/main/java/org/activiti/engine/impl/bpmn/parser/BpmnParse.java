@@ -177,10 +177,14 @@ public class BpmnParse implements BpmnXMLConstants {
         encoding = Context.getProcessEngineConfiguration().getXmlEncoding();
       }
       
+      // The xml of an existing deployment (eg. when the process definition cache is filled 
+      // after a reboot) was already validated against the schema when it was deployed
+      boolean validateSchema = deployment == null || deployment.isNew();
+      
       if (encoding != null) {
-        bpmnModel = converter.convertToBpmnModel(streamSource, true, enableSafeBpmnXml, encoding);
+        bpmnModel = converter.convertToBpmnModel(streamSource, validateSchema, enableSafeBpmnXml, encoding);
       } else {
-        bpmnModel = converter.convertToBpmnModel(streamSource, true, enableSafeBpmnXml);
+        bpmnModel = converter.convertToBpmnModel(streamSource, validateSchema, enableSafeBpmnXml);
       }
       
       createImports();
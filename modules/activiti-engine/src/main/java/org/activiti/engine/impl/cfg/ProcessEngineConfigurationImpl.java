@@ -96,6 +96,11 @@ import org.activiti.engine.impl.bpmn.parser.handler.TaskParseHandler;
 import org.activiti.engine.impl.bpmn.parser.handler.TimerEventDefinitionParseHandler;
 import org.activiti.engine.impl.bpmn.parser.handler.TransactionParseHandler;
 import org.activiti.engine.impl.bpmn.parser.handler.UserTaskParseHandler;
+import org.activiti.engine.impl.batch.BatchOperation;
+import org.activiti.engine.impl.batch.DeleteProcessInstancesBatchOperation;
+import org.activiti.engine.impl.batch.MigrateProcessInstancesBatchOperation;
+import org.activiti.engine.impl.batch.SetJobRetriesBatchOperation;
+import org.activiti.engine.impl.batch.SetProcessDefinitionVersionBatchOperation;
 import org.activiti.engine.impl.bpmn.webservice.MessageInstance;
 import org.activiti.engine.impl.calendar.BusinessCalendarManager;
 import org.activiti.engine.impl.calendar.CycleBusinessCalendar;
@@ -106,8 +111,10 @@ import org.activiti.engine.impl.cfg.standalone.StandaloneMybatisTransactionConte
 import org.activiti.engine.impl.db.DbIdGenerator;
 import org.activiti.engine.impl.db.DbSqlSessionFactory;
 import org.activiti.engine.impl.db.IbatisVariableTypeHandler;
+import org.activiti.engine.impl.db.TableRowCountCache;
 import org.activiti.engine.impl.delegate.DefaultDelegateInterceptor;
 import org.activiti.engine.impl.el.ExpressionManager;
+import org.activiti.engine.impl.el.SimpleExpressionCompiler;
 import org.activiti.engine.impl.event.CompensationEventHandler;
 import org.activiti.engine.impl.event.EventHandler;
 import org.activiti.engine.impl.event.MessageEventHandler;
@@ -133,20 +140,32 @@ import org.activiti.engine.impl.interceptor.CommandInterceptor;
 import org.activiti.engine.impl.interceptor.CommandInvoker;
 import org.activiti.engine.impl.interceptor.DelegateInterceptor;
 import org.activiti.engine.impl.interceptor.LogInterceptor;
+import org.activiti.engine.impl.interceptor.MetricsInterceptor;
+import org.activiti.engine.impl.interceptor.RetryInterceptor;
 import org.activiti.engine.impl.interceptor.SessionFactory;
 import org.activiti.engine.impl.jobexecutor.AsyncContinuationJobHandler;
+import org.activiti.engine.impl.jobexecutor.BatchMonitorJobHandler;
+import org.activiti.engine.impl.jobexecutor.BatchSeedJobHandler;
+import org.activiti.engine.impl.jobexecutor.BatchWorkerJobHandler;
 import org.activiti.engine.impl.jobexecutor.CallerRunsRejectedJobsHandler;
+import org.activiti.engine.impl.jobexecutor.ChangeProcessInstanceSuspensionStateJobHandler;
 import org.activiti.engine.impl.jobexecutor.DefaultFailedJobCommandFactory;
 import org.activiti.engine.impl.jobexecutor.DefaultJobExecutor;
 import org.activiti.engine.impl.jobexecutor.FailedJobCommandFactory;
 import org.activiti.engine.impl.jobexecutor.JobHandler;
+import org.activiti.engine.impl.jobexecutor.ParallelMultiInstanceCompletionJobHandler;
 import org.activiti.engine.impl.jobexecutor.ProcessEventJobHandler;
+import org.activiti.engine.impl.jobexecutor.SendMailJobHandler;
 import org.activiti.engine.impl.jobexecutor.RejectedJobsHandler;
 import org.activiti.engine.impl.jobexecutor.TimerActivateProcessDefinitionHandler;
 import org.activiti.engine.impl.jobexecutor.TimerCatchIntermediateEventJobHandler;
 import org.activiti.engine.impl.jobexecutor.TimerExecuteNestedActivityJobHandler;
 import org.activiti.engine.impl.jobexecutor.TimerStartEventJobHandler;
 import org.activiti.engine.impl.jobexecutor.TimerSuspendProcessDefinitionHandler;
+import org.activiti.engine.impl.mail.AsyncMailSender;
+import org.activiti.engine.impl.metrics.DefaultMetricsRegistry;
+import org.activiti.engine.impl.metrics.MetricsRegistry;
+import org.activiti.engine.impl.metrics.SqlStatementMetricsPlugin;
 import org.activiti.engine.impl.persistence.DefaultHistoryManagerSessionFactory;
 import org.activiti.engine.impl.persistence.GenericManagerFactory;
 import org.activiti.engine.impl.persistence.GroupEntityManagerFactory;
@@ -157,6 +176,7 @@ import org.activiti.engine.impl.persistence.deploy.Deployer;
 import org.activiti.engine.impl.persistence.deploy.DeploymentCache;
 import org.activiti.engine.impl.persistence.deploy.DeploymentManager;
 import org.activiti.engine.impl.persistence.entity.AttachmentEntityManager;
+import org.activiti.engine.impl.persistence.entity.BatchEntityManager;
 import org.activiti.engine.impl.persistence.entity.ByteArrayEntityManager;
 import org.activiti.engine.impl.persistence.entity.CommentEntityManager;
 import org.activiti.engine.impl.persistence.entity.DeploymentEntityManager;
@@ -166,6 +186,8 @@ import org.activiti.engine.impl.persistence.entity.HistoricActivityInstanceEntit
 import org.activiti.engine.impl.persistence.entity.HistoricDetailEntityManager;
 import org.activiti.engine.impl.persistence.entity.HistoricIdentityLinkEntityManager;
 import org.activiti.engine.impl.persistence.entity.HistoricProcessInstanceEntityManager;
+import org.activiti.engine.impl.persistence.entity.HistoricStatisticsEntityManager;
+import org.activiti.engine.impl.persistence.entity.HistoryPartitionManager;
 import org.activiti.engine.impl.persistence.entity.HistoricTaskInstanceEntityManager;
 import org.activiti.engine.impl.persistence.entity.HistoricVariableInstanceEntityManager;
 import org.activiti.engine.impl.persistence.entity.IdentityInfoEntityManager;
@@ -204,6 +226,8 @@ import org.activiti.engine.impl.variable.StringType;
 import org.activiti.engine.impl.variable.UUIDType;
 import org.activiti.engine.impl.variable.VariableType;
 import org.activiti.engine.impl.variable.VariableTypes;
+import org.activiti.engine.management.Batch;
+import org.activiti.engine.management.TablePageQuery;
 import org.activiti.engine.parse.BpmnParseHandler;
 import org.apache.commons.lang3.ObjectUtils;
 import org.apache.ibatis.builder.xml.XMLConfigBuilder;
@@ -285,6 +309,18 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
   protected int processDefinitionCacheLimit = -1; // By default, no limit
   protected DeploymentCache<ProcessDefinitionEntity> processDefinitionCache;
   
+  /**
+   * When enabled, the process definition cache is filled when the process engine is built,
+   * instead of lazily when a process definition is first used (see {@link org.activiti.engine.impl.persistence.deploy.ProcessDefinitionCacheWarmUp}).
+   * 
+   * By default the latest version of every process definition key and all process definitions
+   * with running process instances are put in the cache.
+   */
+  protected boolean enableProcessDefinitionCacheWarmUp = false;
+  protected int processDefinitionCacheWarmUpVersions = 1;
+  protected boolean processDefinitionCacheWarmUpRunningInstances = true;
+  protected int processDefinitionCacheWarmUpThreads = 4;
+  
   protected int knowledgeBaseCacheLimit = -1;
   protected DeploymentCache<Object> knowledgeBaseCache;
 
@@ -292,6 +328,22 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
   
   protected List<JobHandler> customJobHandlers;
   protected Map<String, JobHandler> jobHandlers;
+  
+  // BATCHES //////////////////////////////////////////////////////////////////
+  
+  protected List<BatchOperation> customBatchOperations;
+  protected Map<String, BatchOperation> batchOperations;
+  
+  /**
+   * The items of a {@link Batch} are processed in chunks of {@link #batchChunkSize} items, 
+   * one worker job per chunk. A seed job creates at most {@link #batchJobsPerSeed} worker jobs 
+   * and then creates the next seed job, so creating the worker jobs of a large batch doesn't 
+   * end up in a single huge transaction. The monitor job of a batch checks whether all items 
+   * have been processed every {@link #batchMonitorWaitTimeInMillis} milliseconds.
+   */
+  protected int batchChunkSize = 100;
+  protected int batchJobsPerSeed = 100;
+  protected int batchMonitorWaitTimeInMillis = 10000;
 
   // MYBATIS SQL SESSION FACTORY //////////////////////////////////////////////
   
@@ -328,6 +380,19 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
   protected VariableTypes variableTypes;
   
   protected ExpressionManager expressionManager;
+  
+  /**
+   * Maximum number of parsed expression trees cached by the default {@link ExpressionManager}, 
+   * shared by all expressions of all process definitions.
+   */
+  protected int expressionCacheSize = ExpressionManager.DEFAULT_EXPRESSION_CACHE_SIZE;
+  
+  /**
+   * When enabled, simple expressions (eg. sequence flow conditions like <code>${amount > 1000}</code>) are 
+   * compiled by the {@link SimpleExpressionCompiler} when the process definition is parsed, and evaluated 
+   * by reading the variables directly instead of going through the el resolvers.
+   */
+  protected boolean enableSimpleExpressionCompilation = false;
   protected List<String> customScriptingEngineClasses;
   protected ScriptingEngines scriptingEngines;
   protected List<ResolverFactory> resolverFactories;
@@ -370,6 +435,117 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
   protected int batchSizeProcessInstances = 25;
   protected int batchSizeTasks = 25;
   
+  /**
+   * When enabled, suspending or activating a process definition including its process instances
+   * doesn't change the process instances in the calling transaction. Instead, the job executor
+   * changes the state of the process instances, their executions and their tasks with set-based
+   * updates, in chunks of {@link #processInstanceSuspensionChunkSize} process instances that are
+   * each committed separately. Until the last chunk is done, some process instances still have
+   * the previous state. The progress is reported as a {@link org.activiti.engine.management.Batch}
+   * of type {@link org.activiti.engine.management.Batch#TYPE_CHANGE_PROCESS_INSTANCE_SUSPENSION_STATE}.
+   */
+  protected boolean enableAsyncProcessInstanceSuspension = false;
+  protected int processInstanceSuspensionChunkSize = 500;
+  
+  /**
+   * When enabled, executions and variables that are created and ended within the same command
+   * are never flushed: their inserts are dropped as soon as they are deleted, and their related 
+   * tasks, jobs, variables, event subscriptions and identity links aren't queried, as these can't
+   * be in the database before the execution itself is. Executions that are still active when the
+   * command ends (eg. waiting in a user task or an async continuation) are flushed as usual. 
+   * History is written regardless.
+   */
+  protected boolean enableTransientExecutions = false;
+  
+  /**
+   * When enabled, cascading deletes of deployments delete the process instances with set-based 
+   * statements per table instead of loading and deleting every execution, task, variable and 
+   * history entity, the same way as {@link RuntimeService#deleteProcessInstancesWithHistory(List, int)}.
+   * The process instances are deleted in chunks of {@link #bulkCascadeDeleteChunkSize}, each in its 
+   * own transaction, before the deployment itself is deleted. No listeners are invoked and, instead 
+   * of an event per entity, one {@link ActivitiEventType#PROCESS_INSTANCES_DELETED} event is 
+   * dispatched per chunk. The chunk size is also the default of 
+   * {@link RuntimeService#deleteProcessInstancesWithHistory(List)}.
+   */
+  protected boolean enableBulkCascadeDelete = false;
+  protected int bulkCascadeDeleteChunkSize = 500;
+  
+  /**
+   * The default number of items that bulk operations like {@link RuntimeService#startProcessInstances(List)} 
+   * and {@link TaskService#completeTasks(List)} execute in one transaction. When an item 
+   * fails, the other items of its chunk are executed again, each in its own transaction.
+   */
+  protected int bulkOperationChunkSize = 100;
+  
+  /**
+   * When enabled, the engine records command latencies, flush sizes, sql statement timings,
+   * job executions and cache hits in the {@link MetricsRegistry}. By default, the metrics 
+   * are kept in a {@link DefaultMetricsRegistry} and exposed through JMX.
+   * 
+   * Nothing is recorded (and no interceptor is added to the command stack) when disabled.
+   */
+  protected boolean enableMetrics = false;
+  protected boolean enableMetricsJmx = true;
+  protected MetricsRegistry metricsRegistry;
+  
+  /**
+   * When enabled, a completed instance of a parallel multi-instance activity no longer updates
+   * the nrOfCompletedInstances/nrOfActiveInstances variables and the revision of the shared parent 
+   * execution. The inactive child executions are counted instead, so instances completing 
+   * concurrently (eg. from different job executor threads) don't fail with optimistic locking exceptions.
+   * 
+   * The loop counters are then set as local variables on the completing child execution, and
+   * on the parent execution only once all instances are joined. Since concurrent transactions can't 
+   * see each other's completions, every transaction that doesn't complete the multi-instance activity
+   * creates a job that checks again, including the completion condition (see 
+   * {@link org.activiti.engine.impl.jobexecutor.ParallelMultiInstanceCompletionJobHandler}).
+   */
+  protected boolean enableConcurrentMultiInstanceCompletion = false;
+  
+  /**
+   * When enabled, mail tasks don't send their mail in the process transaction. The mail is stored 
+   * as a job instead, and sent by the {@link AsyncMailSender} once the transaction is committed.
+   * Mails that can't be sent right away are sent (and retried) by the job executor.
+   */
+  protected boolean enableAsyncMailDelivery = false;
+  protected AsyncMailSender asyncMailSender;
+  
+  /**
+   * When enabled, {@link ManagementService#getTableCount()} and table page queries return the row
+   * count estimates kept in the database catalog (on PostgreSQL, Oracle, MySQL and SQL Server) instead 
+   * of counting all rows, falling back to an exact count for other databases or tables without statistics. 
+   * These approximate row counts are cached for {@link #tableRowCountCacheTimeToLive} milliseconds.
+   * 
+   * Exact row counts are still available through {@link ManagementService#getExactTableCount()} 
+   * and {@link TablePageQuery#exactTotal()}.
+   */
+  protected boolean enableTableRowCountEstimates = false;
+  protected long tableRowCountCacheTimeToLive = 60000L;
+  protected TableRowCountCache tableRowCountCache;
+  
+  /**
+   * When enabled, the number and duration of the process instances, activities and tasks that 
+   * end are aggregated per process definition, activity and hour into the historic statistics table, 
+   * which can be queried with {@link HistoryService#createHistoricStatisticsQuery()}. 
+   * 
+   * Only what is recorded at the configured history level is aggregated.
+   */
+  protected boolean enableHistoricStatistics = false;
+  
+  /**
+   * When enabled, the history tables holding the process instances, activity instances, task instances, 
+   * variable instances and details are created partitioned by month of their start (or creation) time 
+   * (on PostgreSQL, Oracle and MySQL only). Queries on time ranges only read the partitions of that range, 
+   * and old history is removed by dropping whole partitions with {@link ManagementService#dropHistoryPartitions(java.util.Date)}.
+   * The updates of historic entities include their start (or creation) time, so only the partition 
+   * of the row is searched.
+   * 
+   * The partitions for the current month and the {@link #historyPartitionsAhead} next months are created 
+   * when the schema is created or updated; rows outside of all monthly partitions end up in a catch-all partition.
+   */
+  protected boolean dbHistoryPartitioned = false;
+  protected int historyPartitionsAhead = 3;
+  
   protected boolean enableEventDispatcher = true;
   protected ActivitiEventDispatcher eventDispatcher;
   protected List<ActivitiEventListener> eventListeners;
@@ -395,6 +571,7 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     initFormTypes();
     initScriptingEngines();
     initBusinessCalendarManager();
+    initMetrics();
     initCommandContextFactory();
     initTransactionContextFactory();
     initCommandExecutors();
@@ -402,10 +579,14 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     initIdGenerator();
     initDeployers();
     initJobExecutor();
+    initBatchOperations();
+    initAsyncMailSender();
+    initTableRowCountCache();
     initDataSource();
     initTransactionFactory();
     initSqlSessionFactory();
     initSessionFactories();
+    initHistoryPartitioning();
     initJpa();
     initDelegateInterceptor();
     initEventHandlers();
@@ -414,6 +595,40 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     configuratorsAfterInit();
   }
 
+  // history partitioning ////////////////////////////////////////////////////
+  
+  protected void initHistoryPartitioning() {
+    if (dbHistoryPartitioned && !HistoryPartitionManager.isSupportedDatabaseType(databaseType)) {
+      throw new ActivitiException("History partitioning is not supported for database type '" + databaseType + "'");
+    }
+  }
+  
+  // batches //////////////////////////////////////////////////////////////////
+  
+  protected void initBatchOperations() {
+    if (batchOperations == null) {
+      batchOperations = new HashMap<String, BatchOperation>();
+      
+      SetProcessDefinitionVersionBatchOperation setProcessDefinitionVersionBatchOperation = new SetProcessDefinitionVersionBatchOperation();
+      batchOperations.put(setProcessDefinitionVersionBatchOperation.getType(), setProcessDefinitionVersionBatchOperation);
+      
+      DeleteProcessInstancesBatchOperation deleteProcessInstancesBatchOperation = new DeleteProcessInstancesBatchOperation();
+      batchOperations.put(deleteProcessInstancesBatchOperation.getType(), deleteProcessInstancesBatchOperation);
+      
+      SetJobRetriesBatchOperation setJobRetriesBatchOperation = new SetJobRetriesBatchOperation();
+      batchOperations.put(setJobRetriesBatchOperation.getType(), setJobRetriesBatchOperation);
+      
+      MigrateProcessInstancesBatchOperation migrateProcessInstancesBatchOperation = new MigrateProcessInstancesBatchOperation();
+      batchOperations.put(migrateProcessInstancesBatchOperation.getType(), migrateProcessInstancesBatchOperation);
+      
+      if (customBatchOperations != null) {
+        for (BatchOperation customBatchOperation : customBatchOperations) {
+          batchOperations.put(customBatchOperation.getType(), customBatchOperation);
+        }
+      }
+    }
+  }
+
   // failedJobCommandFactory ////////////////////////////////////////////////////////
   
   protected void initFailedJobCommandFactory() {
@@ -466,6 +681,9 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
 
   protected Collection< ? extends CommandInterceptor> getDefaultCommandInterceptors() {
     List<CommandInterceptor> interceptors = new ArrayList<CommandInterceptor>();
+    if (metricsRegistry != null) {
+      interceptors.add(new MetricsInterceptor(metricsRegistry));
+    }
     interceptors.add(new LogInterceptor());
     
     CommandInterceptor transactionInterceptor = createTransactionInterceptor();
@@ -482,6 +700,13 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
       CommandInterceptor first = initInterceptorChain(commandInterceptors);
       commandExecutor = new CommandExecutorImpl(getDefaultCommandConfig(), first);
     }
+    if (metricsRegistry != null) {
+      for (CommandInterceptor commandInterceptor : commandInterceptors) {
+        if (commandInterceptor instanceof RetryInterceptor && ((RetryInterceptor) commandInterceptor).getMetricsRegistry() == null) {
+          ((RetryInterceptor) commandInterceptor).setMetricsRegistry(metricsRegistry);
+        }
+      }
+    }
   }
 
   protected CommandInterceptor initInterceptorChain(List<CommandInterceptor> chain) {
@@ -651,6 +876,7 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
         Reader reader = new InputStreamReader(inputStream);
         Properties properties = new Properties();
         properties.put("prefix", databaseTablePrefix);
+        properties.put("historyPartitioned", String.valueOf(dbHistoryPartitioned));
         if(databaseType != null) {
           properties.put("limitBefore" , DbSqlSessionFactory.databaseSpecificLimitBeforeStatements.get(databaseType));
           properties.put("limitAfter" , DbSqlSessionFactory.databaseSpecificLimitAfterStatements.get(databaseType));
@@ -671,6 +897,10 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
         }
         
         configuration = parser.parse();
+        
+        if (metricsRegistry != null) {
+          configuration.addInterceptor(new SqlStatementMetricsPlugin(metricsRegistry));
+        }
 
         sqlSessionFactory = new DefaultSqlSessionFactory(configuration);
 
@@ -709,9 +939,11 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
       dbSqlSessionFactory.setDbHistoryUsed(isDbHistoryUsed);
       dbSqlSessionFactory.setDatabaseTablePrefix(databaseTablePrefix);
       dbSqlSessionFactory.setDatabaseSchema(databaseSchema);
+      dbSqlSessionFactory.setMetricsRegistry(metricsRegistry);
       addSessionFactory(dbSqlSessionFactory);
       
       addSessionFactory(new GenericManagerFactory(AttachmentEntityManager.class));
+      addSessionFactory(new GenericManagerFactory(BatchEntityManager.class));
       addSessionFactory(new GenericManagerFactory(CommentEntityManager.class));
       addSessionFactory(new GenericManagerFactory(DeploymentEntityManager.class));
       addSessionFactory(new GenericManagerFactory(ModelEntityManager.class));
@@ -722,6 +954,8 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
       addSessionFactory(new GenericManagerFactory(HistoricVariableInstanceEntityManager.class));
       addSessionFactory(new GenericManagerFactory(HistoricTaskInstanceEntityManager.class));
       addSessionFactory(new GenericManagerFactory(HistoricIdentityLinkEntityManager.class));
+      addSessionFactory(new GenericManagerFactory(HistoricStatisticsEntityManager.class));
+      addSessionFactory(new GenericManagerFactory(HistoryPartitionManager.class));
       addSessionFactory(new GenericManagerFactory(IdentityInfoEntityManager.class));
       addSessionFactory(new GenericManagerFactory(IdentityLinkEntityManager.class));
       addSessionFactory(new GenericManagerFactory(JobEntityManager.class));
@@ -862,6 +1096,7 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
       
       deploymentManager.setProcessDefinitionCache(processDefinitionCache);
       deploymentManager.setKnowledgeBaseCache(knowledgeBaseCache);
+      deploymentManager.setMetricsRegistry(metricsRegistry);
     }
   }
 
@@ -1030,6 +1265,24 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     TimerActivateProcessDefinitionHandler activateProcessDefinitionHandler = new TimerActivateProcessDefinitionHandler();
     jobHandlers.put(activateProcessDefinitionHandler.getType(), activateProcessDefinitionHandler);
     
+    ChangeProcessInstanceSuspensionStateJobHandler changeProcessInstanceSuspensionStateJobHandler = new ChangeProcessInstanceSuspensionStateJobHandler();
+    jobHandlers.put(changeProcessInstanceSuspensionStateJobHandler.getType(), changeProcessInstanceSuspensionStateJobHandler);
+    
+    SendMailJobHandler sendMailJobHandler = new SendMailJobHandler();
+    jobHandlers.put(sendMailJobHandler.getType(), sendMailJobHandler);
+    
+    BatchSeedJobHandler batchSeedJobHandler = new BatchSeedJobHandler();
+    jobHandlers.put(batchSeedJobHandler.getType(), batchSeedJobHandler);
+    
+    BatchWorkerJobHandler batchWorkerJobHandler = new BatchWorkerJobHandler();
+    jobHandlers.put(batchWorkerJobHandler.getType(), batchWorkerJobHandler);
+    
+    BatchMonitorJobHandler batchMonitorJobHandler = new BatchMonitorJobHandler();
+    jobHandlers.put(batchMonitorJobHandler.getType(), batchMonitorJobHandler);
+    
+    ParallelMultiInstanceCompletionJobHandler parallelMultiInstanceCompletionJobHandler = new ParallelMultiInstanceCompletionJobHandler();
+    jobHandlers.put(parallelMultiInstanceCompletionJobHandler.getType(), parallelMultiInstanceCompletionJobHandler);
+    
     // if we have custom job handlers, register them
     if (getCustomJobHandlers()!=null) {
       for (JobHandler customJobHandler : getCustomJobHandlers()) {
@@ -1050,6 +1303,19 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     
   }
   
+  protected void initAsyncMailSender() {
+    if (asyncMailSender == null) {
+      asyncMailSender = new AsyncMailSender();
+    }
+    asyncMailSender.setProcessEngineConfiguration(this);
+  }
+  
+  protected void initTableRowCountCache() {
+    if (tableRowCountCache == null) {
+      tableRowCountCache = new TableRowCountCache(tableRowCountCacheTimeToLive);
+    }
+  }
+  
   // history //////////////////////////////////////////////////////////////////
   
   public void initHistoryLevel() {
@@ -1089,6 +1355,12 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
 
   // OTHER ////////////////////////////////////////////////////////////////////
   
+  protected void initMetrics() {
+    if (enableMetrics && metricsRegistry == null) {
+      metricsRegistry = new DefaultMetricsRegistry();
+    }
+  }
+  
   protected void initCommandContextFactory() {
     if (commandContextFactory==null) {
       commandContextFactory = new CommandContextFactory();
@@ -1174,7 +1446,10 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
 
   protected void initExpressionManager() {
     if (expressionManager==null) {
-      expressionManager = new ExpressionManager(beans);
+      expressionManager = new ExpressionManager(beans, expressionCacheSize);
+    }
+    if (enableSimpleExpressionCompilation && expressionManager.getSimpleExpressionCompiler() == null) {
+      expressionManager.setSimpleExpressionCompiler(expressionManager.createSimpleExpressionCompiler());
     }
   }
 
@@ -1512,6 +1787,24 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     return this;
   }
   
+  public int getExpressionCacheSize() {
+    return expressionCacheSize;
+  }
+
+  public ProcessEngineConfigurationImpl setExpressionCacheSize(int expressionCacheSize) {
+    this.expressionCacheSize = expressionCacheSize;
+    return this;
+  }
+
+  public boolean isEnableSimpleExpressionCompilation() {
+    return enableSimpleExpressionCompilation;
+  }
+
+  public ProcessEngineConfigurationImpl setEnableSimpleExpressionCompilation(boolean enableSimpleExpressionCompilation) {
+    this.enableSimpleExpressionCompilation = enableSimpleExpressionCompilation;
+    return this;
+  }
+
   public BusinessCalendarManager getBusinessCalendarManager() {
     return businessCalendarManager;
   }
@@ -1611,6 +1904,51 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     return this;
   }
   
+  public List<BatchOperation> getCustomBatchOperations() {
+    return customBatchOperations;
+  }
+  
+  public ProcessEngineConfigurationImpl setCustomBatchOperations(List<BatchOperation> customBatchOperations) {
+    this.customBatchOperations = customBatchOperations;
+    return this;
+  }
+  
+  public Map<String, BatchOperation> getBatchOperations() {
+    return batchOperations;
+  }
+  
+  public ProcessEngineConfigurationImpl setBatchOperations(Map<String, BatchOperation> batchOperations) {
+    this.batchOperations = batchOperations;
+    return this;
+  }
+  
+  public int getBatchChunkSize() {
+    return batchChunkSize;
+  }
+  
+  public ProcessEngineConfigurationImpl setBatchChunkSize(int batchChunkSize) {
+    this.batchChunkSize = batchChunkSize;
+    return this;
+  }
+  
+  public int getBatchJobsPerSeed() {
+    return batchJobsPerSeed;
+  }
+  
+  public ProcessEngineConfigurationImpl setBatchJobsPerSeed(int batchJobsPerSeed) {
+    this.batchJobsPerSeed = batchJobsPerSeed;
+    return this;
+  }
+  
+  public int getBatchMonitorWaitTimeInMillis() {
+    return batchMonitorWaitTimeInMillis;
+  }
+  
+  public ProcessEngineConfigurationImpl setBatchMonitorWaitTimeInMillis(int batchMonitorWaitTimeInMillis) {
+    this.batchMonitorWaitTimeInMillis = batchMonitorWaitTimeInMillis;
+    return this;
+  }
+  
   public List<FormEngine> getCustomFormEngines() {
     return customFormEngines;
   }
@@ -1813,6 +2151,60 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     return this;
   }
   
+  public boolean isEnableAsyncProcessInstanceSuspension() {
+    return enableAsyncProcessInstanceSuspension;
+  }
+
+  public ProcessEngineConfigurationImpl setEnableAsyncProcessInstanceSuspension(boolean enableAsyncProcessInstanceSuspension) {
+    this.enableAsyncProcessInstanceSuspension = enableAsyncProcessInstanceSuspension;
+    return this;
+  }
+
+  public boolean isEnableTransientExecutions() {
+    return enableTransientExecutions;
+  }
+
+  public ProcessEngineConfigurationImpl setEnableTransientExecutions(boolean enableTransientExecutions) {
+    this.enableTransientExecutions = enableTransientExecutions;
+    return this;
+  }
+
+  public boolean isEnableBulkCascadeDelete() {
+    return enableBulkCascadeDelete;
+  }
+
+  public ProcessEngineConfigurationImpl setEnableBulkCascadeDelete(boolean enableBulkCascadeDelete) {
+    this.enableBulkCascadeDelete = enableBulkCascadeDelete;
+    return this;
+  }
+
+  public int getBulkCascadeDeleteChunkSize() {
+    return bulkCascadeDeleteChunkSize;
+  }
+
+  public ProcessEngineConfigurationImpl setBulkCascadeDeleteChunkSize(int bulkCascadeDeleteChunkSize) {
+    this.bulkCascadeDeleteChunkSize = bulkCascadeDeleteChunkSize;
+    return this;
+  }
+
+  public int getBulkOperationChunkSize() {
+    return bulkOperationChunkSize;
+  }
+
+  public ProcessEngineConfigurationImpl setBulkOperationChunkSize(int bulkOperationChunkSize) {
+    this.bulkOperationChunkSize = bulkOperationChunkSize;
+    return this;
+  }
+
+  public int getProcessInstanceSuspensionChunkSize() {
+    return processInstanceSuspensionChunkSize;
+  }
+
+  public ProcessEngineConfigurationImpl setProcessInstanceSuspensionChunkSize(int processInstanceSuspensionChunkSize) {
+    this.processInstanceSuspensionChunkSize = processInstanceSuspensionChunkSize;
+    return this;
+  }
+  
   public int getBatchSizeTasks() {
     return batchSizeTasks;
   }
@@ -1840,6 +2232,42 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     return this;
   }
 
+  public boolean isEnableProcessDefinitionCacheWarmUp() {
+    return enableProcessDefinitionCacheWarmUp;
+  }
+
+  public ProcessEngineConfigurationImpl setEnableProcessDefinitionCacheWarmUp(boolean enableProcessDefinitionCacheWarmUp) {
+    this.enableProcessDefinitionCacheWarmUp = enableProcessDefinitionCacheWarmUp;
+    return this;
+  }
+
+  public int getProcessDefinitionCacheWarmUpVersions() {
+    return processDefinitionCacheWarmUpVersions;
+  }
+
+  public ProcessEngineConfigurationImpl setProcessDefinitionCacheWarmUpVersions(int processDefinitionCacheWarmUpVersions) {
+    this.processDefinitionCacheWarmUpVersions = processDefinitionCacheWarmUpVersions;
+    return this;
+  }
+
+  public boolean isProcessDefinitionCacheWarmUpRunningInstances() {
+    return processDefinitionCacheWarmUpRunningInstances;
+  }
+
+  public ProcessEngineConfigurationImpl setProcessDefinitionCacheWarmUpRunningInstances(boolean processDefinitionCacheWarmUpRunningInstances) {
+    this.processDefinitionCacheWarmUpRunningInstances = processDefinitionCacheWarmUpRunningInstances;
+    return this;
+  }
+
+  public int getProcessDefinitionCacheWarmUpThreads() {
+    return processDefinitionCacheWarmUpThreads;
+  }
+
+  public ProcessEngineConfigurationImpl setProcessDefinitionCacheWarmUpThreads(int processDefinitionCacheWarmUpThreads) {
+    this.processDefinitionCacheWarmUpThreads = processDefinitionCacheWarmUpThreads;
+    return this;
+  }
+
   public int getKnowledgeBaseCacheLimit() {
     return knowledgeBaseCacheLimit;
   }
@@ -1867,6 +2295,114 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     return this;
   }
   
+  public boolean isEnableMetrics() {
+    return enableMetrics;
+  }
+
+  public ProcessEngineConfigurationImpl setEnableMetrics(boolean enableMetrics) {
+    this.enableMetrics = enableMetrics;
+    return this;
+  }
+
+  public boolean isEnableMetricsJmx() {
+    return enableMetricsJmx;
+  }
+
+  public ProcessEngineConfigurationImpl setEnableMetricsJmx(boolean enableMetricsJmx) {
+    this.enableMetricsJmx = enableMetricsJmx;
+    return this;
+  }
+
+  public MetricsRegistry getMetricsRegistry() {
+    return metricsRegistry;
+  }
+
+  public ProcessEngineConfigurationImpl setMetricsRegistry(MetricsRegistry metricsRegistry) {
+    this.metricsRegistry = metricsRegistry;
+    return this;
+  }
+  
+  public boolean isEnableAsyncMailDelivery() {
+    return enableAsyncMailDelivery;
+  }
+
+  public ProcessEngineConfigurationImpl setEnableAsyncMailDelivery(boolean enableAsyncMailDelivery) {
+    this.enableAsyncMailDelivery = enableAsyncMailDelivery;
+    return this;
+  }
+
+  public AsyncMailSender getAsyncMailSender() {
+    return asyncMailSender;
+  }
+
+  public ProcessEngineConfigurationImpl setAsyncMailSender(AsyncMailSender asyncMailSender) {
+    this.asyncMailSender = asyncMailSender;
+    return this;
+  }
+  
+  public boolean isEnableHistoricStatistics() {
+    return enableHistoricStatistics;
+  }
+
+  public ProcessEngineConfigurationImpl setEnableHistoricStatistics(boolean enableHistoricStatistics) {
+    this.enableHistoricStatistics = enableHistoricStatistics;
+    return this;
+  }
+
+  public boolean isDbHistoryPartitioned() {
+    return dbHistoryPartitioned;
+  }
+
+  public ProcessEngineConfigurationImpl setDbHistoryPartitioned(boolean dbHistoryPartitioned) {
+    this.dbHistoryPartitioned = dbHistoryPartitioned;
+    return this;
+  }
+
+  public int getHistoryPartitionsAhead() {
+    return historyPartitionsAhead;
+  }
+
+  public ProcessEngineConfigurationImpl setHistoryPartitionsAhead(int historyPartitionsAhead) {
+    this.historyPartitionsAhead = historyPartitionsAhead;
+    return this;
+  }
+
+  public boolean isEnableTableRowCountEstimates() {
+    return enableTableRowCountEstimates;
+  }
+
+  public ProcessEngineConfigurationImpl setEnableTableRowCountEstimates(boolean enableTableRowCountEstimates) {
+    this.enableTableRowCountEstimates = enableTableRowCountEstimates;
+    return this;
+  }
+
+  public long getTableRowCountCacheTimeToLive() {
+    return tableRowCountCacheTimeToLive;
+  }
+
+  public ProcessEngineConfigurationImpl setTableRowCountCacheTimeToLive(long tableRowCountCacheTimeToLive) {
+    this.tableRowCountCacheTimeToLive = tableRowCountCacheTimeToLive;
+    return this;
+  }
+
+  public TableRowCountCache getTableRowCountCache() {
+    return tableRowCountCache;
+  }
+
+  public ProcessEngineConfigurationImpl setTableRowCountCache(TableRowCountCache tableRowCountCache) {
+    this.tableRowCountCache = tableRowCountCache;
+    return this;
+  }
+  
+  public boolean isEnableConcurrentMultiInstanceCompletion() {
+    return enableConcurrentMultiInstanceCompletion;
+  }
+
+  public ProcessEngineConfigurationImpl setEnableConcurrentMultiInstanceCompletion(boolean enableConcurrentMultiInstanceCompletion) {
+    this.enableConcurrentMultiInstanceCompletion = enableConcurrentMultiInstanceCompletion;
+    return this;
+  }
+  
   public ActivitiEventDispatcher getEventDispatcher() {
 	  return eventDispatcher;
   }
@@ -26,6 +26,7 @@ import org.activiti.engine.impl.ProcessInstanceQueryImpl;
 import org.activiti.engine.impl.context.Context;
 import org.activiti.engine.impl.interceptor.Command;
 import org.activiti.engine.impl.interceptor.CommandContext;
+import org.activiti.engine.impl.jobexecutor.ChangeProcessInstanceSuspensionStateJobHandler;
 import org.activiti.engine.impl.jobexecutor.JobHandler;
 import org.activiti.engine.impl.jobexecutor.TimerChangeProcessDefinitionSuspensionStateJobHandler;
 import org.activiti.engine.impl.persistence.entity.ProcessDefinitionEntity;
@@ -157,7 +158,13 @@ public abstract class AbstractSetProcessDefinitionStateCmd implements Command<Vo
         .remove(processDefinition.getId());
       
       // Suspend process instances (if needed)
-      if (includeProcessInstances) {
+      if (includeProcessInstances && Context.getProcessEngineConfiguration().isEnableAsyncProcessInstanceSuspension()) {
+        
+        // Process instances are changed in chunks by the job executor
+        ChangeProcessInstanceSuspensionStateJobHandler.schedule(commandContext, processDefinition.getId(), 
+                processDefinition.getTenantId(), getProcessDefinitionSuspensionState());
+        
+      } else if (includeProcessInstances) {
         
         int currentStartIndex = 0;
         List<ProcessInstance> processInstances = fetchProcessInstancesPage(commandContext, processDefinition, currentStartIndex);
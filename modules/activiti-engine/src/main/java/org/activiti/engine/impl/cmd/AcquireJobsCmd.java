@@ -18,10 +18,12 @@ import java.util.GregorianCalendar;
 import java.util.List;
 
 import org.activiti.engine.impl.Page;
+import org.activiti.engine.impl.context.Context;
 import org.activiti.engine.impl.interceptor.Command;
 import org.activiti.engine.impl.interceptor.CommandContext;
 import org.activiti.engine.impl.jobexecutor.AcquiredJobs;
 import org.activiti.engine.impl.jobexecutor.JobExecutor;
+import org.activiti.engine.impl.metrics.MetricsRegistry;
 import org.activiti.engine.impl.persistence.entity.JobEntity;
 import org.activiti.engine.impl.util.ClockUtil;
 
@@ -73,6 +75,11 @@ public class AcquireJobsCmd implements Command<AcquiredJobs> {
       acquiredJobs.addJobIdBatch(jobIds);
     }
 
+    MetricsRegistry metricsRegistry = Context.getProcessEngineConfiguration().getMetricsRegistry();
+    if (metricsRegistry != null) {
+      metricsRegistry.increment("jobexecutor.acquiredJobs", acquiredJobs.size());
+    }
+
     return acquiredJobs;
   }
 
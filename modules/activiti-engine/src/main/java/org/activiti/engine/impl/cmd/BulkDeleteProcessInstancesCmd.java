@@ -0,0 +1,197 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.engine.impl.cmd;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.activiti.engine.ActivitiIllegalArgumentException;
+import org.activiti.engine.ActivitiObjectNotFoundException;
+import org.activiti.engine.delegate.event.ActivitiEventDispatcher;
+import org.activiti.engine.delegate.event.ActivitiEventType;
+import org.activiti.engine.delegate.event.impl.ActivitiEventBuilder;
+import org.activiti.engine.impl.db.DbSqlSession;
+import org.activiti.engine.impl.interceptor.Command;
+import org.activiti.engine.impl.interceptor.CommandContext;
+import org.activiti.engine.impl.jobexecutor.SendMailJobHandler;
+import org.activiti.engine.impl.persistence.entity.ExecutionEntity;
+import org.activiti.engine.impl.persistence.entity.HistoricProcessInstanceEntity;
+import org.activiti.engine.runtime.ProcessInstance;
+
+/**
+ * Deletes process instances, their sub process instances and all their runtime and 
+ * history data with one set-based statement per table, without loading any entity. 
+ * Process instances that already ended are found in the history, which is deleted as well. 
+ * Listeners are not invoked and, instead of an event per entity, one 
+ * {@link ActivitiEventType#PROCESS_INSTANCES_DELETED} event is dispatched. Statements for more 
+ * process instances than {@link DbSqlSession#MAX_IN_LIST_SIZE} are split by the entity managers.
+ * 
+ * When created for a process definition, the next chunk of its root process instances 
+ * is deleted: first the running ones, then the historic ones. Sub process instances are 
+ * only deleted together with their root process instance. The ids of the deleted root 
+ * process instances are returned, so an empty list means nothing is left to delete.
+ */
+public class BulkDeleteProcessInstancesCmd implements Command<List<String>>, Serializable {
+
+  private static final long serialVersionUID = 1L;
+  
+  protected String processDefinitionId;
+  protected int chunkSize;
+  protected List<String> processInstanceIds;
+  
+  public BulkDeleteProcessInstancesCmd(String processDefinitionId, int chunkSize) {
+    this.processDefinitionId = processDefinitionId;
+    this.chunkSize = chunkSize;
+  }
+  
+  public BulkDeleteProcessInstancesCmd(List<String> processInstanceIds) {
+    this.processInstanceIds = processInstanceIds;
+  }
+
+  public List<String> execute(CommandContext commandContext) {
+    List<String> deletedProcessInstanceIds = null;
+    if (processInstanceIds != null) {
+      deletedProcessInstanceIds = validateProcessInstanceIds(commandContext);
+    } else {
+      deletedProcessInstanceIds = findNextProcessInstanceIds(commandContext);
+    }
+    
+    if (!deletedProcessInstanceIds.isEmpty()) {
+      List<String> allProcessInstanceIds = findWithSubProcessInstanceIds(commandContext, deletedProcessInstanceIds);
+      deleteRuntimeData(commandContext, allProcessInstanceIds);
+      if (commandContext.getHistoryManager().isHistoryEnabled()) {
+        deleteHistoricData(commandContext, allProcessInstanceIds);
+      }
+      
+      ActivitiEventDispatcher eventDispatcher = commandContext.getProcessEngineConfiguration().getEventDispatcher();
+      if (eventDispatcher.isEnabled()) {
+        eventDispatcher.dispatchEvent(ActivitiEventBuilder.createProcessInstancesEvent(
+                ActivitiEventType.PROCESS_INSTANCES_DELETED, processDefinitionId, allProcessInstanceIds));
+      }
+    }
+    return deletedProcessInstanceIds;
+  }
+  
+  protected List<String> validateProcessInstanceIds(CommandContext commandContext) {
+    if (processInstanceIds.isEmpty()) {
+      return processInstanceIds;
+    }
+    
+    Map<String, ExecutionEntity> executions = new HashMap<String, ExecutionEntity>();
+    for (ExecutionEntity execution : commandContext.getExecutionEntityManager().findExecutionsByIds(processInstanceIds)) {
+      executions.put(execution.getId(), execution);
+    }
+    
+    // ended process instances only exist in the history
+    Map<String, HistoricProcessInstanceEntity> historicProcessInstances = new HashMap<String, HistoricProcessInstanceEntity>();
+    if (executions.size() < processInstanceIds.size() && commandContext.getHistoryManager().isHistoryEnabled()) {
+      for (HistoricProcessInstanceEntity historicProcessInstance : commandContext.getHistoricProcessInstanceEntityManager()
+              .findHistoricProcessInstancesByIds(processInstanceIds)) {
+        historicProcessInstances.put(historicProcessInstance.getId(), historicProcessInstance);
+      }
+    }
+    
+    for (String processInstanceId : processInstanceIds) {
+      if (processInstanceId == null) {
+        throw new ActivitiIllegalArgumentException("processInstanceIds contains null");
+      }
+      ExecutionEntity execution = executions.get(processInstanceId);
+      String superProcessInstanceId = null;
+      if (execution != null && execution.isProcessInstanceType()) {
+        superProcessInstanceId = execution.getSuperExecutionId();
+      } else if (execution == null && historicProcessInstances.containsKey(processInstanceId)) {
+        superProcessInstanceId = historicProcessInstances.get(processInstanceId).getSuperProcessInstanceId();
+      } else {
+        throw new ActivitiObjectNotFoundException("No process instance found for id '" + processInstanceId + "'", ProcessInstance.class);
+      }
+      if (superProcessInstanceId != null) {
+        throw new ActivitiIllegalArgumentException("Process instance '" + processInstanceId 
+                + "' is a sub process instance: only root process instances can be deleted in bulk");
+      }
+    }
+    return processInstanceIds;
+  }
+  
+  protected List<String> findNextProcessInstanceIds(CommandContext commandContext) {
+    if (processDefinitionId == null) {
+      throw new ActivitiIllegalArgumentException("processDefinitionId is null");
+    }
+    List<String> ids = commandContext.getExecutionEntityManager()
+      .findRootProcessInstanceIdsByProcessDefinitionId(processDefinitionId, chunkSize);
+    if (ids.isEmpty() && commandContext.getHistoryManager().isHistoryEnabled()) {
+      ids = commandContext.getHistoricProcessInstanceEntityManager()
+        .findRootHistoricProcessInstanceIdsByProcessDefinitionId(processDefinitionId, chunkSize);
+    }
+    return ids;
+  }
+  
+  /**
+   * Adds the (running or historic) sub process instances of the given process instances,
+   * one query per level of nesting.
+   */
+  protected List<String> findWithSubProcessInstanceIds(CommandContext commandContext, List<String> processInstanceIds) {
+    boolean historyEnabled = commandContext.getHistoryManager().isHistoryEnabled();
+    Set<String> allProcessInstanceIds = new LinkedHashSet<String>(processInstanceIds);
+    Collection<String> superProcessInstanceIds = processInstanceIds;
+    while (!superProcessInstanceIds.isEmpty()) {
+      Set<String> subProcessInstanceIds = new LinkedHashSet<String>();
+      subProcessInstanceIds.addAll(commandContext.getExecutionEntityManager()
+        .findSubProcessInstanceIdsBySuperProcessInstanceIds(superProcessInstanceIds));
+      if (historyEnabled) {
+        subProcessInstanceIds.addAll(commandContext.getHistoricProcessInstanceEntityManager()
+          .findHistoricProcessInstanceIdsBySuperProcessInstanceIds(superProcessInstanceIds));
+      }
+      subProcessInstanceIds.removeAll(allProcessInstanceIds);
+      allProcessInstanceIds.addAll(subProcessInstanceIds);
+      superProcessInstanceIds = subProcessInstanceIds;
+    }
+    return new ArrayList<String>(allProcessInstanceIds);
+  }
+  
+  protected void deleteRuntimeData(CommandContext commandContext, List<String> processInstanceIds) {
+    // the byte arrays can only be deleted after the rows referencing them, so their ids are fetched first
+    List<String> byteArrayIds = new ArrayList<String>();
+    byteArrayIds.addAll(commandContext.getVariableInstanceEntityManager().findVariableByteArrayIdsByProcessInstanceIds(processInstanceIds));
+    byteArrayIds.addAll(commandContext.getJobEntityManager().findJobExceptionByteArrayIdsByProcessInstanceIds(processInstanceIds));
+    // the mail content of a pending send-mail job is stored in the byte array its configuration refers to
+    byteArrayIds.addAll(commandContext.getJobEntityManager()
+      .findJobHandlerConfigurationsByProcessInstanceIdsAndHandlerType(processInstanceIds, SendMailJobHandler.TYPE));
+    
+    // the deletes are executed at flush time, in the order in which they are registered here
+    commandContext.getIdentityLinkEntityManager().deleteIdentityLinksByProcessInstanceIds(processInstanceIds);
+    commandContext.getVariableInstanceEntityManager().deleteVariableInstancesByProcessInstanceIds(processInstanceIds);
+    commandContext.getTaskEntityManager().deleteTasksByProcessInstanceIds(processInstanceIds);
+    commandContext.getEventSubscriptionEntityManager().deleteEventSubscriptionsByProcessInstanceIds(processInstanceIds);
+    commandContext.getJobEntityManager().deleteJobsByProcessInstanceIds(processInstanceIds);
+    commandContext.getByteArrayEntityManager().deleteByteArraysByIds(byteArrayIds);
+    commandContext.getExecutionEntityManager().deleteExecutionsByProcessInstanceIds(processInstanceIds);
+  }
+  
+  protected void deleteHistoricData(CommandContext commandContext, List<String> processInstanceIds) {
+    commandContext.getHistoricDetailEntityManager().deleteHistoricDetailsByProcessInstanceIds(processInstanceIds);
+    commandContext.getHistoricVariableInstanceEntityManager().deleteHistoricVariableInstancesByProcessInstanceIds(processInstanceIds);
+    commandContext.getHistoricActivityInstanceEntityManager().deleteHistoricActivityInstancesByProcessInstanceIds(processInstanceIds);
+    commandContext.getHistoricIdentityLinkEntityManager().deleteHistoricIdentityLinksByProcessInstanceIds(processInstanceIds);
+    commandContext.getCommentEntityManager().deleteCommentsByProcessInstanceIds(processInstanceIds);
+    commandContext.getAttachmentEntityManager().deleteAttachmentsByProcessInstanceIds(processInstanceIds);
+    commandContext.getHistoricTaskInstanceEntityManager().deleteHistoricTaskInstancesByProcessInstanceIds(processInstanceIds);
+    commandContext.getHistoricProcessInstanceEntityManager().deleteHistoricProcessInstancesByIds(processInstanceIds);
+  }
+
+}
@@ -0,0 +1,58 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.engine.impl.cmd;
+
+import java.io.Serializable;
+
+import org.activiti.engine.impl.bpmn.behavior.ParallelMultiInstanceBehavior;
+import org.activiti.engine.impl.interceptor.Command;
+import org.activiti.engine.impl.interceptor.CommandContext;
+import org.activiti.engine.impl.persistence.entity.ExecutionEntity;
+import org.activiti.engine.impl.pvm.process.ActivityImpl;
+
+
+/**
+ * Joins the instances of a parallel multi-instance activity when all of them are completed 
+ * (or its completion condition is satisfied), but none of the transactions completing them 
+ * could see the completion of the others.
+ * Returns whether the instances were joined.
+ */
+public class CheckParallelMultiInstanceCompletionCmd implements Command<Boolean>, Serializable {
+
+  private static final long serialVersionUID = 1L;
+  
+  protected String parentExecutionId;
+  protected String activityId;
+
+  public CheckParallelMultiInstanceCompletionCmd(String parentExecutionId, String activityId) {
+    this.parentExecutionId = parentExecutionId;
+    this.activityId = activityId;
+  }
+
+  public Boolean execute(CommandContext commandContext) {
+    ExecutionEntity parentExecution = commandContext
+      .getExecutionEntityManager()
+      .findExecutionById(parentExecutionId);
+    
+    // Already joined (and possibly ended) by another transaction
+    if (parentExecution == null || parentExecution.isActive() || !activityId.equals(parentExecution.getActivityId())) {
+      return false;
+    }
+    
+    ActivityImpl activity = parentExecution.getProcessDefinition().findActivity(activityId);
+    if (activity == null || !(activity.getActivityBehavior() instanceof ParallelMultiInstanceBehavior)) {
+      return false;
+    }
+    return ((ParallelMultiInstanceBehavior) activity.getActivityBehavior()).joinIfAllInstancesCompleted(parentExecution);
+  }
+}
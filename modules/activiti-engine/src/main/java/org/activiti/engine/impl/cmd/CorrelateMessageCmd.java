@@ -0,0 +1,133 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.engine.impl.cmd;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.activiti.engine.ActivitiException;
+import org.activiti.engine.ActivitiIllegalArgumentException;
+import org.activiti.engine.impl.db.DbSqlSession;
+import org.activiti.engine.impl.interceptor.Command;
+import org.activiti.engine.impl.interceptor.CommandContext;
+import org.activiti.engine.impl.persistence.entity.ExecutionEntity;
+import org.activiti.engine.impl.persistence.entity.MessageEventSubscriptionEntity;
+import org.activiti.engine.runtime.ProcessInstance;
+
+/**
+ * Correlates a message to the process instances with the given business keys. The subscriptions
+ * to the message are resolved with one query for all business keys, and the process instances
+ * they belong to with a second one. A process instance is started by the message for every 
+ * business key without a waiting execution. Large numbers of business keys are looked up 
+ * in chunks, see {@link DbSqlSession#MAX_IN_LIST_SIZE}.
+ * 
+ * When a tenant id is given, only process instances and process definitions of that tenant are used.
+ */
+public class CorrelateMessageCmd implements Command<List<ProcessInstance>>, Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  protected final String messageName;
+  protected final Map<String, Map<String, Object>> processVariablesByBusinessKey;
+  protected final String tenantId;
+
+  public CorrelateMessageCmd(String messageName, String businessKey, Map<String, Object> processVariables) {
+    this(messageName, Collections.singletonMap(businessKey, processVariables));
+  }
+
+  public CorrelateMessageCmd(String messageName, Map<String, Map<String, Object>> processVariablesByBusinessKey) {
+    this(messageName, processVariablesByBusinessKey, null);
+  }
+
+  public CorrelateMessageCmd(String messageName, Map<String, Map<String, Object>> processVariablesByBusinessKey, String tenantId) {
+    this.messageName = messageName;
+    this.processVariablesByBusinessKey = processVariablesByBusinessKey != null
+            ? new LinkedHashMap<String, Map<String, Object>>(processVariablesByBusinessKey) : null;
+    this.tenantId = tenantId;
+  }
+
+  public List<ProcessInstance> execute(CommandContext commandContext) {
+    if (messageName == null) {
+      throw new ActivitiIllegalArgumentException("messageName is null");
+    }
+    if (processVariablesByBusinessKey == null || processVariablesByBusinessKey.isEmpty()) {
+      throw new ActivitiIllegalArgumentException("At least one business key is required to correlate a message");
+    }
+    if (processVariablesByBusinessKey.containsKey(null)) {
+      throw new ActivitiIllegalArgumentException("businessKey is null");
+    }
+
+    List<MessageEventSubscriptionEntity> eventSubscriptions = commandContext.getEventSubscriptionEntityManager()
+      .findMessageEventSubscriptionsByNameAndBusinessKeys(messageName, processVariablesByBusinessKey.keySet(), tenantId);
+
+    Map<String, MessageEventSubscriptionEntity> eventSubscriptionByBusinessKey = new HashMap<String, MessageEventSubscriptionEntity>();
+    Map<String, ExecutionEntity> processInstanceByBusinessKey = new HashMap<String, ExecutionEntity>();
+    if (!eventSubscriptions.isEmpty()) {
+      Map<String, ExecutionEntity> processInstances = findProcessInstances(commandContext, eventSubscriptions);
+      for (MessageEventSubscriptionEntity eventSubscription : eventSubscriptions) {
+        ExecutionEntity processInstance = processInstances.get(eventSubscription.getProcessInstanceId());
+        String businessKey = processInstance.getBusinessKey();
+        if (eventSubscriptionByBusinessKey.containsKey(businessKey)) {
+          throw new ActivitiException("Cannot correlate message '" + messageName + "': more than one execution of process instances with business key '" 
+                  + businessKey + "' has a subscription to it");
+        }
+        eventSubscriptionByBusinessKey.put(businessKey, eventSubscription);
+        processInstanceByBusinessKey.put(businessKey, processInstance);
+      }
+    }
+
+    List<ProcessInstance> processInstances = new ArrayList<ProcessInstance>(processVariablesByBusinessKey.size());
+    for (Map.Entry<String, Map<String, Object>> entry : processVariablesByBusinessKey.entrySet()) {
+      String businessKey = entry.getKey();
+      MessageEventSubscriptionEntity eventSubscription = eventSubscriptionByBusinessKey.get(businessKey);
+      if (eventSubscription != null) {
+        if (eventSubscription.getExecution().isSuspended()) {
+          throw new ActivitiException("Cannot correlate message '" + messageName + "' to process instance with business key '" 
+                  + businessKey + "': the execution is suspended");
+        }
+        eventSubscription.eventReceived(createPayload(entry.getValue()), false);
+        processInstances.add(processInstanceByBusinessKey.get(businessKey));
+      } else {
+        processInstances.add(new StartProcessInstanceByMessageCmd(messageName, businessKey, entry.getValue(), tenantId).execute(commandContext));
+      }
+    }
+    return processInstances;
+  }
+
+  protected Map<String, ExecutionEntity> findProcessInstances(CommandContext commandContext, List<MessageEventSubscriptionEntity> eventSubscriptions) {
+    Set<String> processInstanceIdSet = new HashSet<String>();
+    for (MessageEventSubscriptionEntity eventSubscription : eventSubscriptions) {
+      processInstanceIdSet.add(eventSubscription.getProcessInstanceId());
+    }
+    Map<String, ExecutionEntity> processInstances = new HashMap<String, ExecutionEntity>();
+    for (ExecutionEntity processInstance : commandContext.getExecutionEntityManager().findExecutionsByIds(processInstanceIdSet)) {
+      processInstances.put(processInstance.getId(), processInstance);
+    }
+    return processInstances;
+  }
+
+  protected Serializable createPayload(Map<String, Object> processVariables) {
+    if (processVariables == null || processVariables instanceof Serializable) {
+      return (Serializable) processVariables;
+    }
+    return new HashMap<String, Object>(processVariables);
+  }
+
+}
@@ -0,0 +1,79 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.engine.impl.cmd;
+
+import java.io.Serializable;
+import java.util.List;
+
+import org.activiti.engine.ActivitiIllegalArgumentException;
+import org.activiti.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.activiti.engine.impl.interceptor.Command;
+import org.activiti.engine.impl.interceptor.CommandContext;
+import org.activiti.engine.impl.jobexecutor.BatchMonitorJobHandler;
+import org.activiti.engine.impl.jobexecutor.BatchSeedJobHandler;
+import org.activiti.engine.impl.persistence.entity.BatchEntity;
+import org.activiti.engine.impl.persistence.entity.BatchEntityManager;
+import org.activiti.engine.impl.util.ClockUtil;
+import org.activiti.engine.management.Batch;
+
+/**
+ * Creates a {@link Batch} together with its seed and monitor job. 
+ * None of the items are processed in the calling transaction.
+ */
+public class CreateBatchCmd implements Command<Batch>, Serializable {
+
+  private static final long serialVersionUID = 1L;
+  
+  protected String type;
+  protected List<String> itemIds;
+  protected String configuration;
+
+  public CreateBatchCmd(String type, List<String> itemIds, String configuration) {
+    this.type = type;
+    this.itemIds = itemIds;
+    this.configuration = configuration;
+  }
+
+  public Batch execute(CommandContext commandContext) {
+    if (type == null) {
+      throw new ActivitiIllegalArgumentException("type is null");
+    }
+    ProcessEngineConfigurationImpl processEngineConfiguration = commandContext.getProcessEngineConfiguration();
+    if (!processEngineConfiguration.getBatchOperations().containsKey(type)) {
+      throw new ActivitiIllegalArgumentException("No batch operation registered for batch type '" + type + "'");
+    }
+    List<String> batchItemIds = getItemIds(commandContext);
+    if (batchItemIds == null) {
+      throw new ActivitiIllegalArgumentException("itemIds is null");
+    }
+    
+    BatchEntityManager batchEntityManager = commandContext.getBatchEntityManager();
+    BatchEntity batch = new BatchEntity();
+    batch.setType(type);
+    batch.setTotalItems(batchItemIds.size());
+    batch.setChunkSize(processEngineConfiguration.getBatchChunkSize());
+    batch.setConfiguration(configuration);
+    batch.setCreateTime(ClockUtil.getCurrentTime());
+    batch.setItemsId(batchEntityManager.insertBatchItems("batch-items", batchItemIds));
+    batchEntityManager.insertBatch(batch);
+    
+    BatchSeedJobHandler.scheduleSeed(commandContext, batch.getId(), 0);
+    BatchMonitorJobHandler.scheduleMonitor(commandContext, batch.getId());
+    return batch;
+  }
+  
+  protected List<String> getItemIds(CommandContext commandContext) {
+    return itemIds;
+  }
+
+}
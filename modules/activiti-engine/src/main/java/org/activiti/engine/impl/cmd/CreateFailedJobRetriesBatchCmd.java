@@ -0,0 +1,37 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.engine.impl.cmd;
+
+import java.util.List;
+
+import org.activiti.engine.impl.interceptor.CommandContext;
+import org.activiti.engine.management.Batch;
+
+/**
+ * Creates a batch that sets the retries of all jobs that failed with an exception. 
+ * The jobs are selected when the batch is created: jobs failing afterwards are not included.
+ */
+public class CreateFailedJobRetriesBatchCmd extends CreateBatchCmd {
+
+  private static final long serialVersionUID = 1L;
+
+  public CreateFailedJobRetriesBatchCmd(int retries) {
+    super(Batch.TYPE_SET_JOB_RETRIES, null, String.valueOf(retries));
+  }
+
+  @Override
+  protected List<String> getItemIds(CommandContext commandContext) {
+    return commandContext.getJobEntityManager().findFailedJobIds();
+  }
+
+}
@@ -0,0 +1,46 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.engine.impl.cmd;
+
+import java.io.Serializable;
+import java.util.Date;
+
+import org.activiti.engine.ActivitiException;
+import org.activiti.engine.ActivitiIllegalArgumentException;
+import org.activiti.engine.impl.interceptor.Command;
+import org.activiti.engine.impl.interceptor.CommandContext;
+
+/**
+ * Creates the missing monthly partitions of the partitioned history tables up to the given month.
+ */
+public class CreateHistoryPartitionsCmd implements Command<Integer>, Serializable {
+
+  private static final long serialVersionUID = 1L;
+  
+  protected Date until;
+
+  public CreateHistoryPartitionsCmd(Date until) {
+    this.until = until;
+  }
+
+  public Integer execute(CommandContext commandContext) {
+    if (until == null) {
+      throw new ActivitiIllegalArgumentException("until is null");
+    }
+    if (!commandContext.getProcessEngineConfiguration().isDbHistoryPartitioned()) {
+      throw new ActivitiException("History partitioning is not enabled in the process engine configuration");
+    }
+    return commandContext.getHistoryPartitionManager().createHistoryPartitions(until);
+  }
+
+}
@@ -0,0 +1,81 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.engine.impl.cmd;
+
+import java.util.List;
+import java.util.Map;
+
+import org.activiti.engine.ActivitiIllegalArgumentException;
+import org.activiti.engine.impl.batch.MigrateProcessInstancesBatchOperation;
+import org.activiti.engine.impl.batch.ProcessInstanceMigration;
+import org.activiti.engine.impl.interceptor.CommandContext;
+import org.activiti.engine.impl.persistence.deploy.DeploymentManager;
+import org.activiti.engine.impl.persistence.entity.ProcessDefinitionEntity;
+import org.activiti.engine.management.Batch;
+
+/**
+ * Creates a batch that migrates all process instances of the source process definition to the 
+ * target process definition. The migration is validated once, for all process instances: the 
+ * command fails when any of them is in an activity that doesn't exist in the target process 
+ * definition after mapping. The process instances are selected when the batch is created.
+ */
+public class CreateProcessInstanceMigrationBatchCmd extends CreateBatchCmd {
+
+  private static final long serialVersionUID = 1L;
+  
+  protected ProcessInstanceMigration migration;
+
+  public CreateProcessInstanceMigrationBatchCmd(String sourceProcessDefinitionId, String targetProcessDefinitionId, 
+          Map<String, String> activityMapping) {
+    super(Batch.TYPE_MIGRATE_PROCESS_INSTANCES, null, null);
+    this.migration = new ProcessInstanceMigration(sourceProcessDefinitionId, targetProcessDefinitionId, activityMapping);
+  }
+  
+  @Override
+  public Batch execute(CommandContext commandContext) {
+    if (migration.getSourceProcessDefinitionId() == null) {
+      throw new ActivitiIllegalArgumentException("sourceProcessDefinitionId is null");
+    }
+    if (migration.getTargetProcessDefinitionId() == null) {
+      throw new ActivitiIllegalArgumentException("targetProcessDefinitionId is null");
+    }
+    if (migration.getSourceProcessDefinitionId().equals(migration.getTargetProcessDefinitionId())) {
+      throw new ActivitiIllegalArgumentException("The source and target process definition are the same: " 
+              + migration.getSourceProcessDefinitionId());
+    }
+    
+    DeploymentManager deploymentManager = commandContext.getProcessEngineConfiguration().getDeploymentManager();
+    ProcessDefinitionEntity sourceProcessDefinition = deploymentManager.findDeployedProcessDefinitionById(migration.getSourceProcessDefinitionId());
+    ProcessDefinitionEntity targetProcessDefinition = deploymentManager.findDeployedProcessDefinitionById(migration.getTargetProcessDefinitionId());
+    for (Map.Entry<String, String> mapping : migration.getActivityMapping().entrySet()) {
+      if (sourceProcessDefinition.findActivity(mapping.getKey()) == null) {
+        throw new ActivitiIllegalArgumentException("The source process definition " 
+                + "(id = '" + sourceProcessDefinition.getId() + "') does not contain mapped activity '" + mapping.getKey() + "'");
+      }
+      if (targetProcessDefinition.findActivity(mapping.getValue()) == null) {
+        throw new ActivitiIllegalArgumentException("The target process definition " 
+                + "(id = '" + targetProcessDefinition.getId() + "') does not contain mapped activity '" + mapping.getValue() + "'");
+      }
+    }
+    MigrateProcessInstancesBatchOperation.validate(migration, commandContext);
+    
+    configuration = migration.toConfiguration();
+    return super.execute(commandContext);
+  }
+
+  @Override
+  protected List<String> getItemIds(CommandContext commandContext) {
+    return commandContext.getExecutionEntityManager().findProcessInstanceIdsByProcessDefinitionId(migration.getSourceProcessDefinitionId());
+  }
+
+}
@@ -0,0 +1,57 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.engine.impl.cmd;
+
+import java.io.Serializable;
+
+import org.activiti.engine.ActivitiIllegalArgumentException;
+import org.activiti.engine.ActivitiObjectNotFoundException;
+import org.activiti.engine.impl.interceptor.Command;
+import org.activiti.engine.impl.interceptor.CommandContext;
+import org.activiti.engine.impl.jobexecutor.BatchMonitorJobHandler;
+import org.activiti.engine.impl.persistence.entity.BatchEntity;
+import org.activiti.engine.impl.persistence.entity.JobEntity;
+import org.activiti.engine.management.Batch;
+import org.activiti.engine.runtime.Job;
+
+/**
+ * Deletes a batch and its monitor job. Seed and worker jobs of the batch that haven't 
+ * run yet only delete their own data when they run, without processing any items.
+ */
+public class DeleteBatchCmd implements Command<Void>, Serializable {
+
+  private static final long serialVersionUID = 1L;
+  
+  protected String batchId;
+
+  public DeleteBatchCmd(String batchId) {
+    this.batchId = batchId;
+  }
+
+  public Void execute(CommandContext commandContext) {
+    if (batchId == null) {
+      throw new ActivitiIllegalArgumentException("batchId is null");
+    }
+    BatchEntity batch = commandContext.getBatchEntityManager().findBatchById(batchId);
+    if (batch == null) {
+      throw new ActivitiObjectNotFoundException("No batch found with id '" + batchId + "'", Batch.class);
+    }
+    
+    for (Job monitorJob : commandContext.getJobEntityManager().findJobsByConfiguration(BatchMonitorJobHandler.TYPE, batchId)) {
+      ((JobEntity) monitorJob).delete();
+    }
+    commandContext.getBatchEntityManager().deleteBatch(batch);
+    return null;
+  }
+
+}
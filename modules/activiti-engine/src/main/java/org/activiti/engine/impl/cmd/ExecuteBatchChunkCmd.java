@@ -0,0 +1,58 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.engine.impl.cmd;
+
+import java.util.List;
+
+import org.activiti.engine.impl.batch.BatchOperation;
+import org.activiti.engine.impl.batch.ChunkBatchOperation;
+import org.activiti.engine.impl.interceptor.Command;
+import org.activiti.engine.impl.interceptor.CommandContext;
+import org.activiti.engine.impl.persistence.entity.BatchEntityManager;
+
+/**
+ * Applies a {@link BatchOperation} to the items of one chunk of a batch, in one transaction. 
+ * In the same transaction, the items are counted as completed and removed from the stored 
+ * items of the chunk, so a retried worker job neither processes nor counts them again.
+ */
+public class ExecuteBatchChunkCmd implements Command<Void> {
+
+  protected BatchOperation batchOperation;
+  protected String batchId;
+  protected String itemsId;
+  protected List<String> itemIds;
+  protected String configuration;
+
+  public ExecuteBatchChunkCmd(BatchOperation batchOperation, String batchId, String itemsId, List<String> itemIds, String configuration) {
+    this.batchOperation = batchOperation;
+    this.batchId = batchId;
+    this.itemsId = itemsId;
+    this.itemIds = itemIds;
+    this.configuration = configuration;
+  }
+
+  public Void execute(CommandContext commandContext) {
+    if (batchOperation instanceof ChunkBatchOperation) {
+      ((ChunkBatchOperation) batchOperation).executeChunk(itemIds, configuration, commandContext);
+    } else {
+      for (String itemId : itemIds) {
+        batchOperation.execute(itemId, configuration, commandContext);
+      }
+    }
+    BatchEntityManager batchEntityManager = commandContext.getBatchEntityManager();
+    batchEntityManager.removeBatchItems(itemsId, itemIds);
+    batchEntityManager.addProcessedItems(batchId, itemIds.size(), 0, null);
+    return null;
+  }
+
+}
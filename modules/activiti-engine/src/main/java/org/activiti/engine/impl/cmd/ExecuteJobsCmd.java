@@ -26,6 +26,7 @@ import org.activiti.engine.impl.interceptor.CommandContext;
 import org.activiti.engine.impl.interceptor.CommandExecutor;
 import org.activiti.engine.impl.jobexecutor.FailedJobListener;
 import org.activiti.engine.impl.jobexecutor.JobExecutorContext;
+import org.activiti.engine.impl.metrics.MetricsRegistry;
 import org.activiti.engine.impl.persistence.entity.JobEntity;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -69,14 +70,25 @@ public class ExecuteJobsCmd implements Command<Object>, Serializable {
       jobExecutorContext.setCurrentJob(job);
     }
     
+    MetricsRegistry metricsRegistry = Context.getProcessEngineConfiguration().getMetricsRegistry();
+    long start = metricsRegistry != null ? System.nanoTime() : 0;
+    
     try {
       job.execute(commandContext);
       
+      if (metricsRegistry != null) {
+        metricsRegistry.recordDuration("job." + job.getJobHandlerType(), System.nanoTime() - start);
+      }
+      
       if(commandContext.getEventDispatcher().isEnabled()) {
       	commandContext.getEventDispatcher().dispatchEvent(ActivitiEventBuilder.createEntityEvent(
       			ActivitiEventType.JOB_EXECUTION_SUCCESS, job));
       }
     } catch (Throwable exception) {
+      if (metricsRegistry != null) {
+        metricsRegistry.increment("job." + job.getJobHandlerType() + ".failed", 1);
+      }
+      
       // When transaction is rolled back, decrement retries
       CommandExecutor commandExecutor = Context
         .getProcessEngineConfiguration()
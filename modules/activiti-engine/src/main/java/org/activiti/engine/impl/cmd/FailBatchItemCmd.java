@@ -0,0 +1,46 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.engine.impl.cmd;
+
+import java.util.Collections;
+
+import org.activiti.engine.impl.interceptor.Command;
+import org.activiti.engine.impl.interceptor.CommandContext;
+import org.activiti.engine.impl.persistence.entity.BatchEntityManager;
+
+/**
+ * Counts an item of a chunk of a batch as failed and removes it from the stored items 
+ * of the chunk, in one transaction.
+ */
+public class FailBatchItemCmd implements Command<Void> {
+
+  protected String batchId;
+  protected String itemsId;
+  protected String itemId;
+  protected String failure;
+
+  public FailBatchItemCmd(String batchId, String itemsId, String itemId, String failure) {
+    this.batchId = batchId;
+    this.itemsId = itemsId;
+    this.itemId = itemId;
+    this.failure = failure;
+  }
+
+  public Void execute(CommandContext commandContext) {
+    BatchEntityManager batchEntityManager = commandContext.getBatchEntityManager();
+    batchEntityManager.removeBatchItems(itemsId, Collections.singletonList(itemId));
+    batchEntityManager.addProcessedItems(batchId, 0, 1, itemId + ": " + failure);
+    return null;
+  }
+
+}
@@ -0,0 +1,39 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.engine.impl.cmd;
+
+import java.io.Serializable;
+
+import org.activiti.engine.ActivitiIllegalArgumentException;
+import org.activiti.engine.impl.interceptor.Command;
+import org.activiti.engine.impl.interceptor.CommandContext;
+import org.activiti.engine.management.Batch;
+
+public class GetBatchCmd implements Command<Batch>, Serializable {
+
+  private static final long serialVersionUID = 1L;
+  
+  protected String batchId;
+
+  public GetBatchCmd(String batchId) {
+    this.batchId = batchId;
+  }
+
+  public Batch execute(CommandContext commandContext) {
+    if (batchId == null) {
+      throw new ActivitiIllegalArgumentException("batchId is null");
+    }
+    return commandContext.getBatchEntityManager().findBatchById(batchId);
+  }
+
+}
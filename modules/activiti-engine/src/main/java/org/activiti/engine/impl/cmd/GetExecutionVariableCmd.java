@@ -57,9 +57,9 @@ public class GetExecutionVariableCmd implements Command<Object>, Serializable {
     Object value;
     
     if (isLocal) {
-      value = execution.getVariableLocal(variableName);
+      value = execution.getVariableLocal(variableName, false);
     } else {
-      value = execution.getVariable(variableName);
+      value = execution.getVariable(variableName, false);
     }
     
     return value;
@@ -14,7 +14,6 @@ package org.activiti.engine.impl.cmd;
 
 import java.io.Serializable;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.Map;
 
 import org.activiti.engine.ActivitiIllegalArgumentException;
@@ -55,23 +54,19 @@ public class GetExecutionVariablesCmd implements Command<Map<String, Object>>, S
     }
 
     Map<String, Object> executionVariables;
-    if (isLocal) {
+    if (variableNames != null && variableNames.size() > 0) {
+      // if variableNames is not empty, only the variables mentioned in it are fetched and returned
+      if (isLocal) {
+        executionVariables = execution.getVariablesLocal(variableNames, false);
+      } else {
+        executionVariables = execution.getVariables(variableNames, false);
+      }
+    } else if (isLocal) {
       executionVariables = execution.getVariablesLocal();
     } else {
       executionVariables = execution.getVariables();
     }
     
-    if (variableNames != null && variableNames.size() > 0) {
-      // if variableNames is not empty, return only variable names mentioned in it
-      Map<String, Object> tempVariables = new HashMap<String, Object>();
-      for (String variableName: variableNames) {
-        if (executionVariables.containsKey(variableName)) {
-          tempVariables.put(variableName, executionVariables.get(variableName));
-        }
-      }
-      executionVariables = tempVariables;
-    }
-    
     return executionVariables;
   }
 }
@@ -0,0 +1,109 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.engine.impl.cmd;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.activiti.engine.ActivitiIllegalArgumentException;
+import org.activiti.engine.ActivitiObjectNotFoundException;
+import org.activiti.engine.impl.interceptor.Command;
+import org.activiti.engine.impl.interceptor.CommandContext;
+import org.activiti.engine.impl.persistence.entity.ExecutionEntity;
+import org.activiti.engine.impl.persistence.entity.VariableInstanceEntity;
+import org.activiti.engine.runtime.Execution;
+
+
+/**
+ * Fetches the variables of many executions at once: the executions (and their parents
+ * when not local) are fetched with one query per level of the execution tree and the
+ * variables of all of them with a single query.
+ */
+public class GetExecutionsVariablesCmd implements Command<Map<String, Map<String, Object>>>, Serializable {
+
+  private static final long serialVersionUID = 1L;
+  protected Collection<String> executionIds;
+  protected Collection<String> variableNames;
+  protected boolean isLocal;
+
+  public GetExecutionsVariablesCmd(Collection<String> executionIds, Collection<String> variableNames, boolean isLocal) {
+    this.executionIds = executionIds;
+    this.variableNames = variableNames;
+    this.isLocal = isLocal;
+  }
+
+  public Map<String, Map<String, Object>> execute(CommandContext commandContext) {
+    if(executionIds == null) {
+      throw new ActivitiIllegalArgumentException("executionIds is null");
+    }
+    
+    Map<String, Map<String, Object>> variablesPerExecution = new LinkedHashMap<String, Map<String, Object>>();
+    if (executionIds.isEmpty()) {
+      return variablesPerExecution;
+    }
+    
+    Map<String, ExecutionEntity> executions;
+    if (isLocal) {
+      executions = new HashMap<String, ExecutionEntity>();
+      for (ExecutionEntity execution : commandContext.getExecutionEntityManager().findExecutionsByIds(executionIds)) {
+        executions.put(execution.getId(), execution);
+      }
+    } else {
+      executions = commandContext
+        .getExecutionEntityManager()
+        .findExecutionsWithParentsByIds(executionIds);
+    }
+    
+    for (String executionId : executionIds) {
+      if (!executions.containsKey(executionId)) {
+        throw new ActivitiObjectNotFoundException("execution "+executionId+" doesn't exist", Execution.class);
+      }
+    }
+    
+    Map<String, Map<String, Object>> localVariablesPerExecution = new HashMap<String, Map<String, Object>>();
+    Collection<String> names = (variableNames != null && !variableNames.isEmpty()) ? variableNames : null;
+    for (VariableInstanceEntity variableInstance : commandContext
+            .getVariableInstanceEntityManager()
+            .findVariableInstancesByExecutionIds(executions.keySet(), names)) {
+      Map<String, Object> localVariables = localVariablesPerExecution.get(variableInstance.getExecutionId());
+      if (localVariables == null) {
+        localVariables = new HashMap<String, Object>();
+        localVariablesPerExecution.put(variableInstance.getExecutionId(), localVariables);
+      }
+      localVariables.put(variableInstance.getName(), variableInstance.getValue());
+    }
+    
+    for (String executionId : executionIds) {
+      Map<String, Object> variables = new HashMap<String, Object>();
+      ExecutionEntity execution = executions.get(executionId);
+      while (execution != null) {
+        // variables of a scope hide the variables with the same name of its parent scopes
+        Map<String, Object> localVariables = localVariablesPerExecution.get(execution.getId());
+        if (localVariables != null) {
+          for (Map.Entry<String, Object> variable : localVariables.entrySet()) {
+            if (!variables.containsKey(variable.getKey())) {
+              variables.put(variable.getKey(), variable.getValue());
+            }
+          }
+        }
+        execution = isLocal ? null : executions.get(execution.getParentId());
+      }
+      variablesPerExecution.put(executionId, variables);
+    }
+    
+    return variablesPerExecution;
+  }
+}
@@ -0,0 +1,55 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.engine.impl.cmd;
+
+import java.io.Serializable;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.activiti.engine.impl.interceptor.Command;
+import org.activiti.engine.impl.interceptor.CommandContext;
+import org.activiti.engine.impl.persistence.entity.ByteArrayRef;
+import org.activiti.engine.impl.persistence.entity.JobEntity;
+
+
+/**
+ * Fetches the content of the mails stored in the given jobs, mapped by job id. 
+ * Jobs that no longer exist or are no longer locked by the given lock owner are skipped.
+ */
+public class GetLockedMailsCmd implements Command<Map<String, byte[]>>, Serializable {
+
+  private static final long serialVersionUID = 1L;
+  
+  protected List<String> jobIds;
+  protected String lockOwner;
+
+  public GetLockedMailsCmd(List<String> jobIds, String lockOwner) {
+    this.jobIds = jobIds;
+    this.lockOwner = lockOwner;
+  }
+
+  public Map<String, byte[]> execute(CommandContext commandContext) {
+    Map<String, byte[]> mails = new LinkedHashMap<String, byte[]>();
+    for (String jobId : jobIds) {
+      JobEntity job = commandContext
+        .getJobEntityManager()
+        .findJobById(jobId);
+      
+      if (job != null && lockOwner.equals(job.getLockOwner())) {
+        mails.put(jobId, new ByteArrayRef(job.getJobHandlerConfiguration()).getBytes());
+      }
+    }
+    return mails;
+  }
+}
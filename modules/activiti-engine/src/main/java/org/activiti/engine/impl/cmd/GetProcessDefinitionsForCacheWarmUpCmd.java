@@ -0,0 +1,77 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.engine.impl.cmd;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.activiti.engine.impl.ProcessDefinitionQueryImpl;
+import org.activiti.engine.impl.interceptor.Command;
+import org.activiti.engine.impl.interceptor.CommandContext;
+import org.activiti.engine.repository.ProcessDefinition;
+
+/**
+ * Selects the process definitions that should be put in the process definition
+ * cache when the process engine boots: the latest <i>nrOfVersions</i> versions of
+ * every process definition key (per tenant) and, optionally, every process definition
+ * that still has running process instances.
+ */
+public class GetProcessDefinitionsForCacheWarmUpCmd implements Command<List<ProcessDefinition>>, Serializable {
+
+  private static final long serialVersionUID = 1L;
+  
+  protected int nrOfVersions;
+  protected boolean includeDefinitionsWithRunningInstances;
+  
+  public GetProcessDefinitionsForCacheWarmUpCmd(int nrOfVersions, boolean includeDefinitionsWithRunningInstances) {
+    this.nrOfVersions = nrOfVersions;
+    this.includeDefinitionsWithRunningInstances = includeDefinitionsWithRunningInstances;
+  }
+
+  public List<ProcessDefinition> execute(CommandContext commandContext) {
+    List<ProcessDefinition> processDefinitions = new ProcessDefinitionQueryImpl(commandContext)
+      .orderByProcessDefinitionKey().asc()
+      .orderByTenantId().asc()
+      .orderByProcessDefinitionVersion().desc()
+      .list();
+    
+    Set<String> runningProcessDefinitionIds = new HashSet<String>();
+    if (includeDefinitionsWithRunningInstances) {
+      runningProcessDefinitionIds.addAll(commandContext
+              .getExecutionEntityManager()
+              .findProcessDefinitionIdsOfRunningProcessInstances());
+    }
+    
+    List<ProcessDefinition> result = new ArrayList<ProcessDefinition>();
+    Map<String, Integer> versionsPerKey = new HashMap<String, Integer>();
+    for (ProcessDefinition processDefinition : processDefinitions) {
+      String key = processDefinition.getTenantId() + ":" + processDefinition.getKey();
+      Integer nrOfVersionsForKey = versionsPerKey.get(key);
+      if (nrOfVersionsForKey == null) {
+        nrOfVersionsForKey = 0;
+      }
+      
+      if (nrOfVersionsForKey < nrOfVersions || runningProcessDefinitionIds.contains(processDefinition.getId())) {
+        result.add(processDefinition);
+      }
+      versionsPerKey.put(key, nrOfVersionsForKey + 1);
+    }
+    return result;
+  }
+
+}
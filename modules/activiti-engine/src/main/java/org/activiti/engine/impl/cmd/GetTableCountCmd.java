@@ -25,10 +25,19 @@ import org.activiti.engine.impl.interceptor.CommandContext;
 public class GetTableCountCmd implements Command<Map<String,Long>>, Serializable {
 
   private static final long serialVersionUID = 1L;
+  
+  protected boolean exact;
+  
+  public GetTableCountCmd() {
+  }
+  
+  public GetTableCountCmd(boolean exact) {
+    this.exact = exact;
+  }
 
   public Map<String,Long> execute(CommandContext commandContext) {
     return commandContext
       .getTableDataManager()
-      .getTableCount();
+      .getTableCount(exact);
   }
 }
@@ -60,9 +60,9 @@ public class GetTaskVariableCmd implements Command<Object>, Serializable {
     Object value;
     
     if (isLocal) {
-      value = task.getVariableLocal(variableName);
+      value = task.getVariableLocal(variableName, false);
     } else {
-      value = task.getVariable(variableName);
+      value = task.getVariable(variableName, false);
     }
     
     return value;
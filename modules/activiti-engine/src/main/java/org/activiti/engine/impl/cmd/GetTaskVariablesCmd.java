@@ -57,6 +57,22 @@ public class GetTaskVariablesCmd implements Command<Map<String, Object>>, Serial
       throw new ActivitiObjectNotFoundException("task "+taskId+" doesn't exist", Task.class);
     }
 
+    if (variableNames!=null) {
+      // only the requested variables are fetched, not all variables of the task and its executions
+      Map<String, Object> taskVariables;
+      if (isLocal) {
+        taskVariables = task.getVariablesLocal(variableNames, false);
+      } else {
+        taskVariables = task.getVariables(variableNames, false);
+      }
+      
+      Map<String, Object> variables = new HashMap<String, Object>();
+      for (String variableName: variableNames) {
+        variables.put(variableName, taskVariables.get(variableName));
+      }
+      return variables;
+    }
+    
     Map<String, Object> taskVariables;
     if (isLocal) {
       taskVariables = task.getVariablesLocal();
@@ -64,13 +80,9 @@ public class GetTaskVariablesCmd implements Command<Map<String, Object>>, Serial
       taskVariables = task.getVariables();
     }
     
-    if (variableNames==null) {
-      variableNames = taskVariables.keySet();
-    }
-    
     // this copy is made to avoid lazy initialization outside a command context
     Map<String, Object> variables = new HashMap<String, Object>();
-    for (String variableName: variableNames) {
+    for (String variableName: taskVariables.keySet()) {
       variables.put(variableName, task.getVariable(variableName));
     }
     
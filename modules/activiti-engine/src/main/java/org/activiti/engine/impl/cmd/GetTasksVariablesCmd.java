@@ -0,0 +1,102 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.engine.impl.cmd;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.activiti.engine.ActivitiIllegalArgumentException;
+import org.activiti.engine.ActivitiObjectNotFoundException;
+import org.activiti.engine.impl.interceptor.Command;
+import org.activiti.engine.impl.interceptor.CommandContext;
+import org.activiti.engine.impl.persistence.entity.TaskEntity;
+import org.activiti.engine.impl.persistence.entity.VariableInstanceEntity;
+import org.activiti.engine.task.Task;
+
+
+/**
+ * Fetches the variables of many tasks at once: the tasks and the task variables are fetched
+ * with a single query each. When not local, the variables of the task executions are fetched
+ * with {@link GetExecutionsVariablesCmd}.
+ */
+public class GetTasksVariablesCmd implements Command<Map<String, Map<String, Object>>>, Serializable {
+
+  private static final long serialVersionUID = 1L;
+  protected Collection<String> taskIds;
+  protected Collection<String> variableNames;
+  protected boolean isLocal;
+
+  public GetTasksVariablesCmd(Collection<String> taskIds, Collection<String> variableNames, boolean isLocal) {
+    this.taskIds = taskIds;
+    this.variableNames = variableNames;
+    this.isLocal = isLocal;
+  }
+
+  public Map<String, Map<String, Object>> execute(CommandContext commandContext) {
+    if(taskIds == null) {
+      throw new ActivitiIllegalArgumentException("taskIds is null");
+    }
+    
+    Map<String, Map<String, Object>> variablesPerTask = new LinkedHashMap<String, Map<String, Object>>();
+    if (taskIds.isEmpty()) {
+      return variablesPerTask;
+    }
+    
+    Map<String, TaskEntity> tasks = new HashMap<String, TaskEntity>();
+    for (TaskEntity task : commandContext.getTaskEntityManager().findTasksByIds(taskIds)) {
+      tasks.put(task.getId(), task);
+    }
+    for (String taskId : taskIds) {
+      if (!tasks.containsKey(taskId)) {
+        throw new ActivitiObjectNotFoundException("task "+taskId+" doesn't exist", Task.class);
+      }
+    }
+    
+    Map<String, Map<String, Object>> variablesPerExecution = new HashMap<String, Map<String, Object>>();
+    if (!isLocal) {
+      Set<String> executionIds = new HashSet<String>();
+      for (TaskEntity task : tasks.values()) {
+        if (task.getExecutionId() != null) {
+          executionIds.add(task.getExecutionId());
+        }
+      }
+      if (!executionIds.isEmpty()) {
+        variablesPerExecution = new GetExecutionsVariablesCmd(executionIds, variableNames, false).execute(commandContext);
+      }
+    }
+    
+    for (String taskId : taskIds) {
+      Map<String, Object> variables = new HashMap<String, Object>();
+      String executionId = tasks.get(taskId).getExecutionId();
+      if (executionId != null && variablesPerExecution.containsKey(executionId)) {
+        variables.putAll(variablesPerExecution.get(executionId));
+      }
+      variablesPerTask.put(taskId, variables);
+    }
+    
+    // task variables hide the execution variables with the same name
+    Collection<String> names = (variableNames != null && !variableNames.isEmpty()) ? variableNames : null;
+    for (VariableInstanceEntity variableInstance : commandContext
+            .getVariableInstanceEntityManager()
+            .findVariableInstancesByTaskIds(tasks.keySet(), names)) {
+      variablesPerTask.get(variableInstance.getTaskId()).put(variableInstance.getName(), variableInstance.getValue());
+    }
+    
+    return variablesPerTask;
+  }
+}
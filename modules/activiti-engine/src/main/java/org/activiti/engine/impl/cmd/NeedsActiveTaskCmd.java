@@ -61,6 +61,10 @@ public abstract class NeedsActiveTaskCmd<T> implements Command<T>, Serializable
     return execute(commandContext, task);
   }
   
+  public String getTaskId() {
+    return taskId;
+  }
+  
   /**
    * Subclasses must implement in this method their normal command logic.
    * The provided task is ensured to be active.
@@ -0,0 +1,123 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.engine.impl.cmd;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.activiti.engine.ActivitiIllegalArgumentException;
+import org.activiti.engine.impl.db.DbSqlSession;
+import org.activiti.engine.impl.interceptor.Command;
+import org.activiti.engine.impl.interceptor.CommandContext;
+import org.activiti.engine.impl.persistence.entity.ExecutionEntity;
+import org.activiti.engine.impl.persistence.entity.IdentityLinkEntity;
+import org.activiti.engine.impl.persistence.entity.TaskEntity;
+
+/**
+ * Executes a {@link NeedsActiveTaskCmd} for each of many tasks in one command context. 
+ * 
+ * The tasks, their executions (with all parent executions) and the identity links of the tasks 
+ * and their process instances are fetched up front with one query each per 
+ * {@link DbSqlSession#MAX_IN_LIST_SIZE} ids, instead of being loaded task by task when 
+ * the commands access them.
+ * 
+ * The first command that fails makes the whole command fail.
+ */
+public class NeedsActiveTasksCmd implements Command<Void>, Serializable {
+
+  private static final long serialVersionUID = 1L;
+  
+  protected List<NeedsActiveTaskCmd<?>> taskCmds;
+  
+  public NeedsActiveTasksCmd(List<NeedsActiveTaskCmd<?>> taskCmds) {
+    this.taskCmds = taskCmds;
+  }
+  
+  public Void execute(CommandContext commandContext) {
+    if (taskCmds == null) {
+      throw new ActivitiIllegalArgumentException("taskCmds is null");
+    }
+    
+    prefetchTasks(commandContext);
+    
+    for (NeedsActiveTaskCmd<?> taskCmd : taskCmds) {
+      taskCmd.execute(commandContext);
+    }
+    return null;
+  }
+  
+  protected void prefetchTasks(CommandContext commandContext) {
+    Set<String> taskIds = new HashSet<String>();
+    for (NeedsActiveTaskCmd<?> taskCmd : taskCmds) {
+      if (taskCmd.getTaskId() != null) {
+        taskIds.add(taskCmd.getTaskId());
+      }
+    }
+    if (taskIds.isEmpty()) {
+      return;
+    }
+    
+    List<TaskEntity> tasks = commandContext.getTaskEntityManager().findTasksByIds(taskIds);
+    Map<String, List<IdentityLinkEntity>> taskIdentityLinks = groupIdentityLinks(
+        commandContext.getIdentityLinkEntityManager().findIdentityLinksByTaskIds(taskIds), true);
+    
+    Set<String> executionIds = new HashSet<String>();
+    for (TaskEntity task : tasks) {
+      List<IdentityLinkEntity> identityLinks = taskIdentityLinks.get(task.getId());
+      task.setIdentityLinks(identityLinks != null ? identityLinks : new ArrayList<IdentityLinkEntity>());
+      if (task.getExecutionId() != null) {
+        executionIds.add(task.getExecutionId());
+      }
+    }
+    if (executionIds.isEmpty()) {
+      return;
+    }
+    
+    Map<String, ExecutionEntity> executions = commandContext.getExecutionEntityManager().findExecutionsWithParentsByIds(executionIds);
+    List<ExecutionEntity> processInstances = new ArrayList<ExecutionEntity>();
+    Set<String> processInstanceIds = new HashSet<String>();
+    for (ExecutionEntity execution : executions.values()) {
+      if (execution.isProcessInstanceType()) {
+        processInstances.add(execution);
+        processInstanceIds.add(execution.getId());
+      }
+    }
+    
+    Map<String, List<IdentityLinkEntity>> processInstanceIdentityLinks = groupIdentityLinks(
+        commandContext.getIdentityLinkEntityManager().findIdentityLinksByProcessInstanceIds(processInstanceIds), false);
+    for (ExecutionEntity processInstance : processInstances) {
+      List<IdentityLinkEntity> identityLinks = processInstanceIdentityLinks.get(processInstance.getId());
+      processInstance.setIdentityLinks(identityLinks != null ? identityLinks : new ArrayList<IdentityLinkEntity>());
+    }
+  }
+  
+  protected Map<String, List<IdentityLinkEntity>> groupIdentityLinks(List<IdentityLinkEntity> identityLinks, boolean byTask) {
+    Map<String, List<IdentityLinkEntity>> identityLinksById = new HashMap<String, List<IdentityLinkEntity>>();
+    for (IdentityLinkEntity identityLink : identityLinks) {
+      String id = byTask ? identityLink.getTaskId() : identityLink.getProcessInstanceId();
+      List<IdentityLinkEntity> group = identityLinksById.get(id);
+      if (group == null) {
+        group = new ArrayList<IdentityLinkEntity>();
+        identityLinksById.put(id, group);
+      }
+      group.add(identityLink);
+    }
+    return identityLinksById;
+  }
+
+}
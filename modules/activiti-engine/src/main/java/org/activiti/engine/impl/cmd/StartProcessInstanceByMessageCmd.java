@@ -38,11 +38,17 @@ public class StartProcessInstanceByMessageCmd implements Command<ProcessInstance
   protected final String messageName;
   protected final String businessKey;
   protected final Map<String, Object> processVariables;
+  protected final String tenantId;
 
   public StartProcessInstanceByMessageCmd(String messageName, String businessKey, Map<String, Object> processVariables) {
+    this(messageName, businessKey, processVariables, null);
+  }
+
+  public StartProcessInstanceByMessageCmd(String messageName, String businessKey, Map<String, Object> processVariables, String tenantId) {
     this.messageName = messageName;
     this.businessKey = businessKey;
     this.processVariables = processVariables;    
+    this.tenantId = tenantId;
   }
 
   public ProcessInstance execute(CommandContext commandContext) {
@@ -51,8 +57,14 @@ public class StartProcessInstanceByMessageCmd implements Command<ProcessInstance
       throw new ActivitiIllegalArgumentException("Cannot start process instance by message: message name is null");
     }
     
-    MessageEventSubscriptionEntity messageEventSubscription = commandContext.getEventSubscriptionEntityManager()
-      .findMessageStartEventSubscriptionByName(messageName);
+    MessageEventSubscriptionEntity messageEventSubscription = null;
+    if (tenantId == null) {
+      messageEventSubscription = commandContext.getEventSubscriptionEntityManager()
+        .findMessageStartEventSubscriptionByName(messageName);
+    } else {
+      messageEventSubscription = commandContext.getEventSubscriptionEntityManager()
+        .findMessageStartEventSubscriptionByNameAndTenantId(messageName, tenantId);
+    }
     
     if(messageEventSubscription == null) {
       throw new ActivitiObjectNotFoundException("Cannot start process instance by message: no subscription to message with name '"+messageName+"' found.", MessageEventSubscriptionEntity.class);
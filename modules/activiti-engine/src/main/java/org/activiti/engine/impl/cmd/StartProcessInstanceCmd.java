@@ -57,6 +57,11 @@ public class StartProcessInstanceCmd<T> implements Command<ProcessInstance>, Ser
   }
   
   public ProcessInstance execute(CommandContext commandContext) {
+    ProcessDefinitionEntity processDefinition = findProcessDefinition(commandContext);
+    return startProcessInstance(processDefinition);
+  }
+  
+  protected ProcessDefinitionEntity findProcessDefinition(CommandContext commandContext) {
     DeploymentManager deploymentCache = Context
       .getProcessEngineConfiguration()
       .getDeploymentManager();
@@ -87,7 +92,11 @@ public class StartProcessInstanceCmd<T> implements Command<ProcessInstance>, Ser
       throw new ActivitiException("Cannot start process instance. Process definition " 
               + processDefinition.getName() + " (id = " + processDefinition.getId() + ") is suspended");
     }
-
+    
+    return processDefinition;
+  }
+  
+  protected ExecutionEntity startProcessInstance(ProcessDefinitionEntity processDefinition) {
     // Start the process instance
     ExecutionEntity processInstance = processDefinition.createProcessInstance(businessKey);
     if (variables!=null) {
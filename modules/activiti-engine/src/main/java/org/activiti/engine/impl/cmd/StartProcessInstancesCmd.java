@@ -0,0 +1,74 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.engine.impl.cmd;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.activiti.engine.ActivitiIllegalArgumentException;
+import org.activiti.engine.impl.interceptor.Command;
+import org.activiti.engine.impl.interceptor.CommandContext;
+import org.activiti.engine.impl.persistence.entity.ProcessDefinitionEntity;
+import org.activiti.engine.runtime.ProcessInstance;
+import org.activiti.engine.runtime.ProcessInstanceCreateRequest;
+
+/**
+ * Starts the process instances of all given requests in one command context, so they 
+ * share the db session and are inserted in a single flush. The process definition of 
+ * requests with the same id, or key and tenant, is only looked up once. 
+ * 
+ * The first request that fails makes the whole command fail.
+ */
+public class StartProcessInstancesCmd implements Command<List<ProcessInstance>>, Serializable {
+
+  private static final long serialVersionUID = 1L;
+  
+  protected List<ProcessInstanceCreateRequest> requests;
+  
+  public StartProcessInstancesCmd(List<ProcessInstanceCreateRequest> requests) {
+    this.requests = requests;
+  }
+  
+  public List<ProcessInstance> execute(CommandContext commandContext) {
+    if (requests == null) {
+      throw new ActivitiIllegalArgumentException("requests is null");
+    }
+    
+    Map<String, ProcessDefinitionEntity> processDefinitions = new HashMap<String, ProcessDefinitionEntity>();
+    List<ProcessInstance> processInstances = new ArrayList<ProcessInstance>(requests.size());
+    for (ProcessInstanceCreateRequest request : requests) {
+      if (request == null) {
+        throw new ActivitiIllegalArgumentException("request is null");
+      }
+      
+      StartProcessInstanceCmd<ProcessInstance> startCmd = new StartProcessInstanceCmd<ProcessInstance>(request.getProcessDefinitionKey(), 
+          request.getProcessDefinitionId(), request.getBusinessKey(), request.getVariables(), request.getTenantId());
+      
+      String processDefinitionCacheKey = request.getProcessDefinitionId() != null 
+          ? "id:" + request.getProcessDefinitionId() 
+          : "key:" + request.getProcessDefinitionKey() + ":" + request.getTenantId();
+      ProcessDefinitionEntity processDefinition = processDefinitions.get(processDefinitionCacheKey);
+      if (processDefinition == null) {
+        processDefinition = startCmd.findProcessDefinition(commandContext);
+        processDefinitions.put(processDefinitionCacheKey, processDefinition);
+      }
+      
+      processInstances.add(startCmd.startProcessInstance(processDefinition));
+    }
+    return processInstances;
+  }
+
+}
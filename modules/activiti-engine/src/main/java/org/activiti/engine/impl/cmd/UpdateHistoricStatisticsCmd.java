@@ -0,0 +1,43 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.engine.impl.cmd;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+
+import org.activiti.engine.impl.interceptor.Command;
+import org.activiti.engine.impl.interceptor.CommandContext;
+import org.activiti.engine.impl.persistence.entity.HistoricStatisticsEntity;
+
+/**
+ * Adds counts and durations to the historic statistics table.
+ */
+public class UpdateHistoricStatisticsCmd implements Command<Void>, Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  protected Collection<HistoricStatisticsEntity> historicStatistics;
+
+  public UpdateHistoricStatisticsCmd(Collection<HistoricStatisticsEntity> historicStatistics) {
+    this.historicStatistics = new ArrayList<HistoricStatisticsEntity>(historicStatistics);
+  }
+
+  public Void execute(CommandContext commandContext) {
+    commandContext
+      .getHistoricStatisticsEntityManager()
+      .updateHistoricStatistics(historicStatistics);
+    return null;
+  }
+
+}
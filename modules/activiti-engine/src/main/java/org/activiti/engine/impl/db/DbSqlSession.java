@@ -22,11 +22,16 @@ import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -55,8 +60,11 @@ import org.activiti.engine.impl.context.Context;
 import org.activiti.engine.impl.db.upgrade.DbUpgradeStep;
 import org.activiti.engine.impl.history.HistoryLevel;
 import org.activiti.engine.impl.interceptor.Session;
+import org.activiti.engine.impl.metrics.MetricsRegistry;
 import org.activiti.engine.impl.persistence.entity.PropertyEntity;
 import org.activiti.engine.impl.persistence.entity.VariableInstanceEntity;
+import org.activiti.engine.impl.util.ClockUtil;
+import org.activiti.engine.impl.util.CollectionUtil;
 import org.activiti.engine.impl.util.IoUtil;
 import org.activiti.engine.impl.util.ReflectUtil;
 import org.activiti.engine.impl.variable.DeserializedObject;
@@ -78,13 +86,23 @@ public class DbSqlSession implements Session {
   private static final Logger log = LoggerFactory.getLogger(DbSqlSession.class);
   
   private static final Pattern CLEAN_VERSION_REGEX = Pattern.compile("\\d\\.\\d*");
+  
+  /** 
+   * maximum number of items bound in a single in-clause: Oracle allows at most 1000 
+   * expressions in a list and SQL Server 2100 parameters per statement 
+   */
+  public static final int MAX_IN_LIST_SIZE = 1000;
 
   protected SqlSession sqlSession;
   protected DbSqlSessionFactory dbSqlSessionFactory;
   protected List<PersistentObject> insertedObjects = new ArrayList<PersistentObject>();
+  /** the inserted objects that are not cancelled, to look them up without scanning the inserted objects */
+  protected Set<PersistentObject> pendingInserts = Collections.newSetFromMap(new IdentityHashMap<PersistentObject, Boolean>());
   protected Map<Class<?>, Map<String, CachedObject>> cachedObjects = new HashMap<Class<?>, Map<String,CachedObject>>();
   protected List<DeleteOperation> deleteOperations = new ArrayList<DeleteOperation>();
+  protected Set<PersistentObject> cancelledInserts = Collections.newSetFromMap(new IdentityHashMap<PersistentObject, Boolean>());
   protected List<DeserializedObject> deserializedObjects = new ArrayList<DeserializedObject>();
+  protected Map<String, ColumnUpdateOperation> columnUpdateOperations = new LinkedHashMap<String, ColumnUpdateOperation>();
   protected String connectionMetadataDefaultCatalog;
   protected String connectionMetadataDefaultSchema;
 
@@ -110,7 +128,7 @@ public class DbSqlSession implements Session {
 	  if (persistentObject.getId()==null) {
 		  throw new ActivitiException("Cannot touch " + persistentObject.getClass() + " with no id");
 	  }
-	  if (insertedObjects.contains(persistentObject)) {
+	  if (pendingInserts.contains(persistentObject)) {
 		  insertedObjects.remove(persistentObject);
 		  insertedObjects.add(persistentObject);
 		  cachePut(persistentObject, false);
@@ -125,7 +143,12 @@ public class DbSqlSession implements Session {
       String id = dbSqlSessionFactory.getIdGenerator().getNextId();  
       persistentObject.setId(id);
     }
+    if (!cancelledInserts.isEmpty() && cancelledInserts.remove(persistentObject)) {
+      // the cancelled insert is still in the inserted objects: inserted again, it moves to the end
+      insertedObjects.remove(persistentObject);
+    }
     insertedObjects.add(persistentObject);
+    pendingInserts.add(persistentObject);
     cachePut(persistentObject, false);
   }
   
@@ -140,13 +163,82 @@ public class DbSqlSession implements Session {
      getSqlSession().update(updateStatement, parameters);
   }
   
+  /**
+   * Executes the update immediately, with one statement per {@link #MAX_IN_LIST_SIZE} of the given ids.
+   */
+  public void updateInChunks(String statement, Collection<String> ids) {
+    for (List<String> chunk : CollectionUtil.partition(ids, MAX_IN_LIST_SIZE)) {
+      update(statement, chunk);
+    }
+  }
+  
+  // column updates ///////////////////////////////////////////////////////////
+  
+  /**
+   * Sets a column of the row with the given id at flush, without loading the row first.
+   * The statement receives a map with the id and the changed properties: all columns
+   * changed for the same row are set by a single update. Column updates are executed after 
+   * the updates of the cached objects, so they are not overwritten by the update of a row 
+   * that was loaded after the column update.
+   */
+  public void updateColumn(String statement, String id, String property, Object value) {
+    String key = statement + "|" + id;
+    ColumnUpdateOperation columnUpdateOperation = columnUpdateOperations.get(key);
+    if (columnUpdateOperation == null) {
+      columnUpdateOperation = new ColumnUpdateOperation(statement, id);
+      columnUpdateOperations.put(key, columnUpdateOperation);
+    }
+    columnUpdateOperation.getParameters().put(property, value);
+  }
+  
+  public boolean hasColumnUpdate(String statement, String id) {
+    return columnUpdateOperations.containsKey(statement + "|" + id);
+  }
+  
+  public class ColumnUpdateOperation {
+    
+    protected String statement;
+    protected Map<String, Object> parameters = new HashMap<String, Object>();
+    
+    public ColumnUpdateOperation(String statement, String id) {
+      this.statement = statement;
+      parameters.put("id", id);
+    }
+    
+    public Map<String, Object> getParameters() {
+      return parameters;
+    }
+    
+    public void execute() {
+      getSqlSession().update(dbSqlSessionFactory.mapStatement(statement), parameters);
+    }
+    
+    public String toString() {
+      return "update columns " + parameters.keySet() + " with " + statement + " " + parameters.get("id");
+    }
+  }
+  
   // delete ///////////////////////////////////////////////////////////////////
 
   public void delete(String statement, Object parameter) {
     deleteOperations.add(new BulkDeleteOperation(statement, parameter));
   }
   
+  /**
+   * Registers the bulk delete with one statement per {@link #MAX_IN_LIST_SIZE} of the given ids.
+   * All of them are executed before the deletes registered afterwards.
+   */
+  public void deleteInChunks(String statement, Collection<String> ids) {
+    for (List<String> chunk : CollectionUtil.partition(ids, MAX_IN_LIST_SIZE)) {
+      delete(statement, chunk);
+    }
+  }
+  
   public void delete(PersistentObject persistentObject) {
+    if (cancelledInserts.contains(persistentObject)) {
+      log.debug("skipping delete of cancelled insert: {}", persistentObject);
+      return;
+    }
     for (DeleteOperation deleteOperation: deleteOperations) {
         if (deleteOperation.sameIdentity(persistentObject)) {
           log.debug("skipping redundant delete: {}", persistentObject);
@@ -157,6 +249,24 @@ public class DbSqlSession implements Session {
     deleteOperations.add(new CheckedDeleteOperation(persistentObject));
   }
 
+  /**
+   * Deletes the given object, but when it was inserted in this session and not flushed yet,
+   * the insert is cancelled right away instead of being matched against the delete at flush. 
+   * Objects that are created and deleted within one command, like the executions and variables
+   * of a process segment without wait states, thus never reach the database. 
+   * 
+   * A cancelled insert is only marked: it is skipped when the inserted objects are flushed, so 
+   * cancelling doesn't scan the inserted objects. The object stays in the cache until the flush, 
+   * so lookups behave as for any other deleted object.
+   */
+  public void deleteOrCancelInsert(PersistentObject persistentObject) {
+    if (pendingInserts.remove(persistentObject)) {
+      cancelledInserts.add(persistentObject);
+    } else {
+      delete(persistentObject);
+    }
+  }
+
   public interface DeleteOperation {
     
     boolean sameIdentity(PersistentObject other);
@@ -243,7 +353,8 @@ public class DbSqlSession implements Session {
       if (persistentObject instanceof HasRevision) {
         int nrOfRowsDeleted = sqlSession.delete(deleteStatement, persistentObject);
         if (nrOfRowsDeleted == 0) {
-          throw new ActivitiOptimisticLockingException(persistentObject + " was updated by another transaction concurrently");
+          throw new ActivitiOptimisticLockingException(persistentObject + " was updated by another transaction concurrently", 
+                  persistentObject.getClass(), persistentObject.getId());
         }
       } else {
         sqlSession.delete(deleteStatement, persistentObject);
@@ -272,6 +383,18 @@ public class DbSqlSession implements Session {
     return selectList(statement, parameter, 0, Integer.MAX_VALUE);
   }
   
+  /**
+   * Selects the list for the given ids with one query per {@link #MAX_IN_LIST_SIZE} of them.
+   */
+  @SuppressWarnings({ "rawtypes", "unchecked" })
+  public List selectListInChunks(String statement, Collection<String> ids) {
+    List results = new ArrayList();
+    for (List<String> chunk : CollectionUtil.partition(ids, MAX_IN_LIST_SIZE)) {
+      results.addAll(selectList(statement, chunk));
+    }
+    return results;
+  }
+  
   @SuppressWarnings("rawtypes")
   public List selectList(String statement, Object parameter, Page page) {   
     if (page!=null) {
@@ -328,9 +451,16 @@ public class DbSqlSession implements Session {
   @SuppressWarnings("unchecked")
   public <T extends PersistentObject> T selectById(Class<T> entityClass, String id) {
     T persistentObject = cacheGet(entityClass, id);
+    MetricsRegistry metricsRegistry = dbSqlSessionFactory.getMetricsRegistry();
     if (persistentObject!=null) {
+      if (metricsRegistry != null) {
+        metricsRegistry.increment("cache.session.hit", 1);
+      }
       return persistentObject;
     }
+    if (metricsRegistry != null) {
+      metricsRegistry.increment("cache.session.miss", 1);
+    }
     String selectStatement = dbSqlSessionFactory.getSelectStatement(entityClass);
     selectStatement = dbSqlSessionFactory.mapStatement(selectStatement);
     persistentObject = (T) sqlSession.selectOne(selectStatement, id);
@@ -459,30 +589,67 @@ public class DbSqlSession implements Session {
     List<PersistentObject> updatedObjects = getUpdatedObjects();
     
     if (log.isDebugEnabled()) {
-      log.debug("flush summary: {} insert, {} update, {} delete.", insertedObjects.size(), updatedObjects.size(), deleteOperations.size());
+      log.debug("flush summary: {} insert, {} update, {} column update, {} delete.", 
+              insertedObjects.size(), updatedObjects.size(), columnUpdateOperations.size(), deleteOperations.size());
       for (PersistentObject insertedObject: insertedObjects) {
         log.debug("  insert {}", insertedObject);
       }
       for (PersistentObject updatedObject: updatedObjects) {
         log.debug("  update {}", updatedObject);
       }
+      for (ColumnUpdateOperation columnUpdateOperation: columnUpdateOperations.values()) {
+        log.debug("  {}", columnUpdateOperation);
+      }
       for (DeleteOperation deleteOperation: deleteOperations) {
         log.debug("  {}", deleteOperation);
       }
       log.debug("now executing flush...");
     }
+    
+    if (dbSqlSessionFactory.getMetricsRegistry() != null) {
+      recordFlushMetrics(dbSqlSessionFactory.getMetricsRegistry(), updatedObjects);
+    }
 
     flushInserts();
     flushUpdates(updatedObjects);
+    flushColumnUpdates();
     flushDeletes();
   }
 
+  protected void recordFlushMetrics(MetricsRegistry metricsRegistry, List<PersistentObject> updatedObjects) {
+    metricsRegistry.increment("flush", 1);
+    for (PersistentObject insertedObject : insertedObjects) {
+      metricsRegistry.increment("flush.insert." + insertedObject.getClass().getSimpleName(), 1);
+    }
+    for (PersistentObject updatedObject : updatedObjects) {
+      metricsRegistry.increment("flush.update." + updatedObject.getClass().getSimpleName(), 1);
+    }
+    for (DeleteOperation deleteOperation : deleteOperations) {
+      if (deleteOperation instanceof CheckedDeleteOperation) {
+        metricsRegistry.increment("flush.delete." + ((CheckedDeleteOperation) deleteOperation).getPersistentObject().getClass().getSimpleName(), 1);
+      } else {
+        metricsRegistry.increment("flush.bulkDelete", 1);
+      }
+    }
+    if (!columnUpdateOperations.isEmpty()) {
+      metricsRegistry.increment("flush.columnUpdate", columnUpdateOperations.size());
+    }
+  }
+
   /**
    * Clears all deleted and inserted objects from the cache, 
    * and removes inserts and deletes that cancel each other.
    */
   protected void removeUnnecessaryOperations() {
     
+    if (!cancelledInserts.isEmpty()) {
+      for (Iterator<PersistentObject> insertIt = insertedObjects.iterator(); insertIt.hasNext();) {
+        if (cancelledInserts.contains(insertIt.next())) {
+          insertIt.remove();
+        }
+      }
+    }
+    
     for (Iterator<DeleteOperation> deleteIt = deleteOperations.iterator(); deleteIt.hasNext();) {
       DeleteOperation deleteOperation = deleteIt.next();
       
@@ -493,6 +660,7 @@ public class DbSqlSession implements Session {
         if (deleteOperation.sameIdentity(insertedObject)) {
           // remove the insert and the delete, they cancel each other
           insertIt.remove();
+          pendingInserts.remove(insertedObject);
           deleteIt.remove();
         }
       }
@@ -505,6 +673,10 @@ public class DbSqlSession implements Session {
       cacheRemove(insertedObject.getClass(), insertedObject.getId());
     }
     
+    for (PersistentObject cancelledInsert: cancelledInserts) {
+      cacheRemove(cancelledInsert.getClass(), cancelledInsert.getId());
+    }
+    cancelledInserts.clear();
   }
 
   protected void flushDeserializedObjects() {
@@ -537,6 +709,9 @@ public class DbSqlSession implements Session {
   }
   
   protected boolean isPersistentObjectDeleted(PersistentObject persistentObject) {
+    if (cancelledInserts.contains(persistentObject)) {
+      return true;
+    }
     for (DeleteOperation deleteOperation : deleteOperations) {
       if (deleteOperation.sameIdentity(persistentObject)) {
         return true;
@@ -548,6 +723,9 @@ public class DbSqlSession implements Session {
   public <T extends PersistentObject> List<T> pruneDeletedEntities(List<T> listToPrune) {   
     List<T> prunedList = new ArrayList<T>(listToPrune);
     for (T potentiallyDeleted : listToPrune) {
+      if (cancelledInserts.contains(potentiallyDeleted)) {
+        prunedList.remove(potentiallyDeleted);
+      }
       for (DeleteOperation deleteOperation: deleteOperations) {
           
         if (deleteOperation.sameIdentity(potentiallyDeleted)) {
@@ -577,6 +755,7 @@ public class DbSqlSession implements Session {
       }
     }
     insertedObjects.clear();
+    pendingInserts.clear();
   }
 
   protected void flushUpdates(List<PersistentObject> updatedObjects) {
@@ -591,7 +770,8 @@ public class DbSqlSession implements Session {
       log.debug("updating: {}", updatedObject);
       int updatedRecords = sqlSession.update(updateStatement, updatedObject);
       if (updatedRecords!=1) {
-        throw new ActivitiOptimisticLockingException(updatedObject + " was updated by another transaction concurrently");
+        throw new ActivitiOptimisticLockingException(updatedObject + " was updated by another transaction concurrently", 
+                updatedObject.getClass(), updatedObject.getId());
       } 
       
       // See http://jira.codehaus.org/browse/ACT-1290
@@ -603,6 +783,16 @@ public class DbSqlSession implements Session {
     updatedObjects.clear();
   }
 
+  protected void flushColumnUpdates() {
+    for (ColumnUpdateOperation columnUpdateOperation: columnUpdateOperations.values()) {
+      log.debug("executing: {}", columnUpdateOperation);
+      // No check on the number of updated rows: the row may not exist, eg. when it was 
+      // created with a lower history level
+      columnUpdateOperation.execute();
+    }
+    columnUpdateOperations.clear();
+  }
+
   protected void flushDeletes() {
     for (DeleteOperation delete: deleteOperations) {
       log.debug("executing: {}", delete);
@@ -700,7 +890,26 @@ public class DbSqlSession implements Session {
   }
 
   protected void dbSchemaCreateHistory() {
-    executeMandatorySchemaResource("create", "history");
+    if (Context.getProcessEngineConfiguration().isDbHistoryPartitioned()) {
+      executeMandatorySchemaResource("create", "history.partitioned");
+      dbSchemaCreateHistoryPartitions();
+    } else {
+      executeMandatorySchemaResource("create", "history");
+    }
+  }
+
+  /**
+   * Creates the monthly partitions of the history tables up to the configured number 
+   * of months ahead, when the history tables are partitioned.
+   */
+  protected void dbSchemaCreateHistoryPartitions() {
+    ProcessEngineConfigurationImpl processEngineConfiguration = Context.getProcessEngineConfiguration();
+    if (processEngineConfiguration.isDbHistoryPartitioned()) {
+      Calendar until = Calendar.getInstance();
+      until.setTime(ClockUtil.getCurrentTime());
+      until.add(Calendar.MONTH, processEngineConfiguration.getHistoryPartitionsAhead());
+      Context.getCommandContext().getHistoryPartitionManager().createHistoryPartitions(until.getTime());
+    }
   }
 
   protected void dbSchemaCreateEngine() {
@@ -769,6 +978,7 @@ public class DbSqlSession implements Session {
       if (isUpgradeNeeded) {
         dbSchemaUpgrade("history", dbVersion);
       }
+      dbSchemaCreateHistoryPartitions();
     } else if (dbSqlSessionFactory.isDbHistoryUsed()) {
       dbSchemaCreateHistory();
     }
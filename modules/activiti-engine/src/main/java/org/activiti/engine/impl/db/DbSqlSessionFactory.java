@@ -16,6 +16,7 @@ package org.activiti.engine.impl.db;
 import org.activiti.engine.impl.cfg.IdGenerator;
 import org.activiti.engine.impl.interceptor.Session;
 import org.activiti.engine.impl.interceptor.SessionFactory;
+import org.activiti.engine.impl.metrics.MetricsRegistry;
 import org.apache.ibatis.session.SqlSessionFactory;
 
 import java.util.HashMap;
@@ -64,6 +65,10 @@ public class DbSqlSessionFactory implements SessionFactory {
     addDatabaseSpecificStatement("mysql", "updateExecutionTenantIdForDeployment", "updateExecutionTenantIdForDeployment_mysql");
     addDatabaseSpecificStatement("mysql", "updateTaskTenantIdForDeployment", "updateTaskTenantIdForDeployment_mysql");
     addDatabaseSpecificStatement("mysql", "updateJobTenantIdForDeployment", "updateJobTenantIdForDeployment_mysql");
+    addDatabaseSpecificStatement("mysql", "selectTableRowCountEstimate", "selectTableRowCountEstimate_mysql");
+    addDatabaseSpecificStatement("mysql", "selectHistoryPartitionNames", "selectHistoryPartitionNames_mysql");
+    addDatabaseSpecificStatement("mysql", "createHistoryPartition", "createHistoryPartition_mysql");
+    addDatabaseSpecificStatement("mysql", "dropHistoryPartition", "dropHistoryPartition_mysql");
     
     //postgres specific
     databaseSpecificLimitBeforeStatements.put("postgres", "");
@@ -89,6 +94,10 @@ public class DbSqlSessionFactory implements SessionFactory {
     addDatabaseSpecificStatement("postgres", "selectCommentsByType", "selectCommentsByType_postgres");
     addDatabaseSpecificStatement("postgres", "selectCommentsByTaskIdAndType", "selectCommentsByTaskIdAndType_postgres");
     addDatabaseSpecificStatement("postgres", "selectEventsByTaskId", "selectEventsByTaskId_postgres");
+    addDatabaseSpecificStatement("postgres", "selectTableRowCountEstimate", "selectTableRowCountEstimate_postgres");
+    addDatabaseSpecificStatement("postgres", "selectHistoryPartitionNames", "selectHistoryPartitionNames_postgres");
+    addDatabaseSpecificStatement("postgres", "createHistoryPartition", "createHistoryPartition_postgres");
+    addDatabaseSpecificStatement("postgres", "dropHistoryPartition", "dropHistoryPartition_postgres");
         
     // oracle
     databaseSpecificLimitBeforeStatements.put("oracle", "select * from ( select a.*, ROWNUM rnum from (");
@@ -97,6 +106,10 @@ public class DbSqlSessionFactory implements SessionFactory {
     databaseOuterJoinLimitBetweenStatements.put("oracle", "");
     databaseSpecificOrderByStatements.put("oracle", defaultOrderBy);
     addDatabaseSpecificStatement("oracle", "selectExclusiveJobsToExecute", "selectExclusiveJobsToExecute_integerBoolean");
+    addDatabaseSpecificStatement("oracle", "selectTableRowCountEstimate", "selectTableRowCountEstimate_oracle");
+    addDatabaseSpecificStatement("oracle", "selectHistoryPartitionNames", "selectHistoryPartitionNames_oracle");
+    addDatabaseSpecificStatement("oracle", "createHistoryPartition", "createHistoryPartition_oracle");
+    addDatabaseSpecificStatement("oracle", "dropHistoryPartition", "dropHistoryPartition_oracle");
     
     // db2
     databaseSpecificLimitBeforeStatements.put("db2", "SELECT SUB.* FROM (");
@@ -147,6 +160,7 @@ public class DbSqlSessionFactory implements SessionFactory {
     addDatabaseSpecificStatement("mssql", "selectProcessInstanceWithVariablesByQueryCriteria", "selectProcessInstanceWithVariablesByQueryCriteria_mssql_or_db2");
     addDatabaseSpecificStatement("mssql", "selectHistoricProcessInstancesWithVariablesByQueryCriteria", "selectHistoricProcessInstancesWithVariablesByQueryCriteria_mssql_or_db2");
     addDatabaseSpecificStatement("mssql", "selectHistoricTaskInstancesWithVariablesByQueryCriteria", "selectHistoricTaskInstancesWithVariablesByQueryCriteria_mssql_or_db2");
+    addDatabaseSpecificStatement("mssql", "selectTableRowCountEstimate", "selectTableRowCountEstimate_mssql");
   }
   
   protected String databaseType;
@@ -167,6 +181,8 @@ public class DbSqlSessionFactory implements SessionFactory {
   protected Map<Class<?>,String>  selectStatements = new ConcurrentHashMap<Class<?>, String>();
   protected boolean isDbIdentityUsed = true;
   protected boolean isDbHistoryUsed = true;
+  /** Only set when metrics are enabled */
+  protected MetricsRegistry metricsRegistry;
 
   public Class< ? > getSessionType() {
     return DbSqlSession.class;
@@ -335,5 +351,13 @@ public class DbSqlSessionFactory implements SessionFactory {
   public void setDatabaseSchema(String databaseSchema) {
     this.databaseSchema = databaseSchema;
   }
+  
+  public MetricsRegistry getMetricsRegistry() {
+    return metricsRegistry;
+  }
+  
+  public void setMetricsRegistry(MetricsRegistry metricsRegistry) {
+    this.metricsRegistry = metricsRegistry;
+  }
 
 }
@@ -0,0 +1,80 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.engine.impl.db;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.activiti.engine.impl.util.ClockUtil;
+
+/**
+ * Engine-wide cache of approximate row counts per table, used by the management
+ * table count and table page queries so consecutive calls (eg. an admin UI refreshing)
+ * don't hit the database each time. Entries expire after a configurable time to live.
+ */
+public class TableRowCountCache {
+
+  protected Map<String, CachedRowCount> rowCounts = new ConcurrentHashMap<String, CachedRowCount>();
+
+  /** in milliseconds, 0 or less disables caching */
+  protected long timeToLive;
+
+  public TableRowCountCache(long timeToLive) {
+    this.timeToLive = timeToLive;
+  }
+
+  /**
+   * Returns the cached row count of the given table, or null when no (non-expired) row count is cached.
+   */
+  public Long get(String tableName) {
+    CachedRowCount cachedRowCount = rowCounts.get(tableName);
+    if (cachedRowCount == null) {
+      return null;
+    }
+    if (ClockUtil.getCurrentTime().getTime() - cachedRowCount.timestamp >= timeToLive) {
+      rowCounts.remove(tableName);
+      return null;
+    }
+    return cachedRowCount.rowCount;
+  }
+
+  public void put(String tableName, long rowCount) {
+    if (timeToLive > 0) {
+      rowCounts.put(tableName, new CachedRowCount(rowCount, ClockUtil.getCurrentTime().getTime()));
+    }
+  }
+
+  public void clear() {
+    rowCounts.clear();
+  }
+
+  public long getTimeToLive() {
+    return timeToLive;
+  }
+
+  public void setTimeToLive(long timeToLive) {
+    this.timeToLive = timeToLive;
+  }
+
+  protected static class CachedRowCount {
+
+    protected long rowCount;
+    protected long timestamp;
+
+    public CachedRowCount(long rowCount, long timestamp) {
+      this.rowCount = rowCount;
+      this.timestamp = timestamp;
+    }
+  }
+
+}
@@ -0,0 +1,50 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.engine.impl.el;
+
+import org.activiti.engine.delegate.VariableScope;
+import org.activiti.engine.impl.context.Context;
+import org.activiti.engine.impl.delegate.ExpressionInvocation;
+import org.activiti.engine.impl.javax.el.ValueExpression;
+
+
+/**
+ * Handles the Expression.getValue invocations of a {@link CompiledJuelExpression}. 
+ * The juel {@link ValueExpression} is only evaluated when the compiled expression 
+ * can't be, so the el context is only created in that case.
+ */
+public class CompiledExpressionGetInvocation extends ExpressionInvocation {
+
+  protected final SimpleExpressionCompiler.Evaluator evaluator;
+  protected final VariableScope variableScope;
+
+  public CompiledExpressionGetInvocation(ValueExpression valueExpression, SimpleExpressionCompiler.Evaluator evaluator, VariableScope variableScope) {
+    super(valueExpression);
+    this.evaluator = evaluator;
+    this.variableScope = variableScope;
+  }
+
+  protected void invoke() throws Exception {
+    Object value = SimpleExpressionCompiler.UNRESOLVED;
+    try {
+      value = evaluator.evaluate(variableScope);
+    } catch (RuntimeException e) {
+      // Evaluated again by juel below, which reports the error the usual way
+    }
+    if (value == SimpleExpressionCompiler.UNRESOLVED) {
+      value = valueExpression.getValue(Context.getProcessEngineConfiguration().getExpressionManager().getElContext(variableScope));
+    }
+    invocationResult = value;
+  }
+
+}
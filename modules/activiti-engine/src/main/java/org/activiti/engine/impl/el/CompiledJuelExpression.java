@@ -0,0 +1,42 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.engine.impl.el;
+
+import org.activiti.engine.delegate.VariableScope;
+import org.activiti.engine.impl.delegate.DelegateInvocation;
+import org.activiti.engine.impl.javax.el.ValueExpression;
+
+
+/**
+ * Expression compiled by the {@link SimpleExpressionCompiler}, falling back to
+ * the juel {@link ValueExpression} when a variable is not available in the
+ * variable scope or the evaluation fails. Both are evaluated through the 
+ * configured {@link org.activiti.engine.impl.interceptor.DelegateInterceptor}.
+ */
+public class CompiledJuelExpression extends JuelExpression {
+
+  private static final long serialVersionUID = 1L;
+
+  protected SimpleExpressionCompiler.Evaluator evaluator;
+
+  public CompiledJuelExpression(ValueExpression valueExpression, String expressionText, SimpleExpressionCompiler.Evaluator evaluator) {
+    super(valueExpression, expressionText);
+    this.evaluator = evaluator;
+  }
+
+  @Override
+  protected DelegateInvocation createGetInvocation(VariableScope variableScope) {
+    return new CompiledExpressionGetInvocation(valueExpression, evaluator, variableScope);
+  }
+
+}
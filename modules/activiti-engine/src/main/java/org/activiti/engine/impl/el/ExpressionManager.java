@@ -28,6 +28,7 @@ import org.activiti.engine.impl.javax.el.ListELResolver;
 import org.activiti.engine.impl.javax.el.MapELResolver;
 import org.activiti.engine.impl.javax.el.ValueExpression;
 import org.activiti.engine.impl.juel.ExpressionFactoryImpl;
+import org.activiti.engine.impl.juel.ExpressionFactoryImpl.Profile;
 import org.activiti.engine.impl.persistence.entity.VariableScopeImpl;
 
 
@@ -50,10 +51,16 @@ import org.activiti.engine.impl.persistence.entity.VariableScopeImpl;
  */
 public class ExpressionManager {
 
+  public static final int DEFAULT_EXPRESSION_CACHE_SIZE = 1000;
+
   protected ExpressionFactory expressionFactory;
   // Default implementation (does nothing)
   protected ELContext parsingElContext = new ParsingElContext();
   protected Map<Object, Object> beans;
+  // Resolvers that don't depend on the variable scope, shared by all el contexts
+  protected volatile ELResolver sharedElResolver;
+  // Compiles simple expressions when set
+  protected SimpleExpressionCompiler simpleExpressionCompiler;
   
   
   public ExpressionManager() {
@@ -61,8 +68,16 @@ public class ExpressionManager {
   }
   
   public ExpressionManager(Map<Object, Object> beans) {
+    this(beans, DEFAULT_EXPRESSION_CACHE_SIZE);
+  }
+  
+  /**
+   * @param expressionCacheSize maximum number of parsed expression trees kept by
+   *          the expression factory (no caching if not positive)
+   */
+  public ExpressionManager(Map<Object, Object> beans, int expressionCacheSize) {
     // Use the ExpressionFactoryImpl in activiti build in version of juel, with parametrised method expressions enabled
-    expressionFactory = new ExpressionFactoryImpl();
+    expressionFactory = new ExpressionFactoryImpl(Profile.JEE6, expressionCacheSize);
     this.beans = beans;
   }
 
@@ -70,9 +85,34 @@ public class ExpressionManager {
   
   public Expression createExpression(String expression) {
     ValueExpression valueExpression = expressionFactory.createValueExpression(parsingElContext, expression.trim(), Object.class);
+    if (simpleExpressionCompiler != null) {
+      Expression compiledExpression = simpleExpressionCompiler.compile(valueExpression, expression);
+      if (compiledExpression != null) {
+        return compiledExpression;
+      }
+    }
     return new JuelExpression(valueExpression, expression);
   }
 
+  /**
+   * @return a compiler using the parser and type conversions of the expression factory, 
+   *         or null if the expression factory isn't the built in juel implementation.
+   */
+  public SimpleExpressionCompiler createSimpleExpressionCompiler() {
+    if (expressionFactory instanceof ExpressionFactoryImpl) {
+      return new SimpleExpressionCompiler((ExpressionFactoryImpl) expressionFactory);
+    }
+    return null;
+  }
+
+  public SimpleExpressionCompiler getSimpleExpressionCompiler() {
+    return simpleExpressionCompiler;
+  }
+
+  public void setSimpleExpressionCompiler(SimpleExpressionCompiler simpleExpressionCompiler) {
+    this.simpleExpressionCompiler = simpleExpressionCompiler;
+  }
+
   public void setExpressionFactory(ExpressionFactory expressionFactory) {
     this.expressionFactory = expressionFactory;
   }
@@ -99,10 +139,37 @@ public class ExpressionManager {
     return new ActivitiElContext(elResolver);
   }
 
+  /**
+   * Only the resolver for the variables of the given scope is created per scope,
+   * all other resolvers are stateless and shared (see {@link #getSharedElResolver()}).
+   */
   protected ELResolver createElResolver(VariableScope variableScope) {
     CompositeELResolver elResolver = new CompositeELResolver();
     elResolver.add(new VariableScopeElResolver(variableScope));
-    
+    elResolver.add(getSharedElResolver());
+    return elResolver;
+  }
+
+  /**
+   * Returns the resolver that is shared by the el contexts of all variable scopes,
+   * so the bean property cache of the {@link BeanELResolver} is engine-wide.
+   */
+  public ELResolver getSharedElResolver() {
+    ELResolver elResolver = sharedElResolver;
+    if (elResolver == null) {
+      // Creating it twice in a race is harmless, the resolvers are stateless
+      elResolver = createSharedElResolver();
+      sharedElResolver = elResolver;
+    }
+    return elResolver;
+  }
+
+  /**
+   * Creates the resolvers that don't depend on the variable scope. Subclasses
+   * exposing additional beans can override this method.
+   */
+  protected ELResolver createSharedElResolver() {
+    CompositeELResolver elResolver = new CompositeELResolver();
     if(beans != null) {
       // ACT-1102: Also expose all beans in configuration when using standalone activiti, not
       // in spring-context
@@ -16,6 +16,7 @@ package org.activiti.engine.impl.el;
 import org.activiti.engine.ActivitiException;
 import org.activiti.engine.delegate.VariableScope;
 import org.activiti.engine.impl.context.Context;
+import org.activiti.engine.impl.delegate.DelegateInvocation;
 import org.activiti.engine.impl.delegate.ExpressionGetInvocation;
 import org.activiti.engine.impl.delegate.ExpressionSetInvocation;
 import org.activiti.engine.impl.javax.el.ELContext;
@@ -42,9 +43,8 @@ public class JuelExpression implements Expression {
   }
 
   public Object getValue(VariableScope variableScope) {
-    ELContext elContext = Context.getProcessEngineConfiguration().getExpressionManager().getElContext(variableScope);
+    DelegateInvocation invocation = createGetInvocation(variableScope);
     try {
-      ExpressionGetInvocation invocation = new ExpressionGetInvocation(valueExpression, elContext);
       Context.getProcessEngineConfiguration()
         .getDelegateInterceptor()
         .handleInvocation(invocation);
@@ -60,6 +60,11 @@ public class JuelExpression implements Expression {
     }
   }
     
+  protected DelegateInvocation createGetInvocation(VariableScope variableScope) {
+    ELContext elContext = Context.getProcessEngineConfiguration().getExpressionManager().getElContext(variableScope);
+    return new ExpressionGetInvocation(valueExpression, elContext);
+  }
+    
   public void setValue(Object value, VariableScope variableScope) {
     ELContext elContext = Context.getProcessEngineConfiguration().getExpressionManager().getElContext(variableScope);
     try {
@@ -0,0 +1,303 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.engine.impl.el;
+
+import java.io.Serializable;
+
+import org.activiti.engine.delegate.VariableScope;
+import org.activiti.engine.impl.javax.el.ValueExpression;
+import org.activiti.engine.impl.juel.AstBinary;
+import org.activiti.engine.impl.juel.AstBoolean;
+import org.activiti.engine.impl.juel.AstEval;
+import org.activiti.engine.impl.juel.AstIdentifier;
+import org.activiti.engine.impl.juel.AstNested;
+import org.activiti.engine.impl.juel.AstNode;
+import org.activiti.engine.impl.juel.AstNull;
+import org.activiti.engine.impl.juel.AstNumber;
+import org.activiti.engine.impl.juel.AstString;
+import org.activiti.engine.impl.juel.AstUnary;
+import org.activiti.engine.impl.juel.BooleanOperations;
+import org.activiti.engine.impl.juel.ExpressionFactoryImpl;
+import org.activiti.engine.impl.juel.ExpressionNode;
+import org.activiti.engine.impl.juel.Node;
+import org.activiti.engine.impl.juel.TreeBuilderException;
+import org.activiti.engine.impl.juel.TreeStore;
+import org.activiti.engine.impl.juel.TypeConverter;
+
+
+/**
+ * Compiles simple expressions, like most sequence flow conditions, into evaluators
+ * that read the variables straight from the {@link VariableScope}, instead of walking
+ * the juel tree through the el resolvers on every evaluation.
+ * 
+ * Only a single eval expression (<code>${...}</code> or <code>#{...}</code>) made up of
+ * variables, string, number, boolean and null literals, the comparison operators
+ * (<code>== != &lt; &gt; &lt;= &gt;=</code>), <code>&amp;&amp; || ! empty</code> and
+ * parentheses is compiled. Operators have the same semantics as in juel.
+ * 
+ * A variable that is not present in the variable scope can only be resolved by the
+ * other el resolvers (eg. a bean), so the compiled expression then falls back to
+ * the juel expression. Since the {@link VariableScopeElResolver} always comes first,
+ * both evaluations give the same result.
+ */
+public class SimpleExpressionCompiler {
+
+  /** Returned by an evaluator when a variable is not available in the variable scope. */
+  protected static final Object UNRESOLVED = new Object();
+
+  protected TreeStore treeStore;
+  protected TypeConverter typeConverter;
+
+  /**
+   * Uses the parser and the type conversions of the given expression factory, so 
+   * compiled expressions are parsed and evaluated like the juel expressions it creates.
+   */
+  public SimpleExpressionCompiler(ExpressionFactoryImpl expressionFactory) {
+    this.treeStore = expressionFactory.getTreeStore();
+    this.typeConverter = expressionFactory.getTypeConverter();
+  }
+
+  /**
+   * @return the compiled expression, or null if the expression is not in the
+   *         supported subset.
+   */
+  public Expression compile(ValueExpression valueExpression, String expressionText) {
+    ExpressionNode root;
+    try {
+      root = treeStore.get(expressionText.trim()).getRoot();
+    } catch (TreeBuilderException e) {
+      return null;
+    }
+    if (!(root instanceof AstEval)) {
+      return null;
+    }
+    Evaluator evaluator = compile(((AstEval) root).getChild(0));
+    if (evaluator == null) {
+      return null;
+    }
+    return new CompiledJuelExpression(valueExpression, expressionText, evaluator);
+  }
+
+  protected Evaluator compile(Node node) {
+    if (node instanceof AstNested) {
+      return compile(node.getChild(0));
+
+    } else if (node instanceof AstNumber || node instanceof AstString || node instanceof AstBoolean || node instanceof AstNull) {
+      // Literals don't use the bindings or context
+      return new LiteralEvaluator(((AstNode) node).eval(null, null));
+
+    } else if (node instanceof AstIdentifier) {
+      String name = ((AstIdentifier) node).getName();
+      if (VariableScopeElResolver.EXECUTION_KEY.equals(name) || VariableScopeElResolver.TASK_KEY.equals(name)
+              || VariableScopeElResolver.LOGGED_IN_USER_KEY.equals(name)) {
+        return null;
+      }
+      return new VariableEvaluator(name);
+
+    } else if (node instanceof AstUnary) {
+      AstUnary.Operator operator = ((AstUnary) node).getOperator();
+      Evaluator operand = compile(node.getChild(0));
+      if (operand == null || (operator != AstUnary.NOT && operator != AstUnary.EMPTY)) {
+        return null;
+      }
+      return new UnaryEvaluator(operator == AstUnary.NOT, operand, typeConverter);
+
+    } else if (node instanceof AstBinary) {
+      AstBinary.Operator operator = ((AstBinary) node).getOperator();
+      Evaluator left = compile(node.getChild(0));
+      Evaluator right = compile(node.getChild(1));
+      if (left == null || right == null) {
+        return null;
+      }
+      if (operator == AstBinary.AND || operator == AstBinary.OR) {
+        return new LogicalEvaluator(operator == AstBinary.AND, left, right, typeConverter);
+      }
+      Comparison comparison = Comparison.forOperator(operator);
+      if (comparison == null) {
+        return null;
+      }
+      return new ComparisonEvaluator(comparison, left, right, typeConverter);
+    }
+    return null;
+  }
+
+  // evaluators ///////////////////////////////////////////////////////////////
+
+  public static abstract class Evaluator implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * @return the value, or {@link SimpleExpressionCompiler#UNRESOLVED} if a variable is
+     *         not available in the variable scope.
+     */
+    public abstract Object evaluate(VariableScope variableScope);
+  }
+
+  protected static class LiteralEvaluator extends Evaluator {
+
+    private static final long serialVersionUID = 1L;
+
+    protected Object value;
+
+    public LiteralEvaluator(Object value) {
+      this.value = value;
+    }
+
+    public Object evaluate(VariableScope variableScope) {
+      return value;
+    }
+  }
+
+  protected static class VariableEvaluator extends Evaluator {
+
+    private static final long serialVersionUID = 1L;
+
+    protected String name;
+
+    public VariableEvaluator(String name) {
+      this.name = name;
+    }
+
+    public Object evaluate(VariableScope variableScope) {
+      if (!variableScope.hasVariable(name)) {
+        return UNRESOLVED;
+      }
+      return variableScope.getVariable(name);
+    }
+  }
+
+  protected static class UnaryEvaluator extends Evaluator {
+
+    private static final long serialVersionUID = 1L;
+
+    protected boolean not;
+    protected Evaluator operand;
+    protected TypeConverter typeConverter;
+
+    public UnaryEvaluator(boolean not, Evaluator operand, TypeConverter typeConverter) {
+      this.not = not;
+      this.operand = operand;
+      this.typeConverter = typeConverter;
+    }
+
+    public Object evaluate(VariableScope variableScope) {
+      Object value = operand.evaluate(variableScope);
+      if (value == UNRESOLVED) {
+        return UNRESOLVED;
+      }
+      if (not) {
+        return !typeConverter.convert(value, Boolean.class);
+      }
+      return BooleanOperations.empty(typeConverter, value);
+    }
+  }
+
+  protected static class LogicalEvaluator extends Evaluator {
+
+    private static final long serialVersionUID = 1L;
+
+    protected boolean and;
+    protected Evaluator left;
+    protected Evaluator right;
+    protected TypeConverter typeConverter;
+
+    public LogicalEvaluator(boolean and, Evaluator left, Evaluator right, TypeConverter typeConverter) {
+      this.and = and;
+      this.left = left;
+      this.right = right;
+      this.typeConverter = typeConverter;
+    }
+
+    public Object evaluate(VariableScope variableScope) {
+      Object leftValue = left.evaluate(variableScope);
+      if (leftValue == UNRESOLVED) {
+        return UNRESOLVED;
+      }
+      // Only evaluate the right operand when needed, as juel does
+      boolean leftTrue = Boolean.TRUE.equals(typeConverter.convert(leftValue, Boolean.class));
+      if (leftTrue != and) {
+        return leftTrue;
+      }
+      Object rightValue = right.evaluate(variableScope);
+      if (rightValue == UNRESOLVED) {
+        return UNRESOLVED;
+      }
+      return typeConverter.convert(rightValue, Boolean.class);
+    }
+  }
+
+  protected enum Comparison {
+    EQ, NE, LT, GT, LE, GE;
+
+    public static Comparison forOperator(AstBinary.Operator operator) {
+      if (operator == AstBinary.EQ) {
+        return EQ;
+      } else if (operator == AstBinary.NE) {
+        return NE;
+      } else if (operator == AstBinary.LT) {
+        return LT;
+      } else if (operator == AstBinary.GT) {
+        return GT;
+      } else if (operator == AstBinary.LE) {
+        return LE;
+      } else if (operator == AstBinary.GE) {
+        return GE;
+      }
+      return null;
+    }
+  }
+
+  protected static class ComparisonEvaluator extends Evaluator {
+
+    private static final long serialVersionUID = 1L;
+
+    protected Comparison comparison;
+    protected Evaluator left;
+    protected Evaluator right;
+    protected TypeConverter typeConverter;
+
+    public ComparisonEvaluator(Comparison comparison, Evaluator left, Evaluator right, TypeConverter typeConverter) {
+      this.comparison = comparison;
+      this.left = left;
+      this.right = right;
+      this.typeConverter = typeConverter;
+    }
+
+    public Object evaluate(VariableScope variableScope) {
+      Object leftValue = left.evaluate(variableScope);
+      if (leftValue == UNRESOLVED) {
+        return UNRESOLVED;
+      }
+      Object rightValue = right.evaluate(variableScope);
+      if (rightValue == UNRESOLVED) {
+        return UNRESOLVED;
+      }
+      switch (comparison) {
+      case EQ:
+        return BooleanOperations.eq(typeConverter, leftValue, rightValue);
+      case NE:
+        return BooleanOperations.ne(typeConverter, leftValue, rightValue);
+      case LT:
+        return BooleanOperations.lt(typeConverter, leftValue, rightValue);
+      case GT:
+        return BooleanOperations.gt(typeConverter, leftValue, rightValue);
+      case LE:
+        return BooleanOperations.le(typeConverter, leftValue, rightValue);
+      default:
+        return BooleanOperations.ge(typeConverter, leftValue, rightValue);
+      }
+    }
+  }
+
+}
@@ -18,9 +18,11 @@ import java.util.List;
 import java.util.Map;
 
 import org.activiti.engine.history.HistoricActivityInstance;
+import org.activiti.engine.history.HistoricStatistics;
 import org.activiti.engine.impl.HistoricActivityInstanceQueryImpl;
 import org.activiti.engine.impl.cfg.IdGenerator;
 import org.activiti.engine.impl.context.Context;
+import org.activiti.engine.impl.db.DbSqlSession;
 import org.activiti.engine.impl.form.TaskFormHandler;
 import org.activiti.engine.impl.identity.Authentication;
 import org.activiti.engine.impl.persistence.AbstractManager;
@@ -54,6 +56,8 @@ public class DefaultHistoryManager extends AbstractManager implements HistoryMan
   
   private static Logger log = LoggerFactory.getLogger(DefaultHistoryManager.class.getName());
   
+  protected static final String UPDATE_HISTORIC_TASK_INSTANCE_COLUMNS = "updateHistoricTaskInstanceColumns";
+  
   private HistoryLevel historyLevel;
   
   public DefaultHistoryManager() {
@@ -98,6 +102,8 @@ public void recordProcessInstanceEnd(String processInstanceId, String deleteReas
       if (historicProcessInstance!=null) {
         historicProcessInstance.markEnded(deleteReason);
         historicProcessInstance.setEndActivityId(activityId);
+        recordHistoricStatistics(HistoricStatistics.TYPE_PROCESS_INSTANCE, historicProcessInstance.getProcessDefinitionId(), null, 
+                historicProcessInstance.getEndTime(), historicProcessInstance.getDurationInMillis());
       }
     }
   }
@@ -227,6 +233,7 @@ public void recordActivityEnd(ExecutionEntity executionEntity) {
       HistoricActivityInstanceEntity historicActivityInstance = findActivityInstance(executionEntity);
       if (historicActivityInstance!=null) {
         historicActivityInstance.markEnded(null);
+        recordActivityHistoricStatistics(historicActivityInstance);
       }
     }
   }
@@ -251,12 +258,24 @@ public void recordStartEventEnded(String executionId, String activityId) {
                 && (cachedHistoricActivityInstance.getEndTime()==null)
                 ) {
           cachedHistoricActivityInstance.markEnded(null);
+          recordActivityHistoricStatistics(cachedHistoricActivityInstance);
           return;
         }
       }
     }
   }
   
+  protected void recordActivityHistoricStatistics(HistoricActivityInstanceEntity historicActivityInstance) {
+    recordHistoricStatistics(HistoricStatistics.TYPE_ACTIVITY, historicActivityInstance.getProcessDefinitionId(), 
+            historicActivityInstance.getActivityId(), historicActivityInstance.getEndTime(), historicActivityInstance.getDurationInMillis());
+  }
+  
+  protected void recordHistoricStatistics(String type, String processDefinitionId, String activityId, Date endTime, Long duration) {
+    if (Context.getProcessEngineConfiguration().isEnableHistoricStatistics()) {
+      getHistoricStatisticsEntityManager().recordEnded(type, processDefinitionId, activityId, endTime, duration);
+    }
+  }
+  
   /* (non-Javadoc)
  * @see org.activiti.engine.impl.history.HistoryManagerInterface#findActivityInstance(org.activiti.engine.impl.persistence.entity.ExecutionEntity)
  */
@@ -372,10 +391,12 @@ public void recordTaskAssignment(TaskEntity task) {
   @Override
 public void recordTaskClaim(String taskId) {
     if (isHistoryLevelAtLeast(HistoryLevel.AUDIT)) {
-      HistoricTaskInstanceEntity historicTaskInstance = getDbSqlSession().selectById(HistoricTaskInstanceEntity.class, taskId);
+      Date claimTime = ClockUtil.getCurrentTime();
+      HistoricTaskInstanceEntity historicTaskInstance = getDbSqlSession().findInCache(HistoricTaskInstanceEntity.class, taskId);
       if (historicTaskInstance != null) {
-        historicTaskInstance.setClaimTime( ClockUtil.getCurrentTime());
+        historicTaskInstance.setClaimTime(claimTime);
       }
+      updateHistoricTaskInstanceColumn(historicTaskInstance, taskId, "claimTime", claimTime);
     }    
   }
 
@@ -402,9 +423,14 @@ public void recordTaskId(TaskEntity task) {
   @Override
 public void recordTaskEnd(String taskId, String deleteReason) {
     if (isHistoryLevelAtLeast(HistoryLevel.AUDIT)) {
-      HistoricTaskInstanceEntity historicTaskInstance = getDbSqlSession().selectById(HistoricTaskInstanceEntity.class, taskId);
+      TaskEntity task = getDbSqlSession().findInCache(TaskEntity.class, taskId);
+      HistoricTaskInstanceEntity historicTaskInstance = task != null
+              ? getHistoricTaskInstanceManager().findHistoricTaskInstanceByTask(task)
+              : getDbSqlSession().selectById(HistoricTaskInstanceEntity.class, taskId);
       if (historicTaskInstance!=null) {
         historicTaskInstance.markEnded(deleteReason);
+        recordHistoricStatistics(HistoricStatistics.TYPE_TASK, historicTaskInstance.getProcessDefinitionId(), 
+                historicTaskInstance.getTaskDefinitionKey(), historicTaskInstance.getEndTime(), historicTaskInstance.getDurationInMillis());
       }
     }
   }
@@ -415,10 +441,11 @@ public void recordTaskEnd(String taskId, String deleteReason) {
   @Override
 public void recordTaskAssigneeChange(String taskId, String assignee) {
     if (isHistoryLevelAtLeast(HistoryLevel.AUDIT)) {
-      HistoricTaskInstanceEntity historicTaskInstance = getDbSqlSession().selectById(HistoricTaskInstanceEntity.class, taskId);
-      if (historicTaskInstance!=null) {
+      HistoricTaskInstanceEntity historicTaskInstance = getDbSqlSession().findInCache(HistoricTaskInstanceEntity.class, taskId);
+      if (historicTaskInstance != null) {
         historicTaskInstance.setAssignee(assignee);
       }
+      updateHistoricTaskInstanceColumn(historicTaskInstance, taskId, "assignee", assignee);
     }
   }
   
@@ -428,10 +455,11 @@ public void recordTaskAssigneeChange(String taskId, String assignee) {
   @Override
 public void recordTaskOwnerChange(String taskId, String owner) {
     if (isHistoryLevelAtLeast(HistoryLevel.AUDIT)) {
-      HistoricTaskInstanceEntity historicTaskInstance = getDbSqlSession().selectById(HistoricTaskInstanceEntity.class, taskId);
-      if (historicTaskInstance!=null) {
+      HistoricTaskInstanceEntity historicTaskInstance = getDbSqlSession().findInCache(HistoricTaskInstanceEntity.class, taskId);
+      if (historicTaskInstance != null) {
         historicTaskInstance.setOwner(owner);
       }
+      updateHistoricTaskInstanceColumn(historicTaskInstance, taskId, "owner", owner);
     }
   }
 
@@ -441,10 +469,11 @@ public void recordTaskOwnerChange(String taskId, String owner) {
   @Override
 public void recordTaskNameChange(String taskId, String taskName) {
     if (isHistoryLevelAtLeast(HistoryLevel.AUDIT)) {
-      HistoricTaskInstanceEntity historicTaskInstance = getDbSqlSession().selectById(HistoricTaskInstanceEntity.class, taskId);
-      if (historicTaskInstance!=null) {
+      HistoricTaskInstanceEntity historicTaskInstance = getDbSqlSession().findInCache(HistoricTaskInstanceEntity.class, taskId);
+      if (historicTaskInstance != null) {
         historicTaskInstance.setName(taskName);
       }
+      updateHistoricTaskInstanceColumn(historicTaskInstance, taskId, "name", taskName);
     }
   }
 
@@ -454,10 +483,11 @@ public void recordTaskNameChange(String taskId, String taskName) {
   @Override
 public void recordTaskDescriptionChange(String taskId, String description) {
     if (isHistoryLevelAtLeast(HistoryLevel.AUDIT)) {
-      HistoricTaskInstanceEntity historicTaskInstance = getDbSqlSession().selectById(HistoricTaskInstanceEntity.class, taskId);
-      if (historicTaskInstance!=null) {
+      HistoricTaskInstanceEntity historicTaskInstance = getDbSqlSession().findInCache(HistoricTaskInstanceEntity.class, taskId);
+      if (historicTaskInstance != null) {
         historicTaskInstance.setDescription(description);
       }
+      updateHistoricTaskInstanceColumn(historicTaskInstance, taskId, "description", description);
     }
   }
 
@@ -467,10 +497,11 @@ public void recordTaskDescriptionChange(String taskId, String description) {
   @Override
 public void recordTaskDueDateChange(String taskId, Date dueDate) {
     if (isHistoryLevelAtLeast(HistoryLevel.AUDIT)) {
-      HistoricTaskInstanceEntity historicTaskInstance = getDbSqlSession().selectById(HistoricTaskInstanceEntity.class, taskId);
-      if (historicTaskInstance!=null) {
+      HistoricTaskInstanceEntity historicTaskInstance = getDbSqlSession().findInCache(HistoricTaskInstanceEntity.class, taskId);
+      if (historicTaskInstance != null) {
         historicTaskInstance.setDueDate(dueDate);
       }
+      updateHistoricTaskInstanceColumn(historicTaskInstance, taskId, "dueDate", dueDate);
     }
   }
 
@@ -480,10 +511,11 @@ public void recordTaskDueDateChange(String taskId, Date dueDate) {
   @Override
 public void recordTaskPriorityChange(String taskId, int priority) {
     if (isHistoryLevelAtLeast(HistoryLevel.AUDIT)) {
-      HistoricTaskInstanceEntity historicTaskInstance = getDbSqlSession().selectById(HistoricTaskInstanceEntity.class, taskId);
-      if (historicTaskInstance!=null) {
+      HistoricTaskInstanceEntity historicTaskInstance = getDbSqlSession().findInCache(HistoricTaskInstanceEntity.class, taskId);
+      if (historicTaskInstance != null) {
         historicTaskInstance.setPriority(priority);
       }
+      updateHistoricTaskInstanceColumn(historicTaskInstance, taskId, "priority", priority);
     }
   }
   
@@ -493,10 +525,11 @@ public void recordTaskPriorityChange(String taskId, int priority) {
   @Override
 public void recordTaskCategoryChange(String taskId, String category) {
     if (isHistoryLevelAtLeast(HistoryLevel.AUDIT)) {
-      HistoricTaskInstanceEntity historicTaskInstance = getDbSqlSession().selectById(HistoricTaskInstanceEntity.class, taskId);
-      if (historicTaskInstance!=null) {
+      HistoricTaskInstanceEntity historicTaskInstance = getDbSqlSession().findInCache(HistoricTaskInstanceEntity.class, taskId);
+      if (historicTaskInstance != null) {
         historicTaskInstance.setCategory(category);
       }
+      updateHistoricTaskInstanceColumn(historicTaskInstance, taskId, "category", category);
     }
   }
 
@@ -507,10 +540,11 @@ public void recordTaskCategoryChange(String taskId, String category) {
   @Override
 public void recordTaskParentTaskIdChange(String taskId, String parentTaskId) {
     if (isHistoryLevelAtLeast(HistoryLevel.AUDIT)) {
-      HistoricTaskInstanceEntity historicTaskInstance = getDbSqlSession().selectById(HistoricTaskInstanceEntity.class, taskId);
-      if (historicTaskInstance!=null) {
+      HistoricTaskInstanceEntity historicTaskInstance = getDbSqlSession().findInCache(HistoricTaskInstanceEntity.class, taskId);
+      if (historicTaskInstance != null) {
         historicTaskInstance.setParentTaskId(parentTaskId);
       }
+      updateHistoricTaskInstanceColumn(historicTaskInstance, taskId, "parentTaskId", parentTaskId);
     }
   }
 
@@ -520,10 +554,11 @@ public void recordTaskParentTaskIdChange(String taskId, String parentTaskId) {
   @Override
 public void recordTaskExecutionIdChange(String taskId, String executionId) {
     if (isHistoryLevelAtLeast(HistoryLevel.AUDIT)) {
-      HistoricTaskInstanceEntity historicTaskInstance = getDbSqlSession().selectById(HistoricTaskInstanceEntity.class, taskId);
-      if (historicTaskInstance!=null) {
+      HistoricTaskInstanceEntity historicTaskInstance = getDbSqlSession().findInCache(HistoricTaskInstanceEntity.class, taskId);
+      if (historicTaskInstance != null) {
         historicTaskInstance.setExecutionId(executionId);
       }
+      updateHistoricTaskInstanceColumn(historicTaskInstance, taskId, "executionId", executionId);
     }
   }
   
@@ -533,26 +568,52 @@ public void recordTaskExecutionIdChange(String taskId, String executionId) {
   @Override
 public void recordTaskDefinitionKeyChange(TaskEntity task, String taskDefinitionKey) {
     if (isHistoryLevelAtLeast(HistoryLevel.AUDIT)) {
-      HistoricTaskInstanceEntity historicTaskInstance = getDbSqlSession().selectById(HistoricTaskInstanceEntity.class, task.getId());
-      if (historicTaskInstance != null) {
-        historicTaskInstance.setTaskDefinitionKey(taskDefinitionKey);
-        
-        if (taskDefinitionKey != null) {
-          TaskFormHandler taskFormHandler = task.getTaskDefinition().getTaskFormHandler();
-          if (taskFormHandler != null) {
-            if (taskFormHandler.getFormKey() != null) {
-              Object formValue = taskFormHandler.getFormKey().getValue(task.getExecution());
-              if (formValue != null) {
-                historicTaskInstance.setFormKey(formValue.toString());
-              }
+      String formKey = null;
+      if (taskDefinitionKey != null) {
+        TaskFormHandler taskFormHandler = task.getTaskDefinition().getTaskFormHandler();
+        if (taskFormHandler != null) {
+          if (taskFormHandler.getFormKey() != null) {
+            Object formValue = taskFormHandler.getFormKey().getValue(task.getExecution());
+            if (formValue != null) {
+              formKey = formValue.toString();
             }
           }
         }
       }
+      
+      HistoricTaskInstanceEntity historicTaskInstance = getDbSqlSession().findInCache(HistoricTaskInstanceEntity.class, task.getId());
+      if (historicTaskInstance != null) {
+        historicTaskInstance.setTaskDefinitionKey(taskDefinitionKey);
+        if (formKey != null) {
+          historicTaskInstance.setFormKey(formKey);
+        }
+      }
+      updateHistoricTaskInstanceColumn(historicTaskInstance, task.getId(), "taskDefinitionKey", taskDefinitionKey);
+      if (formKey != null) {
+        updateHistoricTaskInstanceColumn(historicTaskInstance, task.getId(), "formKey", formKey);
+      }
     }
   }
   
  
+  /**
+   * Sets a column of a historic task instance without loading it first. A cached historic task 
+   * instance is changed in memory by the caller and updated with the other cached entities, 
+   * unless columns of it were already set before it got cached: its update then overwrites them,
+   * so the column is set again after it. The create time of the task is passed as the start time of 
+   * the historic task instance, to only update its partition when the history is partitioned.
+   */
+  protected void updateHistoricTaskInstanceColumn(HistoricTaskInstanceEntity cachedHistoricTaskInstance, String taskId, String property, Object value) {
+    DbSqlSession dbSqlSession = getDbSqlSession();
+    if (cachedHistoricTaskInstance == null || dbSqlSession.hasColumnUpdate(UPDATE_HISTORIC_TASK_INSTANCE_COLUMNS, taskId)) {
+      dbSqlSession.updateColumn(UPDATE_HISTORIC_TASK_INSTANCE_COLUMNS, taskId, property, value);
+      TaskEntity task = dbSqlSession.findInCache(TaskEntity.class, taskId);
+      if (task != null) {
+        dbSqlSession.updateColumn(UPDATE_HISTORIC_TASK_INSTANCE_COLUMNS, taskId, "startTime", task.getCreateTime());
+      }
+    }
+  }
+  
   // Variables related history
   
   /* (non-Javadoc)
@@ -0,0 +1,70 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.engine.impl.history;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.activiti.engine.impl.cfg.TransactionListener;
+import org.activiti.engine.impl.cmd.UpdateHistoricStatisticsCmd;
+import org.activiti.engine.impl.interceptor.CommandConfig;
+import org.activiti.engine.impl.interceptor.CommandContext;
+import org.activiti.engine.impl.interceptor.CommandExecutor;
+import org.activiti.engine.impl.persistence.entity.HistoricStatisticsEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Adds the historic statistics recorded in a transaction to the statistics table,
+ * once that transaction is committed.
+ * 
+ * Two transactions inserting the same statistics row concurrently make one of them fail
+ * on the primary key: the failed update is retried once, which then updates the row.
+ * Statistics that still can't be stored are logged and lost, they never affect the process
+ * transaction they were recorded in.
+ */
+public class HistoricStatisticsUpdate implements TransactionListener {
+
+  private static Logger log = LoggerFactory.getLogger(HistoricStatisticsUpdate.class);
+
+  protected CommandExecutor commandExecutor;
+  protected Map<String, HistoricStatisticsEntity> historicStatistics = new LinkedHashMap<String, HistoricStatisticsEntity>();
+
+  public HistoricStatisticsUpdate(CommandExecutor commandExecutor) {
+    this.commandExecutor = commandExecutor;
+  }
+
+  public void add(HistoricStatisticsEntity historicStatisticsEntity, long duration) {
+    HistoricStatisticsEntity existing = historicStatistics.get(historicStatisticsEntity.getId());
+    if (existing == null) {
+      existing = historicStatisticsEntity;
+      historicStatistics.put(existing.getId(), existing);
+    }
+    existing.increment(duration);
+  }
+
+  public void execute(CommandContext commandContext) {
+    CommandConfig commandConfig = commandExecutor.getDefaultConfig().transactionRequiresNew();
+    try {
+      commandExecutor.execute(commandConfig, new UpdateHistoricStatisticsCmd(historicStatistics.values()));
+    } catch (Throwable t) {
+      log.debug("Retrying historic statistics update after failure: {}", t.getMessage());
+      try {
+        commandExecutor.execute(commandConfig, new UpdateHistoricStatisticsCmd(historicStatistics.values()));
+      } catch (Throwable t2) {
+        log.warn("Could not update historic statistics " + historicStatistics.values(), t2);
+      }
+    }
+  }
+
+}
@@ -28,6 +28,7 @@ import org.activiti.engine.impl.db.DbSqlSession;
 import org.activiti.engine.impl.history.HistoryManager;
 import org.activiti.engine.impl.jobexecutor.FailedJobCommandFactory;
 import org.activiti.engine.impl.persistence.entity.AttachmentEntityManager;
+import org.activiti.engine.impl.persistence.entity.BatchEntityManager;
 import org.activiti.engine.impl.persistence.entity.ByteArrayEntityManager;
 import org.activiti.engine.impl.persistence.entity.CommentEntityManager;
 import org.activiti.engine.impl.persistence.entity.DeploymentEntityManager;
@@ -38,6 +39,8 @@ import org.activiti.engine.impl.persistence.entity.HistoricActivityInstanceEntit
 import org.activiti.engine.impl.persistence.entity.HistoricDetailEntityManager;
 import org.activiti.engine.impl.persistence.entity.HistoricIdentityLinkEntityManager;
 import org.activiti.engine.impl.persistence.entity.HistoricProcessInstanceEntityManager;
+import org.activiti.engine.impl.persistence.entity.HistoricStatisticsEntityManager;
+import org.activiti.engine.impl.persistence.entity.HistoryPartitionManager;
 import org.activiti.engine.impl.persistence.entity.HistoricTaskInstanceEntityManager;
 import org.activiti.engine.impl.persistence.entity.HistoricVariableInstanceEntityManager;
 import org.activiti.engine.impl.persistence.entity.IdentityInfoEntityManager;
@@ -273,6 +276,18 @@ public class CommandContext {
     return getSession(HistoricIdentityLinkEntityManager.class);
   }
   
+  public HistoricStatisticsEntityManager getHistoricStatisticsEntityManager() {
+    return getSession(HistoricStatisticsEntityManager.class);
+  }
+  
+  public HistoryPartitionManager getHistoryPartitionManager() {
+    return getSession(HistoryPartitionManager.class);
+  }
+  
+  public BatchEntityManager getBatchEntityManager() {
+    return getSession(BatchEntityManager.class);
+  }
+  
   public JobEntityManager getJobEntityManager() {
     return getSession(JobEntityManager.class);
   }
@@ -0,0 +1,133 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.engine.impl.interceptor;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.activiti.engine.ActivitiOptimisticLockingException;
+
+/**
+ * Contention counters for one command class, as kept by the {@link RetryInterceptor}.
+ * 
+ * Only executions that ran into at least one {@link ActivitiOptimisticLockingException}
+ * are counted, so commands without contention cost nothing besides a map lookup.
+ */
+public class CommandRetryStatistics {
+  
+  /** Executions that needed more attempts than this end up in the last bucket of the histogram. */
+  public static final int MAX_TRACKED_ATTEMPTS = 10;
+  
+  protected String commandClassName;
+  protected AtomicLong conflicts = new AtomicLong();
+  protected AtomicLong retries = new AtomicLong();
+  protected AtomicLong successesAfterRetry = new AtomicLong();
+  protected AtomicLong failures = new AtomicLong();
+  protected AtomicLong totalWaitTimeInMs = new AtomicLong();
+  protected AtomicLongArray attemptsHistogram = new AtomicLongArray(MAX_TRACKED_ATTEMPTS + 1);
+  protected ConcurrentMap<String, AtomicLong> conflictsPerEntity = new ConcurrentHashMap<String, AtomicLong>();
+  
+  public CommandRetryStatistics(String commandClassName) {
+    this.commandClassName = commandClassName;
+  }
+  
+  public void conflict(ActivitiOptimisticLockingException exception) {
+    conflicts.incrementAndGet();
+    String entityName = exception.getEntityClass() != null ? exception.getEntityClass().getSimpleName() : "unknown";
+    AtomicLong counter = conflictsPerEntity.get(entityName);
+    if (counter == null) {
+      AtomicLong newCounter = new AtomicLong();
+      counter = conflictsPerEntity.putIfAbsent(entityName, newCounter);
+      if (counter == null) {
+        counter = newCounter;
+      }
+    }
+    counter.incrementAndGet();
+  }
+  
+  public void retry(long waitTimeInMs) {
+    retries.incrementAndGet();
+    totalWaitTimeInMs.addAndGet(waitTimeInMs);
+  }
+  
+  public void success(int attempts) {
+    successesAfterRetry.incrementAndGet();
+    attemptsHistogram.incrementAndGet(Math.min(attempts, MAX_TRACKED_ATTEMPTS));
+  }
+  
+  public void failure() {
+    failures.incrementAndGet();
+  }
+  
+  // getters //////////////////////////////////////////////////////////////////
+  
+  public String getCommandClassName() {
+    return commandClassName;
+  }
+  
+  /** Number of {@link ActivitiOptimisticLockingException}s caught. */
+  public long getConflicts() {
+    return conflicts.get();
+  }
+  
+  public long getRetries() {
+    return retries.get();
+  }
+  
+  /** Number of executions that succeeded after at least one retry. */
+  public long getSuccessesAfterRetry() {
+    return successesAfterRetry.get();
+  }
+  
+  /** Number of executions for which the retry policy gave up. */
+  public long getFailures() {
+    return failures.get();
+  }
+  
+  public long getTotalWaitTimeInMs() {
+    return totalWaitTimeInMs.get();
+  }
+  
+  /** 
+   * Histogram of the number of attempts needed by executions that succeeded after a retry: 
+   * index i holds the number of executions that succeeded at attempt i.
+   */
+  public long[] getAttemptsHistogram() {
+    long[] histogram = new long[attemptsHistogram.length()];
+    for (int i = 0; i < histogram.length; i++) {
+      histogram[i] = attemptsHistogram.get(i);
+    }
+    return histogram;
+  }
+  
+  /** Number of conflicts per (simple) class name of the entity that caused it. */
+  public Map<String, Long> getConflictsPerEntity() {
+    Map<String, Long> result = new HashMap<String, Long>();
+    for (Map.Entry<String, AtomicLong> entry : conflictsPerEntity.entrySet()) {
+      result.put(entry.getKey(), entry.getValue().get());
+    }
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return "CommandRetryStatistics[" + commandClassName + ": conflicts=" + getConflicts() + ", retries=" + getRetries() 
+            + ", successesAfterRetry=" + getSuccessesAfterRetry() + ", failures=" + getFailures() 
+            + ", conflictsPerEntity=" + getConflictsPerEntity() + "]";
+  }
+  
+}
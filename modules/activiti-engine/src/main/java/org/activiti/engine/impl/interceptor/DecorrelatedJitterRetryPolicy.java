@@ -0,0 +1,131 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.engine.impl.interceptor;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.activiti.engine.ActivitiOptimisticLockingException;
+
+/**
+ * Retry policy using 'decorrelated jitter': every wait time is a random value between
+ * the base wait time and three times the previous wait time, capped at a maximum.
+ * The first retry takes the base wait time as previous wait time, so it is jittered as well.
+ * 
+ * Threads that collided on the same data (eg. parallel multi instance executions
+ * completing at the same moment) will wait for different times before retrying,
+ * which makes it unlikely they collide again.
+ * 
+ * The number of retries can be configured per command class, and per class of entity
+ * that caused the conflict (see {@link ActivitiOptimisticLockingException#getEntityClass()}).
+ * When both match, the lowest number of retries is used.
+ */
+public class DecorrelatedJitterRetryPolicy implements RetryPolicy {
+  
+  protected int numOfRetries = 3;
+  protected long baseWaitTimeInMs = 20;
+  protected long maxWaitTimeInMs = 2000;
+  protected Map<Class<?>, Integer> numOfRetriesPerCommandClass = new HashMap<Class<?>, Integer>();
+  protected Map<Class<?>, Integer> numOfRetriesPerEntityClass = new HashMap<Class<?>, Integer>();
+  
+  protected Random random = new Random();
+  
+  public long getWaitTimeBeforeRetry(Command<?> command, ActivitiOptimisticLockingException exception, int failedAttempts, long previousWaitTime) {
+    if (failedAttempts > getNumOfRetries(command, exception)) {
+      return -1;
+    }
+    
+    // the first retry has no previous wait time: it is seeded with the base wait time
+    long previous = previousWaitTime > 0 ? previousWaitTime : baseWaitTimeInMs;
+    long upperBound = Math.max(baseWaitTimeInMs, previous * 3);
+    long waitTime = baseWaitTimeInMs;
+    if (upperBound > baseWaitTimeInMs) {
+      waitTime += (long) (random.nextDouble() * (upperBound - baseWaitTimeInMs));
+    }
+    return Math.min(maxWaitTimeInMs, waitTime);
+  }
+  
+  protected int getNumOfRetries(Command<?> command, ActivitiOptimisticLockingException exception) {
+    int result = numOfRetries;
+    
+    Integer commandRetries = numOfRetriesPerCommandClass.get(command.getClass());
+    if (commandRetries != null) {
+      result = commandRetries;
+    }
+    
+    if (exception.getEntityClass() != null) {
+      Integer entityRetries = numOfRetriesPerEntityClass.get(exception.getEntityClass());
+      if (entityRetries != null) {
+        result = commandRetries != null ? Math.min(commandRetries, entityRetries) : entityRetries;
+      }
+    }
+    return result;
+  }
+  
+  public DecorrelatedJitterRetryPolicy setNumOfRetriesForCommand(Class<?> commandClass, int numOfRetries) {
+    numOfRetriesPerCommandClass.put(commandClass, numOfRetries);
+    return this;
+  }
+  
+  public DecorrelatedJitterRetryPolicy setNumOfRetriesForEntity(Class<?> entityClass, int numOfRetries) {
+    numOfRetriesPerEntityClass.put(entityClass, numOfRetries);
+    return this;
+  }
+  
+  // getters and setters //////////////////////////////////////////////////////
+
+  public int getNumOfRetries() {
+    return numOfRetries;
+  }
+  
+  public DecorrelatedJitterRetryPolicy setNumOfRetries(int numOfRetries) {
+    this.numOfRetries = numOfRetries;
+    return this;
+  }
+  
+  public long getBaseWaitTimeInMs() {
+    return baseWaitTimeInMs;
+  }
+  
+  public DecorrelatedJitterRetryPolicy setBaseWaitTimeInMs(long baseWaitTimeInMs) {
+    this.baseWaitTimeInMs = baseWaitTimeInMs;
+    return this;
+  }
+  
+  public long getMaxWaitTimeInMs() {
+    return maxWaitTimeInMs;
+  }
+  
+  public DecorrelatedJitterRetryPolicy setMaxWaitTimeInMs(long maxWaitTimeInMs) {
+    this.maxWaitTimeInMs = maxWaitTimeInMs;
+    return this;
+  }
+  
+  public Map<Class<?>, Integer> getNumOfRetriesPerCommandClass() {
+    return numOfRetriesPerCommandClass;
+  }
+  
+  public void setNumOfRetriesPerCommandClass(Map<Class<?>, Integer> numOfRetriesPerCommandClass) {
+    this.numOfRetriesPerCommandClass = numOfRetriesPerCommandClass;
+  }
+  
+  public Map<Class<?>, Integer> getNumOfRetriesPerEntityClass() {
+    return numOfRetriesPerEntityClass;
+  }
+  
+  public void setNumOfRetriesPerEntityClass(Map<Class<?>, Integer> numOfRetriesPerEntityClass) {
+    this.numOfRetriesPerEntityClass = numOfRetriesPerEntityClass;
+  }
+  
+}
@@ -0,0 +1,47 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.engine.impl.interceptor;
+
+import org.activiti.engine.ActivitiOptimisticLockingException;
+
+/**
+ * Retries a fixed number of times, multiplying the wait time with a 
+ * constant factor for every retry. 
+ * 
+ * All threads colliding on the same data will wait exactly the same time,
+ * so they tend to collide again. Use the {@link DecorrelatedJitterRetryPolicy}
+ * when that happens.
+ */
+public class ExponentialBackoffRetryPolicy implements RetryPolicy {
+
+  protected int numOfRetries;
+  protected int waitTimeInMs;
+  protected int waitIncreaseFactor;
+  
+  public ExponentialBackoffRetryPolicy(int numOfRetries, int waitTimeInMs, int waitIncreaseFactor) {
+    this.numOfRetries = numOfRetries;
+    this.waitTimeInMs = waitTimeInMs;
+    this.waitIncreaseFactor = waitIncreaseFactor;
+  }
+
+  public long getWaitTimeBeforeRetry(Command<?> command, ActivitiOptimisticLockingException exception, int failedAttempts, long previousWaitTime) {
+    if (failedAttempts > numOfRetries) {
+      return -1;
+    }
+    if (previousWaitTime <= 0) {
+      return waitTimeInMs;
+    }
+    return previousWaitTime * waitIncreaseFactor;
+  }
+  
+}
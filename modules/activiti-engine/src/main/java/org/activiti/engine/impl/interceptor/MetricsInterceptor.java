@@ -0,0 +1,61 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.engine.impl.interceptor;
+
+import org.activiti.engine.impl.metrics.MetricsRegistry;
+
+/**
+ * Records the latency of every command, per command class (eg. <code>command.CompleteTaskCmd</code>), 
+ * and counts the commands that failed (<code>command.CompleteTaskCmd.failed</code>).
+ * 
+ * Only part of the interceptor chain when metrics are enabled in the process engine configuration.
+ */
+public class MetricsInterceptor extends AbstractCommandInterceptor {
+  
+  protected MetricsRegistry metricsRegistry;
+  
+  public MetricsInterceptor(MetricsRegistry metricsRegistry) {
+    this.metricsRegistry = metricsRegistry;
+  }
+
+  public <T> T execute(CommandConfig config, Command<T> command) {
+    long start = System.nanoTime();
+    boolean failed = true;
+    try {
+      
+      T result = next.execute(config, command);
+      failed = false;
+      return result;
+      
+    } finally {
+      String metricName = getMetricName(command);
+      metricsRegistry.recordDuration(metricName, System.nanoTime() - start);
+      if (failed) {
+        metricsRegistry.increment(metricName + ".failed", 1);
+      }
+    }
+  }
+  
+  protected String getMetricName(Command<?> command) {
+    String name = command.getClass().getSimpleName();
+    if (name.length() == 0) { // anonymous command
+      name = command.getClass().getName();
+    }
+    return "command." + name;
+  }
+  
+  public MetricsRegistry getMetricsRegistry() {
+    return metricsRegistry;
+  }
+
+}
@@ -12,8 +12,15 @@
  */
 package org.activiti.engine.impl.interceptor;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
 import org.activiti.engine.ActivitiException;
 import org.activiti.engine.ActivitiOptimisticLockingException;
+import org.activiti.engine.impl.metrics.MetricsRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -22,6 +29,12 @@ import org.slf4j.LoggerFactory;
  * same command again. The number of retries and the time waited between retries
  * is configurable.
  * 
+ * By default, an {@link ExponentialBackoffRetryPolicy} based on the numOfRetries, waitTimeInMs
+ * and waitIncreaseFactor properties is used. A different {@link RetryPolicy} (eg. the
+ * {@link DecorrelatedJitterRetryPolicy}) can be set to avoid threads retrying in lockstep.
+ * 
+ * Per command class, the contention is counted in {@link CommandRetryStatistics}.
+ * 
  * @author Daniel Meyer
  */
 public class RetryInterceptor extends AbstractCommandInterceptor {
@@ -31,31 +44,60 @@ public class RetryInterceptor extends AbstractCommandInterceptor {
   protected int numOfRetries = 3;
   protected int waitTimeInMs = 50;
   protected int waitIncreaseFactor = 5;
+  
+  protected RetryPolicy retryPolicy;
+  
+  protected ConcurrentMap<String, CommandRetryStatistics> statistics = new ConcurrentHashMap<String, CommandRetryStatistics>();
+  
+  /** When set (by the process engine configuration if metrics are enabled), conflicts are counted there as well */
+  protected MetricsRegistry metricsRegistry;
 
   public <T> T execute(CommandConfig config, Command<T> command) {
-    long waitTime=waitTimeInMs;
-    int failedAttempts=0;   
+    RetryPolicy retryPolicy = getRetryPolicy();
+    CommandRetryStatistics commandStatistics = null;
+    long waitTime = 0;
+    int failedAttempts = 0;   
     
-    do {      
-      if (failedAttempts > 0) {
-        log.info( "Waiting for {}ms before retrying the command.", waitTime);
-        waitBeforeRetry(waitTime);
-        waitTime *= waitIncreaseFactor;
-      }
-
+    while (true) {      
       try {
 
         // try to execute the command
-        return next.execute(config, command);
+        T result = next.execute(config, command);
+        
+        if (commandStatistics != null) {
+          commandStatistics.success(failedAttempts + 1);
+        }
+        return result;
 
       } catch (ActivitiOptimisticLockingException e) {
         log.info("Caught optimistic locking exception: "+e);
+        
+        failedAttempts++;
+        if (commandStatistics == null) {
+          commandStatistics = getStatistics(command);
+        }
+        commandStatistics.conflict(e);
+        if (metricsRegistry != null) {
+          metricsRegistry.increment("retry." + command.getClass().getSimpleName() + ".conflicts", 1);
+          if (e.getEntityClass() != null) {
+            metricsRegistry.increment("retry.entity." + e.getEntityClass().getSimpleName() + ".conflicts", 1);
+          }
+        }
+        
+        waitTime = retryPolicy.getWaitTimeBeforeRetry(command, e, failedAttempts, waitTime);
+        if (waitTime < 0) {
+          commandStatistics.failure();
+          if (metricsRegistry != null) {
+            metricsRegistry.increment("retry." + command.getClass().getSimpleName() + ".failed", 1);
+          }
+          throw new ActivitiException((failedAttempts - 1) + " retries failed with ActivitiOptimisticLockingException. Giving up.");
+        }
+        
+        commandStatistics.retry(waitTime);
+        log.info( "Waiting for {}ms before retrying the command.", waitTime);
+        waitBeforeRetry(waitTime);
       }
-            
-      failedAttempts ++;      
-    } while(failedAttempts<=numOfRetries);
-
-    throw new ActivitiException(numOfRetries + " retries failed with ActivitiOptimisticLockingException. Giving up.");
+    }
   }
 
   protected void waitBeforeRetry(long waitTime) {    
@@ -65,6 +107,50 @@ public class RetryInterceptor extends AbstractCommandInterceptor {
       log.debug("I am interrupted while waiting for a retry.");
     }
   }
+  
+  protected CommandRetryStatistics getStatistics(Command<?> command) {
+    String commandClassName = command.getClass().getName();
+    CommandRetryStatistics commandStatistics = statistics.get(commandClassName);
+    if (commandStatistics == null) {
+      CommandRetryStatistics newCommandStatistics = new CommandRetryStatistics(commandClassName);
+      commandStatistics = statistics.putIfAbsent(commandClassName, newCommandStatistics);
+      if (commandStatistics == null) {
+        commandStatistics = newCommandStatistics;
+      }
+    }
+    return commandStatistics;
+  }
+  
+  /**
+   * @return the contention statistics, per command class name. Only commands that 
+   *         have run into an {@link ActivitiOptimisticLockingException} are included.
+   */
+  public Map<String, CommandRetryStatistics> getStatistics() {
+    return Collections.unmodifiableMap(new HashMap<String, CommandRetryStatistics>(statistics));
+  }
+  
+  public void resetStatistics() {
+    statistics.clear();
+  }
+  
+  public RetryPolicy getRetryPolicy() {
+    if (retryPolicy == null) {
+      return new ExponentialBackoffRetryPolicy(numOfRetries, waitTimeInMs, waitIncreaseFactor);
+    }
+    return retryPolicy;
+  }
+  
+  public void setRetryPolicy(RetryPolicy retryPolicy) {
+    this.retryPolicy = retryPolicy;
+  }
+
+  public MetricsRegistry getMetricsRegistry() {
+    return metricsRegistry;
+  }
+  
+  public void setMetricsRegistry(MetricsRegistry metricsRegistry) {
+    this.metricsRegistry = metricsRegistry;
+  }
 
   public void setNumOfRetries(int numOfRetries) {
     this.numOfRetries = numOfRetries;
@@ -0,0 +1,34 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.engine.impl.interceptor;
+
+import org.activiti.engine.ActivitiOptimisticLockingException;
+
+/**
+ * Decides if, and after how long, a command that failed with an
+ * {@link ActivitiOptimisticLockingException} is retried by the {@link RetryInterceptor}.
+ */
+public interface RetryPolicy {
+
+  /**
+   * @param command the command that failed.
+   * @param exception the optimistic locking exception, which knows the entity that caused the conflict (if any).
+   * @param failedAttempts the number of times the command has failed so far (starting at 1).
+   * @param previousWaitTime the time waited before the previous attempt, or 0 for the first retry.
+   * 
+   * @return the time in milliseconds to wait before the command is retried,
+   *         or a negative value if the command should not be retried anymore.
+   */
+  long getWaitTimeBeforeRetry(Command<?> command, ActivitiOptimisticLockingException exception, int failedAttempts, long previousWaitTime);
+  
+}
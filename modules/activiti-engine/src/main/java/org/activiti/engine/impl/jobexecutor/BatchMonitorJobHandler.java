@@ -0,0 +1,70 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.engine.impl.jobexecutor;
+
+import java.util.Date;
+
+import org.activiti.engine.impl.context.Context;
+import org.activiti.engine.impl.interceptor.CommandContext;
+import org.activiti.engine.impl.persistence.entity.BatchEntity;
+import org.activiti.engine.impl.persistence.entity.ExecutionEntity;
+import org.activiti.engine.impl.persistence.entity.JobEntity;
+import org.activiti.engine.impl.persistence.entity.TimerEntity;
+import org.activiti.engine.impl.util.ClockUtil;
+import org.activiti.engine.management.Batch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Sets the end time of a {@link Batch} once all of its items have been processed. Until then, 
+ * a new monitor timer is created every time the monitor runs. The configuration is the id of the batch.
+ */
+public class BatchMonitorJobHandler implements JobHandler {
+  
+  private static final Logger log = LoggerFactory.getLogger(BatchMonitorJobHandler.class);
+
+  public final static String TYPE = "batch-monitor";
+
+  public String getType() {
+    return TYPE;
+  }
+  
+  /**
+   * Creates the timer that checks the progress of the given batch after the configured 
+   * {@link org.activiti.engine.impl.cfg.ProcessEngineConfigurationImpl#getBatchMonitorWaitTimeInMillis() wait time}.
+   */
+  public static void scheduleMonitor(CommandContext commandContext, String batchId) {
+    int waitTime = Context.getProcessEngineConfiguration().getBatchMonitorWaitTimeInMillis();
+    TimerEntity timer = new TimerEntity();
+    timer.setDuedate(new Date(ClockUtil.getCurrentTime().getTime() + waitTime));
+    timer.setJobHandlerType(TYPE);
+    timer.setJobHandlerConfiguration(batchId);
+    timer.setExclusive(false);
+    commandContext.getJobEntityManager().schedule(timer);
+  }
+
+  public void execute(JobEntity job, String configuration, ExecutionEntity execution, CommandContext commandContext) {
+    BatchEntity batch = commandContext.getBatchEntityManager().findBatchById(configuration);
+    if (batch == null || batch.isCompleted()) {
+      return;
+    }
+    
+    if (batch.getCompletedItems() + batch.getFailedItems() >= batch.getTotalItems()) {
+      batch.setEndTime(ClockUtil.getCurrentTime());
+      log.info("Batch {} completed: {} items processed, {} failed", batch.getId(), batch.getCompletedItems(), batch.getFailedItems());
+    } else {
+      scheduleMonitor(commandContext, batch.getId());
+    }
+  }
+
+}
@@ -0,0 +1,100 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.engine.impl.jobexecutor;
+
+import java.util.List;
+
+import org.activiti.engine.impl.context.Context;
+import org.activiti.engine.impl.interceptor.CommandContext;
+import org.activiti.engine.impl.persistence.entity.BatchEntity;
+import org.activiti.engine.impl.persistence.entity.BatchEntityManager;
+import org.activiti.engine.impl.persistence.entity.ExecutionEntity;
+import org.activiti.engine.impl.persistence.entity.JobEntity;
+import org.activiti.engine.impl.persistence.entity.MessageEntity;
+import org.activiti.engine.impl.util.json.JSONObject;
+import org.activiti.engine.management.Batch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Creates the worker jobs of a {@link Batch}, one per chunk of items. 
+ * 
+ * At most {@link org.activiti.engine.impl.cfg.ProcessEngineConfigurationImpl#getBatchJobsPerSeed()} 
+ * worker jobs are created per seed job. As long as items remain, a new seed job is created 
+ * that continues at the first remaining item, so the worker jobs of a large batch are created 
+ * in several small transactions and the first chunks are processed while the seeding continues.
+ */
+public class BatchSeedJobHandler implements JobHandler {
+  
+  private static final Logger log = LoggerFactory.getLogger(BatchSeedJobHandler.class);
+
+  public final static String TYPE = "batch-seed";
+  
+  private static final String JOB_HANDLER_CFG_BATCH_ID = "batchId";
+  private static final String JOB_HANDLER_CFG_OFFSET = "offset";
+
+  public String getType() {
+    return TYPE;
+  }
+  
+  public static String createJobHandlerConfiguration(String batchId, int offset) {
+    JSONObject json = new JSONObject();
+    json.put(JOB_HANDLER_CFG_BATCH_ID, batchId);
+    json.put(JOB_HANDLER_CFG_OFFSET, offset);
+    return json.toString();
+  }
+  
+  /**
+   * Creates the seed job that creates the worker jobs for the items of the given batch, 
+   * starting at the given offset.
+   */
+  public static void scheduleSeed(CommandContext commandContext, String batchId, int offset) {
+    MessageEntity message = new MessageEntity();
+    message.setJobHandlerType(TYPE);
+    message.setJobHandlerConfiguration(createJobHandlerConfiguration(batchId, offset));
+    message.setExclusive(false);
+    commandContext.getJobEntityManager().send(message);
+  }
+
+  public void execute(JobEntity job, String configuration, ExecutionEntity execution, CommandContext commandContext) {
+    JSONObject cfgJson = new JSONObject(configuration);
+    String batchId = cfgJson.getString(JOB_HANDLER_CFG_BATCH_ID);
+    int offset = cfgJson.getInt(JOB_HANDLER_CFG_OFFSET);
+    
+    BatchEntityManager batchEntityManager = commandContext.getBatchEntityManager();
+    BatchEntity batch = batchEntityManager.findBatchById(batchId);
+    if (batch == null) {
+      log.info("Batch {} has been deleted, no more worker jobs are created", batchId);
+      return;
+    }
+    
+    List<String> itemIds = batchEntityManager.findBatchItems(batch.getItemsId());
+    int jobsPerSeed = Context.getProcessEngineConfiguration().getBatchJobsPerSeed();
+    int chunkSize = batch.getChunkSize();
+    int createdJobs = 0;
+    while (offset < itemIds.size() && createdJobs < jobsPerSeed) {
+      List<String> chunk = itemIds.subList(offset, Math.min(offset + chunkSize, itemIds.size()));
+      BatchWorkerJobHandler.scheduleChunk(commandContext, batchId, chunk);
+      offset += chunk.size();
+      createdJobs++;
+    }
+    
+    if (offset < itemIds.size()) {
+      log.debug("Created {} worker jobs for batch {}, continuing at item {}", createdJobs, batchId, offset);
+      scheduleSeed(commandContext, batchId, offset);
+    } else {
+      log.debug("Created the last {} worker jobs for batch {}", createdJobs, batchId);
+    }
+  }
+
+}
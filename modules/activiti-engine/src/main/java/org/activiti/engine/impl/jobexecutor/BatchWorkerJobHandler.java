@@ -0,0 +1,124 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.engine.impl.jobexecutor;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.activiti.engine.ActivitiException;
+import org.activiti.engine.impl.batch.BatchOperation;
+import org.activiti.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.activiti.engine.impl.cmd.ExecuteBatchChunkCmd;
+import org.activiti.engine.impl.cmd.FailBatchItemCmd;
+import org.activiti.engine.impl.context.Context;
+import org.activiti.engine.impl.interceptor.CommandConfig;
+import org.activiti.engine.impl.interceptor.CommandContext;
+import org.activiti.engine.impl.interceptor.CommandExecutor;
+import org.activiti.engine.impl.persistence.entity.BatchEntity;
+import org.activiti.engine.impl.persistence.entity.BatchEntityManager;
+import org.activiti.engine.impl.persistence.entity.ByteArrayRef;
+import org.activiti.engine.impl.persistence.entity.ExecutionEntity;
+import org.activiti.engine.impl.persistence.entity.JobEntity;
+import org.activiti.engine.impl.persistence.entity.MessageEntity;
+import org.activiti.engine.impl.util.json.JSONObject;
+import org.activiti.engine.management.Batch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Processes one chunk of the items of a {@link Batch}. The ids of the items are stored in 
+ * a byte array of their own, which is deleted when the chunk has been processed.
+ * 
+ * The chunk is processed in a new transaction. When that fails, every item is processed 
+ * again in a transaction of its own and the items that still fail are counted as failed, 
+ * instead of failing the job. The progress counters of the batch are incremented and the 
+ * processed items are removed from the stored ids in the same transaction that processes 
+ * (or fails) them, so when the job itself is retried, only the remaining items are processed 
+ * and counted: the changes an operation makes in the database are committed exactly once per item. 
+ * Only what an operation does outside the transaction can happen more than once, for the attempts 
+ * that are rolled back. As the job executors run the worker jobs of a batch in parallel, they don't 
+ * lock any shared state besides the counters.
+ */
+public class BatchWorkerJobHandler implements JobHandler {
+  
+  private static final Logger log = LoggerFactory.getLogger(BatchWorkerJobHandler.class);
+
+  public final static String TYPE = "batch-worker";
+  
+  private static final String JOB_HANDLER_CFG_BATCH_ID = "batchId";
+  private static final String JOB_HANDLER_CFG_ITEMS_ID = "itemsId";
+
+  public String getType() {
+    return TYPE;
+  }
+  
+  public static String createJobHandlerConfiguration(String batchId, String itemsId) {
+    JSONObject json = new JSONObject();
+    json.put(JOB_HANDLER_CFG_BATCH_ID, batchId);
+    json.put(JOB_HANDLER_CFG_ITEMS_ID, itemsId);
+    return json.toString();
+  }
+  
+  /**
+   * Creates the worker job that processes the given items of the given batch.
+   */
+  public static void scheduleChunk(CommandContext commandContext, String batchId, List<String> itemIds) {
+    String itemsId = commandContext.getBatchEntityManager().insertBatchItems("batch-chunk", itemIds);
+    MessageEntity message = new MessageEntity();
+    message.setJobHandlerType(TYPE);
+    message.setJobHandlerConfiguration(createJobHandlerConfiguration(batchId, itemsId));
+    message.setExclusive(false);
+    commandContext.getJobEntityManager().send(message);
+  }
+
+  public void execute(JobEntity job, String configuration, ExecutionEntity execution, CommandContext commandContext) {
+    JSONObject cfgJson = new JSONObject(configuration);
+    String batchId = cfgJson.getString(JOB_HANDLER_CFG_BATCH_ID);
+    String itemsId = cfgJson.getString(JOB_HANDLER_CFG_ITEMS_ID);
+    
+    BatchEntityManager batchEntityManager = commandContext.getBatchEntityManager();
+    BatchEntity batch = batchEntityManager.findBatchById(batchId);
+    if (batch == null) {
+      log.info("Batch {} has been deleted, its remaining items are not processed", batchId);
+      new ByteArrayRef(itemsId).delete();
+    } else if (commandContext.getByteArrayEntityManager().findById(itemsId) == null) {
+      log.debug("The items of a chunk of batch {} have already been processed", batchId);
+    } else {
+      ProcessEngineConfigurationImpl processEngineConfiguration = Context.getProcessEngineConfiguration();
+      BatchOperation batchOperation = processEngineConfiguration.getBatchOperations().get(batch.getType());
+      if (batchOperation == null) {
+        throw new ActivitiException("No batch operation registered for batch type '" + batch.getType() + "'");
+      }
+      
+      List<String> itemIds = batchEntityManager.findBatchItems(itemsId);
+      CommandExecutor commandExecutor = processEngineConfiguration.getCommandExecutor();
+      CommandConfig commandConfig = commandExecutor.getDefaultConfig().transactionRequiresNew();
+      try {
+        commandExecutor.execute(commandConfig, new ExecuteBatchChunkCmd(batchOperation, batchId, itemsId, 
+                itemIds, batch.getConfiguration()));
+      } catch (RuntimeException e) {
+        log.debug("Processing a chunk of batch {} failed, processing its items one by one", batchId, e);
+        for (String itemId : itemIds) {
+          try {
+            commandExecutor.execute(commandConfig, new ExecuteBatchChunkCmd(batchOperation, batchId, itemsId, 
+                    Collections.singletonList(itemId), batch.getConfiguration()));
+          } catch (RuntimeException itemException) {
+            log.warn("Processing item {} of batch {} failed", itemId, batchId, itemException);
+            commandExecutor.execute(commandConfig, new FailBatchItemCmd(batchId, itemsId, itemId, itemException.getMessage()));
+          }
+        }
+      }
+    }
+  }
+
+}
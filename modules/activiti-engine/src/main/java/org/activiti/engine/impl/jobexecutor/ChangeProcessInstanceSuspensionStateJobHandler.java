@@ -0,0 +1,174 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.engine.impl.jobexecutor;
+
+import java.util.List;
+
+import org.activiti.engine.delegate.event.ActivitiEventDispatcher;
+import org.activiti.engine.delegate.event.ActivitiEventType;
+import org.activiti.engine.delegate.event.impl.ActivitiEventBuilder;
+import org.activiti.engine.impl.context.Context;
+import org.activiti.engine.impl.interceptor.CommandContext;
+import org.activiti.engine.impl.persistence.entity.BatchEntity;
+import org.activiti.engine.impl.persistence.entity.ExecutionEntity;
+import org.activiti.engine.impl.persistence.entity.JobEntity;
+import org.activiti.engine.impl.persistence.entity.MessageEntity;
+import org.activiti.engine.impl.persistence.entity.ProcessDefinitionEntity;
+import org.activiti.engine.impl.persistence.entity.SuspensionState;
+import org.activiti.engine.impl.util.ClockUtil;
+import org.activiti.engine.impl.util.json.JSONObject;
+import org.activiti.engine.management.Batch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Changes the suspension state of the process instances of a process definition, one chunk 
+ * of process instances per job. 
+ * 
+ * The executions and tasks of the process instances in a chunk are updated with set-based 
+ * update statements instead of loading and updating every entity. As long as process instances 
+ * in the previous state remain, a new job is created for the next chunk, so every chunk is 
+ * committed in its own transaction. Jobs don't need to be updated: their suspension is derived 
+ * from the suspension state of the process instance they belong to.
+ * 
+ * The progress is reported as a {@link Batch} of type {@link Batch#TYPE_CHANGE_PROCESS_INSTANCE_SUSPENSION_STATE}, 
+ * whose counters are updated in the transaction of every chunk. One bulk event is dispatched per chunk.
+ * 
+ * The chain stops when the suspension state of the process definition has been changed again
+ * in the meantime.
+ */
+public class ChangeProcessInstanceSuspensionStateJobHandler implements JobHandler {
+  
+  private static final Logger log = LoggerFactory.getLogger(ChangeProcessInstanceSuspensionStateJobHandler.class);
+
+  public final static String TYPE = "change-processinstance-suspension-state";
+  
+  private static final String JOB_HANDLER_CFG_SUSPENSION_STATE = "suspensionState";
+  private static final String JOB_HANDLER_CFG_PROCESSED = "processed";
+  private static final String JOB_HANDLER_CFG_BATCH_ID = "batchId";
+
+  public String getType() {
+    return TYPE;
+  }
+  
+  public static String createJobHandlerConfiguration(String batchId, SuspensionState suspensionState, int processed) {
+    JSONObject json = new JSONObject();
+    json.put(JOB_HANDLER_CFG_BATCH_ID, batchId);
+    json.put(JOB_HANDLER_CFG_SUSPENSION_STATE, suspensionState.getStateCode());
+    json.put(JOB_HANDLER_CFG_PROCESSED, processed);
+    return json.toString();
+  }
+  
+  /**
+   * Creates the batch reporting the progress and the job that changes the first chunk of 
+   * process instances of the given process definition.
+   */
+  public static Batch schedule(CommandContext commandContext, String processDefinitionId, String tenantId, 
+          SuspensionState suspensionState) {
+    BatchEntity batch = new BatchEntity();
+    batch.setType(Batch.TYPE_CHANGE_PROCESS_INSTANCE_SUSPENSION_STATE);
+    batch.setTotalItems((int) commandContext.getExecutionEntityManager()
+            .findProcessInstanceCountByProcessDefinitionIdAndSuspensionState(processDefinitionId, getPreviousState(suspensionState)));
+    batch.setChunkSize(Context.getProcessEngineConfiguration().getProcessInstanceSuspensionChunkSize());
+    batch.setConfiguration(processDefinitionId);
+    batch.setCreateTime(ClockUtil.getCurrentTime());
+    commandContext.getBatchEntityManager().insertBatch(batch);
+    
+    scheduleChunk(commandContext, batch.getId(), processDefinitionId, tenantId, suspensionState, 0);
+    return batch;
+  }
+  
+  /**
+   * Creates the job that changes the next chunk of process instances of the given process definition.
+   */
+  public static void scheduleChunk(CommandContext commandContext, String batchId, String processDefinitionId, String tenantId, 
+          SuspensionState suspensionState, int processed) {
+    MessageEntity message = new MessageEntity();
+    message.setJobHandlerType(TYPE);
+    message.setJobHandlerConfiguration(createJobHandlerConfiguration(batchId, suspensionState, processed));
+    message.setProcessDefinitionId(processDefinitionId);
+    if (tenantId != null) {
+      message.setTenantId(tenantId);
+    }
+    commandContext.getJobEntityManager().send(message);
+  }
+
+  public void execute(JobEntity job, String configuration, ExecutionEntity execution, CommandContext commandContext) {
+    JSONObject cfgJson = new JSONObject(configuration);
+    SuspensionState suspensionState = toSuspensionState(cfgJson.getInt(JOB_HANDLER_CFG_SUSPENSION_STATE));
+    int processed = cfgJson.getInt(JOB_HANDLER_CFG_PROCESSED);
+    String batchId = cfgJson.getString(JOB_HANDLER_CFG_BATCH_ID);
+    String processDefinitionId = job.getProcessDefinitionId();
+    
+    ProcessDefinitionEntity processDefinition = commandContext.getProcessDefinitionEntityManager()
+            .findProcessDefinitionById(processDefinitionId);
+    if (processDefinition == null || processDefinition.getSuspensionState() != suspensionState.getStateCode()) {
+      log.info("Suspension state of process definition {} changed while changing its process instances to '{}', "
+              + "stopping after {} process instances", processDefinitionId, suspensionState, processed);
+      endBatch(commandContext, batchId);
+      return;
+    }
+    
+    int chunkSize = Context.getProcessEngineConfiguration().getProcessInstanceSuspensionChunkSize();
+    List<String> processInstanceIds = commandContext.getExecutionEntityManager()
+            .findProcessInstanceIdsByProcessDefinitionIdAndSuspensionState(processDefinitionId, getPreviousState(suspensionState), chunkSize);
+    
+    if (!processInstanceIds.isEmpty()) {
+      commandContext.getExecutionEntityManager().updateExecutionSuspensionStateForProcessInstances(processInstanceIds, suspensionState);
+      commandContext.getTaskEntityManager().updateTaskSuspensionStateForProcessInstances(processInstanceIds, suspensionState);
+      commandContext.getBatchEntityManager().addProcessedItems(batchId, processInstanceIds.size(), 0, null);
+      dispatchStateChangeEvent(commandContext, processDefinitionId, processInstanceIds, suspensionState);
+      processed += processInstanceIds.size();
+    }
+    
+    if (processInstanceIds.size() == chunkSize) {
+      log.debug("Changed {} process instances of process definition {} to '{}', continuing with next chunk", 
+              processed, processDefinitionId, suspensionState);
+      scheduleChunk(commandContext, batchId, processDefinitionId, job.getTenantId(), suspensionState, processed);
+    } else {
+      log.info("Changed {} process instances of process definition {} to '{}'", processed, processDefinitionId, suspensionState);
+      endBatch(commandContext, batchId);
+    }
+  }
+  
+  /**
+   * Dispatches one event for all process instances of the chunk, since the executions 
+   * and tasks aren't loaded.
+   */
+  protected void dispatchStateChangeEvent(CommandContext commandContext, String processDefinitionId, 
+          List<String> processInstanceIds, SuspensionState suspensionState) {
+    ActivitiEventDispatcher eventDispatcher = commandContext.getEventDispatcher();
+    if (eventDispatcher.isEnabled()) {
+      ActivitiEventType eventType = SuspensionState.ACTIVE.equals(suspensionState) 
+              ? ActivitiEventType.PROCESS_INSTANCES_ACTIVATED : ActivitiEventType.PROCESS_INSTANCES_SUSPENDED;
+      eventDispatcher.dispatchEvent(ActivitiEventBuilder.createProcessInstancesEvent(eventType, processDefinitionId, processInstanceIds));
+    }
+  }
+  
+  protected void endBatch(CommandContext commandContext, String batchId) {
+    // The batch can have been deleted meanwhile
+    BatchEntity batch = commandContext.getBatchEntityManager().findBatchById(batchId);
+    if (batch != null) {
+      batch.setEndTime(ClockUtil.getCurrentTime());
+    }
+  }
+  
+  protected static SuspensionState getPreviousState(SuspensionState suspensionState) {
+    return SuspensionState.ACTIVE.equals(suspensionState) ? SuspensionState.SUSPENDED : SuspensionState.ACTIVE;
+  }
+  
+  protected SuspensionState toSuspensionState(int stateCode) {
+    return SuspensionState.ACTIVE.getStateCode() == stateCode ? SuspensionState.ACTIVE : SuspensionState.SUSPENDED;
+  }
+
+}
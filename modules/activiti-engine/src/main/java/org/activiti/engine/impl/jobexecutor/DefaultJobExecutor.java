@@ -85,6 +85,21 @@ public class DefaultJobExecutor extends JobExecutor {
     }
   }
   
+  @Override
+  public boolean executeLockedJobs(List<String> jobIds) {
+    // called after the commit of another transaction: the job executor can have been shut down meanwhile
+    ThreadPoolExecutor threadPoolExecutor = this.threadPoolExecutor;
+    if (threadPoolExecutor == null) {
+      return false;
+    }
+    try {
+      threadPoolExecutor.execute(new ExecuteJobsRunnable(this, jobIds));
+      return true;
+    } catch (RejectedExecutionException e) {
+      return false;
+    }
+  }
+  
   // getters and setters ////////////////////////////////////////////////////// 
   
   public int getQueueSize() {
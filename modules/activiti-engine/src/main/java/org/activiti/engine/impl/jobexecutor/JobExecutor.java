@@ -65,6 +65,17 @@ public abstract class JobExecutor {
   protected int waitTimeInMillis = 5 * 1000;
   protected String lockOwner = UUID.randomUUID().toString();
   protected int lockTimeInMillis = 5 * 60 * 1000;
+  
+  /**
+   * When enabled, messages (eg. async continuations) are locked by this job executor 
+   * when they're created and handed to its threads as soon as the creating transaction 
+   * is committed, instead of waiting for the job acquisition to find them in the database.
+   * 
+   * When the threads can't take the jobs right away, the lock is released again and 
+   * the jobs are acquired as usual. When the node dies before the jobs are executed, 
+   * other job executors acquire them after the lock expired.
+   */
+  protected boolean optimisticLocalExecution = false;
       
   public void start() {
     if (isActive) {
@@ -107,6 +118,17 @@ public abstract class JobExecutor {
   protected abstract void stopExecutingJobs(); 
   protected abstract void executeJobs(List<String> jobIds);
   
+  /**
+   * Executes jobs that are already locked by this job executor, but only if there
+   * is capacity to do so right away: the jobs must not be executed by the calling thread.
+   * 
+   * @return false when the jobs were not accepted, in which case they should be
+   *   released so they are acquired as usual.
+   */
+  public boolean executeLockedJobs(List<String> jobIds) {
+    return false;
+  }
+  
   // getters and setters //////////////////////////////////////////////////////
 
   public CommandExecutor getCommandExecutor() {
@@ -137,6 +159,14 @@ public abstract class JobExecutor {
     this.lockOwner = lockOwner;
   }
 
+  public boolean isOptimisticLocalExecution() {
+    return optimisticLocalExecution;
+  }
+
+  public void setOptimisticLocalExecution(boolean optimisticLocalExecution) {
+    this.optimisticLocalExecution = optimisticLocalExecution;
+  }
+
   public boolean isAutoActivate() {
     return isAutoActivate;
   }
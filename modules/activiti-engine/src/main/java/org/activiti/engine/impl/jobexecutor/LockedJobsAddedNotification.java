@@ -0,0 +1,91 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.engine.impl.jobexecutor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.activiti.engine.impl.cfg.TransactionListener;
+import org.activiti.engine.impl.cmd.UnlockJobsCmd;
+import org.activiti.engine.impl.interceptor.CommandConfig;
+import org.activiti.engine.impl.interceptor.CommandContext;
+import org.activiti.engine.impl.interceptor.CommandExecutor;
+import org.activiti.engine.impl.persistence.entity.JobEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Hands the jobs that were created and locked in a transaction to the local job executor 
+ * once that transaction is committed. See {@link JobExecutor#isOptimisticLocalExecution()}.
+ * 
+ * Exclusive jobs of the same process instance are executed one after the other by the 
+ * same thread, as is done for acquired jobs.
+ */
+public class LockedJobsAddedNotification implements TransactionListener {
+  
+  private static Logger log = LoggerFactory.getLogger(LockedJobsAddedNotification.class);
+  
+  protected JobExecutor jobExecutor;
+  protected List<JobEntity> jobs = new ArrayList<JobEntity>();
+
+  public LockedJobsAddedNotification(JobExecutor jobExecutor) {
+    this.jobExecutor = jobExecutor;
+  }
+  
+  public void addJob(JobEntity job) {
+    jobs.add(job);
+  }
+
+  public void execute(CommandContext commandContext) {
+    List<List<String>> jobIdBatches = new ArrayList<List<String>>();
+    Map<String, List<String>> exclusiveJobIdsPerProcessInstance = new LinkedHashMap<String, List<String>>();
+    for (JobEntity job : jobs) {
+      if (job.isExclusive() && job.getProcessInstanceId() != null) {
+        List<String> exclusiveJobIds = exclusiveJobIdsPerProcessInstance.get(job.getProcessInstanceId());
+        if (exclusiveJobIds == null) {
+          exclusiveJobIds = new ArrayList<String>();
+          exclusiveJobIdsPerProcessInstance.put(job.getProcessInstanceId(), exclusiveJobIds);
+        }
+        exclusiveJobIds.add(job.getId());
+      } else {
+        List<String> jobIds = new ArrayList<String>();
+        jobIds.add(job.getId());
+        jobIdBatches.add(jobIds);
+      }
+    }
+    jobIdBatches.addAll(exclusiveJobIdsPerProcessInstance.values());
+    
+    List<String> rejectedJobIds = new ArrayList<String>();
+    for (List<String> jobIds : jobIdBatches) {
+      if (!jobExecutor.isActive() || !jobExecutor.executeLockedJobs(jobIds)) {
+        rejectedJobIds.addAll(jobIds);
+      }
+    }
+    
+    if (!rejectedJobIds.isEmpty()) {
+      log.debug("job executor can't take jobs {} right away, releasing their lock", rejectedJobIds);
+      try {
+        CommandExecutor commandExecutor = jobExecutor.getCommandExecutor();
+        CommandConfig commandConfig = commandExecutor.getDefaultConfig().transactionRequiresNew();
+        commandExecutor.execute(commandConfig, new UnlockJobsCmd(rejectedJobIds, jobExecutor.getLockOwner()));
+        jobExecutor.jobWasAdded();
+      } catch (Throwable t) {
+        // the jobs will be acquired once their lock expired
+        log.warn("Could not release lock of jobs " + rejectedJobIds, t);
+      }
+    }
+  }
+
+}
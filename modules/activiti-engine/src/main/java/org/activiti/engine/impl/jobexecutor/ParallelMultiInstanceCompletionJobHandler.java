@@ -0,0 +1,63 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.engine.impl.jobexecutor;
+
+import org.activiti.engine.impl.cmd.CheckParallelMultiInstanceCompletionCmd;
+import org.activiti.engine.impl.context.Context;
+import org.activiti.engine.impl.interceptor.CommandContext;
+import org.activiti.engine.impl.persistence.entity.ExecutionEntity;
+import org.activiti.engine.impl.persistence.entity.JobEntity;
+import org.activiti.engine.impl.persistence.entity.MessageEntity;
+
+/**
+ * Checks whether all instances of a parallel multi-instance activity are completed (or its 
+ * completion condition is satisfied) and joins them if so. The job is created in the transaction 
+ * that completes an instance without completing the activity: transactions completing the last 
+ * instances concurrently don't see each other's changes, so without this check none of them 
+ * would join the instances. Being a job, the check survives a crash after the commit and is 
+ * retried when it fails. 
+ * 
+ * The job belongs to the execution of the completed instance rather than to the shared parent 
+ * execution, which would otherwise be updated by every completion: it is deleted when the 
+ * instances are joined.
+ * 
+ * See {@link org.activiti.engine.impl.cfg.ProcessEngineConfigurationImpl#isEnableConcurrentMultiInstanceCompletion()}.
+ */
+public class ParallelMultiInstanceCompletionJobHandler implements JobHandler {
+
+  public final static String TYPE = "parallel-multi-instance-completion";
+
+  public String getType() {
+    return TYPE;
+  }
+  
+  /**
+   * Creates the job checking the completion of the multi-instance activity with the 
+   * given id, for the given execution of a completed instance.
+   */
+  public static void schedule(ExecutionEntity completedExecution, String activityId) {
+    MessageEntity message = new MessageEntity();
+    message.setExecution(completedExecution);
+    message.setJobHandlerType(TYPE);
+    message.setJobHandlerConfiguration(activityId);
+    if (completedExecution.getTenantId() != null) {
+      message.setTenantId(completedExecution.getTenantId());
+    }
+    Context.getCommandContext().getJobEntityManager().send(message);
+  }
+
+  public void execute(JobEntity job, String configuration, ExecutionEntity execution, CommandContext commandContext) {
+    new CheckParallelMultiInstanceCompletionCmd(execution.getParentId(), configuration).execute(commandContext);
+  }
+
+}
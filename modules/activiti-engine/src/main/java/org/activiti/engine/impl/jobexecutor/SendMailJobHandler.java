@@ -0,0 +1,55 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.engine.impl.jobexecutor;
+
+import java.io.ByteArrayInputStream;
+
+import javax.mail.MessagingException;
+import javax.mail.Session;
+import javax.mail.Transport;
+import javax.mail.internet.MimeMessage;
+
+import org.activiti.engine.ActivitiException;
+import org.activiti.engine.impl.context.Context;
+import org.activiti.engine.impl.interceptor.CommandContext;
+import org.activiti.engine.impl.mail.AsyncMailSender;
+import org.activiti.engine.impl.persistence.entity.ByteArrayRef;
+import org.activiti.engine.impl.persistence.entity.ExecutionEntity;
+import org.activiti.engine.impl.persistence.entity.JobEntity;
+
+
+/**
+ * Sends a mail stored by the {@link AsyncMailSender}, for mails the sender 
+ * couldn't send itself. The configuration is the id of the mail content, 
+ * which is deleted together with the job.
+ */
+public class SendMailJobHandler implements JobHandler {
+  
+  public final static String TYPE = "send-mail"; 
+
+  public String getType() {
+    return TYPE;
+  }
+
+  public void execute(JobEntity job, String configuration, ExecutionEntity execution, CommandContext commandContext) {
+    ByteArrayRef mailByteArrayRef = new ByteArrayRef(configuration);
+    Session session = Context.getProcessEngineConfiguration().getAsyncMailSender().getMailSession();
+    try {
+      MimeMessage message = new MimeMessage(session, new ByteArrayInputStream(mailByteArrayRef.getBytes()));
+      Transport.send(message);
+    } catch (MessagingException e) {
+      throw new ActivitiException("Could not send e-mail", e);
+    }
+  }
+
+}
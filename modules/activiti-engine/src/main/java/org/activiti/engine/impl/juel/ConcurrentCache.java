@@ -0,0 +1,60 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.engine.impl.juel;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread-safe tree cache without locking on lookup.
+ * Unlike {@link Cache}, lookups don't reorder entries: when the cache size reached its
+ * limit, adding a new entry removes arbitrary other entries instead of the least recently used one.
+ * Since the number of distinct expressions is normally bounded by the deployed process
+ * definitions, a cache that is large enough rarely evicts.
+ */
+public final class ConcurrentCache implements TreeCache {
+	private final ConcurrentMap<String,Tree> map;
+	private final AtomicInteger size = new AtomicInteger();
+	private final int maxSize;
+
+	/**
+	 * Constructor.
+	 * @param maxSize maximum cache size
+	 */
+	public ConcurrentCache(int maxSize) {
+		this.maxSize = maxSize;
+		this.map = new ConcurrentHashMap<String,Tree>(Math.min(maxSize, 1024));
+	}
+
+	public Tree get(String expression) {
+		return map.get(expression);
+	}
+
+	public void put(String expression, Tree tree) {
+		if (map.putIfAbsent(expression, tree) == null && size.incrementAndGet() > maxSize) {
+			Iterator<String> expressions = map.keySet().iterator();
+			while (size.get() > maxSize && expressions.hasNext()) {
+				String evicted = expressions.next();
+				if (!evicted.equals(expression) && map.remove(evicted) != null) {
+					size.decrementAndGet();
+				}
+			}
+		}
+	}
+
+	public int size() {
+		return size.get();
+	}
+}
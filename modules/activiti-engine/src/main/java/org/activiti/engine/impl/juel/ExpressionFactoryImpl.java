@@ -149,8 +149,23 @@ public class ExpressionFactoryImpl extends org.activiti.engine.impl.javax.el.Exp
 	 * @since 2.2
 	 */
 	public ExpressionFactoryImpl(Profile profile) {
+		this(profile, 1000);
+	}
+
+	/**
+	 * Create a new expression factory using the default builder and cache implementations. The
+	 * builder and cache are configured from the specified profile and <code>el.properties</code>
+	 * (see above). The maximum cache size will be as specified unless overridden in
+	 * <code>el.properties</code>.
+	 * 
+	 * @param profile
+	 *            builder profile (features may be overridden in <code>el.properties</code>)
+	 * @param cacheSize
+	 *            maximum number of cached expression trees (no caching if not positive)
+	 */
+	public ExpressionFactoryImpl(Profile profile, int cacheSize) {
 		Properties properties = loadProperties("el.properties");
-		this.store = createTreeStore(1000, profile, properties);
+		this.store = createTreeStore(cacheSize, profile, properties);
 		this.converter = createTypeConverter(properties);
 	}
 
@@ -334,7 +349,7 @@ public class ExpressionFactoryImpl extends org.activiti.engine.impl.javax.el.Exp
 				throw new ELException("Cannot parse EL property " + PROP_CACHE_SIZE, e);
 			}
 		}
-		Cache cache = cacheSize > 0 ? new Cache(cacheSize) : null;
+		TreeCache cache = cacheSize > 0 ? new ConcurrentCache(cacheSize) : null;
 
 		return new TreeStore(builder, cache);
 	}
@@ -413,6 +428,20 @@ public class ExpressionFactoryImpl extends org.activiti.engine.impl.javax.el.Exp
 		return null;
 	}
 
+	/**
+	 * @return the tree store used to parse the expressions of this factory
+	 */
+	public TreeStore getTreeStore() {
+		return store;
+	}
+
+	/**
+	 * @return the type converter used by the expressions of this factory
+	 */
+	public TypeConverter getTypeConverter() {
+		return converter;
+	}
+
 	@Override
 	public final Object coerceToType(Object obj, Class<?> targetType) {
 		return converter.convert(obj, targetType);
@@ -0,0 +1,410 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.engine.impl.mail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import javax.mail.MessagingException;
+import javax.mail.Session;
+import javax.mail.Transport;
+import javax.mail.internet.MimeMessage;
+import javax.naming.NamingException;
+
+import org.activiti.engine.ActivitiException;
+import org.activiti.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.activiti.engine.impl.cfg.TransactionState;
+import org.activiti.engine.impl.cmd.DeleteSentMailsCmd;
+import org.activiti.engine.impl.cmd.GetLockedMailsCmd;
+import org.activiti.engine.impl.cmd.UnlockJobsCmd;
+import org.activiti.engine.impl.context.Context;
+import org.activiti.engine.impl.interceptor.CommandContext;
+import org.activiti.engine.impl.interceptor.CommandExecutor;
+import org.activiti.engine.impl.jobexecutor.SendMailJobHandler;
+import org.activiti.engine.impl.metrics.MetricsRegistry;
+import org.activiti.engine.impl.persistence.entity.ByteArrayRef;
+import org.activiti.engine.impl.persistence.entity.ExecutionEntity;
+import org.activiti.engine.impl.persistence.entity.MessageEntity;
+import org.activiti.engine.impl.util.ClockUtil;
+import org.apache.commons.mail.Email;
+import org.apache.commons.mail.EmailException;
+import org.apache.commons.mail.SimpleEmail;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Sends the mails of mail tasks on its own threads, after the transaction of the mail task 
+ * is committed. See {@link ProcessEngineConfigurationImpl#isEnableAsyncMailDelivery()}.
+ * 
+ * The mail task stores the mail as a message job, locked by this sender, referencing 
+ * the RFC 822 content of the mail. Once committed, the job is queued here. A sender 
+ * thread takes up to {@link #getBatchSize()} queued mails and sends them over one SMTP 
+ * connection, after which the jobs of the sent mails are deleted. The jobs of mails that 
+ * couldn't be sent (or queued) are unlocked, after which the job executor sends them 
+ * with the {@link SendMailJobHandler}, retrying failures like it does for any job.
+ * 
+ * A mail can be sent twice when the process engine stops between sending a mail and 
+ * deleting its job, but never for a transaction that is rolled back.
+ * 
+ * On shutdown, the sender threads are interrupted and given {@link #getShutdownWaitTimeInMillis()} 
+ * to finish. The mails of a thread that is still busy after that stay locked until the lock 
+ * expires, after which the job executor sends them.
+ */
+public class AsyncMailSender {
+  
+  private static Logger log = LoggerFactory.getLogger(AsyncMailSender.class);
+  
+  public static final String MAIL_BYTE_ARRAY_NAME = "mail";
+  
+  protected ProcessEngineConfigurationImpl processEngineConfiguration;
+  
+  protected String lockOwner = UUID.randomUUID().toString();
+  protected int lockTimeInMillis = 5 * 60 * 1000;
+  protected int nrOfThreads = 2;
+  protected int batchSize = 50;
+  protected int queueSize = 1000;
+  
+  /** time to wait for all sender threads together to finish on shutdown */
+  protected int shutdownWaitTimeInMillis = 2000;
+  
+  /** maximum number of mails sent per second by all sender threads together, 0 for no limit */
+  protected int maxMailsPerSecond = 0;
+  
+  protected volatile boolean isActive = false;
+  protected BlockingQueue<String> queue;
+  protected List<Thread> threads;
+  protected Session mailSession;
+  protected long nextSendTime;
+
+  public synchronized void start() {
+    if (isActive) {
+      return;
+    }
+    log.info("Starting up the async mail sender with {} threads", nrOfThreads);
+    isActive = true;
+    queue = new LinkedBlockingQueue<String>(queueSize);
+    nextSendTime = System.nanoTime();
+    threads = new ArrayList<Thread>();
+    for (int i = 0; i < nrOfThreads; i++) {
+      Thread thread = new Thread(new SendMailsRunnable(), "async-mail-sender-" + i);
+      thread.setDaemon(true);
+      threads.add(thread);
+      thread.start();
+    }
+  }
+  
+  public synchronized void shutdown() {
+    if (!isActive) {
+      return;
+    }
+    log.info("Shutting down the async mail sender");
+    isActive = false;
+    for (Thread thread : threads) {
+      thread.interrupt();
+    }
+    long shutdownDeadline = System.currentTimeMillis() + shutdownWaitTimeInMillis;
+    for (Thread thread : threads) {
+      try {
+        long waitTime = shutdownDeadline - System.currentTimeMillis();
+        if (waitTime > 0) {
+          thread.join(waitTime);
+        }
+        if (thread.isAlive()) {
+          log.warn("Mail sender thread {} didn't stop in time: its mails are sent by the job executor once their lock expired", thread.getName());
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        break;
+      }
+    }
+    threads = null;
+    
+    // Hand the mails that are still queued over to the job executor
+    List<String> queuedJobIds = new ArrayList<String>();
+    queue.drainTo(queuedJobIds);
+    unlock(queuedJobIds);
+  }
+  
+  /**
+   * Stores the given mail as a job in the current transaction, and queues it 
+   * for sending once the transaction is committed.
+   */
+  public void send(Email email, ExecutionEntity execution) {
+    byte[] mailBytes;
+    try {
+      email.buildMimeMessage();
+      ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+      email.getMimeMessage().writeTo(outputStream);
+      mailBytes = outputStream.toByteArray();
+    } catch (Exception e) {
+      throw new ActivitiException("Could not create e-mail", e);
+    }
+    
+    ByteArrayRef mailByteArrayRef = new ByteArrayRef();
+    mailByteArrayRef.setValue(MAIL_BYTE_ARRAY_NAME, mailBytes);
+    
+    // The job isn't linked to the execution, as the mail must still be sent when the execution ends
+    MessageEntity message = new MessageEntity();
+    message.setJobHandlerType(SendMailJobHandler.TYPE);
+    message.setJobHandlerConfiguration(mailByteArrayRef.getId());
+    message.setExclusive(false);
+    if (execution != null) {
+      message.setProcessInstanceId(execution.getProcessInstanceId());
+      message.setProcessDefinitionId(execution.getProcessDefinitionId());
+      if (execution.getTenantId() != null) {
+        message.setTenantId(execution.getTenantId());
+      }
+    }
+    CommandContext commandContext = Context.getCommandContext();
+    if (isActive) {
+      message.setLockOwner(lockOwner);
+      message.setLockExpirationTime(new Date(ClockUtil.getCurrentTime().getTime() + lockTimeInMillis));
+      message.insert();
+      commandContext
+        .getTransactionContext()
+        .addTransactionListener(TransactionState.COMMITTED, new MailAddedNotification(this, message.getId()));
+    } else {
+      commandContext.getJobEntityManager().send(message);
+    }
+  }
+  
+  /**
+   * Queues the job of a committed mail, returns false if the mail can't be queued. 
+   */
+  public boolean addMail(String jobId) {
+    return isActive && queue.offer(jobId);
+  }
+  
+  /**
+   * Releases the lock on the jobs of the given mails, so the job executor sends them.
+   */
+  public void unlock(List<String> jobIds) {
+    if (jobIds.isEmpty()) {
+      return;
+    }
+    try {
+      CommandExecutor commandExecutor = processEngineConfiguration.getCommandExecutor();
+      commandExecutor.execute(commandExecutor.getDefaultConfig().transactionRequiresNew(), new UnlockJobsCmd(jobIds, lockOwner));
+      if (processEngineConfiguration.getJobExecutor().isActive()) {
+        processEngineConfiguration.getJobExecutor().jobWasAdded();
+      }
+    } catch (Throwable t) {
+      // the job executor will send the mails once their lock expired
+      log.warn("Could not release lock of mail jobs " + jobIds, t);
+    }
+  }
+  
+  protected void sendMails(List<String> jobIds) throws InterruptedException {
+    long start = System.nanoTime();
+    Map<String, byte[]> mails = processEngineConfiguration.getCommandExecutor().execute(new GetLockedMailsCmd(jobIds, lockOwner));
+    
+    List<String> sentJobIds = new ArrayList<String>();
+    List<String> failedJobIds = new ArrayList<String>(mails.keySet());
+    Transport transport = null;
+    try {
+      Session session = getMailSession();
+      transport = session.getTransport();
+      transport.connect();
+      for (Map.Entry<String, byte[]> mail : mails.entrySet()) {
+        awaitRateLimit();
+        try {
+          MimeMessage message = new MimeMessage(session, new ByteArrayInputStream(mail.getValue()));
+          transport.sendMessage(message, message.getAllRecipients());
+          sentJobIds.add(mail.getKey());
+        } catch (MessagingException e) {
+          log.warn("Could not send mail of job " + mail.getKey(), e);
+        }
+      }
+    } catch (MessagingException e) {
+      log.warn("Could not connect to mail server", e);
+    } finally {
+      if (transport != null) {
+        try {
+          transport.close();
+        } catch (MessagingException e) {
+          log.debug("Could not close connection to mail server", e);
+        }
+      }
+      failedJobIds.removeAll(sentJobIds);
+      if (!sentJobIds.isEmpty()) {
+        processEngineConfiguration.getCommandExecutor().execute(new DeleteSentMailsCmd(sentJobIds, lockOwner));
+      }
+      unlock(failedJobIds);
+    }
+    
+    MetricsRegistry metricsRegistry = processEngineConfiguration.getMetricsRegistry();
+    if (metricsRegistry != null) {
+      metricsRegistry.increment("mail.sent", sentJobIds.size());
+      metricsRegistry.increment("mail.failed", failedJobIds.size());
+      metricsRegistry.recordDuration("mail.batch", System.nanoTime() - start);
+    }
+  }
+  
+  protected void awaitRateLimit() throws InterruptedException {
+    if (maxMailsPerSecond <= 0) {
+      return;
+    }
+    long waitTime;
+    synchronized (this) {
+      long now = System.nanoTime();
+      if (nextSendTime < now) {
+        nextSendTime = now;
+      }
+      waitTime = nextSendTime - now;
+      nextSendTime += TimeUnit.SECONDS.toNanos(1) / maxMailsPerSecond;
+    }
+    if (waitTime > 0) {
+      TimeUnit.NANOSECONDS.sleep(waitTime);
+    }
+  }
+  
+  /**
+   * The mail session, configured by the mail server settings of the process engine configuration, 
+   * used by all mails sent through this sender.
+   */
+  public synchronized Session getMailSession() {
+    if (mailSession == null) {
+      Email email = new SimpleEmail();
+      String mailSessionJndi = processEngineConfiguration.getMailSesionJndi();
+      try {
+        if (mailSessionJndi != null) {
+          email.setMailSessionFromJNDI(mailSessionJndi);
+        } else {
+          String host = processEngineConfiguration.getMailServerHost();
+          if (host == null) {
+            throw new ActivitiException("Could not send email: no SMTP host is configured");
+          }
+          email.setHostName(host);
+          email.setSmtpPort(processEngineConfiguration.getMailServerPort());
+          email.setSSL(processEngineConfiguration.getMailServerUseSSL());
+          email.setTLS(processEngineConfiguration.getMailServerUseTLS());
+          String user = processEngineConfiguration.getMailServerUsername();
+          String password = processEngineConfiguration.getMailServerPassword();
+          if (user != null && password != null) {
+            email.setAuthentication(user, password);
+          }
+        }
+        mailSession = email.getMailSession();
+      } catch (NamingException e) {
+        throw new ActivitiException("Could not send email: Incorrect JNDI configuration", e);
+      } catch (EmailException e) {
+        throw new ActivitiException("Could not create mail session", e);
+      }
+    }
+    return mailSession;
+  }
+  
+  protected class SendMailsRunnable implements Runnable {
+    
+    public void run() {
+      while (isActive) {
+        try {
+          String jobId = queue.poll(1, TimeUnit.SECONDS);
+          if (jobId != null) {
+            List<String> jobIds = new ArrayList<String>();
+            jobIds.add(jobId);
+            queue.drainTo(jobIds, batchSize - 1);
+            sendMails(jobIds);
+          }
+        } catch (InterruptedException e) {
+          // shutdown: the mails that aren't sent yet are unlocked
+        } catch (Throwable t) {
+          log.error("Exception while sending mails", t);
+        }
+      }
+    }
+  }
+  
+  // getters and setters //////////////////////////////////////////////////////
+
+  public ProcessEngineConfigurationImpl getProcessEngineConfiguration() {
+    return processEngineConfiguration;
+  }
+
+  public void setProcessEngineConfiguration(ProcessEngineConfigurationImpl processEngineConfiguration) {
+    this.processEngineConfiguration = processEngineConfiguration;
+  }
+
+  public boolean isActive() {
+    return isActive;
+  }
+
+  public String getLockOwner() {
+    return lockOwner;
+  }
+
+  public void setLockOwner(String lockOwner) {
+    this.lockOwner = lockOwner;
+  }
+
+  public int getLockTimeInMillis() {
+    return lockTimeInMillis;
+  }
+
+  public void setLockTimeInMillis(int lockTimeInMillis) {
+    this.lockTimeInMillis = lockTimeInMillis;
+  }
+
+  public int getNrOfThreads() {
+    return nrOfThreads;
+  }
+
+  public void setNrOfThreads(int nrOfThreads) {
+    this.nrOfThreads = nrOfThreads;
+  }
+
+  public int getBatchSize() {
+    return batchSize;
+  }
+
+  public void setBatchSize(int batchSize) {
+    this.batchSize = batchSize;
+  }
+
+  public int getQueueSize() {
+    return queueSize;
+  }
+
+  public void setQueueSize(int queueSize) {
+    this.queueSize = queueSize;
+  }
+
+  public int getShutdownWaitTimeInMillis() {
+    return shutdownWaitTimeInMillis;
+  }
+
+  public void setShutdownWaitTimeInMillis(int shutdownWaitTimeInMillis) {
+    this.shutdownWaitTimeInMillis = shutdownWaitTimeInMillis;
+  }
+
+  public int getMaxMailsPerSecond() {
+    return maxMailsPerSecond;
+  }
+
+  public void setMaxMailsPerSecond(int maxMailsPerSecond) {
+    this.maxMailsPerSecond = maxMailsPerSecond;
+  }
+
+  public void setMailSession(Session mailSession) {
+    this.mailSession = mailSession;
+  }
+
+}
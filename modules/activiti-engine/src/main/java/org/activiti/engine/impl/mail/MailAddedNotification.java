@@ -0,0 +1,40 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.engine.impl.mail;
+
+import java.util.Collections;
+
+import org.activiti.engine.impl.cfg.TransactionListener;
+import org.activiti.engine.impl.interceptor.CommandContext;
+
+/**
+ * Queues a mail in the {@link AsyncMailSender} once the transaction that stored it is committed.
+ * When the sender can't take the mail, its job is unlocked so the job executor sends it.
+ */
+public class MailAddedNotification implements TransactionListener {
+  
+  protected AsyncMailSender asyncMailSender;
+  protected String jobId;
+
+  public MailAddedNotification(AsyncMailSender asyncMailSender, String jobId) {
+    this.asyncMailSender = asyncMailSender;
+    this.jobId = jobId;
+  }
+
+  public void execute(CommandContext commandContext) {
+    if (!asyncMailSender.addMail(jobId)) {
+      asyncMailSender.unlock(Collections.singletonList(jobId));
+    }
+  }
+
+}
@@ -0,0 +1,103 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.engine.impl.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-memory {@link MetricsRegistry} based on atomic counters. 
+ * Exposed through JMX by default (see {@link MetricsMXBean}).
+ */
+public class DefaultMetricsRegistry implements MetricsRegistry {
+  
+  protected ConcurrentMap<String, AtomicLong> counters = new ConcurrentHashMap<String, AtomicLong>();
+  protected ConcurrentMap<String, DurationStatistics> durations = new ConcurrentHashMap<String, DurationStatistics>();
+
+  public void increment(String name, long delta) {
+    AtomicLong counter = counters.get(name);
+    if (counter == null) {
+      AtomicLong newCounter = new AtomicLong();
+      counter = counters.putIfAbsent(name, newCounter);
+      if (counter == null) {
+        counter = newCounter;
+      }
+    }
+    counter.addAndGet(delta);
+  }
+
+  public void recordDuration(String name, long durationInNanos) {
+    DurationStatistics statistics = durations.get(name);
+    if (statistics == null) {
+      DurationStatistics newStatistics = new DurationStatistics();
+      statistics = durations.putIfAbsent(name, newStatistics);
+      if (statistics == null) {
+        statistics = newStatistics;
+      }
+    }
+    statistics.record(durationInNanos);
+  }
+
+  public Map<String, Long> getCounters() {
+    Map<String, Long> result = new TreeMap<String, Long>();
+    for (Map.Entry<String, AtomicLong> entry : counters.entrySet()) {
+      result.put(entry.getKey(), entry.getValue().get());
+    }
+    return result;
+  }
+
+  public Map<String, DurationMetric> getDurations() {
+    Map<String, DurationMetric> result = new TreeMap<String, DurationMetric>();
+    for (Map.Entry<String, DurationStatistics> entry : durations.entrySet()) {
+      result.put(entry.getKey(), entry.getValue().snapshot());
+    }
+    return result;
+  }
+
+  public void reset() {
+    counters.clear();
+    durations.clear();
+  }
+  
+  protected static class DurationStatistics {
+    
+    protected AtomicLong count = new AtomicLong();
+    protected AtomicLong totalTimeInNanos = new AtomicLong();
+    protected AtomicLong maxTimeInNanos = new AtomicLong();
+    protected AtomicLongArray histogram = new AtomicLongArray(DurationMetric.BUCKET_UPPER_BOUNDS_IN_MS.length + 1);
+    
+    public void record(long durationInNanos) {
+      count.incrementAndGet();
+      totalTimeInNanos.addAndGet(durationInNanos);
+      histogram.incrementAndGet(DurationMetric.getBucket(durationInNanos));
+      
+      long max = maxTimeInNanos.get();
+      while (durationInNanos > max && !maxTimeInNanos.compareAndSet(max, durationInNanos)) {
+        max = maxTimeInNanos.get();
+      }
+    }
+    
+    public DurationMetric snapshot() {
+      long[] histogramSnapshot = new long[histogram.length()];
+      for (int i = 0; i < histogramSnapshot.length; i++) {
+        histogramSnapshot[i] = histogram.get(i);
+      }
+      return new DurationMetric(count.get(), totalTimeInNanos.get(), maxTimeInNanos.get(), histogramSnapshot);
+    }
+  }
+
+}
@@ -0,0 +1,79 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.engine.impl.metrics;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * Immutable snapshot of the durations recorded for one timed operation.
+ * 
+ * The histogram counts the occurrences per duration bucket: bucket i holds the occurrences 
+ * that took less than {@link #BUCKET_UPPER_BOUNDS_IN_MS}[i] milliseconds (and more than
+ * the upper bound of bucket i-1). The last bucket holds everything slower than the last bound.
+ */
+public class DurationMetric {
+  
+  public static final long[] BUCKET_UPPER_BOUNDS_IN_MS = {1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000, 10000};
+  
+  protected long count;
+  protected long totalTimeInNanos;
+  protected long maxTimeInNanos;
+  protected long[] histogram;
+  
+  @ConstructorProperties({"count", "totalTimeInNanos", "maxTimeInNanos", "histogram"})
+  public DurationMetric(long count, long totalTimeInNanos, long maxTimeInNanos, long[] histogram) {
+    this.count = count;
+    this.totalTimeInNanos = totalTimeInNanos;
+    this.maxTimeInNanos = maxTimeInNanos;
+    this.histogram = histogram;
+  }
+  
+  public static int getBucket(long durationInNanos) {
+    long durationInMs = durationInNanos / 1000000L;
+    for (int i = 0; i < BUCKET_UPPER_BOUNDS_IN_MS.length; i++) {
+      if (durationInMs < BUCKET_UPPER_BOUNDS_IN_MS[i]) {
+        return i;
+      }
+    }
+    return BUCKET_UPPER_BOUNDS_IN_MS.length;
+  }
+
+  public long getCount() {
+    return count;
+  }
+  
+  public long getTotalTimeInNanos() {
+    return totalTimeInNanos;
+  }
+  
+  public long getMaxTimeInNanos() {
+    return maxTimeInNanos;
+  }
+  
+  public double getMeanTimeInMs() {
+    if (count == 0) {
+      return 0;
+    }
+    return (totalTimeInNanos / (double) count) / 1000000d;
+  }
+  
+  public long[] getHistogram() {
+    return histogram;
+  }
+
+  @Override
+  public String toString() {
+    return "DurationMetric[count=" + count + ", mean=" + getMeanTimeInMs() + "ms, max=" + (maxTimeInNanos / 1000000d) + "ms]";
+  }
+  
+}
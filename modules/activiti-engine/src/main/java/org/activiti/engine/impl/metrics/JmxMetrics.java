@@ -0,0 +1,82 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.engine.impl.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Exposes a {@link MetricsRegistry} as {@link MetricsMXBean} on the platform MBean server.
+ */
+public class JmxMetrics implements MetricsMXBean {
+  
+  private static final Logger log = LoggerFactory.getLogger(JmxMetrics.class);
+  
+  protected MetricsRegistry metricsRegistry;
+  protected ObjectName objectName;
+  
+  public JmxMetrics(MetricsRegistry metricsRegistry, String processEngineName) {
+    this.metricsRegistry = metricsRegistry;
+    try {
+      this.objectName = new ObjectName("org.activiti:type=Metrics,name=" + ObjectName.quote(processEngineName != null ? processEngineName : "default"));
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Invalid process engine name for JMX: " + processEngineName, e);
+    }
+  }
+  
+  public void register() {
+    try {
+      MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+      if (mBeanServer.isRegistered(objectName)) {
+        mBeanServer.unregisterMBean(objectName);
+      }
+      mBeanServer.registerMBean(this, objectName);
+    } catch (Exception e) {
+      log.warn("Could not register metrics MBean " + objectName, e);
+    }
+  }
+  
+  public void unregister() {
+    try {
+      MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+      if (mBeanServer.isRegistered(objectName)) {
+        mBeanServer.unregisterMBean(objectName);
+      }
+    } catch (Exception e) {
+      log.warn("Could not unregister metrics MBean " + objectName, e);
+    }
+  }
+
+  public Map<String, Long> getCounters() {
+    return metricsRegistry.getCounters();
+  }
+
+  public Map<String, DurationMetric> getDurations() {
+    return metricsRegistry.getDurations();
+  }
+
+  public void reset() {
+    metricsRegistry.reset();
+  }
+  
+  public ObjectName getObjectName() {
+    return objectName;
+  }
+
+}
@@ -0,0 +1,41 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.engine.impl.metrics;
+
+import java.util.Map;
+
+/**
+ * Receives the metrics recorded by the engine (command latencies, flush sizes, 
+ * sql statements, job executions and cache hits) when metrics are enabled in the
+ * process engine configuration.
+ * 
+ * Implementations are called from every engine thread and must be thread-safe 
+ * and cheap: they sit on the hot path of every command.
+ */
+public interface MetricsRegistry {
+  
+  /** Adds the given delta to the counter with the given name. */
+  void increment(String name, long delta);
+  
+  /** Records one occurrence of the timed operation with the given name. */
+  void recordDuration(String name, long durationInNanos);
+  
+  /** Snapshot of all counters, by name. */
+  Map<String, Long> getCounters();
+  
+  /** Snapshot of all timed operations, by name. */
+  Map<String, DurationMetric> getDurations();
+  
+  void reset();
+
+}
@@ -20,6 +20,7 @@ import org.activiti.engine.impl.db.PersistentObject;
 import org.activiti.engine.impl.history.HistoryManager;
 import org.activiti.engine.impl.interceptor.Session;
 import org.activiti.engine.impl.persistence.entity.AttachmentEntityManager;
+import org.activiti.engine.impl.persistence.entity.BatchEntityManager;
 import org.activiti.engine.impl.persistence.entity.ByteArrayEntityManager;
 import org.activiti.engine.impl.persistence.entity.DeploymentEntityManager;
 import org.activiti.engine.impl.persistence.entity.ExecutionEntityManager;
@@ -28,6 +29,7 @@ import org.activiti.engine.impl.persistence.entity.HistoricActivityInstanceEntit
 import org.activiti.engine.impl.persistence.entity.HistoricDetailEntityManager;
 import org.activiti.engine.impl.persistence.entity.HistoricIdentityLinkEntityManager;
 import org.activiti.engine.impl.persistence.entity.HistoricProcessInstanceEntityManager;
+import org.activiti.engine.impl.persistence.entity.HistoricStatisticsEntityManager;
 import org.activiti.engine.impl.persistence.entity.HistoricTaskInstanceEntityManager;
 import org.activiti.engine.impl.persistence.entity.HistoricVariableInstanceEntityManager;
 import org.activiti.engine.impl.persistence.entity.IdentityInfoEntityManager;
@@ -123,6 +125,14 @@ public abstract class AbstractManager implements Session {
     return getSession(HistoricIdentityLinkEntityManager.class);
   }
   
+  protected HistoricStatisticsEntityManager getHistoricStatisticsEntityManager() {
+    return getSession(HistoricStatisticsEntityManager.class);
+  }
+  
+  protected BatchEntityManager getBatchEntityManager() {
+    return getSession(BatchEntityManager.class);
+  }
+  
   protected UserIdentityManager getUserIdentityManager() {
     return getSession(UserIdentityManager.class);
   }
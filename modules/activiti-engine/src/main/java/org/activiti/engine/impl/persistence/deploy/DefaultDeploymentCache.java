@@ -12,6 +12,7 @@
  */
 package org.activiti.engine.impl.persistence.deploy;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -22,6 +23,9 @@ import org.slf4j.LoggerFactory;
 /**
  * Default cache: keep everything in memory, unless a limit is set.
  * 
+ * The cache is safe for use by multiple threads (eg. job executor threads,
+ * or the parallel warm-up at process engine boot).
+ * 
  * @author Joram Barrez
  */
 public class DefaultDeploymentCache<T> implements DeploymentCache<T> {
@@ -32,12 +36,12 @@ public class DefaultDeploymentCache<T> implements DeploymentCache<T> {
   
   /** Cache with no limit */
   public DefaultDeploymentCache() {
-    this.cache = new HashMap<String, T>();
+    this.cache = Collections.synchronizedMap(new HashMap<String, T>());
   }
   
   /** Cache which has a hard limit: no more elements will be cached than the limit. */
   public DefaultDeploymentCache(final int limit) {
-    this.cache = new LinkedHashMap<String, T>(limit + 1, 0.75f, true) { // +1 is needed, because the entry is inserted first, before it is removed
+    this.cache = Collections.synchronizedMap(new LinkedHashMap<String, T>(limit + 1, 0.75f, true) { // +1 is needed, because the entry is inserted first, before it is removed
                                                                        // 0.75 is the default (see javadocs)
                                                                        // true will keep the 'access-order', which is needed to have a real LRU cache
       private static final long serialVersionUID = 1L;
@@ -50,7 +54,7 @@ public class DefaultDeploymentCache<T> implements DeploymentCache<T> {
         return removeEldest;
       }
       
-    };
+    });
   }
   
   public T get(String id) {
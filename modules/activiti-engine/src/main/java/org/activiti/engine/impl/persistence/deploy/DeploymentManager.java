@@ -23,6 +23,7 @@ import org.activiti.engine.delegate.event.ActivitiEventType;
 import org.activiti.engine.delegate.event.impl.ActivitiEventBuilder;
 import org.activiti.engine.impl.ProcessDefinitionQueryImpl;
 import org.activiti.engine.impl.context.Context;
+import org.activiti.engine.impl.metrics.MetricsRegistry;
 import org.activiti.engine.impl.persistence.entity.DeploymentEntity;
 import org.activiti.engine.impl.persistence.entity.DeploymentEntityManager;
 import org.activiti.engine.impl.persistence.entity.ProcessDefinitionEntity;
@@ -39,6 +40,7 @@ public class DeploymentManager {
   protected DeploymentCache<ProcessDefinitionEntity> processDefinitionCache;
   protected DeploymentCache<Object> knowledgeBaseCache; // Needs to be object to avoid an import to Drools in this core class
   protected List<Deployer> deployers;
+  protected MetricsRegistry metricsRegistry; // Only set when metrics are enabled
   
   public void deploy(DeploymentEntity deployment) {
     for (Deployer deployer: deployers) {
@@ -101,6 +103,9 @@ public class DeploymentManager {
     String processDefinitionId = processDefinition.getId();
     String deploymentId = processDefinition.getDeploymentId();
     processDefinition = processDefinitionCache.get(processDefinitionId);
+    if (metricsRegistry != null) {
+      metricsRegistry.increment(processDefinition != null ? "cache.processDefinition.hit" : "cache.processDefinition.miss", 1);
+    }
     if (processDefinition==null) {
       DeploymentEntity deployment = Context
         .getCommandContext()
@@ -182,4 +187,12 @@ public class DeploymentManager {
     this.knowledgeBaseCache = knowledgeBaseCache;
   }
   
+  public MetricsRegistry getMetricsRegistry() {
+    return metricsRegistry;
+  }
+  
+  public void setMetricsRegistry(MetricsRegistry metricsRegistry) {
+    this.metricsRegistry = metricsRegistry;
+  }
+  
 }
@@ -0,0 +1,114 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.engine.impl.persistence.deploy;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.activiti.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.activiti.engine.impl.cmd.GetDeploymentProcessDefinitionCmd;
+import org.activiti.engine.impl.cmd.GetProcessDefinitionsForCacheWarmUpCmd;
+import org.activiti.engine.impl.interceptor.CommandExecutor;
+import org.activiti.engine.repository.ProcessDefinition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Fills the process definition cache when the process engine is booted, so the
+ * first job or request touching a process definition doesn't have to parse the
+ * process definition xml.
+ *
+ * Deployments are parsed in parallel, each one in its own command (and thus transaction).
+ * Since a deployment is always parsed as a whole, only one process definition
+ * per deployment needs to be resolved. A failure to warm up a deployment is logged
+ * and doesn't prevent the process engine from booting: the process definition
+ * will be parsed on first use, as it would without warm-up.
+ */
+public class ProcessDefinitionCacheWarmUp {
+
+  private static final Logger log = LoggerFactory.getLogger(ProcessDefinitionCacheWarmUp.class);
+
+  protected ProcessEngineConfigurationImpl processEngineConfiguration;
+
+  public ProcessDefinitionCacheWarmUp(ProcessEngineConfigurationImpl processEngineConfiguration) {
+    this.processEngineConfiguration = processEngineConfiguration;
+  }
+
+  public void warmUp() {
+    long start = System.currentTimeMillis();
+    final CommandExecutor commandExecutor = processEngineConfiguration.getCommandExecutor();
+
+    List<ProcessDefinition> processDefinitions = commandExecutor.execute(new GetProcessDefinitionsForCacheWarmUpCmd(
+            processEngineConfiguration.getProcessDefinitionCacheWarmUpVersions(),
+            processEngineConfiguration.isProcessDefinitionCacheWarmUpRunningInstances()));
+
+    // No use in parsing more process definitions than the cache can hold
+    int cacheLimit = processEngineConfiguration.getProcessDefinitionCacheLimit();
+    if (cacheLimit > 0 && processDefinitions.size() > cacheLimit) {
+      processDefinitions = processDefinitions.subList(0, cacheLimit);
+    }
+
+    // One process definition per deployment: the others will be parsed and cached together with it
+    Map<String, String> processDefinitionIdPerDeployment = new LinkedHashMap<String, String>();
+    for (ProcessDefinition processDefinition : processDefinitions) {
+      if (!processDefinitionIdPerDeployment.containsKey(processDefinition.getDeploymentId())) {
+        processDefinitionIdPerDeployment.put(processDefinition.getDeploymentId(), processDefinition.getId());
+      }
+    }
+
+    if (processDefinitionIdPerDeployment.isEmpty()) {
+      return;
+    }
+
+    int nrOfThreads = Math.max(1, Math.min(processEngineConfiguration.getProcessDefinitionCacheWarmUpThreads(),
+            processDefinitionIdPerDeployment.size()));
+    ExecutorService executorService = Executors.newFixedThreadPool(nrOfThreads);
+    try {
+
+      List<Future<?>> futures = new ArrayList<Future<?>>();
+      for (final String processDefinitionId : processDefinitionIdPerDeployment.values()) {
+        futures.add(executorService.submit(new Runnable() {
+          public void run() {
+            commandExecutor.execute(new GetDeploymentProcessDefinitionCmd(processDefinitionId));
+          }
+        }));
+      }
+
+      int nrOfFailures = 0;
+      for (Future<?> future : futures) {
+        try {
+          future.get();
+        } catch (ExecutionException e) {
+          nrOfFailures++;
+          log.warn("Could not warm up process definition cache", e.getCause());
+        }
+      }
+
+      log.info("Warmed up process definition cache with {} deployments in {} ms ({} failed)",
+              processDefinitionIdPerDeployment.size(), System.currentTimeMillis() - start, nrOfFailures);
+
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      log.warn("Interrupted while warming up process definition cache");
+    } finally {
+      executorService.shutdownNow();
+    }
+  }
+
+}
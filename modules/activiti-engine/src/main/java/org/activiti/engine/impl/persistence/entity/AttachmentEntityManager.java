@@ -78,5 +78,14 @@ public class AttachmentEntityManager extends AbstractManager {
       throw new ActivitiException("In order to use attachments, history should be enabled");
     }
   }
+  
+  /**
+   * Deletes the attachments of the given process instances, including their content.
+   */
+  public void deleteAttachmentsByProcessInstanceIds(List<String> processInstanceIds) {
+    getDbSqlSession().deleteInChunks("deleteAttachmentContentByProcessInstanceIds", processInstanceIds);
+    getDbSqlSession().deleteInChunks("deleteAttachmentsByProcessInstanceIds", processInstanceIds);
+  }
+
 }
 
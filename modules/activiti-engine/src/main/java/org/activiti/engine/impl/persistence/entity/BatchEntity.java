@@ -0,0 +1,176 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.engine.impl.persistence.entity;
+
+import java.io.Serializable;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.activiti.engine.impl.db.HasRevision;
+import org.activiti.engine.impl.db.PersistentObject;
+import org.activiti.engine.impl.util.ClockUtil;
+import org.activiti.engine.management.Batch;
+
+/**
+ * The progress counters are never written from the entity: the worker jobs of a batch 
+ * run concurrently, so they increment the counters with an update statement instead
+ * (see {@link BatchEntityManager#addProcessedItems(String, int, int, String)}).
+ * Only the end time is updated with the usual revision check.
+ */
+public class BatchEntity implements Batch, PersistentObject, HasRevision, Serializable {
+
+  private static final long serialVersionUID = 1L;
+  
+  protected String id;
+  protected int revision = 1;
+  protected String type;
+  protected int totalItems;
+  protected int completedItems;
+  protected int failedItems;
+  protected int chunkSize;
+  protected String itemsId;
+  protected String configuration;
+  protected String lastFailure;
+  protected Date createTime;
+  protected Date endTime;
+
+  public Object getPersistentState() {
+    Map<String, Object> persistentState = new HashMap<String, Object>();
+    persistentState.put("endTime", endTime);
+    return persistentState;
+  }
+  
+  public boolean isCompleted() {
+    return endTime != null;
+  }
+  
+  public double getThroughput() {
+    if (createTime == null) {
+      return 0;
+    }
+    Date until = endTime != null ? endTime : ClockUtil.getCurrentTime();
+    long millis = until.getTime() - createTime.getTime();
+    if (millis <= 0) {
+      return 0;
+    }
+    return (completedItems + failedItems) * 1000.0 / millis;
+  }
+  
+  // getters and setters //////////////////////////////////////////////////////
+
+  public String getId() {
+    return id;
+  }
+  
+  public void setId(String id) {
+    this.id = id;
+  }
+  
+  public int getRevision() {
+    return revision;
+  }
+  
+  public void setRevision(int revision) {
+    this.revision = revision;
+  }
+  
+  public int getRevisionNext() {
+    return revision + 1;
+  }
+  
+  public String getType() {
+    return type;
+  }
+  
+  public void setType(String type) {
+    this.type = type;
+  }
+  
+  public int getTotalItems() {
+    return totalItems;
+  }
+  
+  public void setTotalItems(int totalItems) {
+    this.totalItems = totalItems;
+  }
+  
+  public int getCompletedItems() {
+    return completedItems;
+  }
+  
+  public void setCompletedItems(int completedItems) {
+    this.completedItems = completedItems;
+  }
+  
+  public int getFailedItems() {
+    return failedItems;
+  }
+  
+  public void setFailedItems(int failedItems) {
+    this.failedItems = failedItems;
+  }
+  
+  public int getChunkSize() {
+    return chunkSize;
+  }
+  
+  public void setChunkSize(int chunkSize) {
+    this.chunkSize = chunkSize;
+  }
+  
+  public String getItemsId() {
+    return itemsId;
+  }
+  
+  public void setItemsId(String itemsId) {
+    this.itemsId = itemsId;
+  }
+  
+  public String getConfiguration() {
+    return configuration;
+  }
+  
+  public void setConfiguration(String configuration) {
+    this.configuration = configuration;
+  }
+  
+  public String getLastFailure() {
+    return lastFailure;
+  }
+  
+  public void setLastFailure(String lastFailure) {
+    this.lastFailure = lastFailure;
+  }
+  
+  public Date getCreateTime() {
+    return createTime;
+  }
+  
+  public void setCreateTime(Date createTime) {
+    this.createTime = createTime;
+  }
+  
+  public Date getEndTime() {
+    return endTime;
+  }
+  
+  public void setEndTime(Date endTime) {
+    this.endTime = endTime;
+  }
+  
+  public String toString() {
+    return "BatchEntity[" + id + ", type=" + type + "]";
+  }
+
+}
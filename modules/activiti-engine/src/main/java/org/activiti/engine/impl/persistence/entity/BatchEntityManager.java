@@ -0,0 +1,115 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.engine.impl.persistence.entity;
+
+import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.activiti.engine.ActivitiException;
+import org.activiti.engine.impl.persistence.AbstractManager;
+import org.activiti.engine.impl.util.json.JSONArray;
+import org.activiti.engine.management.Batch;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Stores the {@link Batch}es and the ids of the items they process. The item ids are stored
+ * as a JSON array in a byte array, both for the whole batch and for the chunk of every worker job.
+ */
+public class BatchEntityManager extends AbstractManager {
+
+  public static final int MAX_LAST_FAILURE_LENGTH = 2000;
+
+  public void insertBatch(BatchEntity batch) {
+    getDbSqlSession().insert(batch);
+  }
+
+  public BatchEntity findBatchById(String batchId) {
+    return getDbSqlSession().selectById(BatchEntity.class, batchId);
+  }
+
+  @SuppressWarnings("unchecked")
+  public List<Batch> findBatches() {
+    return getDbSqlSession().selectList("selectBatches");
+  }
+
+  public void deleteBatch(BatchEntity batch) {
+    if (batch.getItemsId() != null) {
+      new ByteArrayRef(batch.getItemsId()).delete();
+    }
+    getDbSqlSession().delete(batch);
+  }
+
+  /**
+   * Adds the given numbers of processed items to the progress counters of the batch. 
+   * The counters are incremented in the database right away, since the worker jobs 
+   * of the batch run concurrently.
+   */
+  public void addProcessedItems(String batchId, int completedItems, int failedItems, String lastFailure) {
+    Map<String, Object> params = new HashMap<String, Object>();
+    params.put("batchId", batchId);
+    params.put("completedItems", completedItems);
+    params.put("failedItems", failedItems);
+    params.put("lastFailure", StringUtils.abbreviate(lastFailure, MAX_LAST_FAILURE_LENGTH));
+    getDbSqlSession().update("updateBatchProcessedItems", params);
+  }
+
+  /**
+   * Stores the given item ids in a new byte array and returns its id.
+   */
+  public String insertBatchItems(String name, List<String> itemIds) {
+    ByteArrayRef itemsByteArrayRef = new ByteArrayRef();
+    try {
+      itemsByteArrayRef.setValue(name, new JSONArray(itemIds).toString().getBytes("UTF-8"));
+    } catch (UnsupportedEncodingException e) {
+      throw new ActivitiException("UTF-8 is not a supported encoding");
+    }
+    return itemsByteArrayRef.getId();
+  }
+
+  /**
+   * Removes the given processed items from the byte array the item ids are stored in, 
+   * and deletes the byte array once no item is left. 
+   */
+  public void removeBatchItems(String itemsId, List<String> processedItemIds) {
+    List<String> itemIds = findBatchItems(itemsId);
+    itemIds.removeAll(processedItemIds);
+    ByteArrayRef itemsByteArrayRef = new ByteArrayRef(itemsId);
+    if (itemIds.isEmpty()) {
+      itemsByteArrayRef.delete();
+    } else {
+      try {
+        itemsByteArrayRef.getEntity().setBytes(new JSONArray(itemIds).toString().getBytes("UTF-8"));
+      } catch (UnsupportedEncodingException e) {
+        throw new ActivitiException("UTF-8 is not a supported encoding");
+      }
+    }
+  }
+
+  public List<String> findBatchItems(String itemsId) {
+    JSONArray itemsJson;
+    try {
+      itemsJson = new JSONArray(new String(new ByteArrayRef(itemsId).getBytes(), "UTF-8"));
+    } catch (UnsupportedEncodingException e) {
+      throw new ActivitiException("UTF-8 is not a supported encoding");
+    }
+    List<String> itemIds = new ArrayList<String>(itemsJson.length());
+    for (int i = 0; i < itemsJson.length(); i++) {
+      itemIds.add(itemsJson.getString(i));
+    }
+    return itemIds;
+  }
+
+}
@@ -13,6 +13,7 @@
 
 package org.activiti.engine.impl.persistence.entity;
 
+import java.util.List;
 import org.activiti.engine.impl.persistence.AbstractManager;
 
 /**
@@ -38,5 +39,9 @@ public class ByteArrayEntityManager extends AbstractManager {
   public void deleteByteArray(ByteArrayEntity byteArray) {
     getDbSqlSession().delete(byteArray);
   }
+  
+  public void deleteByteArraysByIds(List<String> byteArrayIds) {
+    getDbSqlSession().deleteInChunks("deleteByteArraysByIds", byteArrayIds);
+  }
 
 }
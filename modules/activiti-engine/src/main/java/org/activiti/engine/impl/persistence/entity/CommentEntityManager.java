@@ -124,4 +124,12 @@ public class CommentEntityManager extends AbstractManager {
       throw new ActivitiException("In order to use comments, history should be enabled");
     }
   }
+  
+  /**
+   * Deletes the comments of the given process instances and of their tasks.
+   */
+  public void deleteCommentsByProcessInstanceIds(List<String> processInstanceIds) {
+    getDbSqlSession().deleteInChunks("deleteCommentsByProcessInstanceIds", processInstanceIds);
+  }
+
 }
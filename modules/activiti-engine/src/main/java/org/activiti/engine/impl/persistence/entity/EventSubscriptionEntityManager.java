@@ -14,6 +14,7 @@
 package org.activiti.engine.impl.persistence.entity;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -22,6 +23,8 @@ import java.util.Set;
 
 import org.activiti.engine.impl.EventSubscriptionQueryImpl;
 import org.activiti.engine.impl.Page;
+import org.activiti.engine.impl.batch.ProcessInstanceMigration;
+import org.activiti.engine.impl.db.DbSqlSession;
 import org.activiti.engine.impl.persistence.AbstractManager;
 
 
@@ -30,6 +33,9 @@ import org.activiti.engine.impl.persistence.AbstractManager;
  */
 public class EventSubscriptionEntityManager extends AbstractManager {
   
+  /** maximum number of business keys bound in a single in-clause, see {@link DbSqlSession#MAX_IN_LIST_SIZE} */
+  public static final int MAX_BUSINESS_KEYS_PER_QUERY = DbSqlSession.MAX_IN_LIST_SIZE;
+  
   /** keep track of subscriptions created in the current command */
   protected List<SignalEventSubscriptionEntity> createdSignalSubscriptions = new ArrayList<SignalEventSubscriptionEntity>();
   
@@ -175,9 +181,45 @@ public class EventSubscriptionEntityManager extends AbstractManager {
     return getDbSqlSession().selectList(query, params);            
   }
 
+  /**
+   * The subscriptions to the given message of the executions of the process instances 
+   * with one of the given business keys (and of the given tenant, if not null), fetched 
+   * with one query per {@link #MAX_BUSINESS_KEYS_PER_QUERY} business keys.
+   */
+  @SuppressWarnings("unchecked")
+  public List<MessageEventSubscriptionEntity> findMessageEventSubscriptionsByNameAndBusinessKeys(String messageName, 
+          Collection<String> businessKeys, String tenantId) {
+    final String query = "selectMessageEventSubscriptionsByNameAndBusinessKeys";
+    List<String> businessKeyList = new ArrayList<String>(businessKeys);
+    List<MessageEventSubscriptionEntity> eventSubscriptions = new ArrayList<MessageEventSubscriptionEntity>();
+    for (int from = 0; from < businessKeyList.size(); from += MAX_BUSINESS_KEYS_PER_QUERY) {
+      Map<String,Object> params = new HashMap<String, Object>();
+      params.put("eventName", messageName);
+      params.put("businessKeys", businessKeyList.subList(from, Math.min(from + MAX_BUSINESS_KEYS_PER_QUERY, businessKeyList.size())));
+      params.put("tenantId", tenantId);
+      eventSubscriptions.addAll(getDbSqlSession().selectList(query, params));
+    }
+    return eventSubscriptions;
+  }
+
   public MessageEventSubscriptionEntity findMessageStartEventSubscriptionByName(String messageName) {
     MessageEventSubscriptionEntity entity = (MessageEventSubscriptionEntity) getDbSqlSession().selectOne("selectMessageStartEventSubscriptionByName", messageName);
     return entity;
   }
+  
+  public MessageEventSubscriptionEntity findMessageStartEventSubscriptionByNameAndTenantId(String messageName, String tenantId) {
+    Map<String,Object> params = new HashMap<String, Object>();
+    params.put("eventName", messageName);
+    params.put("tenantId", tenantId);
+    return (MessageEventSubscriptionEntity) getDbSqlSession().selectOne("selectMessageStartEventSubscriptionByNameAndTenantId", params);
+  }
    
+  public void deleteEventSubscriptionsByProcessInstanceIds(List<String> processInstanceIds) {
+    getDbSqlSession().deleteInChunks("deleteEventSubscriptionsByProcessInstanceIds", processInstanceIds);
+  }
+  
+  public void updateEventSubscriptionActivityForProcessInstances(ProcessInstanceMigration migration) {
+    getDbSqlSession().update("updateEventSubscriptionActivityForProcessInstances", migration);
+  }
+
 }
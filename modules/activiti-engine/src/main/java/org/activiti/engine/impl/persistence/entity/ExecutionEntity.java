@@ -14,9 +14,13 @@
 package org.activiti.engine.impl.persistence.entity;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.activiti.engine.EngineServices;
 import org.activiti.engine.ProcessEngineConfiguration;
@@ -72,6 +76,9 @@ public class ExecutionEntity extends VariableScopeImpl implements ActivityExecut
   
   private static Logger log = LoggerFactory.getLogger(ExecutionEntity.class);
   
+  // keeps the 'not in' list of the count query below the limit of all supported databases
+  protected static final int MAX_EXCLUDED_EXECUTIONS_IN_COUNT = 500;
+  
   // Persistent refrenced entities state //////////////////////////////////////
   protected static final int EVENT_SUBSCRIPTIONS_STATE_BIT = 1;
   protected static final int TASKS_STATE_BIT = 2;
@@ -283,13 +290,28 @@ public class ExecutionEntity extends VariableScopeImpl implements ActivityExecut
     			ActivitiEventBuilder.createEntityEvent(ActivitiEventType.ENTITY_CREATED, newExecution));
     }
     
-    Context
-      .getCommandContext()
-      .getDbSqlSession()
-      .insert(newExecution);
+    newExecution.insert();
 
     return newExecution;
   }
+  
+  protected static boolean isTransientExecutionsEnabled() {
+    return Context.getProcessEngineConfiguration() != null 
+            && Context.getProcessEngineConfiguration().isEnableTransientExecutions();
+  }
+  
+  /**
+   * Until a new execution is flushed, no rows in the database can reference it: 
+   * the lists of referenced objects start empty instead of being fetched.
+   */
+  protected void initializeTransientReferences() {
+    variableInstances = new HashMap<String, VariableInstanceEntity>();
+    variableInstanceList = new ArrayList<VariableInstanceEntity>();
+    eventSubscriptions = new ArrayList<EventSubscriptionEntity>();
+    jobs = new ArrayList<JobEntity>();
+    tasks = new ArrayList<TaskEntity>();
+    identityLinks = new ArrayList<IdentityLinkEntity>();
+  }
 
   
   // scopes ///////////////////////////////////////////////////////////////////
@@ -432,6 +454,71 @@ public class ExecutionEntity extends VariableScopeImpl implements ActivityExecut
     return inactiveConcurrentExecutionsInActivity;
   }
   
+  /**
+   * Counts the inactive concurrent executions in the given activity, without fetching 
+   * all child executions of the parent when they aren't loaded yet. The count is 
+   * always the size of {@link #findInactiveConcurrentExecutions(PvmActivity)}.
+   */
+  public long countInactiveConcurrentExecutions(PvmActivity activity) {
+    if (!isConcurrent()) {
+      return isActive() ? 0 : 1;
+    }
+    return getParent().countInactiveChildExecutionsInActivity(activity);
+  }
+  
+  /**
+   * Counts the inactive executions in the given activity among all (direct and 
+   * nested) child executions of this execution. 
+   */
+  public long countInactiveChildExecutionsInActivity(PvmActivity activity) {
+    if (executions != null) {
+      return countInactiveExecutionsInActivity(getAllChildExecutions(), activity);
+    }
+
+    // Child executions that were already fetched or created in this command can
+    // have changes that aren't flushed yet: those are counted in memory
+    DbSqlSession dbSqlSession = Context.getCommandContext().getDbSqlSession();
+    List<ExecutionEntity> cachedExecutions = dbSqlSession.findInCache(ExecutionEntity.class);
+    List<ExecutionEntity> cachedChildExecutions = new ArrayList<ExecutionEntity>();
+    Set<String> cachedChildExecutionIds = new HashSet<String>();
+    for (ExecutionEntity cachedExecution : cachedExecutions) {
+      if (id.equals(cachedExecution.getParentId())) {
+        cachedChildExecutions.add(cachedExecution);
+        cachedChildExecutionIds.add(cachedExecution.getId());
+      }
+    }
+    if (cachedChildExecutionIds.size() > MAX_EXCLUDED_EXECUTIONS_IN_COUNT) {
+      return countInactiveExecutionsInActivity(getAllChildExecutions(), activity);
+    }
+    
+    // The count query only sees the direct children: when any child has child 
+    // executions of its own (eg. a scope or embedded subprocess in a concurrent 
+    // path), the whole tree is fetched
+    for (ExecutionEntity cachedExecution : cachedExecutions) {
+      if (cachedChildExecutionIds.contains(cachedExecution.getParentId())) {
+        return countInactiveExecutionsInActivity(getAllChildExecutions(), activity);
+      }
+    }
+    ExecutionEntityManager executionEntityManager = Context.getCommandContext().getExecutionEntityManager();
+    if (executionEntityManager.findNestedChildExecutionCount(id) > 0) {
+      return countInactiveExecutionsInActivity(getAllChildExecutions(), activity);
+    }
+    
+    long nrOfInactiveExecutions = executionEntityManager
+      .findInactiveConcurrentExecutionCountInActivity(id, activity.getId(), cachedChildExecutionIds);
+    return nrOfInactiveExecutions + countInactiveExecutionsInActivity(dbSqlSession.pruneDeletedEntities(cachedChildExecutions), activity);
+  }
+  
+  protected long countInactiveExecutionsInActivity(List<ExecutionEntity> executions, PvmActivity activity) {
+    long nrOfInactiveExecutions = 0;
+    for (ExecutionEntity execution : executions) {
+      if (!execution.isActive() && activity.getId().equals(execution.getActivityId())) {
+        nrOfInactiveExecutions++;
+      }
+    }
+    return nrOfInactiveExecutions;
+  }
+  
   protected List<ExecutionEntity> getAllChildExecutions() {
     List<ExecutionEntity> childExecutions = new ArrayList<ExecutionEntity>();
     for (ExecutionEntity childExecution : getExecutions()) {
@@ -872,12 +959,18 @@ public class ExecutionEntity extends VariableScopeImpl implements ActivityExecut
     removeEventScopes();
     
     // remove identity links
-    removeIdentityLinks();
+    boolean transientExecutionsEnabled = isTransientExecutionsEnabled();
+    if (!transientExecutionsEnabled || identityLinks == null || !identityLinks.isEmpty()) {
+      removeIdentityLinks();
+    }
 
-    // finally delete this execution
-    Context.getCommandContext()
-      .getDbSqlSession()
-      .delete(this);
+    // finally delete this execution: an execution that was created in this command is dropped before the flush
+    DbSqlSession dbSqlSession = Context.getCommandContext().getDbSqlSession();
+    if (transientExecutionsEnabled) {
+      dbSqlSession.deleteOrCancelInsert(this);
+    } else {
+      dbSqlSession.delete(this);
+    }
   }
 
   public void destroyScope(String reason) {
@@ -1036,6 +1129,14 @@ public class ExecutionEntity extends VariableScopeImpl implements ActivityExecut
       .findVariableInstancesByExecutionId(id);
   }
 
+  @Override
+  protected List<VariableInstanceEntity> loadVariableInstances(Collection<String> variableNames) {
+    return Context
+      .getCommandContext()
+      .getVariableInstanceEntityManager()
+      .findVariableInstancesByExecutionIds(Collections.singleton(id), variableNames);
+  }
+
   @Override
   protected VariableScopeImpl getParentVariableScope() {
     return getParent();
@@ -1125,6 +1226,10 @@ public class ExecutionEntity extends VariableScopeImpl implements ActivityExecut
       .getCommandContext()
       .getDbSqlSession()
       .insert(this);
+    
+    if (isTransientExecutionsEnabled()) {
+      initializeTransientReferences();
+    }
   }
   
   public void deleteCascade(String deleteReason) {
@@ -1282,6 +1387,14 @@ public class ExecutionEntity extends VariableScopeImpl implements ActivityExecut
     
     return identityLinks;
   }
+  
+  /**
+   * Sets the identity links of this process instance when they were fetched together with those 
+   * of other process instances, so {@link #getIdentityLinks()} doesn't query them again.
+   */
+  public void setIdentityLinks(List<IdentityLinkEntity> identityLinks) {
+    this.identityLinks = identityLinks;
+  }
 
   public IdentityLinkEntity addIdentityLink(String userId, String type) {
     IdentityLinkEntity identityLinkEntity = new IdentityLinkEntity();
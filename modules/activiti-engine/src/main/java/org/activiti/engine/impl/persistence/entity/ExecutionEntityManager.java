@@ -13,18 +13,27 @@
 
 package org.activiti.engine.impl.persistence.entity;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 
 import org.activiti.engine.ActivitiObjectNotFoundException;
 import org.activiti.engine.impl.ExecutionQueryImpl;
 import org.activiti.engine.impl.Page;
 import org.activiti.engine.impl.ProcessInstanceQueryImpl;
+import org.activiti.engine.impl.batch.ProcessInstanceMigration;
 import org.activiti.engine.impl.context.Context;
 import org.activiti.engine.impl.interceptor.CommandContext;
+import org.activiti.engine.impl.jobexecutor.ParallelMultiInstanceCompletionJobHandler;
+import org.activiti.engine.impl.jobexecutor.SendMailJobHandler;
 import org.activiti.engine.impl.persistence.AbstractManager;
+import org.activiti.engine.management.ActivityStatistics;
 import org.activiti.engine.runtime.Execution;
 import org.activiti.engine.runtime.ProcessInstance;
 
@@ -34,6 +43,10 @@ import org.activiti.engine.runtime.ProcessInstance;
  */
 public class ExecutionEntityManager extends AbstractManager {
   
+  /** collects the parallel multi-instance activities of this command context whose completion is checked again on commit */
+  /** the ids of the parent executions for which a parallel multi-instance completion check was scheduled */
+  protected Set<String> parallelMultiInstanceCompletionChecks = new HashSet<String>();
+  
   @SuppressWarnings("unchecked")
   public void deleteProcessInstancesByProcessDefinition(String processDefinitionId, String deleteReason, boolean cascade) {
     List<String> processInstanceIds = getDbSqlSession()
@@ -48,6 +61,11 @@ public class ExecutionEntityManager extends AbstractManager {
         .getCommandContext()
         .getHistoricProcessInstanceEntityManager()
         .deleteHistoricProcessInstanceByProcessDefinitionId(processDefinitionId);
+      
+      Context
+        .getCommandContext()
+        .getHistoricStatisticsEntityManager()
+        .deleteHistoricStatisticsByProcessDefinitionId(processDefinitionId);
     }
   }
 
@@ -70,6 +88,11 @@ public class ExecutionEntityManager extends AbstractManager {
     // delete the execution BEFORE we delete the history, otherwise we will produce orphan HistoricVariableInstance instances
     execution.deleteCascade(deleteReason);
     
+    // mails that are not sent yet aren't linked to an execution, but are dropped with the deleted process instance
+    for (JobEntity sendMailJob : commandContext.getJobEntityManager().findJobsByProcessInstanceIdAndHandlerType(processInstanceId, SendMailJobHandler.TYPE)) {
+      sendMailJob.delete();
+    }
+    
     if (cascade) {
       commandContext
       .getHistoricProcessInstanceEntityManager()
@@ -81,11 +104,80 @@ public class ExecutionEntityManager extends AbstractManager {
     return (ExecutionEntity) getDbSqlSession().selectOne("selectSubProcessInstanceBySuperExecutionId", superExecutionId);
   }
   
+  @SuppressWarnings("unchecked")
+  public List<String> findProcessDefinitionIdsOfRunningProcessInstances() {
+    return getDbSqlSession().selectList("selectProcessDefinitionIdsOfRunningProcessInstances");
+  }
+  
   @SuppressWarnings("unchecked")
   public List<ExecutionEntity> findChildExecutionsByParentExecutionId(String parentExecutionId) {
     return getDbSqlSession().selectList("selectExecutionsByParentExecutionId", parentExecutionId);
   }
   
+  /**
+   * Counts the inactive child executions of the given parent in the given activity, 
+   * ignoring the executions with the given ids (eg. because their state in the 
+   * database isn't up to date with the state in the current command).
+   */
+  public long findInactiveConcurrentExecutionCountInActivity(String parentExecutionId, String activityId, Collection<String> excludedExecutionIds) {
+    Map<String, Object> parameters = new HashMap<String, Object>();
+    parameters.put("parentExecutionId", parentExecutionId);
+    parameters.put("activityId", activityId);
+    parameters.put("isActive", Boolean.FALSE);
+    parameters.put("excludedExecutionIds", excludedExecutionIds);
+    return (Long) getDbSqlSession().selectOne("selectInactiveConcurrentExecutionCountInActivity", parameters);
+  }
+  
+  /**
+   * Counts the executions that are a child of a child execution of the given execution.
+   */
+  public long findNestedChildExecutionCount(String parentExecutionId) {
+    return (Long) getDbSqlSession().selectOne("selectNestedChildExecutionCount", parentExecutionId);
+  }
+  
+  /**
+   * Creates a job, in the current transaction, that checks again whether all instances of the 
+   * parallel multi-instance activity of the given completed instance are completed. 
+   * At most one job is created per parent execution of the instances and transaction.
+   */
+  public void scheduleParallelMultiInstanceCompletionCheck(ExecutionEntity completedExecution, String activityId) {
+    if (parallelMultiInstanceCompletionChecks.add(completedExecution.getParentId())) {
+      ParallelMultiInstanceCompletionJobHandler.schedule(completedExecution, activityId);
+    }
+  }
+  
+  /**
+   * Counts the executions, open tasks and failed jobs per activity of the given process 
+   * definition with one grouped query each, merging the results by activity id.
+   */
+  @SuppressWarnings("unchecked")
+  public List<ActivityStatistics> findActivityStatisticsByProcessDefinitionId(String processDefinitionId) {
+    Map<String, Object> parameters = new HashMap<String, Object>();
+    parameters.put("processDefinitionId", processDefinitionId);
+    parameters.put("isActive", true);
+    
+    Map<String, ActivityStatistics> statisticsPerActivity = new TreeMap<String, ActivityStatistics>();
+    for (ActivityStatistics executionCount : (List<ActivityStatistics>) getDbSqlSession().selectList("selectActivityExecutionCounts", parameters)) {
+      getActivityStatistics(statisticsPerActivity, executionCount.getActivityId()).setExecutionCount(executionCount.getExecutionCount());
+    }
+    for (ActivityStatistics openTaskCount : (List<ActivityStatistics>) getDbSqlSession().selectList("selectActivityOpenTaskCounts", parameters)) {
+      getActivityStatistics(statisticsPerActivity, openTaskCount.getActivityId()).setOpenTaskCount(openTaskCount.getOpenTaskCount());
+    }
+    for (ActivityStatistics failedJobCount : (List<ActivityStatistics>) getDbSqlSession().selectList("selectActivityFailedJobCounts", parameters)) {
+      getActivityStatistics(statisticsPerActivity, failedJobCount.getActivityId()).setFailedJobCount(failedJobCount.getFailedJobCount());
+    }
+    return new ArrayList<ActivityStatistics>(statisticsPerActivity.values());
+  }
+  
+  protected ActivityStatistics getActivityStatistics(Map<String, ActivityStatistics> statisticsPerActivity, String activityId) {
+    ActivityStatistics activityStatistics = statisticsPerActivity.get(activityId);
+    if (activityStatistics == null) {
+      activityStatistics = new ActivityStatistics(activityId);
+      statisticsPerActivity.put(activityId, activityStatistics);
+    }
+    return activityStatistics;
+  }
+  
   @SuppressWarnings("unchecked")
   public List<ExecutionEntity> findChildExecutionsByProcessInstanceId(String processInstanceId) {
     return getDbSqlSession().selectList("selectExecutionsByProcessInstanceId", processInstanceId);
@@ -95,6 +187,32 @@ public class ExecutionEntityManager extends AbstractManager {
     return (ExecutionEntity) getDbSqlSession().selectById(ExecutionEntity.class, executionId);
   }
   
+  @SuppressWarnings("unchecked")
+  public List<ExecutionEntity> findExecutionsByIds(Collection<String> executionIds) {
+    return getDbSqlSession().selectListInChunks("selectExecutionsByIds", executionIds);
+  }
+  
+  /**
+   * The given executions together with all their parent executions, mapped by id.
+   * One query is done per level in the execution tree instead of one per execution.
+   */
+  public Map<String, ExecutionEntity> findExecutionsWithParentsByIds(Collection<String> executionIds) {
+    Map<String, ExecutionEntity> executions = new HashMap<String, ExecutionEntity>();
+    Set<String> executionIdsToFetch = new HashSet<String>(executionIds);
+    while (!executionIdsToFetch.isEmpty()) {
+      Set<String> parentIds = new HashSet<String>();
+      for (ExecutionEntity execution : findExecutionsByIds(executionIdsToFetch)) {
+        executions.put(execution.getId(), execution);
+        if (execution.getParentId() != null) {
+          parentIds.add(execution.getParentId());
+        }
+      }
+      parentIds.removeAll(executions.keySet());
+      executionIdsToFetch = parentIds;
+    }
+    return executions;
+  }
+  
   public long findExecutionCountByQueryCriteria(ExecutionQueryImpl executionQuery) {
     return (Long) getDbSqlSession().selectOne("selectExecutionCountByQueryCriteria", executionQuery);
   }
@@ -169,11 +287,78 @@ public class ExecutionEntityManager extends AbstractManager {
     return (Long) getDbSqlSession().selectOne("selectExecutionCountByNativeQuery", parameterMap);
   }
   
+  @SuppressWarnings("unchecked")
+  public List<String> findProcessInstanceIdsByProcessDefinitionIdAndSuspensionState(String processDefinitionId, 
+          SuspensionState suspensionState, int maxResults) {
+    Map<String, Object> params = new HashMap<String, Object>();
+    params.put("processDefinitionId", processDefinitionId);
+    params.put("suspensionState", suspensionState.getStateCode());
+    return getDbSqlSession().selectList("selectProcessInstanceIdsByProcessDefinitionIdAndSuspensionState", params, 0, maxResults);
+  }
+  
+  public long findProcessInstanceCountByProcessDefinitionIdAndSuspensionState(String processDefinitionId, SuspensionState suspensionState) {
+    Map<String, Object> params = new HashMap<String, Object>();
+    params.put("processDefinitionId", processDefinitionId);
+    params.put("suspensionState", suspensionState.getStateCode());
+    return (Long) getDbSqlSession().selectOne("selectProcessInstanceCountByProcessDefinitionIdAndSuspensionState", params);
+  }
+  
+  /**
+   * Changes the suspension state of all executions of the given process instances
+   * with one update statement, bypassing the entity cache.
+   */
+  public void updateExecutionSuspensionStateForProcessInstances(Collection<String> processInstanceIds, SuspensionState suspensionState) {
+    HashMap<String, Object> params = new HashMap<String, Object>();
+    params.put("processInstanceIds", processInstanceIds);
+    params.put("suspensionState", suspensionState.getStateCode());
+    getDbSqlSession().update("updateExecutionSuspensionStateForProcessInstances", params);
+  }
+  
+  /**
+   * Moves all executions of the process instances of the given migration to its target 
+   * process definition (and mapped activities) with one update statement, bypassing the entity cache.
+   */
+  public void updateExecutionProcessDefinitionForProcessInstances(ProcessInstanceMigration migration) {
+    getDbSqlSession().update("updateExecutionProcessDefinitionForProcessInstances", migration);
+  }
+  
+  @SuppressWarnings("unchecked")
+  public List<String> findActivityIdsForProcessInstanceMigration(ProcessInstanceMigration migration) {
+    return getDbSqlSession().selectList("selectActivityIdsForProcessInstanceMigration", migration);
+  }
+  
+  @SuppressWarnings("unchecked")
+  public List<String> findProcessInstanceIdsByProcessDefinitionId(String processDefinitionId) {
+    return getDbSqlSession().selectList("selectProcessInstanceIdsByProcessDefinitionId", processDefinitionId);
+  }
+  
   public void updateExecutionTenantIdForDeployment(String deploymentId, String newTenantId) {
   	HashMap<String, Object> params = new HashMap<String, Object>();
   	params.put("deploymentId", deploymentId);
   	params.put("tenantId", newTenantId);
   	getDbSqlSession().update("updateExecutionTenantIdForDeployment", params);
   }
+  
+  @SuppressWarnings("unchecked")
+  public List<String> findRootProcessInstanceIdsByProcessDefinitionId(String processDefinitionId, int maxResults) {
+    return getDbSqlSession().selectList("selectRootProcessInstanceIdPageByProcessDefinitionId", processDefinitionId, 0, maxResults);
+  }
+  
+  @SuppressWarnings("unchecked")
+  public List<String> findSubProcessInstanceIdsBySuperProcessInstanceIds(Collection<String> processInstanceIds) {
+    return getDbSqlSession().selectListInChunks("selectSubProcessInstanceIdsBySuperProcessInstanceIds", processInstanceIds);
+  }
+  
+  /**
+   * Deletes all executions of the given process instances with set-based statements, 
+   * bypassing the entity cache. The parent and super execution references are cleared 
+   * immediately, so the deletes that run at flush time don't depend on the order of the rows. 
+   * Everything referencing the executions must have been deleted before.
+   */
+  public void deleteExecutionsByProcessInstanceIds(List<String> processInstanceIds) {
+    getDbSqlSession().updateInChunks("updateParentAndSuperExecutionToNullByProcessInstanceIds", processInstanceIds);
+    getDbSqlSession().deleteInChunks("deleteChildExecutionsByProcessInstanceIds", processInstanceIds);
+    getDbSqlSession().deleteInChunks("deleteProcessInstancesByIds", processInstanceIds);
+  }
 
 }
@@ -20,6 +20,7 @@ import java.util.Map;
 import org.activiti.engine.history.HistoricActivityInstance;
 import org.activiti.engine.impl.HistoricActivityInstanceQueryImpl;
 import org.activiti.engine.impl.Page;
+import org.activiti.engine.impl.batch.ProcessInstanceMigration;
 import org.activiti.engine.impl.history.HistoryLevel;
 import org.activiti.engine.impl.persistence.AbstractManager;
 
@@ -64,4 +65,13 @@ public class HistoricActivityInstanceEntityManager extends AbstractManager {
   public long findHistoricActivityInstanceCountByNativeQuery(Map<String, Object> parameterMap) {
     return (Long) getDbSqlSession().selectOne("selectHistoricActivityInstanceCountByNativeQuery", parameterMap);
   }
+  
+  public void deleteHistoricActivityInstancesByProcessInstanceIds(List<String> processInstanceIds) {
+    getDbSqlSession().deleteInChunks("deleteHistoricActivityInstancesByProcessInstanceIds", processInstanceIds);
+  }
+  
+  public void updateHistoricActivityInstanceProcessDefinitionForProcessInstances(ProcessInstanceMigration migration) {
+    getDbSqlSession().update("updateHistoricActivityInstanceProcessDefinitionForProcessInstances", migration);
+  }
+
 }
@@ -70,4 +70,14 @@ public class HistoricDetailEntityManager extends AbstractManager {
   public long findHistoricDetailCountByNativeQuery(Map<String, Object> parameterMap) {
     return (Long) getDbSqlSession().selectOne("selectHistoricDetailCountByNativeQuery", parameterMap);
   }
+  
+  /**
+   * Deletes the details of the given process instances, including the byte arrays 
+   * holding their values.
+   */
+  public void deleteHistoricDetailsByProcessInstanceIds(List<String> processInstanceIds) {
+    getDbSqlSession().deleteInChunks("deleteHistoricDetailByteArraysByProcessInstanceIds", processInstanceIds);
+    getDbSqlSession().deleteInChunks("deleteHistoricDetailsByProcessInstanceIds", processInstanceIds);
+  }
+
 }
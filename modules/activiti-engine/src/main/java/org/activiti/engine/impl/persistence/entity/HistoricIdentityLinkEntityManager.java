@@ -101,4 +101,12 @@ public class HistoricIdentityLinkEntityManager extends AbstractManager {
   public void deleteHistoricIdentityLinksByProcDef(String processDefId) {
     getDbSqlSession().delete("deleteHistoricIdentityLinkByProcDef", processDefId);
   }
+  
+  /**
+   * Deletes the historic identity links of the given process instances and of their tasks.
+   */
+  public void deleteHistoricIdentityLinksByProcessInstanceIds(List<String> processInstanceIds) {
+    getDbSqlSession().deleteInChunks("deleteHistoricIdentityLinksByProcessInstanceIds", processInstanceIds);
+  }
+
 }
@@ -13,12 +13,14 @@
 
 package org.activiti.engine.impl.persistence.entity;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
 import org.activiti.engine.history.HistoricProcessInstance;
 import org.activiti.engine.impl.HistoricProcessInstanceQueryImpl;
+import org.activiti.engine.impl.batch.ProcessInstanceMigration;
 import org.activiti.engine.impl.context.Context;
 import org.activiti.engine.impl.interceptor.CommandContext;
 import org.activiti.engine.impl.persistence.AbstractManager;
@@ -145,4 +147,28 @@ public class HistoricProcessInstanceEntityManager extends AbstractManager {
   public long findHistoricProcessInstanceCountByNativeQuery(Map<String, Object> parameterMap) {
     return (Long) getDbSqlSession().selectOne("selectHistoricProcessInstanceCountByNativeQuery", parameterMap);
   }
+  
+  @SuppressWarnings("unchecked")
+  public List<String> findRootHistoricProcessInstanceIdsByProcessDefinitionId(String processDefinitionId, int maxResults) {
+    return getDbSqlSession().selectList("selectRootHistoricProcessInstanceIdPageByProcessDefinitionId", processDefinitionId, 0, maxResults);
+  }
+  
+  @SuppressWarnings("unchecked")
+  public List<HistoricProcessInstanceEntity> findHistoricProcessInstancesByIds(Collection<String> processInstanceIds) {
+    return getDbSqlSession().selectListInChunks("selectHistoricProcessInstancesByIds", processInstanceIds);
+  }
+  
+  @SuppressWarnings("unchecked")
+  public List<String> findHistoricProcessInstanceIdsBySuperProcessInstanceIds(Collection<String> processInstanceIds) {
+    return getDbSqlSession().selectListInChunks("selectHistoricProcessInstanceIdsBySuperProcessInstanceIds", processInstanceIds);
+  }
+  
+  public void deleteHistoricProcessInstancesByIds(List<String> processInstanceIds) {
+    getDbSqlSession().deleteInChunks("deleteHistoricProcessInstancesByIds", processInstanceIds);
+  }
+  
+  public void updateHistoricProcessInstanceProcessDefinitionForProcessInstances(ProcessInstanceMigration migration) {
+    getDbSqlSession().update("updateHistoricProcessInstanceProcessDefinitionForProcessInstances", migration);
+  }
+
 }
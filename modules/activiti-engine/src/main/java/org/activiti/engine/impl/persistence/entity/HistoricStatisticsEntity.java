@@ -0,0 +1,197 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.engine.impl.persistence.entity;
+
+import java.io.Serializable;
+import java.io.UnsupportedEncodingException;
+import java.util.Date;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import org.activiti.engine.ActivitiException;
+import org.activiti.engine.history.HistoricStatistics;
+
+/**
+ * A row of the historic statistics table: the number and total duration of the process 
+ * instances, activities or tasks of one type, process definition and activity that ended
+ * in a period and took a duration within a duration bucket. 
+ * 
+ * When queried, the rows of all duration buckets are folded into the histogram of one instance.
+ */
+public class HistoricStatisticsEntity implements HistoricStatistics, Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  public static final long PERIOD_LENGTH = 60L * 60L * 1000L;
+  public static final int MAX_DURATION_BUCKET = 40;
+
+  protected String id;
+  protected String processDefinitionId;
+  protected String type;
+  protected String activityId;
+  protected Date period;
+  protected int durationBucket;
+  protected long count;
+  protected long totalDuration;
+  protected SortedMap<Long, Long> durationHistogram;
+
+  public HistoricStatisticsEntity() {
+  }
+
+  public HistoricStatisticsEntity(String type, String processDefinitionId, String activityId, Date endTime, long duration) {
+    this.type = type;
+    this.processDefinitionId = processDefinitionId;
+    this.activityId = activityId;
+    this.period = new Date(endTime.getTime() - (endTime.getTime() % PERIOD_LENGTH));
+    this.durationBucket = getDurationBucket(duration);
+    this.id = createId(type, processDefinitionId, activityId, period, durationBucket);
+  }
+
+  /**
+   * The id is derived from the other key columns, so transactions updating the same
+   * statistics row agree on its id without having to look it up first.
+   */
+  protected static String createId(String type, String processDefinitionId, String activityId, Date period, int durationBucket) {
+    String key = type + "|" + processDefinitionId + "|" + activityId + "|" + period.getTime() + "|" + durationBucket;
+    try {
+      return UUID.nameUUIDFromBytes(key.getBytes("UTF-8")).toString();
+    } catch (UnsupportedEncodingException e) {
+      throw new ActivitiException("UTF-8 is not a supported encoding", e);
+    }
+  }
+
+  /**
+   * Bucket 0 holds durations below 1 second, bucket n durations from 2^(n-1) up to 2^n seconds.
+   */
+  public static int getDurationBucket(long duration) {
+    long seconds = Math.max(0, duration / 1000);
+    return Math.min(MAX_DURATION_BUCKET, 64 - Long.numberOfLeadingZeros(seconds));
+  }
+
+  /**
+   * @return the exclusive upper bound of the durations in the given bucket, in milliseconds.
+   */
+  public static long getDurationBucketUpperBound(int durationBucket) {
+    return (1L << durationBucket) * 1000L;
+  }
+
+  public void increment(long duration) {
+    count++;
+    totalDuration += duration;
+  }
+
+  public void add(HistoricStatisticsEntity other) {
+    count += other.count;
+    totalDuration += other.totalDuration;
+    if (other.count > 0) {
+      Long upperBound = getDurationBucketUpperBound(other.durationBucket);
+      Long bucketCount = getDurationHistogram().get(upperBound);
+      durationHistogram.put(upperBound, (bucketCount != null ? bucketCount : 0L) + other.count);
+    }
+  }
+
+  public boolean hasSameKey(HistoricStatisticsEntity other, boolean comparePeriods) {
+    return equal(type, other.type)
+      && equal(processDefinitionId, other.processDefinitionId)
+      && equal(activityId, other.activityId)
+      && (!comparePeriods || equal(period, other.period));
+  }
+
+  protected static boolean equal(Object a, Object b) {
+    return a == null ? b == null : a.equals(b);
+  }
+
+  public long getAverageDuration() {
+    return count > 0 ? totalDuration / count : 0L;
+  }
+
+  public SortedMap<Long, Long> getDurationHistogram() {
+    if (durationHistogram == null) {
+      durationHistogram = new TreeMap<Long, Long>();
+    }
+    return durationHistogram;
+  }
+
+  // getters and setters //////////////////////////////////////////////////////
+
+  public String getId() {
+    return id;
+  }
+
+  public void setId(String id) {
+    this.id = id;
+  }
+
+  public String getProcessDefinitionId() {
+    return processDefinitionId;
+  }
+
+  public void setProcessDefinitionId(String processDefinitionId) {
+    this.processDefinitionId = processDefinitionId;
+  }
+
+  public String getType() {
+    return type;
+  }
+
+  public void setType(String type) {
+    this.type = type;
+  }
+
+  public String getActivityId() {
+    return activityId;
+  }
+
+  public void setActivityId(String activityId) {
+    this.activityId = activityId;
+  }
+
+  public Date getPeriod() {
+    return period;
+  }
+
+  public void setPeriod(Date period) {
+    this.period = period;
+  }
+
+  public int getDurationBucket() {
+    return durationBucket;
+  }
+
+  public void setDurationBucket(int durationBucket) {
+    this.durationBucket = durationBucket;
+  }
+
+  public long getCount() {
+    return count;
+  }
+
+  public void setCount(long count) {
+    this.count = count;
+  }
+
+  public long getTotalDuration() {
+    return totalDuration;
+  }
+
+  public void setTotalDuration(long totalDuration) {
+    this.totalDuration = totalDuration;
+  }
+
+  public String toString() {
+    return "HistoricStatisticsEntity[" + type + " " + processDefinitionId + (activityId != null ? " " + activityId : "")
+      + (period != null ? " " + period : "") + " count=" + count + " totalDuration=" + totalDuration + "]";
+  }
+
+}
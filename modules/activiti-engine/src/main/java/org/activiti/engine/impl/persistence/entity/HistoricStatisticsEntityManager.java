@@ -0,0 +1,103 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.engine.impl.persistence.entity;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.activiti.engine.history.HistoricStatistics;
+import org.activiti.engine.impl.HistoricStatisticsQueryImpl;
+import org.activiti.engine.impl.cfg.TransactionState;
+import org.activiti.engine.impl.context.Context;
+import org.activiti.engine.impl.history.HistoricStatisticsUpdate;
+import org.activiti.engine.impl.interceptor.CommandContext;
+import org.activiti.engine.impl.persistence.AbstractManager;
+import org.apache.ibatis.session.SqlSession;
+
+/**
+ * Maintains the pre-aggregated {@link HistoricStatistics}.
+ * 
+ * The ended process instances, activities and tasks are aggregated in memory during the
+ * command and added to the statistics table after commit, in a separate transaction, so the 
+ * (heavily shared) statistics rows aren't locked for the duration of the process transactions.
+ */
+public class HistoricStatisticsEntityManager extends AbstractManager {
+
+  /** the statistics recorded in this command context, added to the statistics table on commit */
+  protected HistoricStatisticsUpdate historicStatisticsUpdate;
+
+  public void recordEnded(String type, String processDefinitionId, String activityId, Date endTime, Long duration) {
+    if (processDefinitionId == null || endTime == null || duration == null) {
+      // eg. standalone tasks
+      return;
+    }
+    if (historicStatisticsUpdate == null) {
+      CommandContext commandContext = Context.getCommandContext();
+      historicStatisticsUpdate = new HistoricStatisticsUpdate(commandContext.getProcessEngineConfiguration().getCommandExecutor());
+      commandContext
+        .getTransactionContext()
+        .addTransactionListener(TransactionState.COMMITTED, historicStatisticsUpdate);
+    }
+    historicStatisticsUpdate.add(new HistoricStatisticsEntity(type, processDefinitionId, activityId, endTime, duration), duration);
+  }
+
+  /**
+   * Adds the counts and durations of the given statistics to the statistics table.
+   * The rows are updated in order of their id, so concurrent updates don't deadlock.
+   */
+  public void updateHistoricStatistics(Collection<HistoricStatisticsEntity> historicStatistics) {
+    Map<String, HistoricStatisticsEntity> historicStatisticsById = new TreeMap<String, HistoricStatisticsEntity>();
+    for (HistoricStatisticsEntity historicStatisticsEntity : historicStatistics) {
+      historicStatisticsById.put(historicStatisticsEntity.getId(), historicStatisticsEntity);
+    }
+    
+    // executed right away (not on flush) as the number of updated rows decides whether to insert
+    SqlSession sqlSession = getDbSqlSession().getSqlSession();
+    for (HistoricStatisticsEntity historicStatisticsEntity : historicStatisticsById.values()) {
+      int updatedRows = sqlSession.update("updateHistoricStatistics", historicStatisticsEntity);
+      if (updatedRows == 0) {
+        sqlSession.insert("insertHistoricStatistics", historicStatisticsEntity);
+      }
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  public List<HistoricStatistics> findHistoricStatisticsByQueryCriteria(HistoricStatisticsQueryImpl query) {
+    List<HistoricStatisticsEntity> rows = getDbSqlSession().selectListWithRawParameter("selectHistoricStatisticsByQueryCriteria", query, 0, Integer.MAX_VALUE);
+
+    // the rows are ordered by key, so the duration buckets of one key are consecutive
+    List<HistoricStatistics> historicStatistics = new ArrayList<HistoricStatistics>();
+    HistoricStatisticsEntity current = null;
+    for (HistoricStatisticsEntity row : rows) {
+      if (current == null || !current.hasSameKey(row, !query.isAggregatePeriods())) {
+        current = new HistoricStatisticsEntity();
+        current.setType(row.getType());
+        current.setProcessDefinitionId(row.getProcessDefinitionId());
+        current.setActivityId(row.getActivityId());
+        current.setPeriod(row.getPeriod());
+        historicStatistics.add(current);
+      }
+      current.add(row);
+    }
+    return historicStatistics;
+  }
+
+  public void deleteHistoricStatisticsByProcessDefinitionId(String processDefinitionId) {
+    getDbSqlSession().delete("deleteHistoricStatisticsByProcessDefinitionId", processDefinitionId);
+  }
+
+}
@@ -63,7 +63,8 @@ public class HistoricTaskInstanceEntity extends HistoricScopeInstanceEntity impl
     this.description = task.getDescription();
     this.owner = task.getOwner();
     this.assignee = task.getAssignee();
-    this.startTime = ClockUtil.getCurrentTime();
+    // the create time of the task is used to find the partition of the historic task instance
+    this.startTime = task.getCreateTime() != null ? task.getCreateTime() : ClockUtil.getCurrentTime();
     this.taskDefinitionKey = task.getTaskDefinitionKey();
     
     this.setPriority(task.getPriority());
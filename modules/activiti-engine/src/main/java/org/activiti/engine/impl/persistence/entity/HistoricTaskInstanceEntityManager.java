@@ -14,12 +14,14 @@
 package org.activiti.engine.impl.persistence.entity;
 
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import org.activiti.engine.ActivitiIllegalArgumentException;
 import org.activiti.engine.history.HistoricTaskInstance;
 import org.activiti.engine.impl.HistoricTaskInstanceQueryImpl;
+import org.activiti.engine.impl.batch.ProcessInstanceMigration;
 import org.activiti.engine.impl.context.Context;
 import org.activiti.engine.impl.history.HistoryLevel;
 import org.activiti.engine.impl.interceptor.CommandContext;
@@ -101,6 +103,22 @@ public class HistoricTaskInstanceEntityManager extends AbstractManager {
     return null;
   }
   
+  /**
+   * Finds the historic task instance of a running task. The create time of the task, which is the 
+   * start time of its historic task instance, restricts the lookup to one partition when the 
+   * history is partitioned.
+   */
+  public HistoricTaskInstanceEntity findHistoricTaskInstanceByTask(TaskEntity task) {
+    HistoricTaskInstanceEntity historicTaskInstance = getDbSqlSession().findInCache(HistoricTaskInstanceEntity.class, task.getId());
+    if (historicTaskInstance == null && getHistoryManager().isHistoryEnabled()) {
+      Map<String, Object> params = new HashMap<String, Object>();
+      params.put("id", task.getId());
+      params.put("startTime", task.getCreateTime());
+      historicTaskInstance = (HistoricTaskInstanceEntity) getDbSqlSession().selectOne("selectHistoricTaskInstanceByIdAndStartTime", params);
+    }
+    return historicTaskInstance;
+  }
+  
   public void deleteHistoricTaskInstanceById(String taskId) {
     if (getHistoryManager().isHistoryEnabled()) {
       HistoricTaskInstanceEntity historicTaskInstance = findHistoricTaskInstanceById(taskId);
@@ -139,4 +157,13 @@ public class HistoricTaskInstanceEntityManager extends AbstractManager {
   public long findHistoricTaskInstanceCountByNativeQuery(Map<String, Object> parameterMap) {
     return (Long) getDbSqlSession().selectOne("selectHistoricTaskInstanceCountByNativeQuery", parameterMap);
   }
+  
+  public void deleteHistoricTaskInstancesByProcessInstanceIds(List<String> processInstanceIds) {
+    getDbSqlSession().deleteInChunks("deleteHistoricTaskInstancesByProcessInstanceIds", processInstanceIds);
+  }
+  
+  public void updateHistoricTaskInstanceProcessDefinitionForProcessInstances(ProcessInstanceMigration migration) {
+    getDbSqlSession().update("updateHistoricTaskInstanceProcessDefinitionForProcessInstances", migration);
+  }
+
 }
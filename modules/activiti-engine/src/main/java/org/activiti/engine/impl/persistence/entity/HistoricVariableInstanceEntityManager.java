@@ -85,4 +85,14 @@ public class HistoricVariableInstanceEntityManager extends AbstractManager {
   public long findHistoricVariableInstanceCountByNativeQuery(Map<String, Object> parameterMap) {
     return (Long) getDbSqlSession().selectOne("selectHistoricVariableInstanceCountByNativeQuery", parameterMap);
   }
+  
+  /**
+   * Deletes the historic variables of the given process instances, including the byte 
+   * arrays holding their values.
+   */
+  public void deleteHistoricVariableInstancesByProcessInstanceIds(List<String> processInstanceIds) {
+    getDbSqlSession().deleteInChunks("deleteHistoricVariableInstanceByteArraysByProcessInstanceIds", processInstanceIds);
+    getDbSqlSession().deleteInChunks("deleteHistoricVariableInstancesByProcessInstanceIds", processInstanceIds);
+  }
+
 }
@@ -0,0 +1,268 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.engine.impl.persistence.entity;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.activiti.engine.ActivitiException;
+import org.activiti.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.activiti.engine.impl.db.DbSqlSessionFactory;
+import org.activiti.engine.impl.persistence.AbstractManager;
+import org.activiti.engine.impl.util.ClockUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Creates and drops the monthly partitions of the history tables, when these are created partitioned
+ * (see {@link ProcessEngineConfigurationImpl#isDbHistoryPartitioned()}).
+ * 
+ * Every partitioned table has a partition per month, named after the table and the month 
+ * (eg. ACT_HI_ACTINST_P201410), holding the rows that started (or were created) in that month. 
+ * The rows after the last monthly partition are kept in a catch-all partition (eg. ACT_HI_ACTINST_PMAX), 
+ * which is never dropped. The history tables that aren't partitioned (comments, attachments and 
+ * identity links) and the byte arrays of variables and details are deleted together with the 
+ * partition of the process instances, tasks, variables or details they belong to.
+ */
+public class HistoryPartitionManager extends AbstractManager {
+
+  private static Logger log = LoggerFactory.getLogger(HistoryPartitionManager.class);
+
+  /** The history tables that are partitioned, on their start (or creation) time */
+  public static final List<String> PARTITIONED_TABLES = Collections.unmodifiableList(Arrays.asList(
+          "ACT_HI_PROCINST", "ACT_HI_ACTINST", "ACT_HI_TASKINST", "ACT_HI_VARINST", "ACT_HI_DETAIL"));
+
+  /** The column each partitioned table is partitioned on */
+  protected static final Map<String, String> PARTITION_COLUMNS = new HashMap<String, String>();
+  
+  /** The statements deleting the related history that isn't partitioned, before a partition of the table is dropped */
+  protected static final Map<String, List<String>> RELATED_HISTORY_DELETES = new HashMap<String, List<String>>();
+  
+  static {
+    PARTITION_COLUMNS.put("ACT_HI_PROCINST", "START_TIME_");
+    PARTITION_COLUMNS.put("ACT_HI_ACTINST", "START_TIME_");
+    PARTITION_COLUMNS.put("ACT_HI_TASKINST", "START_TIME_");
+    PARTITION_COLUMNS.put("ACT_HI_VARINST", "CREATE_TIME_");
+    PARTITION_COLUMNS.put("ACT_HI_DETAIL", "TIME_");
+    
+    RELATED_HISTORY_DELETES.put("ACT_HI_PROCINST", Arrays.asList("deleteHistoryPartitionProcessInstanceComments", 
+            "deleteHistoryPartitionProcessInstanceIdentityLinks", "deleteHistoryPartitionProcessInstanceAttachmentContents",
+            "deleteHistoryPartitionProcessInstanceAttachments"));
+    RELATED_HISTORY_DELETES.put("ACT_HI_TASKINST", Arrays.asList("deleteHistoryPartitionTaskComments", 
+            "deleteHistoryPartitionTaskIdentityLinks", "deleteHistoryPartitionTaskAttachmentContents",
+            "deleteHistoryPartitionTaskAttachments"));
+    RELATED_HISTORY_DELETES.put("ACT_HI_VARINST", Collections.singletonList("deleteHistoryPartitionByteArrays"));
+    RELATED_HISTORY_DELETES.put("ACT_HI_DETAIL", Collections.singletonList("deleteHistoryPartitionByteArrays"));
+  }
+
+  protected static final List<String> SUPPORTED_DATABASE_TYPES = Arrays.asList("postgres", "oracle", "mysql");
+
+  protected static final String PARTITION_SUFFIX = "_P";
+  protected static final String CATCH_ALL_PARTITION_SUFFIX = "_PMAX";
+  protected static final String PARTITION_MONTH_FORMAT = "yyyyMM";
+  protected static final String PARTITION_BOUND_FORMAT = "yyyy-MM-dd HH:mm:ss";
+
+  public static boolean isSupportedDatabaseType(String databaseType) {
+    return SUPPORTED_DATABASE_TYPES.contains(databaseType);
+  }
+
+  /**
+   * Creates the missing monthly partitions of all partitioned history tables, after the last 
+   * existing monthly partition (or from the current month on) up to and including the month of the given date.
+   * 
+   * On PostgreSQL, no partition is created for a month before the current one: the rows of a month 
+   * without partition are kept in the default partition, and a partition can't be created for the 
+   * rows the default partition already holds.
+   * 
+   * @return the number of partitions that were created.
+   */
+  public int createHistoryPartitions(Date until) {
+    Date lastMonth = getMonthStart(until);
+    Date currentMonth = getMonthStart(ClockUtil.getCurrentTime());
+    boolean postgres = "postgres".equals(getDbSqlSession().getDbSqlSessionFactory().getDatabaseType());
+    int createdPartitions = 0;
+    for (String table : PARTITIONED_TABLES) {
+      List<Date> months = findHistoryPartitionMonths(table);
+      Date month = months.isEmpty() ? currentMonth : addMonths(months.get(months.size() - 1), 1);
+      if (postgres && month.before(currentMonth)) {
+        month = currentMonth;
+      }
+      while (!month.after(lastMonth)) {
+        log.info("creating history partition for {} starting at {}", table, month);
+        getDbSqlSession().update("createHistoryPartition", createPartitionParameters(table, month));
+        createdPartitions++;
+        month = addMonths(month, 1);
+      }
+    }
+    return createdPartitions;
+  }
+
+  /**
+   * Drops the monthly partitions of all partitioned history tables that only hold history of 
+   * process instances and tasks that ended before the given date. 
+   * 
+   * The same bound, the start of a month, is used for every table: all partitions of the months 
+   * before the bound are dropped. The rows in these partitions belong to process instances and tasks 
+   * that started before the bound, so the bound is moved back until all of those also ended before it 
+   * (see {@link #findHistoryPartitionDropBound(Date)}): the activity instances, tasks, variables and 
+   * details of a process instance are then dropped together with it, and never outlive it. The comments, 
+   * attachments (with their content) and identity links of the process instances and tasks and the byte 
+   * arrays of the variables and details in a partition are deleted before it is dropped.
+   * 
+   * @return the number of partitions that were dropped.
+   */
+  public int dropHistoryPartitions(Date before) {
+    Date bound = findHistoryPartitionDropBound(before);
+    boolean postgres = "postgres".equals(getDbSqlSession().getDbSqlSessionFactory().getDatabaseType());
+    
+    int droppedPartitions = 0;
+    for (String table : PARTITIONED_TABLES) {
+      boolean oldestPartition = true;
+      for (Date month : findHistoryPartitionMonths(table)) {
+        if (addMonths(month, 1).after(bound)) {
+          break;
+        }
+        Map<String, String> parameters = createPartitionParameters(table, month);
+        // on Oracle and MySQL, the oldest monthly partition also holds the rows before its month
+        if (oldestPartition && !postgres) {
+          parameters.remove("lowerBound");
+        }
+        deleteRelatedHistory(table, parameters);
+        log.info("dropping history partition for {} starting at {}", table, month);
+        getDbSqlSession().update("dropHistoryPartition", parameters);
+        droppedPartitions++;
+        oldestPartition = false;
+      }
+    }
+    return droppedPartitions;
+  }
+
+  /**
+   * Returns the start of the latest month, not after the given date, before which all process 
+   * instances and tasks that started also ended. 
+   * 
+   * A process instance or task that ended after the bound (or didn't end) has rows in the partitions 
+   * of the months from its start on, up to its end, so the bound is moved back to the month of its 
+   * start. Other process instances and tasks of that month can in turn have ended after the new bound, 
+   * so this is repeated until no process instance or task started before the bound without ending before it.
+   */
+  protected Date findHistoryPartitionDropBound(Date before) {
+    Date bound = getMonthStart(before);
+    Date oldestNotEndedStartTime = (Date) getDbSqlSession().selectOne("selectOldestHistoryStartTimeNotEndedBefore", bound);
+    while (oldestNotEndedStartTime != null && oldestNotEndedStartTime.before(bound)) {
+      bound = getMonthStart(oldestNotEndedStartTime);
+      oldestNotEndedStartTime = (Date) getDbSqlSession().selectOne("selectOldestHistoryStartTimeNotEndedBefore", bound);
+    }
+    return bound;
+  }
+
+  /**
+   * Deletes the history that isn't partitioned and belongs to the rows of the given partition.
+   */
+  protected void deleteRelatedHistory(String table, Map<String, String> partitionParameters) {
+    List<String> statements = RELATED_HISTORY_DELETES.get(table);
+    if (statements != null) {
+      for (String statement : statements) {
+        getDbSqlSession().update(statement, partitionParameters);
+      }
+    }
+  }
+
+  /**
+   * Returns the first day of the months for which the given history table has a partition, 
+   * in chronological order.
+   */
+  @SuppressWarnings("unchecked")
+  public List<Date> findHistoryPartitionMonths(String table) {
+    DbSqlSessionFactory dbSqlSessionFactory = getDbSqlSession().getDbSqlSessionFactory();
+    String statement = dbSqlSessionFactory.mapStatement("selectHistoryPartitionNames");
+    
+    Map<String, String> parameters = new HashMap<String, String>();
+    String tableName = dbSqlSessionFactory.getDatabaseTablePrefix() + table;
+    String schema = dbSqlSessionFactory.getDatabaseSchema();
+    int schemaSeparatorIndex = tableName.lastIndexOf('.');
+    if (schemaSeparatorIndex != -1) {
+      // the table prefix contains the schema
+      schema = tableName.substring(0, schemaSeparatorIndex);
+      tableName = tableName.substring(schemaSeparatorIndex + 1);
+    }
+    parameters.put("tableName", tableName);
+    parameters.put("schema", schema);
+    List<String> partitionNames = getDbSqlSession().getSqlSession().selectList(statement, parameters);
+    
+    String partitionPrefix = table + PARTITION_SUFFIX;
+    boolean partitioned = false;
+    List<Date> months = new ArrayList<Date>();
+    for (String partitionName : partitionNames) {
+      partitionName = partitionName.toUpperCase();
+      if (partitionName.equals(table + CATCH_ALL_PARTITION_SUFFIX)) {
+        partitioned = true;
+      } else if (partitionName.startsWith(partitionPrefix)) {
+        try {
+          months.add(new SimpleDateFormat(PARTITION_MONTH_FORMAT).parse(partitionName.substring(partitionPrefix.length())));
+        } catch (ParseException e) {
+          // not one of the monthly partitions
+        }
+      }
+    }
+    
+    if (!partitioned) {
+      throw new ActivitiException("Table " + table + " is not partitioned: the history tables must be created with history partitioning enabled");
+    }
+    Collections.sort(months);
+    return months;
+  }
+
+  protected Map<String, String> createPartitionParameters(String table, Date month) {
+    String databaseTablePrefix = getDbSqlSession().getDbSqlSessionFactory().getDatabaseTablePrefix();
+    String partition = table + PARTITION_SUFFIX + new SimpleDateFormat(PARTITION_MONTH_FORMAT).format(month);
+    SimpleDateFormat boundFormat = new SimpleDateFormat(PARTITION_BOUND_FORMAT);
+    
+    Map<String, String> parameters = new HashMap<String, String>();
+    parameters.put("table", databaseTablePrefix + table);
+    parameters.put("partition", partition);
+    parameters.put("partitionTable", databaseTablePrefix + partition);
+    parameters.put("catchAllPartition", table + CATCH_ALL_PARTITION_SUFFIX);
+    parameters.put("lowerBound", boundFormat.format(month));
+    parameters.put("upperBound", boundFormat.format(addMonths(month, 1)));
+    parameters.put("partitionColumn", PARTITION_COLUMNS.get(table));
+    return parameters;
+  }
+
+  protected Date getMonthStart(Date date) {
+    Calendar calendar = Calendar.getInstance();
+    calendar.setTime(date);
+    calendar.set(Calendar.DAY_OF_MONTH, 1);
+    calendar.set(Calendar.HOUR_OF_DAY, 0);
+    calendar.set(Calendar.MINUTE, 0);
+    calendar.set(Calendar.SECOND, 0);
+    calendar.set(Calendar.MILLISECOND, 0);
+    return calendar.getTime();
+  }
+
+  protected Date addMonths(Date date, int months) {
+    Calendar calendar = Calendar.getInstance();
+    calendar.setTime(date);
+    calendar.add(Calendar.MONTH, months);
+    return calendar.getTime();
+  }
+
+}
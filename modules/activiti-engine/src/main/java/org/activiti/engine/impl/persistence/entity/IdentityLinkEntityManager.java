@@ -13,6 +13,7 @@
 
 package org.activiti.engine.impl.persistence.entity;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -51,6 +52,16 @@ public class IdentityLinkEntityManager extends AbstractManager {
     return getDbSqlSession().selectList("selectIdentityLinksByProcessInstance", processInstanceId);
   }
   
+  @SuppressWarnings("unchecked")
+  public List<IdentityLinkEntity> findIdentityLinksByTaskIds(Collection<String> taskIds) {
+    return getDbSqlSession().selectListInChunks("selectIdentityLinksByTasks", taskIds);
+  }
+  
+  @SuppressWarnings("unchecked")
+  public List<IdentityLinkEntity> findIdentityLinksByProcessInstanceIds(Collection<String> processInstanceIds) {
+    return getDbSqlSession().selectListInChunks("selectIdentityLinksByProcessInstances", processInstanceIds);
+  }
+  
   @SuppressWarnings("unchecked")
   public List<IdentityLinkEntity> findIdentityLinksByProcessDefinitionId(String processDefinitionId) {
     return getDbSqlSession().selectList("selectIdentityLinksByProcessDefinition", processDefinitionId);
@@ -119,5 +130,12 @@ public class IdentityLinkEntityManager extends AbstractManager {
   public void deleteIdentityLinksByProcDef(String processDefId) {
     getDbSqlSession().delete("deleteIdentityLinkByProcDef", processDefId);
   }
+  
+  /**
+   * Deletes the identity links of the given process instances and of their tasks.
+   */
+  public void deleteIdentityLinksByProcessInstanceIds(List<String> processInstanceIds) {
+    getDbSqlSession().deleteInChunks("deleteIdentityLinksByProcessInstanceIds", processInstanceIds);
+  }
 
 }
@@ -27,6 +27,7 @@ import org.activiti.engine.impl.db.HasRevision;
 import org.activiti.engine.impl.db.PersistentObject;
 import org.activiti.engine.impl.interceptor.CommandContext;
 import org.activiti.engine.impl.jobexecutor.JobHandler;
+import org.activiti.engine.impl.jobexecutor.SendMailJobHandler;
 import org.activiti.engine.runtime.Job;
 import org.apache.commons.lang3.StringUtils;
 
@@ -118,6 +119,11 @@ public abstract class JobEntity implements Serializable, Job, PersistentObject,
     // Also delete the job's exception byte array
     exceptionByteArrayRef.delete();
     
+    // and the content of a mail that is deleted before it's sent
+    if (SendMailJobHandler.TYPE.equals(jobHandlerType)) {
+      new ByteArrayRef(jobHandlerConfiguration).delete();
+    }
+    
     // remove link to execution
     if (executionId != null) {
       ExecutionEntity execution = Context.getCommandContext()
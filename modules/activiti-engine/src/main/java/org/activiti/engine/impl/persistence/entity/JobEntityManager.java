@@ -13,6 +13,8 @@
 
 package org.activiti.engine.impl.persistence.entity;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -21,15 +23,19 @@ import java.util.Map;
 import org.activiti.engine.ActivitiIllegalArgumentException;
 import org.activiti.engine.impl.JobQueryImpl;
 import org.activiti.engine.impl.Page;
+import org.activiti.engine.impl.batch.ProcessInstanceMigration;
 import org.activiti.engine.impl.cfg.TransactionListener;
 import org.activiti.engine.impl.cfg.TransactionState;
 import org.activiti.engine.impl.context.Context;
+import org.activiti.engine.impl.db.DbSqlSession;
 import org.activiti.engine.impl.jobexecutor.ExclusiveJobAddedNotification;
 import org.activiti.engine.impl.jobexecutor.JobExecutor;
 import org.activiti.engine.impl.jobexecutor.JobExecutorContext;
+import org.activiti.engine.impl.jobexecutor.LockedJobsAddedNotification;
 import org.activiti.engine.impl.jobexecutor.MessageAddedNotification;
 import org.activiti.engine.impl.persistence.AbstractManager;
 import org.activiti.engine.impl.util.ClockUtil;
+import org.activiti.engine.impl.util.CollectionUtil;
 import org.activiti.engine.runtime.Job;
 
 
@@ -38,6 +44,9 @@ import org.activiti.engine.runtime.Job;
  * @author Daniel Meyer
  */
 public class JobEntityManager extends AbstractManager {
+  
+  /** collects the messages of this command context that are handed to the local job executor on commit */
+  protected LockedJobsAddedNotification lockedJobsAddedNotification;
 
   public void send(MessageEntity message) {
     message.insert();
@@ -75,13 +84,27 @@ public class JobEntityManager extends AbstractManager {
       job.setLockExpirationTime(new Date(currentTime.getTime() + jobExecutor.getLockTimeInMillis()));
       job.setLockOwner(jobExecutor.getLockOwner());
       transactionListener = new ExclusiveJobAddedNotification(job.getId());      
+    } else if (job instanceof MessageEntity 
+            && jobExecutor.isActive() 
+            && jobExecutor.isOptimisticLocalExecution()) {
+      // lock job & hand it to the local job executor when the transaction is committed
+      Date currentTime = ClockUtil.getCurrentTime();
+      job.setLockExpirationTime(new Date(currentTime.getTime() + jobExecutor.getLockTimeInMillis()));
+      job.setLockOwner(jobExecutor.getLockOwner());
+      if (lockedJobsAddedNotification == null) {
+        lockedJobsAddedNotification = new LockedJobsAddedNotification(jobExecutor);
+        transactionListener = lockedJobsAddedNotification;
+      }
+      lockedJobsAddedNotification.addJob(job);
     } else {
       // notify job executor:      
       transactionListener = new MessageAddedNotification(jobExecutor);
     }
-    Context.getCommandContext()
-    .getTransactionContext()
-    .addTransactionListener(TransactionState.COMMITTED, transactionListener);
+    if (transactionListener != null) {
+      Context.getCommandContext()
+      .getTransactionContext()
+      .addTransactionListener(TransactionState.COMMITTED, transactionListener);
+    }
   }
  
   public void cancelTimers(ExecutionEntity execution) {
@@ -144,6 +167,14 @@ public class JobEntityManager extends AbstractManager {
     return getDbSqlSession().selectList("selectJobsByConfiguration", params);
   }
 
+  @SuppressWarnings("unchecked")
+  public List<JobEntity> findJobsByProcessInstanceIdAndHandlerType(String processInstanceId, String jobHandlerType) {
+    Map<String, String> params = new HashMap<String, String>();
+    params.put("processInstanceId", processInstanceId);
+    params.put("handlerType", jobHandlerType);
+    return getDbSqlSession().selectList("selectJobsByProcessInstanceIdAndHandlerType", params);
+  }
+
   public long findJobCountByQueryCriteria(JobQueryImpl jobQuery) {
     return (Long) getDbSqlSession().selectOne("selectJobCountByQueryCriteria", jobQuery);
   }
@@ -154,5 +185,39 @@ public class JobEntityManager extends AbstractManager {
   	params.put("tenantId", newTenantId);
   	getDbSqlSession().update("updateJobTenantIdForDeployment", params);
   }
+  
+  public void updateJobProcessDefinitionForProcessInstances(ProcessInstanceMigration migration) {
+    getDbSqlSession().update("updateJobProcessDefinitionForProcessInstances", migration);
+  }
+  
+  @SuppressWarnings("unchecked")
+  public List<String> findJobExceptionByteArrayIdsByProcessInstanceIds(Collection<String> processInstanceIds) {
+    return getDbSqlSession().selectListInChunks("selectJobExceptionByteArrayIdsByProcessInstanceIds", processInstanceIds);
+  }
+  
+  /**
+   * The ids of the jobs that failed with an exception, like a job query with 
+   * {@link JobQueryImpl#withException()}, without loading the jobs themselves.
+   */
+  @SuppressWarnings("unchecked")
+  public List<String> findFailedJobIds() {
+    return getDbSqlSession().selectList("selectFailedJobIds");
+  }
+  
+  @SuppressWarnings("unchecked")
+  public List<String> findJobHandlerConfigurationsByProcessInstanceIdsAndHandlerType(Collection<String> processInstanceIds, String jobHandlerType) {
+    List<String> configurations = new ArrayList<String>();
+    for (List<String> chunk : CollectionUtil.partition(processInstanceIds, DbSqlSession.MAX_IN_LIST_SIZE)) {
+      Map<String, Object> params = new HashMap<String, Object>();
+      params.put("processInstanceIds", chunk);
+      params.put("handlerType", jobHandlerType);
+      configurations.addAll(getDbSqlSession().selectList("selectJobHandlerConfigurationsByProcessInstanceIdsAndHandlerType", params));
+    }
+    return configurations;
+  }
+  
+  public void deleteJobsByProcessInstanceIds(List<String> processInstanceIds) {
+    getDbSqlSession().deleteInChunks("deleteJobsByProcessInstanceIds", processInstanceIds);
+  }
 
 }
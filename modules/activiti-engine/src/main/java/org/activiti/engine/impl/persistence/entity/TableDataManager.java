@@ -18,14 +18,20 @@ import org.activiti.engine.history.HistoricActivityInstance;
 import org.activiti.engine.history.HistoricDetail;
 import org.activiti.engine.history.HistoricFormProperty;
 import org.activiti.engine.history.HistoricProcessInstance;
+import org.activiti.engine.history.HistoricStatistics;
 import org.activiti.engine.history.HistoricTaskInstance;
 import org.activiti.engine.history.HistoricVariableInstance;
 import org.activiti.engine.history.HistoricVariableUpdate;
 import org.activiti.engine.identity.Group;
 import org.activiti.engine.identity.User;
 import org.activiti.engine.impl.TablePageQueryImpl;
+import org.activiti.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.activiti.engine.impl.context.Context;
+import org.activiti.engine.impl.db.DbSqlSessionFactory;
 import org.activiti.engine.impl.db.PersistentObject;
+import org.activiti.engine.impl.db.TableRowCountCache;
 import org.activiti.engine.impl.persistence.AbstractManager;
+import org.activiti.engine.management.Batch;
 import org.activiti.engine.management.TableMetaData;
 import org.activiti.engine.management.TablePage;
 import org.activiti.engine.repository.Deployment;
@@ -117,6 +123,7 @@ public class TableDataManager extends AbstractManager {
     apiTypeToTableNameMap.put(ProcessDefinition.class, "ACT_RE_PROCDEF");
     apiTypeToTableNameMap.put(Deployment.class, "ACT_RE_DEPLOYMENT");    
     apiTypeToTableNameMap.put(Job.class, "ACT_RU_JOB");
+    apiTypeToTableNameMap.put(Batch.class, "ACT_RU_BATCH");
     apiTypeToTableNameMap.put(Model.class, "ACT_RE_MODEL");
     
     // history
@@ -127,6 +134,7 @@ public class TableDataManager extends AbstractManager {
     apiTypeToTableNameMap.put(HistoricFormProperty.class, "ACT_HI_DETAIL");
     apiTypeToTableNameMap.put(HistoricTaskInstance.class, "ACT_HI_TASKINST");        
     apiTypeToTableNameMap.put(HistoricVariableInstance.class, "ACT_HI_VARINST");
+    apiTypeToTableNameMap.put(HistoricStatistics.class, "ACT_HI_STATISTIC");
 
     // identity
     apiTypeToTableNameMap.put(Group.class, "ACT_ID_GROUP");
@@ -136,10 +144,18 @@ public class TableDataManager extends AbstractManager {
   }
 
   public Map<String, Long> getTableCount() {
+    return getTableCount(false);
+  }
+
+  /**
+   * @param exact when false and table row count estimates are enabled, 
+   *   the (cached) estimated row counts are returned.
+   */
+  public Map<String, Long> getTableCount(boolean exact) {
     Map<String, Long> tableCount = new HashMap<String, Long>();
     try {
       for (String tableName: getTablesPresentInDatabase()) {
-        tableCount.put(tableName, getTableCount(tableName));
+        tableCount.put(tableName, exact ? getTableCount(tableName) : getApproximateTableCount(tableName));
       }
       log.debug("Number of rows per activiti table: {}", tableCount);
     } catch (Exception e) {
@@ -188,6 +204,61 @@ public class TableDataManager extends AbstractManager {
     return count;
   }
 
+  /**
+   * Returns the cached or estimated row count of the given table when table row count
+   * estimates are enabled, or the exact row count otherwise. Falls back to counting
+   * the rows when the database doesn't provide an estimate (eg. the table was never analyzed).
+   */
+  protected long getApproximateTableCount(String tableName) {
+    ProcessEngineConfigurationImpl processEngineConfiguration = Context.getProcessEngineConfiguration();
+    if (!processEngineConfiguration.isEnableTableRowCountEstimates()) {
+      return getTableCount(tableName);
+    }
+    
+    TableRowCountCache tableRowCountCache = processEngineConfiguration.getTableRowCountCache();
+    Long count = tableRowCountCache.get(tableName);
+    if (count == null) {
+      count = getTableRowCountEstimate(tableName);
+      if (count == null) {
+        count = getTableCount(tableName);
+      }
+      tableRowCountCache.put(tableName, count);
+    }
+    return count;
+  }
+
+  /**
+   * Returns the row count estimate kept in the database catalog, or null when
+   * the database doesn't have one for the given table.
+   */
+  protected Long getTableRowCountEstimate(String tableName) {
+    DbSqlSessionFactory dbSqlSessionFactory = getDbSqlSession().getDbSqlSessionFactory();
+    String statement = dbSqlSessionFactory.mapStatement("selectTableRowCountEstimate");
+    if ("selectTableRowCountEstimate".equals(statement)) {
+      // no catalog statistics for this type of database
+      return null;
+    }
+
+    Map<String, String> parameters = new HashMap<String, String>();
+    String schema = dbSqlSessionFactory.getDatabaseSchema();
+    int schemaSeparatorIndex = tableName.lastIndexOf('.');
+    if (schemaSeparatorIndex != -1) {
+      // the table prefix contains the schema
+      schema = tableName.substring(0, schemaSeparatorIndex);
+      tableName = tableName.substring(schemaSeparatorIndex + 1);
+    }
+    parameters.put("tableName", tableName);
+    parameters.put("schema", schema);
+
+    log.debug("selecting table row count estimate for {}", tableName);
+    Long estimate = (Long) getDbSqlSession().getSqlSession().selectOne(statement, parameters);
+    if (estimate == null || estimate < 0) {
+      // table not analyzed yet
+      return null;
+    }
+    return estimate;
+  }
+
   @SuppressWarnings("unchecked")
   public TablePage getTablePage(TablePageQueryImpl tablePageQuery, int firstResult, int maxResults) {
 
@@ -198,7 +269,8 @@ public class TableDataManager extends AbstractManager {
       .selectList("selectTableData", tablePageQuery, new RowBounds(firstResult, maxResults));
 
     tablePage.setTableName(tablePageQuery.getTableName());
-    tablePage.setTotal(getTableCount(tablePageQuery.getTableName()));
+    String tableName = tablePageQuery.getTableName();
+    tablePage.setTotal(tablePageQuery.isExactTotal() ? getTableCount(tableName) : getApproximateTableCount(tableName));
     tablePage.setRows((List<Map<String,Object>>)tableData);
     tablePage.setFirstResult(firstResult);
     
@@ -274,6 +274,14 @@ public class TaskEntity extends VariableScopeImpl implements Task, DelegateTask,
       .getVariableInstanceEntityManager()
       .findVariableInstancesByTaskId(id);
   }
+
+  @Override
+  protected List<VariableInstanceEntity> loadVariableInstances(Collection<String> variableNames) {
+    return Context
+      .getCommandContext()
+      .getVariableInstanceEntityManager()
+      .findVariableInstancesByTaskIds(Collections.singleton(id), variableNames);
+  }
   
   @Override
   protected VariableInstanceEntity createVariableInstance(String variableName, Object value,
@@ -467,6 +475,15 @@ public class TaskEntity extends VariableScopeImpl implements Task, DelegateTask,
     
     return taskIdentityLinkEntities;
   }
+  
+  /**
+   * Sets the identity links of this task when they were fetched together with those of other tasks, 
+   * so {@link #getIdentityLinks()} doesn't query them again.
+   */
+  public void setIdentityLinks(List<IdentityLinkEntity> identityLinks) {
+    taskIdentityLinkEntities = identityLinks;
+    isIdentityLinksInitialized = true;
+  }
 
   @SuppressWarnings("unchecked")
   public Map<String, Object> getActivityInstanceVariables() {
@@ -13,6 +13,7 @@
 
 package org.activiti.engine.impl.persistence.entity;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -25,6 +26,7 @@ import org.activiti.engine.delegate.event.ActivitiEventType;
 import org.activiti.engine.delegate.event.impl.ActivitiEventBuilder;
 import org.activiti.engine.impl.Page;
 import org.activiti.engine.impl.TaskQueryImpl;
+import org.activiti.engine.impl.batch.ProcessInstanceMigration;
 import org.activiti.engine.impl.context.Context;
 import org.activiti.engine.impl.interceptor.CommandContext;
 import org.activiti.engine.impl.persistence.AbstractManager;
@@ -97,6 +99,11 @@ public class TaskEntityManager extends AbstractManager {
     }
     return (TaskEntity) getDbSqlSession().selectById(TaskEntity.class, id);
   }
+  
+  @SuppressWarnings("unchecked")
+  public List<TaskEntity> findTasksByIds(Collection<String> taskIds) {
+    return getDbSqlSession().selectListInChunks("selectTasksByIds", taskIds);
+  }
 
   @SuppressWarnings("unchecked")
   public List<TaskEntity> findTasksByExecutionId(String executionId) {
@@ -193,6 +200,21 @@ public class TaskEntityManager extends AbstractManager {
     }
   }
   
+  /**
+   * Changes the suspension state of all tasks of the given process instances
+   * with one update statement, bypassing the entity cache.
+   */
+  public void updateTaskSuspensionStateForProcessInstances(Collection<String> processInstanceIds, SuspensionState suspensionState) {
+    HashMap<String, Object> params = new HashMap<String, Object>();
+    params.put("processInstanceIds", processInstanceIds);
+    params.put("suspensionState", suspensionState.getStateCode());
+    getDbSqlSession().update("updateTaskSuspensionStateForProcessInstances", params);
+  }
+  
+  public void updateTaskProcessDefinitionForProcessInstances(ProcessInstanceMigration migration) {
+    getDbSqlSession().update("updateTaskProcessDefinitionForProcessInstances", migration);
+  }
+  
   public void updateTaskTenantIdForDeployment(String deploymentId, String newTenantId) {
   	HashMap<String, Object> params = new HashMap<String, Object>();
   	params.put("deploymentId", deploymentId);
@@ -200,4 +222,8 @@ public class TaskEntityManager extends AbstractManager {
   	getDbSqlSession().update("updateTaskTenantIdForDeployment", params);
   }
   
+  public void deleteTasksByProcessInstanceIds(List<String> processInstanceIds) {
+    getDbSqlSession().deleteInChunks("deleteTasksByProcessInstanceIds", processInstanceIds);
+  }
+
 }
@@ -17,6 +17,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 import org.activiti.engine.impl.context.Context;
+import org.activiti.engine.impl.db.DbSqlSession;
 import org.activiti.engine.impl.db.HasRevision;
 import org.activiti.engine.impl.db.PersistentObject;
 import org.activiti.engine.impl.variable.ValueFields;
@@ -92,10 +93,12 @@ public class VariableInstanceEntity implements ValueFields, PersistentObject, Ha
   }
 
   public void delete() {
-    Context
-      .getCommandContext()
-      .getDbSqlSession()
-      .delete(this);
+    DbSqlSession dbSqlSession = Context.getCommandContext().getDbSqlSession();
+    if (Context.getProcessEngineConfiguration().isEnableTransientExecutions()) {
+      dbSqlSession.deleteOrCancelInsert(this);
+    } else {
+      dbSqlSession.delete(this);
+    }
     
     byteArrayRef.delete();
     deleted = true; 
@@ -13,10 +13,15 @@
 
 package org.activiti.engine.impl.persistence.entity;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.activiti.engine.impl.db.DbSqlSession;
 import org.activiti.engine.impl.persistence.AbstractManager;
+import org.activiti.engine.impl.util.CollectionUtil;
 
 
 /**
@@ -34,6 +39,40 @@ public class VariableInstanceEntityManager extends AbstractManager {
     return getDbSqlSession().selectList("selectVariablesByExecutionId", executionId);
   }
 
+  /**
+   * The execution variable instances of all given executions, restricted to the given
+   * variable names if variableNames is not null. The executions are queried in chunks of
+   * {@link DbSqlSession#MAX_IN_LIST_SIZE}.
+   */
+  @SuppressWarnings("unchecked")
+  public List<VariableInstanceEntity> findVariableInstancesByExecutionIds(Collection<String> executionIds, Collection<String> variableNames) {
+    List<VariableInstanceEntity> variableInstances = new ArrayList<VariableInstanceEntity>();
+    for (List<String> chunk : CollectionUtil.partition(executionIds, DbSqlSession.MAX_IN_LIST_SIZE)) {
+      Map<String, Object> params = new HashMap<String, Object>();
+      params.put("executionIds", chunk);
+      params.put("variableNames", variableNames);
+      variableInstances.addAll(getDbSqlSession().selectList("selectVariablesByExecutionIds", params));
+    }
+    return variableInstances;
+  }
+
+  /**
+   * The task variable instances of all given tasks, restricted to the given
+   * variable names if variableNames is not null. The tasks are queried in chunks of
+   * {@link DbSqlSession#MAX_IN_LIST_SIZE}.
+   */
+  @SuppressWarnings("unchecked")
+  public List<VariableInstanceEntity> findVariableInstancesByTaskIds(Collection<String> taskIds, Collection<String> variableNames) {
+    List<VariableInstanceEntity> variableInstances = new ArrayList<VariableInstanceEntity>();
+    for (List<String> chunk : CollectionUtil.partition(taskIds, DbSqlSession.MAX_IN_LIST_SIZE)) {
+      Map<String, Object> params = new HashMap<String, Object>();
+      params.put("taskIds", chunk);
+      params.put("variableNames", variableNames);
+      variableInstances.addAll(getDbSqlSession().selectList("selectVariablesByTaskIds", params));
+    }
+    return variableInstances;
+  }
+
   public void deleteVariableInstanceByTask(TaskEntity task) {
     Map<String, VariableInstanceEntity> variableInstances = task.getVariableInstances();
     if (variableInstances!=null) {
@@ -42,4 +81,14 @@ public class VariableInstanceEntityManager extends AbstractManager {
       }
     }
   }
+  
+  @SuppressWarnings("unchecked")
+  public List<String> findVariableByteArrayIdsByProcessInstanceIds(Collection<String> processInstanceIds) {
+    return getDbSqlSession().selectListInChunks("selectVariableByteArrayIdsByProcessInstanceIds", processInstanceIds);
+  }
+  
+  public void deleteVariableInstancesByProcessInstanceIds(List<String> processInstanceIds) {
+    getDbSqlSession().deleteInChunks("deleteVariableInstancesByProcessInstanceIds", processInstanceIds);
+  }
+
 }
@@ -15,6 +15,7 @@ package org.activiti.engine.impl.persistence.entity;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -43,11 +44,16 @@ public abstract class VariableScopeImpl implements Serializable, VariableScope {
   protected Map<String, VariableInstanceEntity> variableInstances = null;
   protected List<VariableInstanceEntity> variableInstanceList = null;
   
+  /** variable instances fetched by name, without loading all variable instances of this scope.
+   * A name that was fetched but doesn't exist is mapped to null. */
+  protected Map<String, VariableInstanceEntity> usedVariablesCache = new HashMap<String, VariableInstanceEntity>();
+  
   protected ELContext cachedElContext;
 
   protected String id = null;
 
   protected abstract List<VariableInstanceEntity> loadVariableInstances();
+  protected abstract List<VariableInstanceEntity> loadVariableInstances(Collection<String> variableNames);
   protected abstract VariableScopeImpl getParentVariableScope();
   protected abstract void initializeVariableInstanceBackPointer(VariableInstanceEntity variableInstance);
 
@@ -106,6 +112,116 @@ public abstract class VariableScopeImpl implements Serializable, VariableScope {
     return null;
   }
   
+  /**
+   * Same as {@link #getVariable(String)}, but when fetchAllVariables is false, scopes of which the
+   * variables aren't loaded yet only fetch the requested variable instead of all their variables.
+   */
+  public Object getVariable(String variableName, boolean fetchAllVariables) {
+    if (fetchAllVariables) {
+      return getVariable(variableName);
+    }
+    Map<String, Object> variables = getVariables(Collections.singleton(variableName), false);
+    return variables.get(variableName);
+  }
+
+  /**
+   * Same as {@link #getVariableLocal(String)}, but when fetchAllVariables is false and the variables
+   * of this scope aren't loaded yet, only the requested variable is fetched.
+   */
+  public Object getVariableLocal(String variableName, boolean fetchAllVariables) {
+    if (fetchAllVariables) {
+      return getVariableLocal(variableName);
+    }
+    Map<String, Object> variables = getVariablesLocal(Collections.singleton(variableName), false);
+    return variables.get(variableName);
+  }
+
+  /**
+   * The values of the given variables, searched in this scope and the parent scopes.
+   * When fetchAllVariables is false, scopes of which the variables aren't loaded yet
+   * only fetch the requested variables.
+   */
+  public Map<String, Object> getVariables(Collection<String> variableNames, boolean fetchAllVariables) {
+    Map<String, Object> variables = new HashMap<String, Object>();
+    collectVariables(variableNames, fetchAllVariables, variables, false);
+    return variables;
+  }
+
+  /**
+   * The values of the given variables in this scope only. When fetchAllVariables is false
+   * and the variables of this scope aren't loaded yet, only the requested variables are fetched.
+   */
+  public Map<String, Object> getVariablesLocal(Collection<String> variableNames, boolean fetchAllVariables) {
+    Map<String, Object> variables = new HashMap<String, Object>();
+    collectVariables(variableNames, fetchAllVariables, variables, true);
+    return variables;
+  }
+
+  protected void collectVariables(Collection<String> variableNames, boolean fetchAllVariables, Map<String, Object> variables, boolean isLocal) {
+    if (fetchAllVariables) {
+      ensureVariableInstancesInitialized();
+    }
+    Map<String, VariableInstanceEntity> specificVariableInstances = getSpecificVariableInstances(variableNames);
+    List<String> variableNamesNotFound = new ArrayList<String>();
+    for (String variableName : variableNames) {
+      if (specificVariableInstances.containsKey(variableName)) {
+        variables.put(variableName, specificVariableInstances.get(variableName).getValue());
+      } else {
+        variableNamesNotFound.add(variableName);
+      }
+    }
+    
+    if (!isLocal && !variableNamesNotFound.isEmpty()) {
+      VariableScopeImpl parentScope = getParentVariableScope();
+      if (parentScope!=null) {
+        parentScope.collectVariables(variableNamesNotFound, fetchAllVariables, variables, false);
+      }
+    }
+  }
+
+  /**
+   * The variable instances of this scope for the given names. If the variable instances aren't
+   * loaded yet, only the names that weren't fetched before are fetched.
+   */
+  protected Map<String, VariableInstanceEntity> getSpecificVariableInstances(Collection<String> variableNames) {
+    Map<String, VariableInstanceEntity> specificVariableInstances = new HashMap<String, VariableInstanceEntity>();
+    if (variableInstances!=null) {
+      for (String variableName : variableNames) {
+        VariableInstanceEntity variableInstance = variableInstances.get(variableName);
+        if (variableInstance!=null) {
+          specificVariableInstances.put(variableName, variableInstance);
+        }
+      }
+      return specificVariableInstances;
+    }
+    
+    List<String> variableNamesToFetch = new ArrayList<String>();
+    for (String variableName : variableNames) {
+      if (!usedVariablesCache.containsKey(variableName)) {
+        variableNamesToFetch.add(variableName);
+      }
+    }
+    if (!variableNamesToFetch.isEmpty()) {
+      if (Context.getCommandContext() == null) {
+        throw new ActivitiException("lazy loading outside command context");
+      }
+      for (String variableName : variableNamesToFetch) {
+        usedVariablesCache.put(variableName, null);
+      }
+      for (VariableInstanceEntity variableInstance : loadVariableInstances(variableNamesToFetch)) {
+        usedVariablesCache.put(variableInstance.getName(), variableInstance);
+      }
+    }
+    
+    for (String variableName : variableNames) {
+      VariableInstanceEntity variableInstance = usedVariablesCache.get(variableName);
+      if (variableInstance!=null) {
+        specificVariableInstances.put(variableName, variableInstance);
+      }
+    }
+    return specificVariableInstances;
+  }
+  
   public boolean hasVariables() {
     ensureVariableInstancesInitialized();
     if (!variableInstances.isEmpty()) {
@@ -12,7 +12,10 @@
  */
 package org.activiti.engine.impl.util;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.activiti.engine.ActivitiIllegalArgumentException;
@@ -60,4 +63,17 @@ public class CollectionUtil {
     return map;
   }
   
+  /**
+   * Splits the given collection into consecutive lists of at most the given size,
+   * eg. to bind large id collections in several statements.
+   */
+  public static <T> List<List<T>> partition(Collection<T> collection, int size) {
+    List<T> list = new ArrayList<T>(collection);
+    List<List<T>> partitions = new ArrayList<List<T>>();
+    for (int from = 0; from < list.size(); from += size) {
+      partitions.add(new ArrayList<T>(list.subList(from, Math.min(from + size, list.size()))));
+    }
+    return partitions;
+  }
+  
 }
@@ -0,0 +1,91 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.engine.management;
+
+import java.io.Serializable;
+
+
+/**
+ * Number of executions, open tasks and failed jobs in one activity
+ * of a process definition, over all of its running process instances.
+ */
+public class ActivityStatistics implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  protected String activityId;
+  
+  /**
+   * The number of executions (tokens) in the activity: the active executions and 
+   * the inactive executions without child executions, which are waiting in a 
+   * joining gateway. Inactive executions with child executions (eg. the scope of 
+   * a running subprocess) aren't counted.
+   */
+  protected long executionCount;
+  
+  /**
+   * The number of tasks created by the activity that are not completed yet.
+   */
+  protected long openTaskCount;
+  
+  /**
+   * The number of jobs of the activity without retries left.
+   */
+  protected long failedJobCount;
+  
+  public ActivityStatistics() {
+    
+  }
+  
+  public ActivityStatistics(String activityId) {
+    this.activityId = activityId;
+  }
+  
+  public String getActivityId() {
+    return activityId;
+  }
+  
+  public void setActivityId(String activityId) {
+    this.activityId = activityId;
+  }
+  
+  public long getExecutionCount() {
+    return executionCount;
+  }
+  
+  public void setExecutionCount(long executionCount) {
+    this.executionCount = executionCount;
+  }
+  
+  public long getOpenTaskCount() {
+    return openTaskCount;
+  }
+  
+  public void setOpenTaskCount(long openTaskCount) {
+    this.openTaskCount = openTaskCount;
+  }
+  
+  public long getFailedJobCount() {
+    return failedJobCount;
+  }
+  
+  public void setFailedJobCount(long failedJobCount) {
+    this.failedJobCount = failedJobCount;
+  }
+  
+  public String toString() {
+    return "ActivityStatistics[" + activityId + " executions=" + executionCount 
+      + " openTasks=" + openTaskCount + " failedJobs=" + failedJobCount + "]";
+  }
+  
+}
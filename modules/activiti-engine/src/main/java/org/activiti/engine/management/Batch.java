@@ -0,0 +1,99 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.engine.management;
+
+import java.util.Date;
+
+import org.activiti.engine.ManagementService;
+
+/**
+ * A long-running administrative operation (e.g. deleting or migrating many process instances)
+ * that is split into chunks of items, which are processed in parallel by the job executors.
+ * 
+ * A seed job creates one worker job per chunk, the worker jobs process the items of their chunk
+ * and a monitor job marks the batch as completed once all items have been processed. 
+ * Use {@link ManagementService#getBatch(String)} to follow the progress.
+ */
+public interface Batch {
+  
+  String TYPE_SET_PROCESS_DEFINITION_VERSION = "set-process-definition-version";
+  String TYPE_DELETE_PROCESS_INSTANCES = "delete-process-instances";
+  String TYPE_SET_JOB_RETRIES = "set-job-retries";
+  String TYPE_MIGRATE_PROCESS_INSTANCES = "migrate-process-instances";
+  
+  /**
+   * Progress of the asynchronous suspension or activation of the process instances of the process 
+   * definition whose id is the configuration. The process instances are changed by a chain of jobs
+   * instead of seed and worker jobs, and the batch ends early when the process definition's state changes again.
+   */
+  String TYPE_CHANGE_PROCESS_INSTANCE_SUSPENSION_STATE = "change-process-instance-suspension-state";
+
+  /**
+   * Returns the unique identifier of this batch.
+   */
+  String getId();
+  
+  /**
+   * Returns the type of operation executed for every item, e.g. {@link #TYPE_DELETE_PROCESS_INSTANCES}.
+   */
+  String getType();
+  
+  /**
+   * Returns the number of items (e.g. process instances or jobs) of this batch.
+   */
+  int getTotalItems();
+  
+  /**
+   * Returns the number of items that have been processed successfully.
+   */
+  int getCompletedItems();
+  
+  /**
+   * Returns the number of items for which the operation failed. Failed items are not retried.
+   */
+  int getFailedItems();
+  
+  /**
+   * Returns the maximum number of items processed by one worker job, in one transaction.
+   */
+  int getChunkSize();
+  
+  /**
+   * Returns the id of the last item that failed, together with the exception message, 
+   * or null when no item failed.
+   */
+  String getLastFailure();
+  
+  /**
+   * Returns the time at which this batch was created.
+   */
+  Date getCreateTime();
+  
+  /**
+   * Returns the time at which the monitor job noticed that all items have been processed,
+   * or null when the batch isn't completed yet.
+   */
+  Date getEndTime();
+  
+  /**
+   * Returns true when all items have been processed, successfully or not.
+   */
+  boolean isCompleted();
+  
+  /**
+   * Returns the average number of items processed per second, from the creation of this
+   * batch until its end time, or until now when the batch isn't completed yet.
+   */
+  double getThroughput();
+
+}
@@ -36,6 +36,12 @@ public interface TablePageQuery {
    */
   TablePageQuery orderDesc(String column);
   
+  /**
+   * Counts all rows of the table for the {@link TablePage#getTotal() total}, even when
+   * table row count estimates are enabled in the process engine configuration.
+   */
+  TablePageQuery exactTotal();
+  
   /**
    * Executes the query and returns the {@link TablePage}. 
    */
@@ -0,0 +1,86 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.engine.runtime;
+
+import java.io.Serializable;
+import java.util.Map;
+
+import org.activiti.engine.RuntimeService;
+
+/**
+ * Describes one process instance to start with 
+ * {@link RuntimeService#startProcessInstances(java.util.List)}: the process definition, 
+ * by id or by key (optionally within a tenant), with an optional business key and variables.
+ */
+public class ProcessInstanceCreateRequest implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  protected String processDefinitionId;
+  protected String processDefinitionKey;
+  protected String tenantId;
+  protected String businessKey;
+  protected Map<String, Object> variables;
+
+  protected ProcessInstanceCreateRequest(String processDefinitionId, String processDefinitionKey) {
+    this.processDefinitionId = processDefinitionId;
+    this.processDefinitionKey = processDefinitionKey;
+  }
+
+  /** Starts an instance of the process definition with the given id. */
+  public static ProcessInstanceCreateRequest processDefinitionId(String processDefinitionId) {
+    return new ProcessInstanceCreateRequest(processDefinitionId, null);
+  }
+
+  /** Starts an instance of the latest version of the process definition with the given key. */
+  public static ProcessInstanceCreateRequest processDefinitionKey(String processDefinitionKey) {
+    return new ProcessInstanceCreateRequest(null, processDefinitionKey);
+  }
+
+  /** Only applies to a request by process definition key. */
+  public ProcessInstanceCreateRequest tenantId(String tenantId) {
+    this.tenantId = tenantId;
+    return this;
+  }
+
+  public ProcessInstanceCreateRequest businessKey(String businessKey) {
+    this.businessKey = businessKey;
+    return this;
+  }
+
+  public ProcessInstanceCreateRequest variables(Map<String, Object> variables) {
+    this.variables = variables;
+    return this;
+  }
+
+  public String getProcessDefinitionId() {
+    return processDefinitionId;
+  }
+
+  public String getProcessDefinitionKey() {
+    return processDefinitionKey;
+  }
+
+  public String getTenantId() {
+    return tenantId;
+  }
+
+  public String getBusinessKey() {
+    return businessKey;
+  }
+
+  public Map<String, Object> getVariables() {
+    return variables;
+  }
+
+}
@@ -0,0 +1,56 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.engine.runtime;
+
+import org.activiti.engine.RuntimeService;
+
+/**
+ * Outcome of one {@link ProcessInstanceCreateRequest} passed to 
+ * {@link RuntimeService#startProcessInstances(java.util.List)}: either the started 
+ * process instance or the exception that prevented it from being started.
+ */
+public class ProcessInstanceCreateResult {
+
+  protected ProcessInstanceCreateRequest request;
+  protected ProcessInstance processInstance;
+  protected RuntimeException exception;
+
+  public ProcessInstanceCreateResult(ProcessInstanceCreateRequest request, ProcessInstance processInstance) {
+    this.request = request;
+    this.processInstance = processInstance;
+  }
+
+  public ProcessInstanceCreateResult(ProcessInstanceCreateRequest request, RuntimeException exception) {
+    this.request = request;
+    this.exception = exception;
+  }
+
+  public ProcessInstanceCreateRequest getRequest() {
+    return request;
+  }
+
+  /** The started process instance, null if the request failed. */
+  public ProcessInstance getProcessInstance() {
+    return processInstance;
+  }
+
+  /** The reason the request failed, null if the process instance was started. */
+  public RuntimeException getException() {
+    return exception;
+  }
+
+  public boolean isSuccessful() {
+    return exception == null;
+  }
+
+}
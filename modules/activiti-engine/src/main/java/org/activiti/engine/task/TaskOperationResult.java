@@ -0,0 +1,48 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.engine.task;
+
+import org.activiti.engine.TaskService;
+
+/**
+ * Outcome for one task of a bulk operation such as {@link TaskService#completeTasks(java.util.List)}: 
+ * whether the operation succeeded on the task, and if not, the exception that prevented it.
+ */
+public class TaskOperationResult {
+
+  protected String taskId;
+  protected RuntimeException exception;
+
+  public TaskOperationResult(String taskId) {
+    this.taskId = taskId;
+  }
+
+  public TaskOperationResult(String taskId, RuntimeException exception) {
+    this.taskId = taskId;
+    this.exception = exception;
+  }
+
+  public String getTaskId() {
+    return taskId;
+  }
+
+  /** The reason the operation failed on this task, null if it succeeded. */
+  public RuntimeException getException() {
+    return exception;
+  }
+
+  public boolean isSuccessful() {
+    return exception == null;
+  }
+
+}
@@ -291,4 +291,20 @@ alter table ACT_RE_MODEL
 alter table ACT_RE_MODEL 
     add constraint ACT_FK_MODEL_DEPLOYMENT 
     foreign key (DEPLOYMENT_ID_) 
-    references ACT_RE_DEPLOYMENT (ID_);    
+    references ACT_RE_DEPLOYMENT (ID_);
+
+create table ACT_RU_BATCH (
+    ID_ varchar(64) NOT NULL,
+    REV_ integer,
+    TYPE_ varchar(255) NOT NULL,
+    TOTAL_ integer,
+    COMPLETED_ integer,
+    FAILED_ integer,
+    CHUNK_SIZE_ integer,
+    ITEMS_ID_ varchar(64),
+    CONFIGURATION_ varchar(4000),
+    LAST_FAILURE_ varchar(4000),
+    CREATE_TIME_ timestamp,
+    END_TIME_ timestamp,
+    primary key (ID_)
+);
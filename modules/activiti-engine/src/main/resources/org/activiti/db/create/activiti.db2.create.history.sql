@@ -149,4 +149,18 @@ create index ACT_IDX_HI_ACT_INST_PROCINST on ACT_HI_ACTINST(PROC_INST_ID_, ACT_I
 create index ACT_IDX_HI_ACT_INST_EXEC on ACT_HI_ACTINST(EXECUTION_ID_, ACT_ID_);
 create index ACT_IDX_HI_IDENT_LNK_USER on ACT_HI_IDENTITYLINK(USER_ID_);
 create index ACT_IDX_HI_IDENT_LNK_TASK on ACT_HI_IDENTITYLINK(TASK_ID_);
-create index ACT_IDX_HI_IDENT_LNK_PROCINST on ACT_HI_IDENTITYLINK(PROC_INST_ID_);
+create index ACT_IDX_HI_IDENT_LNK_PROCINST on ACT_HI_IDENTITYLINK(PROC_INST_ID_);
+
+create table ACT_HI_STATISTIC (
+    ID_ varchar(64) not null,
+    PROC_DEF_ID_ varchar(64) not null,
+    TYPE_ varchar(32) not null,
+    ACT_ID_ varchar(255),
+    PERIOD_ timestamp not null,
+    DURATION_BUCKET_ integer not null,
+    COUNT_ bigint not null,
+    DURATION_ bigint not null,
+    primary key (ID_)
+);
+
+create index ACT_IDX_HI_STAT_PROC_DEF on ACT_HI_STATISTIC(PROC_DEF_ID_, PERIOD_);
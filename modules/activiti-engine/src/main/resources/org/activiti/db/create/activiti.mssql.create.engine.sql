@@ -285,4 +285,20 @@ alter table ACT_RE_MODEL
 alter table ACT_RE_MODEL 
     add constraint ACT_FK_MODEL_DEPLOYMENT 
     foreign key (DEPLOYMENT_ID_) 
-    references ACT_RE_DEPLOYMENT (ID_);    
+    references ACT_RE_DEPLOYMENT (ID_);
+
+create table ACT_RU_BATCH (
+    ID_ nvarchar(64) NOT NULL,
+    REV_ int,
+    TYPE_ nvarchar(255) NOT NULL,
+    TOTAL_ int,
+    COMPLETED_ int,
+    FAILED_ int,
+    CHUNK_SIZE_ int,
+    ITEMS_ID_ nvarchar(64),
+    CONFIGURATION_ nvarchar(4000),
+    LAST_FAILURE_ nvarchar(4000),
+    CREATE_TIME_ datetime,
+    END_TIME_ datetime,
+    primary key (ID_)
+);
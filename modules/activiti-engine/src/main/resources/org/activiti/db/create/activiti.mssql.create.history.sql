@@ -147,4 +147,18 @@ create index ACT_IDX_HI_ACT_INST_PROCINST on ACT_HI_ACTINST(PROC_INST_ID_, ACT_I
 create index ACT_IDX_HI_ACT_INST_EXEC on ACT_HI_ACTINST(EXECUTION_ID_, ACT_ID_);
 create index ACT_IDX_HI_IDENT_LNK_USER on ACT_HI_IDENTITYLINK(USER_ID_);
 create index ACT_IDX_HI_IDENT_LNK_TASK on ACT_HI_IDENTITYLINK(TASK_ID_);
-create index ACT_IDX_HI_IDENT_LNK_PROCINST on ACT_HI_IDENTITYLINK(PROC_INST_ID_);
\ No newline at end of file
+create index ACT_IDX_HI_IDENT_LNK_PROCINST on ACT_HI_IDENTITYLINK(PROC_INST_ID_);
+
+create table ACT_HI_STATISTIC (
+    ID_ nvarchar(64) not null,
+    PROC_DEF_ID_ nvarchar(64) not null,
+    TYPE_ nvarchar(32) not null,
+    ACT_ID_ nvarchar(255),
+    PERIOD_ datetime not null,
+    DURATION_BUCKET_ int not null,
+    COUNT_ numeric(19,0) not null,
+    DURATION_ numeric(19,0) not null,
+    primary key (ID_)
+);
+
+create index ACT_IDX_HI_STAT_PROC_DEF on ACT_HI_STATISTIC(PROC_DEF_ID_, PERIOD_);
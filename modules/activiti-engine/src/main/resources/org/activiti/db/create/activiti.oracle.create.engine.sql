@@ -293,5 +293,20 @@ create index ACT_IDX_MODEL_DEPLOYMENT on ACT_RE_MODEL(DEPLOYMENT_ID_);
 alter table ACT_RE_MODEL 
     add constraint ACT_FK_MODEL_DEPLOYMENT 
     foreign key (DEPLOYMENT_ID_) 
-    references ACT_RE_DEPLOYMENT (ID_);        
-    
+    references ACT_RE_DEPLOYMENT (ID_);
+
+create table ACT_RU_BATCH (
+    ID_ NVARCHAR2(64) NOT NULL,
+    REV_ INTEGER,
+    TYPE_ NVARCHAR2(255) NOT NULL,
+    TOTAL_ INTEGER,
+    COMPLETED_ INTEGER,
+    FAILED_ INTEGER,
+    CHUNK_SIZE_ INTEGER,
+    ITEMS_ID_ NVARCHAR2(64),
+    CONFIGURATION_ NVARCHAR2(2000),
+    LAST_FAILURE_ NVARCHAR2(2000),
+    CREATE_TIME_ TIMESTAMP(6),
+    END_TIME_ TIMESTAMP(6),
+    primary key (ID_)
+);
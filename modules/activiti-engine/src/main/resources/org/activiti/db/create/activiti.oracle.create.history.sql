@@ -149,3 +149,17 @@ create index ACT_IDX_HI_IDENT_LNK_PROCINST on ACT_HI_IDENTITYLINK(PROC_INST_ID_)
 
 create index ACT_IDX_HI_ACT_INST_PROCINST on ACT_HI_ACTINST(PROC_INST_ID_, ACT_ID_);
 create index ACT_IDX_HI_ACT_INST_EXEC on ACT_HI_ACTINST(EXECUTION_ID_, ACT_ID_);
+
+create table ACT_HI_STATISTIC (
+    ID_ NVARCHAR2(64) not null,
+    PROC_DEF_ID_ NVARCHAR2(64) not null,
+    TYPE_ NVARCHAR2(32) not null,
+    ACT_ID_ NVARCHAR2(255),
+    PERIOD_ TIMESTAMP(6) not null,
+    DURATION_BUCKET_ INTEGER not null,
+    COUNT_ NUMBER(19,0) not null,
+    DURATION_ NUMBER(19,0) not null,
+    primary key (ID_)
+);
+
+create index ACT_IDX_HI_STAT_PROC_DEF on ACT_HI_STATISTIC(PROC_DEF_ID_, PERIOD_);
@@ -13,6 +13,7 @@ drop index ACT_IDX_HI_ACT_INST_PROCINST;
 drop index ACT_IDX_HI_IDENT_LNK_USER;
 drop index ACT_IDX_HI_IDENT_LNK_TASK;
 drop index ACT_IDX_HI_IDENT_LNK_PROCINST;
+drop index ACT_IDX_HI_STAT_PROC_DEF;
 
 drop table ACT_HI_PROCINST;
 drop table ACT_HI_ACTINST;
@@ -22,3 +23,4 @@ drop table ACT_HI_DETAIL;
 drop table ACT_HI_COMMENT;
 drop table ACT_HI_ATTACHMENT;
 drop table ACT_HI_IDENTITYLINK;
+drop table ACT_HI_STATISTIC;
@@ -9,6 +9,7 @@ drop table if exists ACT_RU_TASK cascade constraints;
 drop table if exists ACT_RU_IDENTITYLINK cascade constraints;
 drop table if exists ACT_RU_VARIABLE cascade constraints;
 drop table if exists ACT_RU_EVENT_SUBSCR cascade constraints;
+drop table if exists ACT_RU_BATCH cascade constraints;
 
 drop index if exists ACT_IDX_EXEC_BUSKEY;
 drop index if exists ACT_IDX_TASK_CREATE;
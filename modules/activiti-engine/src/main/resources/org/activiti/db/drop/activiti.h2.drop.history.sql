@@ -6,6 +6,7 @@ drop table if exists ACT_HI_DETAIL cascade constraints;
 drop table if exists ACT_HI_COMMENT cascade constraints;
 drop table if exists ACT_HI_ATTACHMENT cascade constraints;
 drop table if exists ACT_HI_IDENTITYLINK cascade constraints;
+drop table if exists ACT_HI_STATISTIC cascade constraints;
 
 drop index if exists ACT_IDX_HI_PRO_INST_END;
 drop index if exists ACT_IDX_HI_PRO_I_BUSKEY;
@@ -22,3 +23,4 @@ drop index if exists ACT_IDX_HI_ACT_INST_PROCINST;
 drop index if exists ACT_IDX_HI_IDENT_LNK_USER;
 drop index if exists ACT_IDX_HI_IDENT_LNK_TASK;
 drop index if exists ACT_IDX_HI_IDENT_LNK_PROCINST;
+drop index if exists ACT_IDX_HI_STAT_PROC_DEF;
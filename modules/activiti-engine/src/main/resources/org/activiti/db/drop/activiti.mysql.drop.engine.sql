@@ -71,4 +71,5 @@ drop table if exists ACT_RU_TASK;
 drop table if exists ACT_RE_PROCDEF;
 drop table if exists ACT_RU_EXECUTION;
 drop table if exists ACT_RU_JOB; 
-drop table if exists ACT_RU_EVENT_SUBSCR;
\ No newline at end of file
+drop table if exists ACT_RU_EVENT_SUBSCR;
+drop table if exists ACT_RU_BATCH;
\ No newline at end of file
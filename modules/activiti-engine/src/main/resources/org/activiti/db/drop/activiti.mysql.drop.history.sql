@@ -13,6 +13,7 @@ drop index ACT_IDX_HI_ACT_INST_PROCINST on ACT_HI_ACTINST;
 drop index ACT_IDX_HI_IDENT_LNK_USER on ACT_HI_IDENTITYLINK;
 drop index ACT_IDX_HI_IDENT_LNK_TASK on ACT_HI_IDENTITYLINK;
 drop index ACT_IDX_HI_IDENT_LNK_PROCINST on ACT_HI_IDENTITYLINK;
+drop index ACT_IDX_HI_STAT_PROC_DEF on ACT_HI_STATISTIC;
 
 drop table if exists ACT_HI_PROCINST;
 drop table if exists ACT_HI_ACTINST;
@@ -22,4 +23,5 @@ drop table if exists ACT_HI_DETAIL;
 drop table if exists ACT_HI_COMMENT;
 drop table if exists ACT_HI_ATTACHMENT;
 drop table if exists ACT_HI_IDENTITYLINK;
- 
\ No newline at end of file
+drop table if exists ACT_HI_STATISTIC;
+ 
@@ -92,3 +92,4 @@ drop table  ACT_RU_TASK;
 drop table  ACT_RU_EXECUTION;
 drop table  ACT_RU_JOB;
 drop table  ACT_RU_EVENT_SUBSCR;
+drop table  ACT_RU_BATCH;
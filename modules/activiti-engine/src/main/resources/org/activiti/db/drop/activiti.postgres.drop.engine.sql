@@ -9,3 +9,4 @@ drop table if exists ACT_RU_TASK cascade;
 drop table if exists ACT_RU_IDENTITYLINK cascade;
 drop table if exists ACT_RU_VARIABLE cascade;
 drop table if exists ACT_RU_EVENT_SUBSCR cascade;
+drop table if exists ACT_RU_BATCH cascade;
@@ -51,4 +51,20 @@ alter table ACT_RE_PROCDEF
     
 Call Sysproc.admin_cmd ('REORG TABLE ACT_RE_PROCDEF');
 
+create table ACT_RU_BATCH (
+    ID_ varchar(64) NOT NULL,
+    REV_ integer,
+    TYPE_ varchar(255) NOT NULL,
+    TOTAL_ integer,
+    COMPLETED_ integer,
+    FAILED_ integer,
+    CHUNK_SIZE_ integer,
+    ITEMS_ID_ varchar(64),
+    CONFIGURATION_ varchar(4000),
+    LAST_FAILURE_ varchar(4000),
+    CREATE_TIME_ timestamp,
+    END_TIME_ timestamp,
+    primary key (ID_)
+);
+
 update ACT_GE_PROPERTY set VALUE_ = '5.15-SNAPSHOT' where NAME_ = 'schema.version';
@@ -31,4 +31,18 @@ Call Sysproc.admin_cmd ('REORG TABLE ACT_HI_ACTINST');
 alter table ACT_HI_TASKINST
     add TENANT_ID_ varchar(255) default '';  
     
-Call Sysproc.admin_cmd ('REORG TABLE ACT_HI_TASKINST');        
\ No newline at end of file
+Call Sysproc.admin_cmd ('REORG TABLE ACT_HI_TASKINST');
+
+create table ACT_HI_STATISTIC (
+    ID_ varchar(64) not null,
+    PROC_DEF_ID_ varchar(64) not null,
+    TYPE_ varchar(32) not null,
+    ACT_ID_ varchar(255),
+    PERIOD_ timestamp not null,
+    DURATION_BUCKET_ integer not null,
+    COUNT_ bigint not null,
+    DURATION_ bigint not null,
+    primary key (ID_)
+);
+
+create index ACT_IDX_HI_STAT_PROC_DEF on ACT_HI_STATISTIC(PROC_DEF_ID_, PERIOD_);
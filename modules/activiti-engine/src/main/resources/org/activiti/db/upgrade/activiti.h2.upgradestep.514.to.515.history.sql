@@ -16,4 +16,18 @@ alter table ACT_HI_ACTINST
     add TENANT_ID_ varchar(255) default ''; 
     
 alter table ACT_HI_TASKINST
-    add TENANT_ID_ varchar(255) default '';           
\ No newline at end of file
+    add TENANT_ID_ varchar(255) default '';
+
+create table ACT_HI_STATISTIC (
+    ID_ varchar(64) not null,
+    PROC_DEF_ID_ varchar(64) not null,
+    TYPE_ varchar(32) not null,
+    ACT_ID_ varchar(255),
+    PERIOD_ timestamp not null,
+    DURATION_BUCKET_ integer not null,
+    COUNT_ bigint not null,
+    DURATION_ bigint not null,
+    primary key (ID_)
+);
+
+create index ACT_IDX_HI_STAT_PROC_DEF on ACT_HI_STATISTIC(PROC_DEF_ID_, PERIOD_);
@@ -29,4 +29,20 @@ alter table ACT_RE_PROCDEF
     unique (KEY_,VERSION_, TENANT_ID_);  
     
 
+create table ACT_RU_BATCH (
+    ID_ nvarchar(64) NOT NULL,
+    REV_ int,
+    TYPE_ nvarchar(255) NOT NULL,
+    TOTAL_ int,
+    COMPLETED_ int,
+    FAILED_ int,
+    CHUNK_SIZE_ int,
+    ITEMS_ID_ nvarchar(64),
+    CONFIGURATION_ nvarchar(4000),
+    LAST_FAILURE_ nvarchar(4000),
+    CREATE_TIME_ datetime,
+    END_TIME_ datetime,
+    primary key (ID_)
+);
+
 update ACT_GE_PROPERTY set VALUE_ = '5.15-SNAPSHOT' where NAME_ = 'schema.version';
@@ -16,5 +16,18 @@ alter table ACT_HI_ACTINST
     add TENANT_ID_ nvarchar(255) default ''; 
     
 alter table ACT_HI_TASKINST
-    add TENANT_ID_ nvarchar(255) default '';       
-    
\ No newline at end of file
+    add TENANT_ID_ nvarchar(255) default '';
+
+create table ACT_HI_STATISTIC (
+    ID_ nvarchar(64) not null,
+    PROC_DEF_ID_ nvarchar(64) not null,
+    TYPE_ nvarchar(32) not null,
+    ACT_ID_ nvarchar(255),
+    PERIOD_ datetime not null,
+    DURATION_BUCKET_ int not null,
+    COUNT_ numeric(19,0) not null,
+    DURATION_ numeric(19,0) not null,
+    primary key (ID_)
+);
+
+create index ACT_IDX_HI_STAT_PROC_DEF on ACT_HI_STATISTIC(PROC_DEF_ID_, PERIOD_);
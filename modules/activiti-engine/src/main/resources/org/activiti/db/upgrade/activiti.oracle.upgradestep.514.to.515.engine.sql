@@ -28,4 +28,20 @@ alter table ACT_RE_PROCDEF
     add constraint ACT_UNIQ_PROCDEF
     unique (KEY_,VERSION_, TENANT_ID_);          
 
+create table ACT_RU_BATCH (
+    ID_ NVARCHAR2(64) NOT NULL,
+    REV_ INTEGER,
+    TYPE_ NVARCHAR2(255) NOT NULL,
+    TOTAL_ INTEGER,
+    COMPLETED_ INTEGER,
+    FAILED_ INTEGER,
+    CHUNK_SIZE_ INTEGER,
+    ITEMS_ID_ NVARCHAR2(64),
+    CONFIGURATION_ NVARCHAR2(2000),
+    LAST_FAILURE_ NVARCHAR2(2000),
+    CREATE_TIME_ TIMESTAMP(6),
+    END_TIME_ TIMESTAMP(6),
+    primary key (ID_)
+);
+
 update ACT_GE_PROPERTY set VALUE_ = '5.15-SNAPSHOT' where NAME_ = 'schema.version';
@@ -16,4 +16,18 @@ alter table ACT_HI_ACTINST
     add TENANT_ID_ NVARCHAR2(255) default ''; 
     
 alter table ACT_HI_TASKINST
-    add TENANT_ID_ NVARCHAR2(255) default '';         
\ No newline at end of file
+    add TENANT_ID_ NVARCHAR2(255) default '';
+
+create table ACT_HI_STATISTIC (
+    ID_ NVARCHAR2(64) not null,
+    PROC_DEF_ID_ NVARCHAR2(64) not null,
+    TYPE_ NVARCHAR2(32) not null,
+    ACT_ID_ NVARCHAR2(255),
+    PERIOD_ TIMESTAMP(6) not null,
+    DURATION_BUCKET_ INTEGER not null,
+    COUNT_ NUMBER(19,0) not null,
+    DURATION_ NUMBER(19,0) not null,
+    primary key (ID_)
+);
+
+create index ACT_IDX_HI_STAT_PROC_DEF on ACT_HI_STATISTIC(PROC_DEF_ID_, PERIOD_);
@@ -0,0 +1,342 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.engine.test.api.mgmt;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.activiti.engine.ActivitiException;
+import org.activiti.engine.ActivitiIllegalArgumentException;
+import org.activiti.engine.ActivitiObjectNotFoundException;
+import org.activiti.engine.impl.history.HistoryLevel;
+import org.activiti.engine.impl.interceptor.Command;
+import org.activiti.engine.impl.interceptor.CommandContext;
+import org.activiti.engine.impl.jobexecutor.BatchMonitorJobHandler;
+import org.activiti.engine.impl.jobexecutor.BatchSeedJobHandler;
+import org.activiti.engine.impl.jobexecutor.BatchWorkerJobHandler;
+import org.activiti.engine.impl.persistence.entity.JobEntity;
+import org.activiti.engine.impl.test.PluggableActivitiTestCase;
+import org.activiti.engine.management.Batch;
+import org.activiti.engine.runtime.Execution;
+import org.activiti.engine.runtime.Job;
+import org.activiti.engine.task.Task;
+import org.activiti.engine.test.Deployment;
+
+public class BatchTest extends PluggableActivitiTestCase {
+
+  @Deployment(resources = {"org/activiti/engine/test/api/oneTaskProcess.bpmn20.xml"})
+  public void testDeleteProcessInstancesInBatch() {
+    int chunkSize = processEngineConfiguration.getBatchChunkSize();
+    int jobsPerSeed = processEngineConfiguration.getBatchJobsPerSeed();
+    processEngineConfiguration.setBatchChunkSize(2);
+    processEngineConfiguration.setBatchJobsPerSeed(2);
+    try {
+      List<String> processInstanceIds = new ArrayList<String>();
+      for (int i = 0; i < 7; i++) {
+        processInstanceIds.add(runtimeService.startProcessInstanceByKey("oneTaskProcess").getId());
+      }
+      
+      Batch batch = managementService.deleteProcessInstancesInBatch(processInstanceIds, "cleanup");
+      assertEquals(Batch.TYPE_DELETE_PROCESS_INSTANCES, batch.getType());
+      assertEquals(7, batch.getTotalItems());
+      assertEquals(2, batch.getChunkSize());
+      assertFalse(batch.isCompleted());
+      // nothing is deleted in the calling transaction
+      assertEquals(7, runtimeService.createProcessInstanceQuery().count());
+      
+      waitForJobExecutorToProcessAllJobs(10000L, 100L);
+      assertEquals(0, runtimeService.createProcessInstanceQuery().count());
+      
+      batch = managementService.getBatch(batch.getId());
+      assertEquals(7, batch.getCompletedItems());
+      assertEquals(0, batch.getFailedItems());
+      assertNull(batch.getLastFailure());
+      // only the monitor sets the end time
+      assertFalse(batch.isCompleted());
+      
+      managementService.executeJob(findMonitorJob(batch).getId());
+      batch = managementService.getBatch(batch.getId());
+      assertTrue(batch.isCompleted());
+      assertNotNull(batch.getEndTime());
+      assertTrue(batch.getThroughput() > 0);
+      assertNull(findMonitorJob(batch));
+      assertEquals(0, managementService.createJobQuery().count());
+      
+      managementService.deleteBatch(batch.getId());
+      assertNull(managementService.getBatch(batch.getId()));
+    } finally {
+      processEngineConfiguration.setBatchChunkSize(chunkSize);
+      processEngineConfiguration.setBatchJobsPerSeed(jobsPerSeed);
+    }
+  }
+  
+  @Deployment(resources = {"org/activiti/engine/test/api/mgmt/timerOnTask.bpmn20.xml"})
+  public void testSetJobRetriesInBatchWithFailingItem() {
+    List<String> jobIds = new ArrayList<String>();
+    for (int i = 0; i < 3; i++) {
+      String processInstanceId = runtimeService.startProcessInstanceByKey("timerOnTask").getId();
+      jobIds.add(managementService.createJobQuery().processInstanceId(processInstanceId).singleResult().getId());
+    }
+    jobIds.add(1, "unexistingJob");
+    
+    Batch batch = managementService.setJobRetriesInBatch(jobIds, 7);
+    assertEquals(4, batch.getTotalItems());
+    
+    waitForJobExecutorToProcessAllJobs(10000L, 100L);
+    
+    // the failing item doesn't fail the other items of its chunk
+    batch = managementService.getBatch(batch.getId());
+    assertEquals(3, batch.getCompletedItems());
+    assertEquals(1, batch.getFailedItems());
+    assertTextPresent("unexistingJob", batch.getLastFailure());
+    for (String jobId : jobIds) {
+      if (!"unexistingJob".equals(jobId)) {
+        assertEquals(7, managementService.createJobQuery().jobId(jobId).singleResult().getRetries());
+      }
+    }
+    
+    managementService.executeJob(findMonitorJob(batch).getId());
+    assertTrue(managementService.getBatch(batch.getId()).isCompleted());
+    assertEquals(1, managementService.getBatches().size());
+    
+    managementService.deleteBatch(batch.getId());
+    assertTrue(managementService.getBatches().isEmpty());
+  }
+  
+  @Deployment(resources = {"org/activiti/engine/test/api/mgmt/timerOnTask.bpmn20.xml"})
+  public void testRetriedWorkerJobDoesNotCountItemsAgain() {
+    List<String> jobIds = new ArrayList<String>();
+    for (int i = 0; i < 2; i++) {
+      String processInstanceId = runtimeService.startProcessInstanceByKey("timerOnTask").getId();
+      jobIds.add(managementService.createJobQuery().processInstanceId(processInstanceId).singleResult().getId());
+    }
+    managementService.setJobRetriesInBatch(jobIds, 7);
+    final Batch batch = managementService.getBatches().get(0);
+    
+    managementService.executeJob(findJob(BatchSeedJobHandler.TYPE).getId());
+    JobEntity workerJob = (JobEntity) findJob(BatchWorkerJobHandler.TYPE);
+    final String workerJobConfiguration = workerJob.getJobHandlerConfiguration();
+    managementService.executeJob(workerJob.getId());
+    assertEquals(2, managementService.getBatch(batch.getId()).getCompletedItems());
+    
+    // the chunk was processed and counted in its own transaction: running the 
+    // worker job again, as when its own transaction failed, doesn't count it twice
+    managementService.executeCommand(new Command<Void>() {
+      public Void execute(CommandContext commandContext) {
+        new BatchWorkerJobHandler().execute(null, workerJobConfiguration, null, commandContext);
+        return null;
+      }
+    });
+    assertEquals(2, managementService.getBatch(batch.getId()).getCompletedItems());
+    assertEquals(0, managementService.getBatch(batch.getId()).getFailedItems());
+    
+    managementService.deleteBatch(batch.getId());
+    assertEquals(2, managementService.createJobQuery().count());
+  }
+  
+  @Deployment(resources = {"org/activiti/engine/test/api/mgmt/timerOnTask.bpmn20.xml"})
+  public void testSetFailedJobRetriesInBatch() {
+    runtimeService.startProcessInstanceByKey("timerOnTask");
+    Job failedJob = managementService.createJobQuery().singleResult();
+    managementService.executeCommand(new SetFailedJobCmd(failedJob.getId()));
+    runtimeService.startProcessInstanceByKey("timerOnTask");
+    
+    // only the ids of the failed jobs are selected
+    Batch batch = managementService.setFailedJobRetriesInBatch(5);
+    assertEquals(1, batch.getTotalItems());
+    
+    waitForJobExecutorToProcessAllJobs(10000L, 100L);
+    assertEquals(1, managementService.getBatch(batch.getId()).getCompletedItems());
+    assertEquals(5, managementService.createJobQuery().jobId(failedJob.getId()).singleResult().getRetries());
+    
+    managementService.deleteBatch(batch.getId());
+  }
+  
+  public void testMonitorReschedulesUntilAllItemsProcessed() {
+    Batch batch = managementService.setJobRetriesInBatch(Collections.singletonList("unexistingJob"), 1);
+    Job monitorJob = findMonitorJob(batch);
+    
+    // the seed job hasn't run yet
+    managementService.executeJob(monitorJob.getId());
+    assertFalse(managementService.getBatch(batch.getId()).isCompleted());
+    Job nextMonitorJob = findMonitorJob(batch);
+    assertNotNull(nextMonitorJob);
+    assertFalse(monitorJob.getId().equals(nextMonitorJob.getId()));
+    
+    // deleting the batch deletes its monitor, the seed job doesn't process any items anymore
+    managementService.deleteBatch(batch.getId());
+    assertNull(findMonitorJob(batch));
+    waitForJobExecutorToProcessAllJobs(10000L, 100L);
+    assertEquals(0, managementService.createJobQuery().count());
+  }
+  
+  public void testMigrateProcessInstancesInBatch() {
+    String sourceDeploymentId = repositoryService.createDeployment()
+      .addClasspathResource("org/activiti/engine/test/api/mgmt/BatchTest.migrationSource.bpmn20.xml")
+      .deploy()
+      .getId();
+    String targetDeploymentId = repositoryService.createDeployment()
+      .addClasspathResource("org/activiti/engine/test/api/mgmt/BatchTest.migrationTarget.bpmn20.xml")
+      .deploy()
+      .getId();
+    try {
+      String sourceProcessDefinitionId = repositoryService.createProcessDefinitionQuery().processDefinitionVersion(1).singleResult().getId();
+      String targetProcessDefinitionId = repositoryService.createProcessDefinitionQuery().processDefinitionVersion(2).singleResult().getId();
+      List<String> processInstanceIds = new ArrayList<String>();
+      for (int i = 0; i < 3; i++) {
+        processInstanceIds.add(runtimeService.startProcessInstanceById(sourceProcessDefinitionId).getId());
+      }
+      
+      // the migration is validated for all process instances when the batch is created
+      Map<String, String> activityMapping = new HashMap<String, String>();
+      activityMapping.put("approve", "review");
+      activityMapping.put("approveCancelled", "reviewCancelled");
+      try {
+        managementService.migrateProcessInstancesInBatch(sourceProcessDefinitionId, targetProcessDefinitionId, activityMapping);
+        fail("ActivitiException expected");
+      } catch (ActivitiException e) {
+        assertTextPresent("does not contain activity 'approveTimeout'", e.getMessage());
+      }
+      assertTrue(managementService.getBatches().isEmpty());
+      
+      activityMapping.put("approveTimeout", "reviewTimeout");
+      Batch batch = managementService.migrateProcessInstancesInBatch(sourceProcessDefinitionId, targetProcessDefinitionId, activityMapping);
+      assertEquals(Batch.TYPE_MIGRATE_PROCESS_INSTANCES, batch.getType());
+      assertEquals(3, batch.getTotalItems());
+      
+      waitForJobExecutorToProcessAllJobs(10000L, 100L);
+      batch = managementService.getBatch(batch.getId());
+      assertEquals(3, batch.getCompletedItems());
+      assertEquals(0, batch.getFailedItems());
+      managementService.executeJob(findMonitorJob(batch).getId());
+      assertTrue(managementService.getBatch(batch.getId()).isCompleted());
+      
+      assertEquals(0, runtimeService.createProcessInstanceQuery().processDefinitionId(sourceProcessDefinitionId).count());
+      assertEquals(3, runtimeService.createProcessInstanceQuery().processDefinitionId(targetProcessDefinitionId).count());
+      assertEquals(3, taskService.createTaskQuery().processDefinitionId(targetProcessDefinitionId).taskDefinitionKey("review").count());
+      
+      // the timer and the message event subscription continue in the mapped boundary events
+      Job timer = managementService.createJobQuery().processInstanceId(processInstanceIds.get(0)).timers().singleResult();
+      assertEquals("reviewTimeout", ((JobEntity) timer).getJobHandlerConfiguration());
+      managementService.executeJob(timer.getId());
+      assertEquals("escalate", taskService.createTaskQuery().processInstanceId(processInstanceIds.get(0)).singleResult().getTaskDefinitionKey());
+      
+      Execution execution = runtimeService.createExecutionQuery()
+        .processInstanceId(processInstanceIds.get(1))
+        .messageEventSubscriptionName("cancel")
+        .singleResult();
+      runtimeService.messageEventReceived("cancel", execution.getId());
+      assertEquals("cancelled", taskService.createTaskQuery().processInstanceId(processInstanceIds.get(1)).singleResult().getTaskDefinitionKey());
+      
+      Task task = taskService.createTaskQuery().processInstanceId(processInstanceIds.get(2)).singleResult();
+      taskService.complete(task.getId());
+      assertProcessEnded(processInstanceIds.get(2));
+      
+      if (processEngineConfiguration.getHistoryLevel().isAtLeast(HistoryLevel.ACTIVITY)) {
+        assertEquals(3, historyService.createHistoricProcessInstanceQuery().processDefinitionId(targetProcessDefinitionId).count());
+        // the history of the activity the process instance was in during the migration is completed in the mapped activity
+        assertEquals(1, historyService.createHistoricActivityInstanceQuery()
+          .processInstanceId(processInstanceIds.get(2))
+          .activityId("review")
+          .finished()
+          .count());
+        assertEquals(1, historyService.createHistoricTaskInstanceQuery()
+          .processInstanceId(processInstanceIds.get(2))
+          .taskDefinitionKey("review")
+          .finished()
+          .count());
+      }
+      
+      managementService.deleteBatch(batch.getId());
+    } finally {
+      repositoryService.deleteDeployment(sourceDeploymentId, true);
+      repositoryService.deleteDeployment(targetDeploymentId, true);
+    }
+  }
+  
+  public void testMigrateProcessInstancesInBatchToSameProcessDefinition() {
+    try {
+      managementService.migrateProcessInstancesInBatch("someProcessDefinition", "someProcessDefinition", null);
+      fail("ActivitiIllegalArgumentException expected");
+    } catch (ActivitiIllegalArgumentException e) {
+      assertTextPresent("The source and target process definition are the same", e.getMessage());
+    }
+  }
+  
+  public void testCreateBatchWithUnknownType() {
+    try {
+      managementService.createBatch("unknown", Collections.singletonList("item"), null);
+      fail("ActivitiIllegalArgumentException expected");
+    } catch (ActivitiIllegalArgumentException e) {
+      assertTextPresent("No batch operation registered for batch type 'unknown'", e.getMessage());
+    }
+  }
+  
+  public void testSetJobRetriesInBatchNegativeNumberOfRetries() {
+    try {
+      managementService.setJobRetriesInBatch(Collections.singletonList("job"), -1);
+      fail("ActivitiIllegalArgumentException expected");
+    } catch (ActivitiIllegalArgumentException e) {
+      assertTextPresent("The number of job retries must be a non-negative Integer", e.getMessage());
+    }
+  }
+  
+  public void testDeleteUnexistingBatch() {
+    try {
+      managementService.deleteBatch("unexistingBatch");
+      fail("ActivitiObjectNotFoundException expected");
+    } catch (ActivitiObjectNotFoundException e) {
+      assertEquals(Batch.class, e.getObjectClass());
+    }
+  }
+  
+  protected static class SetFailedJobCmd implements Command<Void> {
+    
+    protected String jobId;
+    
+    public SetFailedJobCmd(String jobId) {
+      this.jobId = jobId;
+    }
+    
+    public Void execute(CommandContext commandContext) {
+      JobEntity job = commandContext.getJobEntityManager().findJobById(jobId);
+      job.setRetries(0);
+      job.setExceptionMessage("failed");
+      return null;
+    }
+  }
+  
+  protected Job findJob(String jobHandlerType) {
+    for (Job job : managementService.createJobQuery().messages().list()) {
+      if (jobHandlerType.equals(((JobEntity) job).getJobHandlerType())) {
+        return job;
+      }
+    }
+    return null;
+  }
+  
+  protected Job findMonitorJob(Batch batch) {
+    for (Job job : managementService.createJobQuery().timers().list()) {
+      JobEntity jobEntity = (JobEntity) job;
+      if (BatchMonitorJobHandler.TYPE.equals(jobEntity.getJobHandlerType()) 
+              && batch.getId().equals(jobEntity.getJobHandlerConfiguration())) {
+        return job;
+      }
+    }
+    return null;
+  }
+
+}
@@ -14,21 +14,26 @@
 package org.activiti.engine.test.api.mgmt;
 
 import java.util.Date;
+import java.util.List;
 
 import org.activiti.engine.ActivitiException;
 import org.activiti.engine.ActivitiIllegalArgumentException;
 import org.activiti.engine.ActivitiObjectNotFoundException;
 import org.activiti.engine.JobNotFoundException;
+import org.activiti.engine.ProcessEngineConfiguration;
 import org.activiti.engine.impl.ProcessEngineImpl;
+import org.activiti.engine.impl.cfg.ProcessEngineConfigurationImpl;
 import org.activiti.engine.impl.cmd.AcquireJobsCmd;
 import org.activiti.engine.impl.interceptor.CommandExecutor;
 import org.activiti.engine.impl.persistence.entity.EventSubscriptionEntity;
 import org.activiti.engine.impl.persistence.entity.JobEntity;
 import org.activiti.engine.impl.test.PluggableActivitiTestCase;
 import org.activiti.engine.impl.util.ClockUtil;
+import org.activiti.engine.management.ActivityStatistics;
 import org.activiti.engine.management.TableMetaData;
 import org.activiti.engine.runtime.Job;
 import org.activiti.engine.runtime.ProcessInstance;
+import org.activiti.engine.task.Task;
 import org.activiti.engine.test.Deployment;
 
 
@@ -244,10 +249,94 @@ public class ManagementServiceTest extends PluggableActivitiTestCase {
     managementService.executeJob(timerJob.getId());
   }
   
+  @Deployment
+  public void testActivityStatistics() {
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("activityStatistics");
+    runtimeService.startProcessInstanceByKey("activityStatistics");
+    String processDefinitionId = processInstance.getProcessDefinitionId();
+    
+    // Make the async script task jobs fail for good
+    for (Job job : managementService.createJobQuery().list()) {
+      managementService.setJobRetries(job.getId(), 0);
+    }
+    
+    List<ActivityStatistics> statistics = managementService.getActivityStatistics(processDefinitionId);
+    assertEquals(3, statistics.size());
+    assertActivityStatistics(statistics.get(0), "failingScriptTask", 2, 0, 2);
+    assertActivityStatistics(statistics.get(1), "task1", 2, 2, 0);
+    assertActivityStatistics(statistics.get(2), "task2", 2, 2, 0);
+    
+    // The execution arriving in the join is no longer active, but still counted in the join
+    Task task = taskService.createTaskQuery().processInstanceId(processInstance.getId()).taskDefinitionKey("task1").singleResult();
+    taskService.complete(task.getId());
+    
+    statistics = managementService.getActivityStatistics(processDefinitionId);
+    assertEquals(4, statistics.size());
+    assertActivityStatistics(statistics.get(1), "join", 1, 0, 0);
+    assertActivityStatistics(statistics.get(2), "task1", 1, 1, 0);
+    
+    runtimeService.deleteProcessInstance(processInstance.getId(), "test");
+    statistics = managementService.getActivityStatistics(processDefinitionId);
+    assertEquals(3, statistics.size());
+    assertActivityStatistics(statistics.get(0), "failingScriptTask", 1, 0, 1);
+    assertActivityStatistics(statistics.get(1), "task1", 1, 1, 0);
+    assertActivityStatistics(statistics.get(2), "task2", 1, 1, 0);
+    
+    assertTrue(managementService.getActivityStatistics("unexisting").isEmpty());
+    try {
+      managementService.getActivityStatistics(null);
+      fail("ActivitiIllegalArgumentException expected");
+    } catch (ActivitiIllegalArgumentException e) {
+      // expected
+    }
+  }
+  
+  protected void assertActivityStatistics(ActivityStatistics activityStatistics, String activityId, 
+          long executionCount, long openTaskCount, long failedJobCount) {
+    assertEquals(activityId, activityStatistics.getActivityId());
+    assertEquals(executionCount, activityStatistics.getExecutionCount());
+    assertEquals(openTaskCount, activityStatistics.getOpenTaskCount());
+    assertEquals(failedJobCount, activityStatistics.getFailedJobCount());
+  }
+  
   // https://jira.codehaus.org/browse/ACT-1816:
   // ManagementService doesn't seem to give actual table Name for EventSubscriptionEntity.class
   public void testGetTableName() {
 	  String table = managementService.getTableName(EventSubscriptionEntity.class);
 	  assertEquals("ACT_RU_EVENT_SUBSCR", table);
   }
+
+  public void testHistoryPartitionsNotEnabled() {
+    try {
+      managementService.createHistoryPartitions(new Date());
+      fail("ActivitiException expected");
+    } catch (ActivitiException e) {
+      assertTextPresent("History partitioning is not enabled", e.getMessage());
+    }
+    try {
+      managementService.dropHistoryPartitions(new Date());
+      fail("ActivitiException expected");
+    } catch (ActivitiException e) {
+      assertTextPresent("History partitioning is not enabled", e.getMessage());
+    }
+    try {
+      managementService.dropHistoryPartitions(null);
+      fail("ActivitiIllegalArgumentException expected");
+    } catch (ActivitiIllegalArgumentException e) {
+      assertTextPresent("before is null", e.getMessage());
+    }
+  }
+  
+  public void testHistoryPartitioningNotSupportedForDatabaseType() {
+    ProcessEngineConfigurationImpl processEngineConfiguration = (ProcessEngineConfigurationImpl) ProcessEngineConfiguration
+      .createStandaloneInMemProcessEngineConfiguration()
+      .setJdbcUrl("jdbc:h2:mem:activiti-history-partitioning-test;DB_CLOSE_DELAY=1000");
+    processEngineConfiguration.setDbHistoryPartitioned(true);
+    try {
+      processEngineConfiguration.buildProcessEngine();
+      fail("ActivitiException expected");
+    } catch (ActivitiException e) {
+      assertTextPresent("History partitioning is not supported for database type 'h2'", e.getMessage());
+    }
+  }
 }
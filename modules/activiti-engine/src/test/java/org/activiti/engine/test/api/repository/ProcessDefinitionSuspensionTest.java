@@ -17,12 +17,18 @@ import java.util.HashMap;
 import java.util.List;
 
 import org.activiti.engine.ActivitiException;
+import org.activiti.engine.delegate.event.ActivitiEvent;
+import org.activiti.engine.delegate.event.ActivitiEventType;
+import org.activiti.engine.delegate.event.ActivitiProcessInstancesEvent;
+import org.activiti.engine.impl.persistence.entity.BatchEntity;
 import org.activiti.engine.impl.test.PluggableActivitiTestCase;
 import org.activiti.engine.impl.util.ClockUtil;
+import org.activiti.engine.management.Batch;
 import org.activiti.engine.repository.ProcessDefinition;
 import org.activiti.engine.runtime.ProcessInstance;
 import org.activiti.engine.task.Task;
 import org.activiti.engine.test.Deployment;
+import org.activiti.engine.test.api.event.TestActivitiEventListener;
 
 /**
  * @author Daniel Meyer
@@ -228,6 +234,79 @@ public class ProcessDefinitionSuspensionTest extends PluggableActivitiTestCase {
     assertEquals(0, runtimeService.createProcessInstanceQuery().active().count());
   }
   
+  @Deployment(resources={"org/activiti/engine/test/api/runtime/oneTaskProcess.bpmn20.xml"})
+  public void testAsyncSuspendProcessInstancesDuringProcessDefinitionSuspend() {
+    processEngineConfiguration.setEnableAsyncProcessInstanceSuspension(true);
+    processEngineConfiguration.setProcessInstanceSuspensionChunkSize(2);
+    TestActivitiEventListener listener = new TestActivitiEventListener();
+    try {
+      
+      int nrOfProcessInstances = 5;
+      ProcessDefinition processDefinition = repositoryService.createProcessDefinitionQuery().singleResult();
+      for (int i=0; i<nrOfProcessInstances; i++) {
+        runtimeService.startProcessInstanceByKey(processDefinition.getKey());
+      }
+      
+      // The process instances are only suspended by the job executor
+      runtimeService.addEventListener(listener, ActivitiEventType.PROCESS_INSTANCES_SUSPENDED);
+      repositoryService.suspendProcessDefinitionById(processDefinition.getId(), true, null);
+      assertTrue(repositoryService.createProcessDefinitionQuery().singleResult().isSuspended());
+      assertEquals(nrOfProcessInstances, runtimeService.createProcessInstanceQuery().active().count());
+      assertEquals(1, managementService.createJobQuery().count());
+      
+      Batch batch = managementService.getBatches().get(0);
+      assertEquals(Batch.TYPE_CHANGE_PROCESS_INSTANCE_SUSPENSION_STATE, batch.getType());
+      assertEquals(processDefinition.getId(), ((BatchEntity) batch).getConfiguration());
+      assertEquals(nrOfProcessInstances, batch.getTotalItems());
+      assertEquals(0, batch.getCompletedItems());
+      assertFalse(batch.isCompleted());
+      
+      waitForJobExecutorToProcessAllJobs(5000L, 50L);
+      assertEquals(nrOfProcessInstances, runtimeService.createProcessInstanceQuery().suspended().count());
+      assertEquals(nrOfProcessInstances, taskService.createTaskQuery().suspended().count());
+      
+      batch = managementService.getBatch(batch.getId());
+      assertEquals(nrOfProcessInstances, batch.getCompletedItems());
+      assertTrue(batch.isCompleted());
+      managementService.deleteBatch(batch.getId());
+      
+      // One event per chunk
+      assertEquals(3, listener.getEventsReceived().size());
+      int nrOfEventProcessInstances = 0;
+      for (ActivitiEvent event : listener.getEventsReceived()) {
+        nrOfEventProcessInstances += ((ActivitiProcessInstancesEvent) event).getProcessInstanceIds().size();
+      }
+      assertEquals(nrOfProcessInstances, nrOfEventProcessInstances);
+      for (Task task : taskService.createTaskQuery().list()) {
+        try {
+          taskService.complete(task.getId());
+          fail("A suspended task shouldn't be able to be continued");
+        } catch(ActivitiException e) {
+          // This is good
+        }
+      }
+      
+      // Activating works the same way
+      repositoryService.activateProcessDefinitionById(processDefinition.getId(), true, null);
+      assertEquals(nrOfProcessInstances, runtimeService.createProcessInstanceQuery().suspended().count());
+      
+      waitForJobExecutorToProcessAllJobs(5000L, 50L);
+      assertEquals(nrOfProcessInstances, runtimeService.createProcessInstanceQuery().active().count());
+      for (Task task : taskService.createTaskQuery().list()) {
+        taskService.complete(task.getId());
+      }
+      assertEquals(0, runtimeService.createProcessInstanceQuery().count());
+      
+    } finally {
+      runtimeService.removeEventListener(listener);
+      for (Batch batch : managementService.getBatches()) {
+        managementService.deleteBatch(batch.getId());
+      }
+      processEngineConfiguration.setEnableAsyncProcessInstanceSuspension(false);
+      processEngineConfiguration.setProcessInstanceSuspensionChunkSize(500);
+    }
+  }
+  
   @Deployment(resources={"org/activiti/engine/test/api/runtime/oneTaskProcess.bpmn20.xml"})
   public void testSubmitStartFormAfterProcessDefinitionSuspend() {
     ProcessDefinition processDefinition = repositoryService.createProcessDefinitionQuery().singleResult();
@@ -17,6 +17,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.ObjectOutputStream;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 
@@ -28,12 +29,17 @@ import org.activiti.bpmn.model.UserTask;
 import org.activiti.engine.ActivitiException;
 import org.activiti.engine.ActivitiIllegalArgumentException;
 import org.activiti.engine.ActivitiObjectNotFoundException;
+import org.activiti.engine.delegate.event.ActivitiEvent;
+import org.activiti.engine.delegate.event.ActivitiEventType;
+import org.activiti.engine.delegate.event.ActivitiProcessInstancesEvent;
 import org.activiti.engine.impl.RepositoryServiceImpl;
+import org.activiti.engine.impl.history.HistoryLevel;
 import org.activiti.engine.impl.test.PluggableActivitiTestCase;
 import org.activiti.engine.impl.util.ClockUtil;
 import org.activiti.engine.repository.Model;
 import org.activiti.engine.repository.ProcessDefinition;
 import org.activiti.engine.test.Deployment;
+import org.activiti.engine.test.api.event.TestActivitiEventListener;
 
 /**
  * @author Frederik Heremans
@@ -137,6 +143,53 @@ public class RepositoryServiceTest extends PluggableActivitiTestCase {
     repositoryService.deleteDeployment(processDefinition.getDeploymentId(), true);
   }
   
+  public void testDeleteDeploymentCascadeInBulk() {
+    String deploymentId = repositoryService.createDeployment()
+      .addClasspathResource("org/activiti/engine/test/bpmn/callactivity/CallActivity.testTimerOnCallActivity.bpmn20.xml")
+      .addClasspathResource("org/activiti/engine/test/bpmn/callactivity/simpleSubProcess.bpmn20.xml")
+      .addClasspathResource("org/activiti/engine/test/api/oneTaskProcess.bpmn20.xml")
+      .deploy()
+      .getId();
+    
+    for (int i = 0; i < 3; i++) {
+      runtimeService.startProcessInstanceByKey("timerOnCallActivity", Collections.<String, Object>singletonMap("bytes", "kermit".getBytes()));
+    }
+    String finishedProcessInstanceId = runtimeService.startProcessInstanceByKey("oneTaskProcess").getId();
+    taskService.complete(taskService.createTaskQuery().processInstanceId(finishedProcessInstanceId).singleResult().getId());
+    
+    TestActivitiEventListener listener = new TestActivitiEventListener();
+    runtimeService.addEventListener(listener, ActivitiEventType.PROCESS_INSTANCES_DELETED);
+    processEngineConfiguration.setEnableBulkCascadeDelete(true);
+    processEngineConfiguration.setBulkCascadeDeleteChunkSize(2);
+    try {
+      repositoryService.deleteDeployment(deploymentId, true);
+      
+      assertEquals(0, repositoryService.createDeploymentQuery().count());
+      assertEquals(0, runtimeService.createExecutionQuery().count());
+      assertEquals(0, taskService.createTaskQuery().count());
+      assertEquals(0, managementService.createJobQuery().count());
+      assertEquals(0, historyService.createHistoricProcessInstanceQuery().count());
+      assertEquals(0, historyService.createHistoricTaskInstanceQuery().count());
+      
+      // Two chunks of running process instances (each with their sub process instances) and one historic chunk
+      int nrOfDeletedProcessInstances = 0;
+      for (ActivitiEvent event : listener.getEventsReceived()) {
+        nrOfDeletedProcessInstances += ((ActivitiProcessInstancesEvent) event).getProcessInstanceIds().size();
+      }
+      if (processEngineConfiguration.getHistoryLevel() != HistoryLevel.NONE) {
+        assertEquals(3, listener.getEventsReceived().size());
+        assertEquals(7, nrOfDeletedProcessInstances);
+      } else {
+        assertEquals(2, listener.getEventsReceived().size());
+        assertEquals(6, nrOfDeletedProcessInstances);
+      }
+    } finally {
+      processEngineConfiguration.setEnableBulkCascadeDelete(false);
+      processEngineConfiguration.setBulkCascadeDeleteChunkSize(500);
+      runtimeService.removeEventListener(listener);
+    }
+  }
+  
   public void testFindDeploymentResourceNamesNullDeploymentId() {
     try {
       repositoryService.getDeploymentResourceNames(null);    
@@ -13,6 +13,8 @@
 
 package org.activiti.engine.test.api.runtime;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -21,18 +23,27 @@ import java.util.Map;
 import org.activiti.engine.ActivitiException;
 import org.activiti.engine.ActivitiIllegalArgumentException;
 import org.activiti.engine.ActivitiObjectNotFoundException;
+import org.activiti.engine.delegate.event.ActivitiEntityEvent;
+import org.activiti.engine.delegate.event.ActivitiEvent;
+import org.activiti.engine.delegate.event.ActivitiEventType;
+import org.activiti.engine.delegate.event.ActivitiProcessInstancesEvent;
 import org.activiti.engine.history.HistoricDetail;
 import org.activiti.engine.history.HistoricProcessInstance;
 import org.activiti.engine.history.HistoricTaskInstance;
+import org.activiti.engine.impl.db.DbSqlSession;
 import org.activiti.engine.impl.history.HistoryLevel;
+import org.activiti.engine.impl.persistence.entity.ExecutionEntity;
 import org.activiti.engine.impl.persistence.entity.HistoricDetailVariableInstanceUpdateEntity;
 import org.activiti.engine.impl.test.PluggableActivitiTestCase;
 import org.activiti.engine.impl.util.CollectionUtil;
 import org.activiti.engine.repository.ProcessDefinition;
 import org.activiti.engine.runtime.Execution;
 import org.activiti.engine.runtime.ProcessInstance;
+import org.activiti.engine.runtime.ProcessInstanceCreateRequest;
+import org.activiti.engine.runtime.ProcessInstanceCreateResult;
 import org.activiti.engine.task.Task;
 import org.activiti.engine.test.Deployment;
+import org.activiti.engine.test.api.event.TestActivitiEventListener;
 
 
 /**
@@ -96,6 +107,99 @@ public class RuntimeServiceTest extends PluggableActivitiTestCase {
     assertEquals(1, runtimeService.createProcessInstanceQuery().processDefinitionKey("oneTaskProcess").count());
   }
   
+  @Deployment(resources={"org/activiti/engine/test/api/oneTaskProcess.bpmn20.xml"})
+  public void testStartProcessInstances() {
+    ProcessDefinition processDefinition = repositoryService.createProcessDefinitionQuery().singleResult();
+    
+    List<ProcessInstanceCreateRequest> requests = new ArrayList<ProcessInstanceCreateRequest>();
+    requests.add(ProcessInstanceCreateRequest.processDefinitionKey("oneTaskProcess").businessKey("123"));
+    requests.add(ProcessInstanceCreateRequest.processDefinitionKey("oneTaskProcess")
+        .variables(CollectionUtil.singletonMap("var", "value")));
+    requests.add(ProcessInstanceCreateRequest.processDefinitionId(processDefinition.getId()).businessKey("456"));
+    
+    List<ProcessInstanceCreateResult> results = runtimeService.startProcessInstances(requests);
+    assertEquals(3, results.size());
+    for (int i = 0; i < results.size(); i++) {
+      assertTrue(results.get(i).isSuccessful());
+      assertSame(requests.get(i), results.get(i).getRequest());
+    }
+    assertEquals("123", results.get(0).getProcessInstance().getBusinessKey());
+    assertEquals("value", runtimeService.getVariable(results.get(1).getProcessInstance().getId(), "var"));
+    assertEquals("456", results.get(2).getProcessInstance().getBusinessKey());
+    
+    assertEquals(3, runtimeService.createProcessInstanceQuery().processDefinitionKey("oneTaskProcess").count());
+    assertEquals(3, taskService.createTaskQuery().count());
+  }
+  
+  @Deployment(resources={"org/activiti/engine/test/api/oneTaskProcess.bpmn20.xml"})
+  public void testStartProcessInstancesWithFailingRequest() {
+    List<ProcessInstanceCreateRequest> requests = new ArrayList<ProcessInstanceCreateRequest>();
+    requests.add(ProcessInstanceCreateRequest.processDefinitionKey("oneTaskProcess").businessKey("1"));
+    requests.add(ProcessInstanceCreateRequest.processDefinitionKey("unexistingKey").businessKey("2"));
+    requests.add(ProcessInstanceCreateRequest.processDefinitionKey("oneTaskProcess").businessKey("3"));
+    requests.add(ProcessInstanceCreateRequest.processDefinitionKey("oneTaskProcess").businessKey("4"));
+    requests.add(ProcessInstanceCreateRequest.processDefinitionKey("oneTaskProcess").businessKey("5"));
+    
+    // Chunks of two: only the first chunk fails and has to be retried request by request
+    List<ProcessInstanceCreateResult> results = runtimeService.startProcessInstances(requests, 2);
+    assertEquals(5, results.size());
+    for (int i = 0; i < results.size(); i++) {
+      assertSame(requests.get(i), results.get(i).getRequest());
+      if (i == 1) {
+        assertFalse(results.get(i).isSuccessful());
+        assertNull(results.get(i).getProcessInstance());
+        assertTrue(results.get(i).getException() instanceof ActivitiObjectNotFoundException);
+      } else {
+        assertTrue(results.get(i).isSuccessful());
+        assertEquals(String.valueOf(i + 1), results.get(i).getProcessInstance().getBusinessKey());
+      }
+    }
+    
+    assertEquals(4, runtimeService.createProcessInstanceQuery().processDefinitionKey("oneTaskProcess").count());
+    assertEquals(0, runtimeService.createProcessInstanceQuery().processInstanceBusinessKey("2").count());
+  }
+  
+  @Deployment(resources={"org/activiti/engine/test/api/oneTaskProcess.bpmn20.xml"})
+  public void testStartProcessInstancesDefaultChunkSize() {
+    int originalChunkSize = processEngineConfiguration.getBulkOperationChunkSize();
+    processEngineConfiguration.setBulkOperationChunkSize(2);
+    TestActivitiEventListener listener = new TestActivitiEventListener();
+    runtimeService.addEventListener(listener, ActivitiEventType.ENTITY_CREATED);
+    try {
+      List<ProcessInstanceCreateRequest> requests = new ArrayList<ProcessInstanceCreateRequest>();
+      requests.add(ProcessInstanceCreateRequest.processDefinitionKey("oneTaskProcess").businessKey("1"));
+      requests.add(ProcessInstanceCreateRequest.processDefinitionKey("oneTaskProcess").businessKey("2"));
+      requests.add(ProcessInstanceCreateRequest.processDefinitionKey("unexistingKey").businessKey("3"));
+      
+      List<ProcessInstanceCreateResult> results = runtimeService.startProcessInstances(requests);
+      assertTrue(results.get(0).isSuccessful());
+      assertTrue(results.get(1).isSuccessful());
+      assertFalse(results.get(2).isSuccessful());
+      
+      // The failing request is in a chunk of its own, so the others are not started again
+      int processInstancesCreated = 0;
+      for (ActivitiEvent event : listener.getEventsReceived()) {
+        Object entity = ((ActivitiEntityEvent) event).getEntity();
+        if (entity instanceof ExecutionEntity && ((ExecutionEntity) entity).isProcessInstanceType()) {
+          processInstancesCreated++;
+        }
+      }
+      assertEquals(2, processInstancesCreated);
+    } finally {
+      runtimeService.removeEventListener(listener);
+      processEngineConfiguration.setBulkOperationChunkSize(originalChunkSize);
+    }
+  }
+  
+  public void testStartProcessInstancesNullRequests() {
+    try {
+      runtimeService.startProcessInstances(null);
+      fail("ActivitiException expected");
+    } catch (ActivitiIllegalArgumentException e) {
+      // Expected exception
+    }
+  }
+  
   @Deployment(resources={
     "org/activiti/engine/test/api/oneTaskProcess.bpmn20.xml"})
   public void startProcessInstanceWithBusinessKey() {
@@ -220,6 +324,153 @@ public class RuntimeServiceTest extends PluggableActivitiTestCase {
     }
   }
   
+  @Deployment(resources={
+    "org/activiti/engine/test/bpmn/callactivity/CallActivity.testTimerOnCallActivity.bpmn20.xml",
+    "org/activiti/engine/test/bpmn/callactivity/simpleSubProcess.bpmn20.xml"})
+  public void testDeleteProcessInstancesWithHistory() {
+    TestActivitiEventListener listener = new TestActivitiEventListener();
+    runtimeService.addEventListener(listener, ActivitiEventType.PROCESS_INSTANCES_DELETED);
+    try {
+      List<String> processInstanceIds = new ArrayList<String>();
+      for (int i = 0; i < 3; i++) {
+        Map<String, Object> variables = new HashMap<String, Object>();
+        variables.put("name", "kermit");
+        variables.put("bytes", "kermit".getBytes());
+        processInstanceIds.add(runtimeService.startProcessInstanceByKey("timerOnCallActivity", variables).getId());
+      }
+      for (Task task : taskService.createTaskQuery().list()) {
+        taskService.addCandidateUser(task.getId(), "kermit");
+        taskService.setVariableLocal(task.getId(), "localBytes", "gonzo".getBytes());
+        taskService.addComment(task.getId(), task.getProcessInstanceId(), "comment");
+      }
+      assertEquals(6, runtimeService.createProcessInstanceQuery().count());
+      assertEquals(3, managementService.createJobQuery().count());
+      
+      // The sub process instances are deleted together with their super process instance
+      runtimeService.deleteProcessInstancesWithHistory(processInstanceIds.subList(0, 2), 1);
+      
+      assertEquals(2, runtimeService.createProcessInstanceQuery().count());
+      assertEquals(1, runtimeService.createProcessInstanceQuery().processInstanceId(processInstanceIds.get(2)).count());
+      assertEquals(1, taskService.createTaskQuery().count());
+      assertEquals(1, managementService.createJobQuery().count());
+      assertEquals(3, runtimeService.createExecutionQuery().count());
+      
+      if (processEngineConfiguration.getHistoryLevel().isAtLeast(HistoryLevel.ACTIVITY)) {
+        assertEquals(2, historyService.createHistoricProcessInstanceQuery().count());
+        assertEquals(1, historyService.createHistoricTaskInstanceQuery().count());
+        assertEquals(0, historyService.createHistoricActivityInstanceQuery().processInstanceId(processInstanceIds.get(0)).count());
+        assertEquals(0, historyService.createHistoricVariableInstanceQuery().processInstanceId(processInstanceIds.get(0)).count());
+        assertEquals(0, taskService.getProcessInstanceComments(processInstanceIds.get(0)).size());
+      }
+      
+      // One event per chunk, holding the super and sub process instance
+      assertEquals(2, listener.getEventsReceived().size());
+      ActivitiProcessInstancesEvent event = (ActivitiProcessInstancesEvent) listener.getEventsReceived().get(0);
+      assertEquals(ActivitiEventType.PROCESS_INSTANCES_DELETED, event.getType());
+      assertEquals(2, event.getProcessInstanceIds().size());
+      assertEquals(processInstanceIds.get(0), event.getProcessInstanceIds().get(0));
+      
+      runtimeService.deleteProcessInstancesWithHistory(Collections.singletonList(processInstanceIds.get(2)));
+      assertEquals(0, runtimeService.createExecutionQuery().count());
+      assertEquals(0, managementService.createJobQuery().count());
+      if (processEngineConfiguration.getHistoryLevel().isAtLeast(HistoryLevel.ACTIVITY)) {
+        assertEquals(0, historyService.createHistoricProcessInstanceQuery().count());
+        assertEquals(0, historyService.createHistoricTaskInstanceQuery().count());
+        assertEquals(0, historyService.createHistoricVariableInstanceQuery().count());
+        assertEquals(0, historyService.createHistoricActivityInstanceQuery().count());
+      }
+    } finally {
+      runtimeService.removeEventListener(listener);
+    }
+  }
+  
+  @Deployment(resources={
+    "org/activiti/engine/test/api/oneTaskProcess.bpmn20.xml"})
+  public void testDeleteProcessInstancesWithHistoryDefaultChunkSize() {
+    int originalChunkSize = processEngineConfiguration.getBulkCascadeDeleteChunkSize();
+    // a chunk holds more process instances than fit in a single in-clause
+    processEngineConfiguration.setBulkCascadeDeleteChunkSize(DbSqlSession.MAX_IN_LIST_SIZE + 1);
+    TestActivitiEventListener listener = new TestActivitiEventListener();
+    runtimeService.addEventListener(listener, ActivitiEventType.PROCESS_INSTANCES_DELETED);
+    try {
+      List<String> processInstanceIds = new ArrayList<String>();
+      for (int i = 0; i < DbSqlSession.MAX_IN_LIST_SIZE + 2; i++) {
+        processInstanceIds.add(runtimeService.startProcessInstanceByKey("oneTaskProcess", 
+                Collections.<String, Object>singletonMap("bytes", "kermit".getBytes())).getId());
+      }
+      
+      runtimeService.deleteProcessInstancesWithHistory(processInstanceIds);
+      
+      assertEquals(2, listener.getEventsReceived().size());
+      assertEquals(DbSqlSession.MAX_IN_LIST_SIZE + 1, 
+              ((ActivitiProcessInstancesEvent) listener.getEventsReceived().get(0)).getProcessInstanceIds().size());
+      assertEquals(0, runtimeService.createProcessInstanceQuery().count());
+      assertEquals(0, taskService.createTaskQuery().count());
+      if (processEngineConfiguration.getHistoryLevel().isAtLeast(HistoryLevel.ACTIVITY)) {
+        assertEquals(0, historyService.createHistoricProcessInstanceQuery().count());
+        assertEquals(0, historyService.createHistoricVariableInstanceQuery().count());
+      }
+    } finally {
+      runtimeService.removeEventListener(listener);
+      processEngineConfiguration.setBulkCascadeDeleteChunkSize(originalChunkSize);
+    }
+  }
+  
+  @Deployment(resources={
+    "org/activiti/engine/test/api/oneTaskProcess.bpmn20.xml"})
+  public void testDeleteEndedProcessInstancesWithHistory() {
+    String endedProcessInstanceId = runtimeService.startProcessInstanceByKey("oneTaskProcess").getId();
+    taskService.complete(taskService.createTaskQuery().processInstanceId(endedProcessInstanceId).singleResult().getId());
+    String runningProcessInstanceId = runtimeService.startProcessInstanceByKey("oneTaskProcess").getId();
+    
+    if (processEngineConfiguration.getHistoryLevel().isAtLeast(HistoryLevel.ACTIVITY)) {
+      // The ended process instance is only found in the history
+      runtimeService.deleteProcessInstancesWithHistory(Arrays.asList(endedProcessInstanceId, runningProcessInstanceId));
+      assertEquals(0, runtimeService.createProcessInstanceQuery().count());
+      assertEquals(0, historyService.createHistoricProcessInstanceQuery().count());
+      assertEquals(0, historyService.createHistoricTaskInstanceQuery().count());
+      assertEquals(0, historyService.createHistoricActivityInstanceQuery().count());
+    } else {
+      try {
+        runtimeService.deleteProcessInstancesWithHistory(Arrays.asList(endedProcessInstanceId, runningProcessInstanceId));
+        fail("ActivitiException expected");
+      } catch (ActivitiObjectNotFoundException ae) {
+        assertTextPresent("No process instance found for id '" + endedProcessInstanceId + "'", ae.getMessage());
+      }
+      runtimeService.deleteProcessInstancesWithHistory(Collections.singletonList(runningProcessInstanceId));
+    }
+  }
+  
+  @Deployment(resources={
+    "org/activiti/engine/test/bpmn/callactivity/CallActivity.testTimerOnCallActivity.bpmn20.xml",
+    "org/activiti/engine/test/bpmn/callactivity/simpleSubProcess.bpmn20.xml"})
+  public void testDeleteProcessInstancesWithHistoryInvalidIds() {
+    String processInstanceId = runtimeService.startProcessInstanceByKey("timerOnCallActivity").getId();
+    String subProcessInstanceId = runtimeService.createProcessInstanceQuery().superProcessInstanceId(processInstanceId).singleResult().getId();
+    
+    try {
+      runtimeService.deleteProcessInstancesWithHistory(Arrays.asList(processInstanceId, "unexistingInstanceId"));
+      fail("ActivitiException expected");
+    } catch (ActivitiObjectNotFoundException ae) {
+      assertTextPresent("No process instance found for id 'unexistingInstanceId'", ae.getMessage());
+    }
+    
+    try {
+      runtimeService.deleteProcessInstancesWithHistory(Collections.singletonList(subProcessInstanceId));
+      fail("ActivitiException expected");
+    } catch (ActivitiIllegalArgumentException ae) {
+      assertTextPresent("is a sub process instance", ae.getMessage());
+    }
+    assertEquals(2, runtimeService.createProcessInstanceQuery().count());
+    
+    try {
+      runtimeService.deleteProcessInstancesWithHistory(null);
+      fail("ActivitiException expected");
+    } catch (ActivitiIllegalArgumentException ae) {
+      assertTextPresent("processInstanceIds is null", ae.getMessage());
+    }
+  }
+  
   @Deployment(resources={
     "org/activiti/engine/test/api/oneTaskProcess.bpmn20.xml"})
   public void testFindActiveActivityIds() {
@@ -382,6 +633,85 @@ public class RuntimeServiceTest extends PluggableActivitiTestCase {
     }
   }
   
+  @Deployment(resources={"org/activiti/engine/test/api/runtime/threeParallelTasks.bpmn20.xml"})
+  public void testGetVariablesForExecutions() {
+    Map<String, Object> vars = new HashMap<String, Object>();
+    vars.put("customer", "kermit");
+    vars.put("amount", 100L);
+    ProcessInstance processInstance1 = runtimeService.startProcessInstanceByKey("threeParallelTasks", vars);
+    vars.put("customer", "gonzo");
+    ProcessInstance processInstance2 = runtimeService.startProcessInstanceByKey("threeParallelTasks", vars);
+    
+    List<Execution> childExecutions = runtimeService.createExecutionQuery()
+      .processInstanceId(processInstance1.getId())
+      .activityId("task1")
+      .list();
+    assertEquals(1, childExecutions.size());
+    String childExecutionId = childExecutions.get(0).getId();
+    runtimeService.setVariableLocal(childExecutionId, "customer", "fozzie");
+    runtimeService.setVariableLocal(childExecutionId, "local", "value");
+    
+    List<String> executionIds = Arrays.asList(childExecutionId, processInstance1.getId(), processInstance2.getId());
+    Map<String, Map<String, Object>> variables = runtimeService.getVariablesForExecutions(executionIds, null);
+    assertEquals(executionIds, new ArrayList<String>(variables.keySet()));
+    
+    Map<String, Object> childVariables = variables.get(childExecutionId);
+    assertEquals(3, childVariables.size());
+    assertEquals("fozzie", childVariables.get("customer"));
+    assertEquals("value", childVariables.get("local"));
+    assertEquals(100L, childVariables.get("amount"));
+    assertEquals("kermit", variables.get(processInstance1.getId()).get("customer"));
+    assertEquals("gonzo", variables.get(processInstance2.getId()).get("customer"));
+    assertEquals(2, variables.get(processInstance2.getId()).size());
+    
+    // Only the requested variables
+    variables = runtimeService.getVariablesForExecutions(executionIds, Arrays.asList("customer", "unexisting"));
+    assertEquals(Collections.singletonMap("customer", "fozzie"), variables.get(childExecutionId));
+    assertEquals(Collections.singletonMap("customer", "gonzo"), variables.get(processInstance2.getId()));
+    
+    // Local variables only
+    variables = runtimeService.getVariablesLocalForExecutions(executionIds, null);
+    assertEquals(2, variables.get(childExecutionId).size());
+    assertEquals("fozzie", variables.get(childExecutionId).get("customer"));
+    assertNull(variables.get(childExecutionId).get("amount"));
+    assertEquals(2, variables.get(processInstance1.getId()).size());
+    
+    try {
+      runtimeService.getVariablesForExecutions(Arrays.asList(processInstance1.getId(), "unexistingExecutionId"), null);
+      fail("ActivitiException expected");
+    } catch (ActivitiObjectNotFoundException ae) {
+      assertTextPresent("execution unexistingExecutionId doesn't exist", ae.getMessage());
+      assertEquals(Execution.class, ae.getObjectClass());
+    }
+  }
+  
+  @Deployment(resources={"org/activiti/engine/test/api/runtime/threeParallelTasks.bpmn20.xml"})
+  public void testGetVariablesByNameFromParentScope() {
+    Map<String, Object> vars = new HashMap<String, Object>();
+    vars.put("customer", "kermit");
+    vars.put("amount", 100L);
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("threeParallelTasks", vars);
+    
+    Execution childExecution = runtimeService.createExecutionQuery()
+      .processInstanceId(processInstance.getId())
+      .activityId("task2")
+      .singleResult();
+    runtimeService.setVariableLocal(childExecution.getId(), "amount", 200L);
+    
+    assertEquals("kermit", runtimeService.getVariable(childExecution.getId(), "customer"));
+    assertEquals(200L, runtimeService.getVariable(childExecution.getId(), "amount"));
+    assertNull(runtimeService.getVariableLocal(childExecution.getId(), "customer"));
+    assertNull(runtimeService.getVariable(childExecution.getId(), "unexisting"));
+    
+    Map<String, Object> variables = runtimeService.getVariables(childExecution.getId(), Arrays.asList("customer", "amount", "unexisting"));
+    assertEquals(2, variables.size());
+    assertEquals("kermit", variables.get("customer"));
+    assertEquals(200L, variables.get("amount"));
+    
+    variables = runtimeService.getVariablesLocal(childExecution.getId(), Arrays.asList("customer", "amount"));
+    assertEquals(Collections.singletonMap("amount", 200L), variables);
+  }
+  
   public void testGetVariableUnexistingExecutionId() {
     try {
       runtimeService.getVariables("unexistingExecutionId");
@@ -14,6 +14,7 @@
 package org.activiti.engine.test.api.task;
 
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
@@ -31,6 +32,7 @@ import org.activiti.engine.history.HistoricTaskInstance;
 import org.activiti.engine.identity.Group;
 import org.activiti.engine.identity.User;
 import org.activiti.engine.impl.TaskServiceImpl;
+import org.activiti.engine.impl.db.DbSqlSession;
 import org.activiti.engine.impl.history.HistoryLevel;
 import org.activiti.engine.impl.persistence.entity.CommentEntity;
 import org.activiti.engine.impl.persistence.entity.HistoricDetailVariableInstanceUpdateEntity;
@@ -43,6 +45,7 @@ import org.activiti.engine.task.Event;
 import org.activiti.engine.task.IdentityLink;
 import org.activiti.engine.task.IdentityLinkType;
 import org.activiti.engine.task.Task;
+import org.activiti.engine.task.TaskOperationResult;
 import org.activiti.engine.test.Deployment;
 
 /**
@@ -499,6 +502,91 @@ public class TaskServiceTest extends PluggableActivitiTestCase {
     taskService.deleteTask(task.getId(), true);
     identityService.deleteUser(user.getId());
   }
+  
+  @Deployment(resources = { "org/activiti/engine/test/api/oneTaskProcess.bpmn20.xml" })
+  public void testClaimTasks() {
+    List<String> taskIds = new ArrayList<String>();
+    for (int i = 0; i < 4; i++) {
+      String processInstanceId = runtimeService.startProcessInstanceByKey("oneTaskProcess").getId();
+      taskIds.add(taskService.createTaskQuery().processInstanceId(processInstanceId).singleResult().getId());
+    }
+    taskService.claim(taskIds.get(1), "kermit");
+    
+    // The task claimed by someone else fails, the others are claimed
+    List<TaskOperationResult> results = taskService.claimTasks(taskIds, "fozzie", 2);
+    assertEquals(4, results.size());
+    for (int i = 0; i < results.size(); i++) {
+      assertEquals(taskIds.get(i), results.get(i).getTaskId());
+      Task task = taskService.createTaskQuery().taskId(taskIds.get(i)).singleResult();
+      if (i == 1) {
+        assertFalse(results.get(i).isSuccessful());
+        assertTrue(results.get(i).getException() instanceof ActivitiTaskAlreadyClaimedException);
+        assertEquals("kermit", task.getAssignee());
+      } else {
+        assertTrue(results.get(i).isSuccessful());
+        assertEquals("fozzie", task.getAssignee());
+        assertEquals(1, runtimeService.getIdentityLinksForProcessInstance(task.getProcessInstanceId()).size());
+      }
+    }
+  }
+  
+  @Deployment(resources = { "org/activiti/engine/test/api/twoTasksProcess.bpmn20.xml" })
+  public void testCompleteTasks() {
+    List<String> taskIds = new ArrayList<String>();
+    for (int i = 0; i < 3; i++) {
+      String processInstanceId = runtimeService.startProcessInstanceByKey("twoTasksProcess").getId();
+      taskIds.add(taskService.createTaskQuery().processInstanceId(processInstanceId).singleResult().getId());
+    }
+    taskIds.add(1, "unexistingtask");
+    
+    Map<String, Object> variables = new HashMap<String, Object>();
+    variables.put("approved", true);
+    List<TaskOperationResult> results = taskService.completeTasks(taskIds, variables, 0);
+    assertEquals(4, results.size());
+    assertFalse(results.get(1).isSuccessful());
+    assertTrue(results.get(1).getException() instanceof ActivitiObjectNotFoundException);
+    
+    for (String taskId : Arrays.asList(taskIds.get(0), taskIds.get(2), taskIds.get(3))) {
+      assertTrue(results.get(taskIds.indexOf(taskId)).isSuccessful());
+      assertNull(taskService.createTaskQuery().taskId(taskId).singleResult());
+    }
+    
+    List<Task> secondTasks = taskService.createTaskQuery().taskDefinitionKey("secondTask").list();
+    assertEquals(3, secondTasks.size());
+    for (Task secondTask : secondTasks) {
+      assertEquals(true, runtimeService.getVariable(secondTask.getProcessInstanceId(), "approved"));
+    }
+  }
+  
+  @Deployment(resources = { "org/activiti/engine/test/api/oneTaskProcess.bpmn20.xml" })
+  public void testCompleteTasksPrefetchedInSlices() {
+    List<String> taskIds = new ArrayList<String>();
+    for (int i = 0; i < DbSqlSession.MAX_IN_LIST_SIZE + 1; i++) {
+      runtimeService.startProcessInstanceByKey("oneTaskProcess");
+    }
+    for (Task task : taskService.createTaskQuery().list()) {
+      taskService.addCandidateUser(task.getId(), "kermit");
+      taskIds.add(task.getId());
+    }
+    
+    // All tasks in one chunk: the tasks and identity links are fetched with more than one query
+    List<TaskOperationResult> results = taskService.completeTasks(taskIds, null, taskIds.size());
+    assertEquals(taskIds.size(), results.size());
+    for (TaskOperationResult result : results) {
+      assertTrue(result.isSuccessful());
+    }
+    assertEquals(0, taskService.createTaskQuery().count());
+    assertEquals(0, runtimeService.createProcessInstanceQuery().count());
+  }
+  
+  public void testCompleteTasksNullTaskIds() {
+    try {
+      taskService.completeTasks(null);
+      fail("ActivitiException expected");
+    } catch (ActivitiIllegalArgumentException ae) {
+      assertTextPresent("taskIds is null", ae.getMessage());
+    }
+  }
 
   public void testCompleteTaskNullTaskId() {
     try {
@@ -1087,6 +1175,72 @@ public void testCompleteWithParametersTask2() {
     }
   }
   
+  @Deployment(resources={"org/activiti/engine/test/api/oneTaskProcess.bpmn20.xml"})
+  public void testGetVariablesForTasks() {
+    List<String> taskIds = new ArrayList<String>();
+    for (int i = 0; i < 3; i++) {
+      Map<String, Object> vars = new HashMap<String, Object>();
+      vars.put("customer", "customer" + i);
+      vars.put("priority", "low");
+      ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("oneTaskProcess", vars);
+      Task task = taskService.createTaskQuery().processInstanceId(processInstance.getId()).singleResult();
+      taskService.setVariableLocal(task.getId(), "priority", "high" + i);
+      taskIds.add(task.getId());
+    }
+    
+    Task standaloneTask = taskService.newTask();
+    taskService.saveTask(standaloneTask);
+    taskService.setVariableLocal(standaloneTask.getId(), "customer", "standalone");
+    taskIds.add(standaloneTask.getId());
+    
+    Map<String, Map<String, Object>> variables = taskService.getVariablesForTasks(taskIds, null);
+    assertEquals(taskIds, new ArrayList<String>(variables.keySet()));
+    for (int i = 0; i < 3; i++) {
+      Map<String, Object> taskVariables = variables.get(taskIds.get(i));
+      assertEquals(2, taskVariables.size());
+      assertEquals("customer" + i, taskVariables.get("customer"));
+      assertEquals("high" + i, taskVariables.get("priority"));
+    }
+    assertEquals(Collections.singletonMap("customer", "standalone"), variables.get(standaloneTask.getId()));
+    
+    variables = taskService.getVariablesForTasks(taskIds, Arrays.asList("customer"));
+    assertEquals(Collections.singletonMap("customer", "customer1"), variables.get(taskIds.get(1)));
+    
+    variables = taskService.getVariablesLocalForTasks(taskIds, null);
+    assertEquals(Collections.singletonMap("priority", "high2"), variables.get(taskIds.get(2)));
+    assertEquals(Collections.singletonMap("customer", "standalone"), variables.get(standaloneTask.getId()));
+    
+    try {
+      taskService.getVariablesForTasks(Arrays.asList(taskIds.get(0), "unexistingTaskId"), null);
+      fail("ActivitiException expected");
+    } catch (ActivitiObjectNotFoundException ae) {
+      assertTextPresent("task unexistingTaskId doesn't exist", ae.getMessage());
+      assertEquals(Task.class, ae.getObjectClass());
+    }
+    
+    taskService.deleteTask(standaloneTask.getId(), true);
+  }
+  
+  @Deployment(resources = { "org/activiti/engine/test/api/oneTaskProcess.bpmn20.xml" })
+  public void testGetVariablesForTasksFetchedInSlices() {
+    for (int i = 0; i < DbSqlSession.MAX_IN_LIST_SIZE + 1; i++) {
+      runtimeService.startProcessInstanceByKey("oneTaskProcess", Collections.<String, Object>singletonMap("customer", "customer" + i));
+    }
+    List<String> taskIds = new ArrayList<String>();
+    for (Task task : taskService.createTaskQuery().list()) {
+      taskService.setVariableLocal(task.getId(), "priority", "high");
+      taskIds.add(task.getId());
+    }
+    
+    // the variables of the tasks and of their executions are fetched with more than one query
+    Map<String, Map<String, Object>> variables = taskService.getVariablesForTasks(taskIds, null);
+    assertEquals(taskIds.size(), variables.size());
+    for (Map<String, Object> taskVariables : variables.values()) {
+      assertEquals(2, taskVariables.size());
+      assertEquals("high", taskVariables.get("priority"));
+    }
+  }
+  
   @Deployment(resources = { "org/activiti/engine/test/api/oneTaskProcess.bpmn20.xml" })
   public void testRemoveVariable() {
     ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("oneTaskProcess");
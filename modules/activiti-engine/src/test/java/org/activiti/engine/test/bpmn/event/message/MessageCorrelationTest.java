@@ -0,0 +1,150 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.engine.test.bpmn.event.message;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.activiti.engine.ActivitiException;
+import org.activiti.engine.ActivitiObjectNotFoundException;
+import org.activiti.engine.impl.interceptor.Command;
+import org.activiti.engine.impl.interceptor.CommandContext;
+import org.activiti.engine.impl.persistence.entity.EventSubscriptionEntityManager;
+import org.activiti.engine.impl.persistence.entity.MessageEventSubscriptionEntity;
+import org.activiti.engine.impl.test.PluggableActivitiTestCase;
+import org.activiti.engine.runtime.ProcessInstance;
+import org.activiti.engine.task.Task;
+import org.activiti.engine.test.Deployment;
+
+public class MessageCorrelationTest extends PluggableActivitiTestCase {
+
+  @Deployment(resources = "org/activiti/engine/test/bpmn/event/message/MessageCorrelationTest.bpmn20.xml")
+  public void testCorrelateMessage() {
+    // No process instance with the business key yet: the message starts one
+    ProcessInstance started = runtimeService.correlateMessage("orderPlaced", "order-1");
+    assertEquals("order-1", started.getBusinessKey());
+    assertEquals(1, runtimeService.createProcessInstanceQuery().processInstanceBusinessKey("order-1").count());
+
+    // The waiting execution receives the message, together with the variables
+    Map<String, Object> variables = Collections.<String, Object>singletonMap("amount", 100L);
+    ProcessInstance correlated = runtimeService.correlateMessage("paymentReceived", "order-1", variables);
+    assertEquals(started.getId(), correlated.getId());
+    assertEquals(100L, runtimeService.getVariable(started.getId(), "amount"));
+    Task task = taskService.createTaskQuery().processInstanceId(started.getId()).singleResult();
+    assertEquals("ship", task.getTaskDefinitionKey());
+  }
+
+  @Deployment(resources = "org/activiti/engine/test/bpmn/event/message/MessageCorrelationTest.bpmn20.xml")
+  public void testCorrelateMessages() {
+    runtimeService.startProcessInstanceByMessage("orderPlaced", "order-1");
+    runtimeService.startProcessInstanceByMessage("orderPlaced", "order-2");
+    runtimeService.startProcessInstanceByMessage("orderPlaced", "order-3");
+
+    Map<String, Map<String, Object>> payments = new LinkedHashMap<String, Map<String, Object>>();
+    payments.put("order-3", Collections.<String, Object>singletonMap("amount", 3L));
+    payments.put("order-1", null);
+    List<ProcessInstance> processInstances = runtimeService.correlateMessages("paymentReceived", payments);
+
+    assertEquals(2, processInstances.size());
+    assertEquals("order-3", processInstances.get(0).getBusinessKey());
+    assertEquals("order-1", processInstances.get(1).getBusinessKey());
+    assertEquals(3L, runtimeService.getVariable(processInstances.get(0).getId(), "amount"));
+    assertEquals(2, taskService.createTaskQuery().taskDefinitionKey("ship").count());
+    assertEquals(1, runtimeService.createExecutionQuery().messageEventSubscriptionName("paymentReceived").count());
+  }
+
+  @Deployment(resources = "org/activiti/engine/test/bpmn/event/message/MessageCorrelationTest.bpmn20.xml")
+  public void testBusinessKeysLookedUpInChunks() {
+    final ProcessInstance processInstance = runtimeService.startProcessInstanceByMessage("orderPlaced", "order-last");
+
+    // The business key of the waiting process instance only falls in the second chunk
+    final List<String> businessKeys = new ArrayList<String>();
+    for (int i = 0; i < EventSubscriptionEntityManager.MAX_BUSINESS_KEYS_PER_QUERY; i++) {
+      businessKeys.add("order-" + i);
+    }
+    businessKeys.add("order-last");
+
+    List<MessageEventSubscriptionEntity> eventSubscriptions = managementService.executeCommand(new Command<List<MessageEventSubscriptionEntity>>() {
+      public List<MessageEventSubscriptionEntity> execute(CommandContext commandContext) {
+        return commandContext.getEventSubscriptionEntityManager()
+          .findMessageEventSubscriptionsByNameAndBusinessKeys("paymentReceived", businessKeys, null);
+      }
+    });
+    assertEquals(1, eventSubscriptions.size());
+    assertEquals(processInstance.getId(), eventSubscriptions.get(0).getProcessInstanceId());
+  }
+
+  public void testCorrelateMessageAndTenantId() {
+    String deploymentId = repositoryService.createDeployment()
+      .addClasspathResource("org/activiti/engine/test/bpmn/event/message/MessageCorrelationTest.bpmn20.xml")
+      .tenantId("tenantA")
+      .deploy()
+      .getId();
+    try {
+      // The message only starts a process definition of the given tenant
+      try {
+        runtimeService.correlateMessageAndTenantId("orderPlaced", "order-1", null, "tenantB");
+        fail("ActivitiObjectNotFoundException expected");
+      } catch (ActivitiObjectNotFoundException e) {
+        // The only process definition started by the message belongs to tenantA
+      }
+      ProcessInstance started = runtimeService.correlateMessageAndTenantId("orderPlaced", "order-1", null, "tenantA");
+      assertEquals("tenantA", started.getTenantId());
+
+      // Nor is it correlated with a waiting process instance of another tenant
+      Map<String, Object> variables = Collections.<String, Object>singletonMap("amount", 100L);
+      try {
+        runtimeService.correlateMessageAndTenantId("paymentReceived", "order-1", variables, "tenantB");
+        fail("ActivitiObjectNotFoundException expected");
+      } catch (ActivitiObjectNotFoundException e) {
+        // The process instance of order-1 belongs to tenantA
+      }
+      assertEquals(1, runtimeService.createExecutionQuery().messageEventSubscriptionName("paymentReceived").count());
+
+      Map<String, Map<String, Object>> payments = Collections.singletonMap("order-1", variables);
+      List<ProcessInstance> correlated = runtimeService.correlateMessagesAndTenantId("paymentReceived", payments, "tenantA");
+      assertEquals(1, correlated.size());
+      assertEquals(started.getId(), correlated.get(0).getId());
+      assertEquals(100L, runtimeService.getVariable(started.getId(), "amount"));
+    } finally {
+      repositoryService.deleteDeployment(deploymentId, true);
+    }
+  }
+
+  @Deployment(resources = "org/activiti/engine/test/bpmn/event/message/MessageIntermediateEventTest.testConcurrentIntermediateMessageEvent.bpmn20.xml")
+  public void testCorrelateMessageToMoreThanOneExecution() {
+    runtimeService.startProcessInstanceByKey("process", "invoice-1");
+    try {
+      runtimeService.correlateMessage("newInvoiceMessage", "invoice-1");
+      fail("ActivitiException expected");
+    } catch (ActivitiException e) {
+      assertTextPresent("more than one execution", e.getMessage());
+    }
+  }
+
+  @Deployment(resources = "org/activiti/engine/test/bpmn/event/message/MessageIntermediateEventTest.testSingleIntermediateMessageEvent.bpmn20.xml")
+  public void testCorrelateMessageWithoutSubscription() {
+    runtimeService.startProcessInstanceByKey("process", "invoice-1");
+    try {
+      runtimeService.correlateMessage("newInvoiceMessage", "invoice-2", new HashMap<String, Object>());
+      fail("ActivitiObjectNotFoundException expected");
+    } catch (ActivitiObjectNotFoundException e) {
+      // No execution of invoice-2 waits for the message and no process can be started by it
+    }
+  }
+
+}
@@ -18,6 +18,8 @@ import java.util.List;
 import java.util.Map;
 
 import org.activiti.engine.history.HistoricActivityInstance;
+import org.activiti.engine.impl.interceptor.Command;
+import org.activiti.engine.impl.interceptor.CommandContext;
 import org.activiti.engine.impl.test.PluggableActivitiTestCase;
 import org.activiti.engine.runtime.ProcessInstance;
 import org.activiti.engine.task.Task;
@@ -108,6 +110,57 @@ public class ParallelGatewayTest extends PluggableActivitiTestCase {
    assertEquals("Task C", tasks.get(0).getName());   
   }
   
+  /**
+   * Executions arriving in the join in the same transaction aren't flushed yet 
+   * when the next one arrives, but still count as joined.
+   */
+  @Deployment
+  public void testJoinInSingleTransaction() {
+    String processInstanceId = runtimeService.startProcessInstanceByKey("joinInSingleTransaction").getId();
+    
+    final String wait1 = runtimeService.createExecutionQuery().activityId("wait1").singleResult().getId();
+    final String wait2 = runtimeService.createExecutionQuery().activityId("wait2").singleResult().getId();
+    String wait3 = runtimeService.createExecutionQuery().activityId("wait3").singleResult().getId();
+    managementService.executeCommand(new Command<Void>() {
+      public Void execute(CommandContext commandContext) {
+        commandContext.getExecutionEntityManager().findExecutionById(wait1).signal(null, null);
+        commandContext.getExecutionEntityManager().findExecutionById(wait2).signal(null, null);
+        return null;
+      }
+    });
+    assertEquals(0, taskService.createTaskQuery().processInstanceId(processInstanceId).count());
+    
+    runtimeService.signal(wait3);
+    Task task = taskService.createTaskQuery().processInstanceId(processInstanceId).singleResult();
+    assertEquals("afterJoin", task.getTaskDefinitionKey());
+    
+    taskService.complete(task.getId());
+    assertProcessEnded(processInstanceId);
+  }
+  
+  /**
+   * The concurrent executions in the subprocess and in the task with a boundary 
+   * event have child executions while the other executions arrive in the join.
+   */
+  @Deployment
+  public void testJoinWithNestedScopes() {
+    String processInstanceId = runtimeService.startProcessInstanceByKey("joinWithNestedScopes").getId();
+    
+    runtimeService.signal(runtimeService.createExecutionQuery().activityId("wait1").singleResult().getId());
+    assertEquals(0, taskService.createTaskQuery().taskDefinitionKey("afterJoin").count());
+    
+    runtimeService.signal(runtimeService.createExecutionQuery().activityId("subProcessWait").singleResult().getId());
+    assertEquals(0, taskService.createTaskQuery().taskDefinitionKey("afterJoin").count());
+    
+    taskService.complete(taskService.createTaskQuery().taskDefinitionKey("taskWithTimer").singleResult().getId());
+    Task task = taskService.createTaskQuery().processInstanceId(processInstanceId).singleResult();
+    assertEquals("afterJoin", task.getTaskDefinitionKey());
+    assertEquals(0, managementService.createJobQuery().processInstanceId(processInstanceId).count());
+    
+    taskService.complete(task.getId());
+    assertProcessEnded(processInstanceId);
+  }
+  
   /**
    * http://jira.codehaus.org/browse/ACT-1222
    */
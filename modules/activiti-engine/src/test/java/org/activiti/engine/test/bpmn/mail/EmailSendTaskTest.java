@@ -21,12 +21,20 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Properties;
 
 import javax.activation.DataHandler;
 import javax.mail.MessagingException;
+import javax.mail.Session;
 import javax.mail.internet.MimeMessage;
 
+import org.activiti.engine.ActivitiException;
+import org.activiti.engine.impl.interceptor.Command;
+import org.activiti.engine.impl.interceptor.CommandContext;
+import org.activiti.engine.impl.mail.AsyncMailSender;
+import org.activiti.engine.impl.persistence.entity.ByteArrayEntity;
 import org.activiti.engine.impl.util.CollectionUtil;
+import org.activiti.engine.runtime.Job;
 import org.activiti.engine.test.Deployment;
 import org.subethamail.wiser.WiserMessage;
 
@@ -115,8 +123,170 @@ public class EmailSendTaskTest extends EmailTestCase {
     assertEmailSend(messages.get(0), true, "Test", "Mr. <b>Kermit</b>", "activiti@localhost", Arrays.asList("kermit@activiti.org"), null);
   }
   
+  @Deployment(resources = {"org/activiti/engine/test/bpmn/mail/EmailSendTaskTest.testCcAndBcc.bpmn20.xml"})
+  public void testAsyncMailDelivery() throws Exception {
+    startAsyncMailSender();
+    try {
+      runtimeService.startProcessInstanceByKey("ccAndBcc");
+      
+      List<WiserMessage> messages = waitForMessages(3);
+      assertEmailSend(messages.get(0), false, "Hello world", "This is the content", "activiti@localhost", 
+              Arrays.asList("kermit@activiti.org"), Arrays.asList("fozzie@activiti.org"));
+      assertEquals(3, messages.size());
+      waitForJobsDeleted();
+    } finally {
+      stopAsyncMailSender();
+    }
+  }
+  
+  @Deployment
+  public void testAsyncMailRolledBack() throws Exception {
+    startAsyncMailSender();
+    try {
+      try {
+        runtimeService.startProcessInstanceByKey("asyncMailRolledBack");
+        fail("exception expected");
+      } catch (ActivitiException e) {
+        // expected: the service task after the mail task fails
+      }
+      Thread.sleep(500L);
+      assertEquals(0, wiser.getMessages().size());
+      assertEquals(0, managementService.createJobQuery().count());
+    } finally {
+      stopAsyncMailSender();
+    }
+  }
+  
+  @Deployment(resources = {"org/activiti/engine/test/bpmn/mail/EmailSendTaskTest.testSimpleTextMail.bpmn20.xml"})
+  public void testAsyncMailSentByJobExecutorAfterFailure() throws Exception {
+    AsyncMailSender asyncMailSender = startAsyncMailSender();
+    try {
+      // No mail server listening on this port
+      Properties properties = new Properties();
+      properties.put("mail.transport.protocol", "smtp");
+      properties.put("mail.smtp.host", "localhost");
+      properties.put("mail.smtp.port", "5026");
+      asyncMailSender.setMailSession(Session.getInstance(properties));
+      
+      runtimeService.startProcessInstanceByKey("simpleTextOnly");
+      
+      // The job of the mail is unlocked, so the job executor sends it
+      Job job = managementService.createJobQuery().singleResult();
+      assertNotNull(job);
+      long waitUntil = System.currentTimeMillis() + 10000L;
+      while (getLockOwner(job.getId()) != null && System.currentTimeMillis() < waitUntil) {
+        Thread.sleep(50L);
+      }
+      assertNull(getLockOwner(job.getId()));
+      assertEquals(0, wiser.getMessages().size());
+      
+      asyncMailSender.setMailSession(null);
+      managementService.executeJob(job.getId());
+      
+      List<WiserMessage> messages = wiser.getMessages();
+      assertEquals(1, messages.size());
+      assertEmailSend(messages.get(0), false, "Hello Kermit!", "This a text only e-mail.", "activiti@localhost",
+              Arrays.asList("kermit@activiti.org"), null);
+      assertEquals(0, managementService.createJobQuery().count());
+    } finally {
+      stopAsyncMailSender();
+    }
+  }
+  
+  @Deployment
+  public void testPendingAsyncMailDeletedWithProcessInstance() {
+    // The sender isn't started, so the mail is left to the (inactive) job executor
+    processEngineConfiguration.setEnableAsyncMailDelivery(true);
+    try {
+      String processInstanceId = runtimeService.startProcessInstanceByKey("pendingAsyncMail").getId();
+      final Job job = managementService.createJobQuery().processInstanceId(processInstanceId).singleResult();
+      assertNotNull(job);
+      final String mailByteArrayId = managementService.executeCommand(new Command<String>() {
+        public String execute(CommandContext commandContext) {
+          return commandContext.getJobEntityManager().findJobById(job.getId()).getJobHandlerConfiguration();
+        }
+      });
+      assertNotNull(mailByteArrayId);
+      
+      runtimeService.deleteProcessInstance(processInstanceId, "test");
+      
+      assertEquals(0, managementService.createJobQuery().count());
+      assertNull(managementService.executeCommand(new Command<ByteArrayEntity>() {
+        public ByteArrayEntity execute(CommandContext commandContext) {
+          return commandContext.getByteArrayEntityManager().findById(mailByteArrayId);
+        }
+      }));
+      assertEquals(0, wiser.getMessages().size());
+    } finally {
+      processEngineConfiguration.setEnableAsyncMailDelivery(false);
+    }
+  }
+  
+  @Deployment(resources = "org/activiti/engine/test/bpmn/mail/EmailSendTaskTest.testPendingAsyncMailDeletedWithProcessInstance.bpmn20.xml")
+  public void testPendingAsyncMailDeletedWithBulkDelete() {
+    processEngineConfiguration.setEnableAsyncMailDelivery(true);
+    try {
+      String processInstanceId = runtimeService.startProcessInstanceByKey("pendingAsyncMail").getId();
+      final Job job = managementService.createJobQuery().processInstanceId(processInstanceId).singleResult();
+      final String mailByteArrayId = managementService.executeCommand(new Command<String>() {
+        public String execute(CommandContext commandContext) {
+          return commandContext.getJobEntityManager().findJobById(job.getId()).getJobHandlerConfiguration();
+        }
+      });
+      
+      runtimeService.deleteProcessInstancesWithHistory(Collections.singletonList(processInstanceId));
+      
+      assertEquals(0, managementService.createJobQuery().count());
+      assertNull(managementService.executeCommand(new Command<ByteArrayEntity>() {
+        public ByteArrayEntity execute(CommandContext commandContext) {
+          return commandContext.getByteArrayEntityManager().findById(mailByteArrayId);
+        }
+      }));
+    } finally {
+      processEngineConfiguration.setEnableAsyncMailDelivery(false);
+    }
+  }
+  
   // Helper 
   
+  protected AsyncMailSender startAsyncMailSender() {
+    processEngineConfiguration.setEnableAsyncMailDelivery(true);
+    AsyncMailSender asyncMailSender = processEngineConfiguration.getAsyncMailSender();
+    asyncMailSender.start();
+    return asyncMailSender;
+  }
+  
+  protected void stopAsyncMailSender() {
+    processEngineConfiguration.setEnableAsyncMailDelivery(false);
+    processEngineConfiguration.getAsyncMailSender().shutdown();
+    processEngineConfiguration.getAsyncMailSender().setMailSession(null);
+  }
+  
+  protected List<WiserMessage> waitForMessages(int nrOfMessages) throws InterruptedException {
+    long waitUntil = System.currentTimeMillis() + 10000L;
+    while (wiser.getMessages().size() < nrOfMessages && System.currentTimeMillis() < waitUntil) {
+      Thread.sleep(50L);
+    }
+    return wiser.getMessages();
+  }
+  
+  protected void waitForJobsDeleted() throws InterruptedException {
+    long waitUntil = System.currentTimeMillis() + 10000L;
+    while (managementService.createJobQuery().count() > 0 && System.currentTimeMillis() < waitUntil) {
+      Thread.sleep(50L);
+    }
+    assertEquals(0, managementService.createJobQuery().count());
+  }
+  
+  protected String getLockOwner(final String jobId) {
+    return managementService.executeCommand(new Command<String>() {
+      public String execute(CommandContext commandContext) {
+        return commandContext.getJobEntityManager().findJobById(jobId).getLockOwner();
+      }
+    });
+  }
+  
+  
   private void assertEmailSend(WiserMessage emailMessage, boolean htmlMail, String subject, String message, 
           String from, List<String> to, List<String> cc) throws IOException {
     try {
@@ -24,7 +24,11 @@ import java.util.Map;
 import org.activiti.engine.history.HistoricActivityInstance;
 import org.activiti.engine.history.HistoricProcessInstance;
 import org.activiti.engine.history.HistoricTaskInstance;
+import org.activiti.engine.impl.cmd.CheckParallelMultiInstanceCompletionCmd;
 import org.activiti.engine.impl.history.HistoryLevel;
+import org.activiti.engine.impl.interceptor.Command;
+import org.activiti.engine.impl.interceptor.CommandContext;
+import org.activiti.engine.impl.persistence.entity.ExecutionEntity;
 import org.activiti.engine.impl.test.PluggableActivitiTestCase;
 import org.activiti.engine.impl.util.ClockUtil;
 import org.activiti.engine.impl.util.CollectionUtil;
@@ -194,6 +198,111 @@ public class MultiInstanceTest extends PluggableActivitiTestCase {
     }
   }
   
+  @Deployment(resources = {"org/activiti/engine/test/bpmn/multiinstance/MultiInstanceTest.testParallelUserTasks.bpmn20.xml"})
+  public void testParallelUserTasksConcurrentCompletion() {
+    processEngineConfiguration.setEnableConcurrentMultiInstanceCompletion(true);
+    try {
+      String procId = runtimeService.startProcessInstanceByKey("miParallelUserTasks").getId();
+      
+      List<Task> tasks = taskService.createTaskQuery().orderByTaskName().asc().list();
+      assertEquals(3, tasks.size());
+      
+      // The loop counters are kept on the completed instance
+      taskService.complete(tasks.get(0).getId());
+      assertEquals(1, runtimeService.getVariableLocal(tasks.get(0).getExecutionId(), "nrOfCompletedInstances"));
+      assertEquals(2, runtimeService.getVariableLocal(tasks.get(0).getExecutionId(), "nrOfActiveInstances"));
+      taskService.complete(tasks.get(1).getId());
+      assertEquals(2, runtimeService.getVariableLocal(tasks.get(1).getExecutionId(), "nrOfCompletedInstances"));
+      assertEquals(1, runtimeService.getVariableLocal(tasks.get(1).getExecutionId(), "nrOfActiveInstances"));
+      
+      taskService.complete(tasks.get(2).getId());
+      assertProcessEnded(procId);
+    } finally {
+      processEngineConfiguration.setEnableConcurrentMultiInstanceCompletion(false);
+    }
+  }
+  
+  @Deployment(resources = {"org/activiti/engine/test/bpmn/multiinstance/MultiInstanceTest.testParallelUserTasks.bpmn20.xml"})
+  public void testParallelUserTasksConcurrentCompletionCheck() {
+    processEngineConfiguration.setEnableConcurrentMultiInstanceCompletion(true);
+    try {
+      String procId = runtimeService.startProcessInstanceByKey("miParallelUserTasks").getId();
+      
+      List<Task> tasks = taskService.createTaskQuery().orderByTaskName().asc().list();
+      taskService.complete(tasks.get(0).getId());
+      taskService.complete(tasks.get(1).getId());
+      
+      // Every completion that doesn't join the instances creates a job checking again
+      List<Job> completionChecks = managementService.createJobQuery().processInstanceId(procId).list();
+      assertEquals(2, completionChecks.size());
+      managementService.executeJob(completionChecks.get(0).getId());
+      assertEquals(1, taskService.createTaskQuery().processInstanceId(procId).count());
+      
+      // Leave the last instance completed but not joined, as happens when the transactions 
+      // completing the last instances can't see each other's changes
+      final String executionId = tasks.get(2).getExecutionId();
+      String parentExecutionId = managementService.executeCommand(new Command<String>() {
+        public String execute(CommandContext commandContext) {
+          ExecutionEntity execution = commandContext.getExecutionEntityManager().findExecutionById(executionId);
+          execution.inactivate();
+          return execution.getParentId();
+        }
+      });
+      assertFalse(managementService.executeCommand(new CheckParallelMultiInstanceCompletionCmd(parentExecutionId, "otherActivity")));
+      assertEquals(1, taskService.createTaskQuery().processInstanceId(procId).count());
+      
+      // The remaining check, committed together with the completion of the second instance, joins them
+      managementService.executeJob(completionChecks.get(1).getId());
+      assertProcessEnded(procId);
+      assertEquals(0, managementService.createJobQuery().count());
+    } finally {
+      processEngineConfiguration.setEnableConcurrentMultiInstanceCompletion(false);
+    }
+  }
+  
+  @Deployment(resources = {"org/activiti/engine/test/bpmn/multiinstance/MultiInstanceTest.testParallelUserTasksCompletionCondition.bpmn20.xml"})
+  public void testParallelUserTasksConcurrentCompletionCheckWithCompletionCondition() {
+    processEngineConfiguration.setEnableConcurrentMultiInstanceCompletion(true);
+    try {
+      String procId = runtimeService.startProcessInstanceByKey("miParallelUserTasksCompletionCondition").getId();
+      List<Task> tasks = taskService.createTaskQuery().list();
+      taskService.complete(tasks.get(0).getId());
+      taskService.complete(tasks.get(1).getId());
+      
+      // The third instance completed without seeing the other completions
+      final String executionId = tasks.get(2).getExecutionId();
+      managementService.executeCommand(new Command<Void>() {
+        public Void execute(CommandContext commandContext) {
+          commandContext.getExecutionEntityManager().findExecutionById(executionId).inactivate();
+          return null;
+        }
+      });
+      assertEquals(2, managementService.createJobQuery().processInstanceId(procId).count());
+      
+      // 3 out of 5 instances completed satisfy the completion condition
+      managementService.executeJob(managementService.createJobQuery().processInstanceId(procId).list().get(0).getId());
+      assertProcessEnded(procId);
+    } finally {
+      processEngineConfiguration.setEnableConcurrentMultiInstanceCompletion(false);
+    }
+  }
+  
+  @Deployment(resources = {"org/activiti/engine/test/bpmn/multiinstance/MultiInstanceTest.testParallelSubProcessAllAutomatic.bpmn20.xml"})
+  public void testParallelSubProcessAllAutomaticConcurrentCompletion() {
+    processEngineConfiguration.setEnableConcurrentMultiInstanceCompletion(true);
+    try {
+      String procId = runtimeService.startProcessInstanceByKey("miParallelSubprocessAllAutomatics",
+              CollectionUtil.singletonMap("nrOfLoops", 10)).getId();
+      Execution waitState = runtimeService.createExecutionQuery().singleResult();
+      assertEquals(12, runtimeService.getVariable(waitState.getId(), "sum"));
+      
+      runtimeService.signal(waitState.getId());
+      assertProcessEnded(procId);
+    } finally {
+      processEngineConfiguration.setEnableConcurrentMultiInstanceCompletion(false);
+    }
+  }
+  
   @Deployment
   public void testParallelUserTasksWithTimer() {
     String procId = runtimeService.startProcessInstanceByKey("miParallelUserTasksWithTimer").getId();
@@ -24,6 +24,8 @@ import org.activiti.engine.TaskService;
 import org.activiti.engine.impl.cfg.ProcessEngineConfigurationImpl;
 import org.activiti.engine.impl.cfg.StandaloneInMemProcessEngineConfiguration;
 import org.activiti.engine.impl.cfg.StandaloneProcessEngineConfiguration;
+import org.activiti.engine.impl.persistence.deploy.DefaultDeploymentCache;
+import org.activiti.engine.impl.persistence.entity.ProcessDefinitionEntity;
 import org.activiti.engine.impl.test.PvmTestCase;
 import org.activiti.engine.repository.ProcessDefinition;
 import org.activiti.engine.runtime.ProcessInstance;
@@ -193,4 +195,61 @@ public class ProcessDefinitionCacheTest extends PvmTestCase {
     processEngine2.close();
   }
  
+  public void testProcessDefinitionCacheWarmUp() {
+    ProcessEngine processEngine = new StandaloneProcessEngineConfiguration()
+      .setProcessEngineName("warm-up-test-schema")
+      .setDatabaseSchemaUpdate(org.activiti.engine.ProcessEngineConfiguration.DB_SCHEMA_UPDATE_TRUE)
+      .setJdbcUrl("jdbc:h2:mem:activiti-process-cache-warm-up-test;DB_CLOSE_DELAY=1000")
+      .setJobExecutorActivate(false)
+      .buildProcessEngine();
+    RepositoryService repositoryService = processEngine.getRepositoryService();
+    
+    // Version 1 has a running process instance, version 2 is the latest version
+    String originalDeploymentId = repositoryService.createDeployment()
+      .addClasspathResource("org/activiti/engine/test/cache/originalProcess.bpmn20.xml")
+      .deploy()
+      .getId();
+    processEngine.getRuntimeService().startProcessInstanceByKey("oneTaskProcess");
+    String revisedDeploymentId = repositoryService.createDeployment()
+      .addClasspathResource("org/activiti/engine/test/cache/revisedProcess.bpmn20.xml")
+      .deploy()
+      .getId();
+    
+    // Latest versions and process definitions with running instances
+    ProcessEngineConfigurationImpl warmUpConfiguration = (ProcessEngineConfigurationImpl) new StandaloneProcessEngineConfiguration()
+      .setEnableProcessDefinitionCacheWarmUp(true)
+      .setProcessEngineName("warm-up-test")
+      .setDatabaseSchemaUpdate(org.activiti.engine.ProcessEngineConfiguration.DB_SCHEMA_UPDATE_FALSE)
+      .setJdbcUrl("jdbc:h2:mem:activiti-process-cache-warm-up-test;DB_CLOSE_DELAY=1000")
+      .setJobExecutorActivate(false);
+    ProcessEngine warmUpProcessEngine = warmUpConfiguration.buildProcessEngine();
+    DefaultDeploymentCache<ProcessDefinitionEntity> cache = (DefaultDeploymentCache<ProcessDefinitionEntity>) warmUpConfiguration.getProcessDefinitionCache();
+    assertEquals(2, cache.size());
+    warmUpProcessEngine.close();
+    
+    // Only latest versions
+    warmUpConfiguration = ((ProcessEngineConfigurationImpl) new StandaloneProcessEngineConfiguration()
+      .setProcessEngineName("warm-up-test")
+      .setDatabaseSchemaUpdate(org.activiti.engine.ProcessEngineConfiguration.DB_SCHEMA_UPDATE_FALSE)
+      .setJdbcUrl("jdbc:h2:mem:activiti-process-cache-warm-up-test;DB_CLOSE_DELAY=1000")
+      .setJobExecutorActivate(false))
+      .setEnableProcessDefinitionCacheWarmUp(true)
+      .setProcessDefinitionCacheWarmUpRunningInstances(false);
+    warmUpProcessEngine = warmUpConfiguration.buildProcessEngine();
+    cache = (DefaultDeploymentCache<ProcessDefinitionEntity>) warmUpConfiguration.getProcessDefinitionCache();
+    assertEquals(1, cache.size());
+    assertNotNull(cache.get(repositoryService.createProcessDefinitionQuery().deploymentId(revisedDeploymentId).singleResult().getId()));
+    
+    // Process definitions that were not warmed up are still lazily parsed on first use
+    Task task = warmUpProcessEngine.getTaskService().createTaskQuery().singleResult();
+    warmUpProcessEngine.getTaskService().complete(task.getId());
+    assertEquals(0, warmUpProcessEngine.getRuntimeService().createProcessInstanceQuery().count());
+    warmUpProcessEngine.close();
+    
+    // cleanup
+    repositoryService.deleteDeployment(originalDeploymentId, true);
+    repositoryService.deleteDeployment(revisedDeploymentId, true);
+    processEngine.close();
+  }
+ 
 }
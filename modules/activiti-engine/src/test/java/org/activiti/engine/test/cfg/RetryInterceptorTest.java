@@ -18,7 +18,10 @@ import org.activiti.engine.impl.interceptor.Command;
 import org.activiti.engine.impl.interceptor.CommandConfig;
 import org.activiti.engine.impl.interceptor.CommandContext;
 import org.activiti.engine.impl.interceptor.CommandInvoker;
+import org.activiti.engine.impl.interceptor.CommandRetryStatistics;
+import org.activiti.engine.impl.interceptor.DecorrelatedJitterRetryPolicy;
 import org.activiti.engine.impl.interceptor.RetryInterceptor;
+import org.activiti.engine.impl.persistence.entity.ExecutionEntity;
 
 import junit.framework.TestCase;
 
@@ -33,6 +36,19 @@ public class RetryInterceptorTest extends TestCase {
       throw new ActivitiOptimisticLockingException("");
     }
   }
+  
+  protected class CommandSucceedingAfterConflicts implements Command<String> {
+    protected int nrOfConflicts;
+    public CommandSucceedingAfterConflicts(int nrOfConflicts) {
+      this.nrOfConflicts = nrOfConflicts;
+    }
+    public String execute(CommandContext commandContext) {
+      if (nrOfConflicts-- > 0) {
+        throw new ActivitiOptimisticLockingException("", ExecutionEntity.class, "123");
+      }
+      return "done";
+    }
+  }
 
   public void testRetryInterceptor() {
     RetryInterceptor retryInterceptor = new RetryInterceptor();
@@ -44,4 +60,69 @@ public class RetryInterceptorTest extends TestCase {
       assertTrue(e.getMessage().contains(retryInterceptor.getNumOfRetries()+" retries failed"));
     }
   }
+  
+  public void testDecorrelatedJitterRetryPolicy() {
+    DecorrelatedJitterRetryPolicy retryPolicy = new DecorrelatedJitterRetryPolicy()
+      .setBaseWaitTimeInMs(1)
+      .setMaxWaitTimeInMs(5);
+    for (int i=1; i<=3; i++) {
+      long waitTime = retryPolicy.getWaitTimeBeforeRetry(new CommandThrowingOptimisticLockingException(), 
+              new ActivitiOptimisticLockingException(""), i, 4);
+      assertTrue(waitTime >= 1 && waitTime <= 5);
+    }
+    assertTrue(retryPolicy.getWaitTimeBeforeRetry(new CommandThrowingOptimisticLockingException(), 
+            new ActivitiOptimisticLockingException(""), 4, 5) < 0);
+    
+    // the first retry is jittered between the base wait time and three times the base wait time
+    DecorrelatedJitterRetryPolicy firstRetryPolicy = new DecorrelatedJitterRetryPolicy()
+      .setBaseWaitTimeInMs(10)
+      .setMaxWaitTimeInMs(100);
+    long longestWaitTime = 0;
+    for (int i=0; i<100; i++) {
+      long waitTime = firstRetryPolicy.getWaitTimeBeforeRetry(new CommandThrowingOptimisticLockingException(), 
+              new ActivitiOptimisticLockingException(""), 1, 0);
+      assertTrue(waitTime >= 10 && waitTime <= 30);
+      longestWaitTime = Math.max(longestWaitTime, waitTime);
+    }
+    assertTrue(longestWaitTime > 10);
+    
+    RetryInterceptor retryInterceptor = new RetryInterceptor();
+    retryInterceptor.setRetryPolicy(retryPolicy);
+    retryInterceptor.setNext(new CommandInvoker());
+    assertEquals("done", retryInterceptor.execute(new CommandConfig(), new CommandSucceedingAfterConflicts(2)));
+    
+    CommandRetryStatistics statistics = retryInterceptor.getStatistics().get(CommandSucceedingAfterConflicts.class.getName());
+    assertEquals(2, statistics.getConflicts());
+    assertEquals(2, statistics.getRetries());
+    assertEquals(1, statistics.getSuccessesAfterRetry());
+    assertEquals(0, statistics.getFailures());
+    assertEquals(1, statistics.getAttemptsHistogram()[3]);
+    assertEquals(Long.valueOf(2), statistics.getConflictsPerEntity().get("ExecutionEntity"));
+  }
+  
+  public void testRetriesPerCommandAndEntity() {
+    RetryInterceptor retryInterceptor = new RetryInterceptor();
+    retryInterceptor.setRetryPolicy(new DecorrelatedJitterRetryPolicy()
+      .setBaseWaitTimeInMs(1)
+      .setMaxWaitTimeInMs(1)
+      .setNumOfRetriesForCommand(CommandSucceedingAfterConflicts.class, 5)
+      .setNumOfRetriesForEntity(ExecutionEntity.class, 1));
+    retryInterceptor.setNext(new CommandInvoker());
+    
+    try {
+      retryInterceptor.execute(new CommandConfig(), new CommandSucceedingAfterConflicts(2));
+      fail("ActivitiException expected.");
+    } catch (ActivitiException e) {
+      assertTrue(e.getMessage().contains("1 retries failed"));
+    }
+    assertEquals(1, retryInterceptor.getStatistics().get(CommandSucceedingAfterConflicts.class.getName()).getFailures());
+    
+    // Other commands, conflicting on an unknown entity, use the default number of retries
+    try {
+      retryInterceptor.execute(new CommandConfig(), new CommandThrowingOptimisticLockingException());
+      fail("ActivitiException expected.");
+    } catch (ActivitiException e) {
+      assertTrue(e.getMessage().contains("3 retries failed"));
+    }
+  }
 }
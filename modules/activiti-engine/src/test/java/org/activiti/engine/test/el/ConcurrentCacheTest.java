@@ -0,0 +1,49 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.engine.test.el;
+
+import junit.framework.TestCase;
+
+import org.activiti.engine.impl.juel.Builder;
+import org.activiti.engine.impl.juel.ConcurrentCache;
+import org.activiti.engine.impl.juel.Tree;
+import org.activiti.engine.impl.juel.TreeStore;
+
+public class ConcurrentCacheTest extends TestCase {
+
+  public void testTreesAreCached() {
+    ConcurrentCache cache = new ConcurrentCache(10);
+    TreeStore store = new TreeStore(new Builder(), cache);
+
+    Tree tree = store.get("${a.b.c}");
+    assertSame(tree, store.get("${a.b.c}"));
+    assertNotSame(tree, store.get("${a.b}"));
+    assertEquals(2, cache.size());
+  }
+
+  public void testSizeIsLimited() {
+    ConcurrentCache cache = new ConcurrentCache(10);
+    TreeStore store = new TreeStore(new Builder(), cache);
+
+    for (int i = 0; i < 100; i++) {
+      Tree tree = store.get("${a > " + i + "}");
+      assertNotNull(tree);
+      assertTrue(cache.size() <= 10);
+    }
+    assertEquals(10, cache.size());
+
+    // The most recently added tree is never the one evicted
+    assertNotNull(cache.get("${a > 99}"));
+  }
+
+}
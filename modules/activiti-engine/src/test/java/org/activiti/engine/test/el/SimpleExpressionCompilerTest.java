@@ -0,0 +1,205 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.engine.test.el;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.activiti.engine.ActivitiException;
+import org.activiti.engine.delegate.Expression;
+import org.activiti.engine.impl.context.Context;
+import org.activiti.engine.impl.delegate.DelegateInvocation;
+import org.activiti.engine.impl.el.CompiledJuelExpression;
+import org.activiti.engine.impl.el.ExpressionManager;
+import org.activiti.engine.impl.el.NoExecutionVariableScope;
+import org.activiti.engine.impl.el.SimpleExpressionCompiler;
+import org.activiti.engine.impl.interceptor.DelegateInterceptor;
+import org.activiti.engine.impl.javax.el.ValueExpression;
+import org.activiti.engine.impl.test.PluggableActivitiTestCase;
+import org.activiti.engine.runtime.ProcessInstance;
+import org.activiti.engine.task.Task;
+
+public class SimpleExpressionCompilerTest extends PluggableActivitiTestCase {
+
+  protected ExpressionManager compilingExpressionManager;
+
+  @Override
+  protected void setUp() throws Exception {
+    super.setUp();
+    compilingExpressionManager = new ExpressionManager();
+    compilingExpressionManager.setSimpleExpressionCompiler(compilingExpressionManager.createSimpleExpressionCompiler());
+    Context.setProcessEngineConfiguration(processEngineConfiguration);
+  }
+
+  @Override
+  protected void tearDown() throws Exception {
+    Context.removeProcessEngineConfiguration();
+    super.tearDown();
+  }
+
+  public void testSupportedExpressions() {
+    assertCompiled("${amount > 1000}");
+    assertCompiled("${approved == true}");
+    assertCompiled("#{status == 'X'}");
+    assertCompiled("${approved}");
+    assertCompiled("${!approved && (amount <= 10 || empty name)}");
+    assertCompiled("${amount ge 10 and status ne null}");
+
+    assertNotCompiled("${customer.name == 'Kermit'}");
+    assertNotCompiled("${amount + 1 > 10}");
+    assertNotCompiled("${bean.isApproved(amount)}");
+    assertNotCompiled("${execution.id != null}");
+    assertNotCompiled("${authenticatedUserId == 'kermit'}");
+    assertNotCompiled("amount: ${amount}");
+    assertNotCompiled("plain text");
+  }
+
+  public void testSameResultAsJuel() {
+    Map<String, Object> variables = new HashMap<String, Object>();
+    variables.put("amount", 1500L);
+    variables.put("approved", Boolean.TRUE);
+    variables.put("status", "X");
+    variables.put("count", "12");
+    variables.put("name", "");
+    variables.put("rate", 1.5d);
+    variables.put("nothing", null);
+    MapVariableScope variableScope = new MapVariableScope(variables);
+
+    String[] expressions = {
+      "${amount > 1000}", "${amount < 1000}", "${amount == 1500}", "${amount != 1500.0}",
+      "${approved == true}", "${approved}", "${!approved}", "${status == 'X'}", "${status != 'Y'}",
+      "${count > 9}", "${count == 12}", "${rate >= 1.5}", "${rate < amount}", "${empty name}", "${!empty status}",
+      "${empty nothing}", "${nothing == null}", "${approved && amount > 1000 && amount <= 5000}",
+      "${!approved || (status == 'X' && count < 20)}", "${approved and not (amount lt 10)}"
+    };
+    ExpressionManager juelExpressionManager = new ExpressionManager();
+    for (String expressionText : expressions) {
+      Expression compiled = compilingExpressionManager.createExpression(expressionText);
+      Expression interpreted = juelExpressionManager.createExpression(expressionText);
+      assertTrue(expressionText, compiled instanceof CompiledJuelExpression);
+      assertEquals(expressionText, interpreted.getValue(variableScope), compiled.getValue(variableScope));
+    }
+  }
+
+  public void testFallbackToJuel() {
+    Map<String, Object> variables = new HashMap<String, Object>();
+    variables.put("amount", 1500L);
+    variables.put("status", "X");
+    MapVariableScope variableScope = new MapVariableScope(variables);
+
+    // Short-circuited before the unknown variable is needed
+    assertEquals(Boolean.FALSE, compilingExpressionManager.createExpression("${amount < 10 && unknown}").getValue(variableScope));
+
+    try {
+      compilingExpressionManager.createExpression("${unknown > 10}").getValue(variableScope);
+      fail("ActivitiException expected");
+    } catch (ActivitiException e) {
+      assertTextPresent("Unknown property used in expression", e.getMessage());
+    }
+
+    try {
+      compilingExpressionManager.createExpression("${status > 10}").getValue(variableScope);
+      fail("ActivitiException expected");
+    } catch (ActivitiException e) {
+      assertTextPresent("Error while evaluating expression", e.getMessage());
+    }
+  }
+
+  public void testEvaluatedThroughDelegateInterceptor() {
+    Map<String, Object> variables = new HashMap<String, Object>();
+    variables.put("amount", 1500L);
+    MapVariableScope variableScope = new MapVariableScope(variables);
+    
+    final List<Object> invocationTargets = new ArrayList<Object>();
+    DelegateInterceptor originalDelegateInterceptor = processEngineConfiguration.getDelegateInterceptor();
+    processEngineConfiguration.setDelegateInterceptor(new DelegateInterceptor() {
+      public void handleInvocation(DelegateInvocation invocation) throws Exception {
+        invocationTargets.add(invocation.getTarget());
+        invocation.proceed();
+      }
+    });
+    try {
+      assertEquals(Boolean.TRUE, compilingExpressionManager.createExpression("${amount > 1000}").getValue(variableScope));
+      assertEquals(Boolean.FALSE, compilingExpressionManager.createExpression("${amount < 10 && unknown}").getValue(variableScope));
+      
+      assertEquals(2, invocationTargets.size());
+      assertTrue(invocationTargets.get(0) instanceof ValueExpression);
+      assertEquals("${amount > 1000}", ((ValueExpression) invocationTargets.get(0)).getExpressionString());
+    } finally {
+      processEngineConfiguration.setDelegateInterceptor(originalDelegateInterceptor);
+    }
+  }
+
+  public void testExclusiveGatewayWithCompiledConditions() {
+    ExpressionManager expressionManager = processEngineConfiguration.getExpressionManager();
+    SimpleExpressionCompiler originalCompiler = expressionManager.getSimpleExpressionCompiler();
+    expressionManager.setSimpleExpressionCompiler(expressionManager.createSimpleExpressionCompiler());
+    String deploymentId = repositoryService.createDeployment()
+      .addClasspathResource("org/activiti/engine/test/bpmn/gateway/ExclusiveGatewayTest.testDivergingExclusiveGateway.bpmn20.xml")
+      .deploy()
+      .getId();
+    try {
+      for (int i = 1; i <= 3; i++) {
+        Map<String, Object> variables = new HashMap<String, Object>();
+        variables.put("input", i);
+        ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("exclusiveGwDiverging", variables);
+        Task task = taskService.createTaskQuery().processInstanceId(processInstance.getId()).singleResult();
+        assertEquals("Task " + i, task.getName());
+      }
+    } finally {
+      expressionManager.setSimpleExpressionCompiler(originalCompiler);
+      repositoryService.deleteDeployment(deploymentId, true);
+    }
+  }
+
+  protected void assertCompiled(String expressionText) {
+    assertTrue(expressionText, compilingExpressionManager.createExpression(expressionText) instanceof CompiledJuelExpression);
+  }
+
+  protected void assertNotCompiled(String expressionText) {
+    assertFalse(expressionText, compilingExpressionManager.createExpression(expressionText) instanceof CompiledJuelExpression);
+  }
+
+  protected static class MapVariableScope extends NoExecutionVariableScope {
+
+    protected Map<String, Object> variables;
+
+    public MapVariableScope(Map<String, Object> variables) {
+      this.variables = variables;
+    }
+
+    @Override
+    public Map<String, Object> getVariables() {
+      return variables;
+    }
+
+    @Override
+    public Object getVariable(String variableName) {
+      return variables.get(variableName);
+    }
+
+    @Override
+    public Set<String> getVariableNames() {
+      return variables.keySet();
+    }
+
+    @Override
+    public boolean hasVariable(String variableName) {
+      return variables.containsKey(variableName);
+    }
+  }
+
+}
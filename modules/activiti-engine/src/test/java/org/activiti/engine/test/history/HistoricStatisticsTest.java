@@ -0,0 +1,192 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.activiti.engine.test.history;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.activiti.engine.history.HistoricProcessInstance;
+import org.activiti.engine.history.HistoricStatistics;
+import org.activiti.engine.impl.test.PluggableActivitiTestCase;
+import org.activiti.engine.impl.util.ClockUtil;
+import org.activiti.engine.task.Task;
+import org.activiti.engine.test.Deployment;
+
+
+public class HistoricStatisticsTest extends PluggableActivitiTestCase {
+
+  private static final long HOUR = 60L * 60L * 1000L;
+
+  @Override
+  protected void setUp() throws Exception {
+    super.setUp();
+    processEngineConfiguration.setEnableHistoricStatistics(true);
+  }
+
+  @Override
+  protected void tearDown() throws Exception {
+    processEngineConfiguration.setEnableHistoricStatistics(false);
+    ClockUtil.reset();
+    super.tearDown();
+  }
+
+  @Deployment(resources={"org/activiti/engine/test/api/oneTaskProcess.bpmn20.xml"})
+  public void testStatisticsPerPeriod() {
+    Date period = new Date((System.currentTimeMillis() / HOUR) * HOUR);
+    completeInstances(period);
+
+    List<HistoricStatistics> statistics = historyService.createHistoricStatisticsQuery().processInstances().list();
+    assertEquals(2, statistics.size());
+
+    HistoricStatistics firstPeriod = statistics.get(0);
+    assertEquals(HistoricStatistics.TYPE_PROCESS_INSTANCE, firstPeriod.getType());
+    assertNull(firstPeriod.getActivityId());
+    assertEquals(period, firstPeriod.getPeriod());
+    assertEquals(2, firstPeriod.getCount());
+    assertEquals(6000L, firstPeriod.getTotalDuration());
+    assertEquals(3000L, firstPeriod.getAverageDuration());
+    assertEquals(histogram(4000L, 2L), firstPeriod.getDurationHistogram());
+
+    HistoricStatistics secondPeriod = statistics.get(1);
+    assertEquals(new Date(period.getTime() + HOUR), secondPeriod.getPeriod());
+    assertEquals(1, secondPeriod.getCount());
+    assertEquals(HOUR, secondPeriod.getTotalDuration());
+
+    statistics = historyService.createHistoricStatisticsQuery()
+      .processInstances()
+      .periodStartAfter(new Date(period.getTime() + HOUR))
+      .list();
+    assertEquals(1, statistics.size());
+    assertEquals(1, statistics.get(0).getCount());
+
+    statistics = historyService.createHistoricStatisticsQuery()
+      .processInstances()
+      .periodStartBefore(new Date(period.getTime() + HOUR))
+      .list();
+    assertEquals(1, statistics.size());
+    assertEquals(2, statistics.get(0).getCount());
+  }
+
+  @Deployment(resources={"org/activiti/engine/test/api/oneTaskProcess.bpmn20.xml"})
+  public void testAggregatedStatistics() {
+    completeInstances(new Date((System.currentTimeMillis() / HOUR) * HOUR));
+    String processDefinitionId = repositoryService.createProcessDefinitionQuery().singleResult().getId();
+
+    List<HistoricStatistics> statistics = historyService.createHistoricStatisticsQuery()
+      .processDefinitionKey("oneTaskProcess")
+      .processInstances()
+      .aggregatePeriods()
+      .list();
+    assertEquals(1, statistics.size());
+    assertEquals(processDefinitionId, statistics.get(0).getProcessDefinitionId());
+    assertNull(statistics.get(0).getPeriod());
+    assertEquals(3, statistics.get(0).getCount());
+    assertEquals(6000L + HOUR, statistics.get(0).getTotalDuration());
+
+    SortedMap<Long, Long> expectedHistogram = histogram(4000L, 2L);
+    // one hour is 3600 seconds, below 2^12 seconds
+    expectedHistogram.put(4096000L, 1L);
+    assertEquals(expectedHistogram, statistics.get(0).getDurationHistogram());
+
+    statistics = historyService.createHistoricStatisticsQuery()
+      .processDefinitionId(processDefinitionId)
+      .tasks()
+      .aggregatePeriods()
+      .list();
+    assertEquals(1, statistics.size());
+    assertEquals("theTask", statistics.get(0).getActivityId());
+    assertEquals(3, statistics.get(0).getCount());
+
+    statistics = historyService.createHistoricStatisticsQuery()
+      .activities()
+      .aggregatePeriods()
+      .list();
+    assertEquals(3, statistics.size());
+    assertEquals("theEnd", statistics.get(0).getActivityId());
+    assertEquals("theStart", statistics.get(1).getActivityId());
+    assertEquals("theTask", statistics.get(2).getActivityId());
+    assertEquals(3, statistics.get(2).getCount());
+    assertEquals(6000L + HOUR, statistics.get(2).getTotalDuration());
+
+    statistics = historyService.createHistoricStatisticsQuery()
+      .activityId("theTask")
+      .aggregatePeriods()
+      .list();
+    assertEquals(2, statistics.size());
+    assertEquals(HistoricStatistics.TYPE_ACTIVITY, statistics.get(0).getType());
+    assertEquals(HistoricStatistics.TYPE_TASK, statistics.get(1).getType());
+
+    assertTrue(historyService.createHistoricStatisticsQuery().processDefinitionKey("unexisting").list().isEmpty());
+  }
+
+  @Deployment(resources={"org/activiti/engine/test/api/oneTaskProcess.bpmn20.xml"})
+  public void testStatisticsKeptWhenHistoryIsDeleted() {
+    completeInstances(new Date((System.currentTimeMillis() / HOUR) * HOUR));
+
+    for (String processInstanceId : historicProcessInstanceIds()) {
+      historyService.deleteHistoricProcessInstance(processInstanceId);
+    }
+
+    List<HistoricStatistics> statistics = historyService.createHistoricStatisticsQuery().processInstances().aggregatePeriods().list();
+    assertEquals(1, statistics.size());
+    assertEquals(3, statistics.get(0).getCount());
+  }
+
+  @Deployment(resources={"org/activiti/engine/test/api/oneTaskProcess.bpmn20.xml"})
+  public void testNoStatisticsWhenDisabled() {
+    processEngineConfiguration.setEnableHistoricStatistics(false);
+    completeInstances(new Date((System.currentTimeMillis() / HOUR) * HOUR));
+
+    assertTrue(historyService.createHistoricStatisticsQuery().list().isEmpty());
+  }
+
+  /**
+   * Completes two instances 3 seconds after they started, and one an hour later.
+   */
+  protected void completeInstances(Date period) {
+    long start = period.getTime() + 60000L;
+    ClockUtil.setCurrentTime(new Date(start));
+    for (int i = 0; i < 3; i++) {
+      runtimeService.startProcessInstanceByKey("oneTaskProcess");
+    }
+
+    List<Task> tasks = taskService.createTaskQuery().list();
+    assertEquals(3, tasks.size());
+
+    ClockUtil.setCurrentTime(new Date(start + 3000L));
+    taskService.complete(tasks.get(0).getId());
+    taskService.complete(tasks.get(1).getId());
+
+    ClockUtil.setCurrentTime(new Date(start + HOUR));
+    taskService.complete(tasks.get(2).getId());
+  }
+
+  protected List<String> historicProcessInstanceIds() {
+    List<String> ids = new ArrayList<String>();
+    for (HistoricProcessInstance historicProcessInstance : historyService.createHistoricProcessInstanceQuery().list()) {
+      ids.add(historicProcessInstance.getId());
+    }
+    return ids;
+  }
+
+  protected SortedMap<Long, Long> histogram(long upperBound, long count) {
+    SortedMap<Long, Long> histogram = new TreeMap<Long, Long>();
+    histogram.put(upperBound, count);
+    return histogram;
+  }
+
+}
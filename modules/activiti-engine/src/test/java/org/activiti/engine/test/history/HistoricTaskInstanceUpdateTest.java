@@ -13,8 +13,15 @@
 
 package org.activiti.engine.test.history;
 
+import java.util.Date;
+
 import org.activiti.engine.history.HistoricTaskInstance;
+import org.activiti.engine.impl.history.HistoryManager;
+import org.activiti.engine.impl.interceptor.Command;
+import org.activiti.engine.impl.interceptor.CommandContext;
+import org.activiti.engine.impl.persistence.entity.HistoricTaskInstanceEntity;
 import org.activiti.engine.impl.test.PluggableActivitiTestCase;
+import org.activiti.engine.impl.util.ClockUtil;
 import org.activiti.engine.runtime.ProcessInstance;
 import org.activiti.engine.task.Task;
 import org.activiti.engine.test.Deployment;
@@ -67,4 +74,46 @@ public class HistoricTaskInstanceUpdateTest extends PluggableActivitiTestCase {
     assertNull(historicTaskInstance.getDescription());
     assertNull(historicTaskInstance.getAssignee());
   }
+  
+  @Deployment(resources = "org/activiti/engine/test/history/HistoricTaskInstanceUpdateTest.testHistoricTaskInstanceUpdate.bpmn20.xml")
+  public void testHistoricTaskInstanceColumnUpdates() {
+    runtimeService.startProcessInstanceByKey("HistoricTaskInstanceTest");
+    final Task task = taskService.createTaskQuery().singleResult();
+    
+    Date dueDate = new Date(ClockUtil.getCurrentTime().getTime() / 1000 * 1000 + 3600000L);
+    task.setPriority(80);
+    task.setOwner("kermit");
+    task.setCategory("urgent");
+    task.setDueDate(dueDate);
+    task.setAssignee(null);
+    taskService.saveTask(task);
+    taskService.claim(task.getId(), "gonzo");
+    
+    HistoricTaskInstance historicTaskInstance = historyService.createHistoricTaskInstanceQuery().singleResult();
+    assertEquals(80, historicTaskInstance.getPriority());
+    assertEquals("kermit", historicTaskInstance.getOwner());
+    assertEquals("urgent", historicTaskInstance.getCategory());
+    assertEquals(dueDate, historicTaskInstance.getDueDate());
+    assertEquals("gonzo", historicTaskInstance.getAssignee());
+    assertNotNull(historicTaskInstance.getClaimTime());
+    
+    // A historic task instance loaded after a column update must not overwrite it when it is updated itself
+    managementService.executeCommand(new Command<Void>() {
+      public Void execute(CommandContext commandContext) {
+        HistoryManager historyManager = commandContext.getHistoryManager();
+        historyManager.recordTaskNameChange(task.getId(), "Changed name");
+        commandContext.getDbSqlSession().selectById(HistoricTaskInstanceEntity.class, task.getId());
+        historyManager.recordTaskDescriptionChange(task.getId(), "Changed description");
+        historyManager.recordTaskNameChange(task.getId(), "Changed name again");
+        return null;
+      }
+    });
+    
+    historicTaskInstance = historyService.createHistoricTaskInstanceQuery().singleResult();
+    assertEquals("Changed name again", historicTaskInstance.getName());
+    assertEquals("Changed description", historicTaskInstance.getDescription());
+    assertEquals("kermit", historicTaskInstance.getOwner());
+    
+    taskService.complete(task.getId());
+  }
 }
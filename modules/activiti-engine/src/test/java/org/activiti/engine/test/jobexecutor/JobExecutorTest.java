@@ -20,6 +20,8 @@ import java.util.TreeSet;
 import org.activiti.engine.impl.interceptor.Command;
 import org.activiti.engine.impl.interceptor.CommandContext;
 import org.activiti.engine.impl.interceptor.CommandExecutor;
+import org.activiti.engine.impl.jobexecutor.DefaultJobExecutor;
+import org.activiti.engine.impl.jobexecutor.JobExecutor;
 import org.activiti.engine.impl.persistence.entity.JobEntityManager;
 
 /**
@@ -57,4 +59,43 @@ public class JobExecutorTest extends JobExecutorTestCase {
     
     assertEquals(new TreeSet<String>(expectedMessages), new TreeSet<String>(messages));
   }
+  
+  public void testOptimisticLocalExecution() throws Exception {
+    JobExecutor originalJobExecutor = processEngineConfiguration.getJobExecutor();
+    // a job executor of which the acquisition is never woken up: only the local hand-off can execute the jobs in time
+    JobExecutor jobExecutor = new DefaultJobExecutor() {
+      public void jobWasAdded() {
+      }
+    };
+    jobExecutor.setCommandExecutor(processEngineConfiguration.getCommandExecutor());
+    jobExecutor.setWaitTimeInMillis(60000);
+    jobExecutor.setOptimisticLocalExecution(true);
+    processEngineConfiguration.setJobExecutor(jobExecutor);
+    jobExecutor.start();
+    try {
+      CommandExecutor commandExecutor = processEngineConfiguration.getCommandExecutor();
+      commandExecutor.execute(new Command<Void>() {
+        public Void execute(CommandContext commandContext) {
+          JobEntityManager jobManager = commandContext.getJobEntityManager();
+          jobManager.send(createTweetMessage("message-one"));
+          jobManager.send(createTweetMessage("message-two"));
+          return null;
+        }
+      });
+      
+      long timeout = System.currentTimeMillis() + 5000L;
+      while (managementService.createJobQuery().count() > 0 && System.currentTimeMillis() < timeout) {
+        Thread.sleep(50L);
+      }
+      assertEquals(0, managementService.createJobQuery().count());
+      
+      Set<String> expectedMessages = new TreeSet<String>();
+      expectedMessages.add("message-one");
+      expectedMessages.add("message-two");
+      assertEquals(expectedMessages, new TreeSet<String>(tweetHandler.getMessages()));
+    } finally {
+      jobExecutor.shutdown();
+      processEngineConfiguration.setJobExecutor(originalJobExecutor);
+    }
+  }
 }
@@ -13,10 +13,12 @@
 package org.activiti.examples.mgmt;
 
 import java.util.Arrays;
+import java.util.Date;
 import java.util.Map;
 
 import org.activiti.engine.ManagementService;
 import org.activiti.engine.impl.test.PluggableActivitiTestCase;
+import org.activiti.engine.impl.util.ClockUtil;
 import org.activiti.engine.management.TableMetaData;
 
 /**
@@ -44,6 +46,33 @@ public class ManagementServiceTest extends PluggableActivitiTestCase {
     assertEquals(new Long(0), tableCount.get(tablePrefix+"ACT_RU_IDENTITYLINK"));
   }
 
+  public void testApproximateTableCountIsCached() {
+    String tableName = processEngineConfiguration.getDatabaseTablePrefix() + "ACT_ID_USER";
+    processEngineConfiguration.setEnableTableRowCountEstimates(true);
+    try {
+      Long approximateCount = managementService.getTableCount().get(tableName);
+      assertNotNull(approximateCount);
+      
+      identityService.saveUser(identityService.newUser("kermit"));
+      
+      // The cached row count is returned until it expires, unless an exact count is requested
+      assertEquals(approximateCount, managementService.getTableCount().get(tableName));
+      assertEquals(new Long(1), managementService.getExactTableCount().get(tableName));
+      
+      ClockUtil.setCurrentTime(new Date(System.currentTimeMillis() + processEngineConfiguration.getTableRowCountCacheTimeToLive() + 1000));
+      if ("h2".equals(processEngineConfiguration.getDatabaseType())) {
+        // No catalog estimates on h2: the rows are counted
+        assertEquals(new Long(1), managementService.getTableCount().get(tableName));
+      }
+      
+    } finally {
+      processEngineConfiguration.setEnableTableRowCountEstimates(false);
+      processEngineConfiguration.getTableRowCountCache().clear();
+      ClockUtil.reset();
+      identityService.deleteUser("kermit");
+    }
+  }
+
   public void testGetTableMetaData() {
     
     String tablePrefix = processEngineConfiguration.getDatabaseTablePrefix();
@@ -51,6 +51,26 @@ public class TablePageQueryTest extends PluggableActivitiTestCase {
     taskService.deleteTasks(taskIds, true);
   }
   
+  public void testGetTablePageExactTotal() {
+    String tableName = processEngineConfiguration.getDatabaseTablePrefix() + "ACT_RU_TASK";
+    processEngineConfiguration.setEnableTableRowCountEstimates(true);
+    List<String> taskIds = generateDummyTasks(5);
+    try {
+      long approximateTotal = managementService.createTablePageQuery().tableName(tableName).listPage(0, 5).getTotal();
+      
+      taskIds.addAll(generateDummyTasks(3));
+      
+      // The approximate total is cached, the exact total counts the rows
+      assertEquals(approximateTotal, managementService.createTablePageQuery().tableName(tableName).listPage(0, 5).getTotal());
+      assertEquals(8, managementService.createTablePageQuery().tableName(tableName).exactTotal().listPage(0, 5).getTotal());
+      
+    } finally {
+      processEngineConfiguration.setEnableTableRowCountEstimates(false);
+      processEngineConfiguration.getTableRowCountCache().clear();
+      taskService.deleteTasks(taskIds, true);
+    }
+  }
+  
   public void testGetSortedTablePage() {
     String tablePrefix = processEngineConfiguration.getDatabaseTablePrefix();
     List<String> taskIds = generateDummyTasks(15);
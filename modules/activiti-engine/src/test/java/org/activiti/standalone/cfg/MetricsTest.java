@@ -0,0 +1,64 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.standalone.cfg;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+import javax.management.ObjectName;
+
+import org.activiti.engine.impl.metrics.DurationMetric;
+import org.activiti.engine.impl.metrics.MetricsRegistry;
+import org.activiti.engine.impl.test.ResourceActivitiTestCase;
+import org.activiti.engine.task.Task;
+import org.activiti.engine.test.Deployment;
+
+public class MetricsTest extends ResourceActivitiTestCase {
+
+  public MetricsTest() {
+    super("org/activiti/standalone/cfg/metrics-activiti.cfg.xml");
+  }
+
+  @Deployment(resources = "org/activiti/engine/test/api/oneTaskProcess.bpmn20.xml")
+  public void testMetricsRecorded() throws Exception {
+    MetricsRegistry metricsRegistry = processEngineConfiguration.getMetricsRegistry();
+    assertNotNull(metricsRegistry);
+    metricsRegistry.reset();
+
+    runtimeService.startProcessInstanceByKey("oneTaskProcess");
+    Task task = taskService.createTaskQuery().singleResult();
+    taskService.complete(task.getId());
+
+    Map<String, DurationMetric> durations = metricsRegistry.getDurations();
+    assertEquals(1, durations.get("command.StartProcessInstanceCmd").getCount());
+    assertEquals(1, durations.get("command.CompleteTaskCmd").getCount());
+
+    boolean sqlStatementRecorded = false;
+    for (String name : durations.keySet()) {
+      if (name.startsWith("sql.")) {
+        sqlStatementRecorded = true;
+      }
+    }
+    assertTrue(sqlStatementRecorded);
+
+    Map<String, Long> counters = metricsRegistry.getCounters();
+    assertTrue(counters.get("flush") >= 2);
+    assertTrue(counters.get("flush.insert.ExecutionEntity") >= 1);
+    assertTrue(counters.get("flush.delete.TaskEntity") >= 1);
+    assertTrue(counters.get("cache.processDefinition.hit") >= 1);
+
+    ObjectName objectName = new ObjectName("org.activiti:type=Metrics,name=" + ObjectName.quote("metricsEngine"));
+    assertTrue(ManagementFactory.getPlatformMBeanServer().isRegistered(objectName));
+  }
+
+}
@@ -0,0 +1,77 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.standalone.cfg;
+
+import java.util.Map;
+
+import org.activiti.engine.impl.metrics.MetricsRegistry;
+import org.activiti.engine.impl.test.ResourceActivitiTestCase;
+import org.activiti.engine.runtime.ProcessInstance;
+import org.activiti.engine.task.Task;
+import org.activiti.engine.test.Deployment;
+
+public class TransientExecutionTest extends ResourceActivitiTestCase {
+
+  public TransientExecutionTest() {
+    super("org/activiti/standalone/cfg/transient-executions-activiti.cfg.xml");
+  }
+
+  @Deployment
+  public void testStraightThroughProcess() {
+    MetricsRegistry metricsRegistry = processEngineConfiguration.getMetricsRegistry();
+    metricsRegistry.reset();
+
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("straightThrough");
+    assertTrue(processInstance.isEnded());
+    assertEquals(0, runtimeService.createExecutionQuery().count());
+
+    // Only history is written
+    assertEquals(1, historyService.createHistoricProcessInstanceQuery().finished().count());
+    assertEquals("done", historyService.createHistoricVariableInstanceQuery().variableName("branch1").singleResult().getValue());
+    assertEquals("value", historyService.createHistoricVariableInstanceQuery().variableName("branch2").singleResult().getValue());
+
+    Map<String, Long> counters = metricsRegistry.getCounters();
+    assertNull(counters.get("flush.insert.ExecutionEntity"));
+    assertNull(counters.get("flush.delete.ExecutionEntity"));
+    assertNull(counters.get("flush.insert.VariableInstanceEntity"));
+    assertNull(counters.get("flush.delete.VariableInstanceEntity"));
+    assertNoSqlStatement(metricsRegistry, "selectVariablesByExecutionId");
+    assertNoSqlStatement(metricsRegistry, "selectTasksByExecutionId");
+    assertNoSqlStatement(metricsRegistry, "selectIdentityLinksByProcessInstance");
+  }
+
+  @Deployment
+  public void testWaitStateInConcurrentBranch() {
+    MetricsRegistry metricsRegistry = processEngineConfiguration.getMetricsRegistry();
+    metricsRegistry.reset();
+
+    runtimeService.startProcessInstanceByKey("waitStateInConcurrentBranch");
+
+    // The executions that are still active when the command ends are flushed
+    assertTrue(metricsRegistry.getCounters().get("flush.insert.ExecutionEntity") >= 2);
+    assertEquals(1, runtimeService.createProcessInstanceQuery().count());
+    assertEquals("done", runtimeService.getVariable(runtimeService.createProcessInstanceQuery().singleResult().getId(), "branch1"));
+
+    Task task = taskService.createTaskQuery().singleResult();
+    taskService.complete(task.getId());
+    assertEquals(0, runtimeService.createExecutionQuery().count());
+    assertEquals(1, historyService.createHistoricProcessInstanceQuery().finished().count());
+  }
+
+  protected void assertNoSqlStatement(MetricsRegistry metricsRegistry, String statement) {
+    for (String name : metricsRegistry.getDurations().keySet()) {
+      assertFalse(name, name.endsWith("." + statement));
+    }
+  }
+
+}
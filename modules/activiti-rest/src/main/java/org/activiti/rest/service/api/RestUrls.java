@@ -75,6 +75,7 @@ public final class RestUrls {
   public static final String SEGMENT_SOURCE = "source";
   public static final String SEGMENT_SOURCE_EXTRA = "source-extra";
   public static final String SEGMENT_DIAGRAM = "diagram";
+  public static final String SEGMENT_BULK = "bulk";
   
   /**
    * URL template for the deployment collection: <i>repository/deployments</i>
@@ -159,6 +160,11 @@ public final class RestUrls {
    */
   public static final String[] URL_TASK_COLLECTION = {SEGMENT_RUNTIME_RESOURCES, SEGMENT_TASK_RESOURCE};
   
+  /**
+   * URL template for bulk task actions: <i>runtime/tasks/bulk</i>
+   */
+  public static final String[] URL_TASK_BULK = {SEGMENT_RUNTIME_RESOURCES, SEGMENT_TASK_RESOURCE, SEGMENT_BULK};
+  
   /**
    * URL template for task query: <i>query/tasks</i>
    */
@@ -279,6 +285,11 @@ public final class RestUrls {
    */
   public static final String[] URL_PROCESS_INSTANCE_QUERY = {SEGMENT_QUERY_RESOURCES, SEGMENT_PROCESS_INSTANCE_RESOURCE};
   
+  /**
+   * URL template for starting process instances in bulk: <i>runtime/process-instances/bulk</i>
+   */
+  public static final String[] URL_PROCESS_INSTANCE_BULK = {SEGMENT_RUNTIME_RESOURCES, SEGMENT_PROCESS_INSTANCE_RESOURCE, SEGMENT_BULK};
+  
   /**
    * URL template for a single process instance: <i>runtime/process-instances/{0:processInstanceId}</i>
    */
@@ -29,6 +29,7 @@ import org.activiti.rest.common.api.SecuredResource;
 import org.activiti.rest.service.api.RestResponseFactory;
 import org.activiti.rest.service.api.engine.variable.QueryVariable;
 import org.activiti.rest.service.api.engine.variable.QueryVariable.QueryVariableOperation;
+import org.activiti.rest.service.api.engine.variable.RestVariable;
 import org.activiti.rest.service.application.ActivitiRestServicesApplication;
 import org.restlet.data.Form;
 
@@ -105,6 +106,21 @@ public class BaseProcessInstanceResource extends SecuredResource {
     return new ProcessInstancePaginateList(this).paginateList(urlQuery, queryRequest, query, "id", allowedSortProperties);
   }
 
+  protected Map<String, Object> getStartVariables(List<RestVariable> variables) {
+    Map<String, Object> startVariables = null;
+    if(variables != null) {
+      RestResponseFactory factory = getApplication(ActivitiRestServicesApplication.class).getRestResponseFactory();
+      startVariables = new HashMap<String, Object>();
+      for(RestVariable variable : variables) {
+        if(variable.getName() == null) {
+          throw new ActivitiIllegalArgumentException("Variable name is required.");
+        }
+        startVariables.put(variable.getName(), factory.getVariableValue(variable));
+      }
+    }
+    return startVariables;
+  }
+
   protected void addVariables(ProcessInstanceQuery processInstanceQuery, List<QueryVariable> variables) {
     RestResponseFactory responseFactory = getApplication(ActivitiRestServicesApplication.class).getRestResponseFactory();
     
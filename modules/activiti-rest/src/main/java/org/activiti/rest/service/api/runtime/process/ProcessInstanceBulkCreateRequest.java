@@ -0,0 +1,41 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.rest.service.api.runtime.process;
+
+import java.util.List;
+
+
+/**
+ * Process instances to start at once, in transactions of at most chunkSize process instances.
+ */
+public class ProcessInstanceBulkCreateRequest {
+
+  private List<ProcessInstanceCreateRequest> processInstances;
+  private Integer chunkSize;
+  
+  public List<ProcessInstanceCreateRequest> getProcessInstances() {
+    return processInstances;
+  }
+  
+  public void setProcessInstances(List<ProcessInstanceCreateRequest> processInstances) {
+    this.processInstances = processInstances;
+  }
+  
+  public Integer getChunkSize() {
+    return chunkSize;
+  }
+  
+  public void setChunkSize(Integer chunkSize) {
+    this.chunkSize = chunkSize;
+  }
+}
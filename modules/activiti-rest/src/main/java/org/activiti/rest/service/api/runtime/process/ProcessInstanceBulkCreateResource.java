@@ -0,0 +1,97 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.rest.service.api.runtime.process;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.activiti.engine.ActivitiIllegalArgumentException;
+import org.activiti.engine.runtime.ProcessInstanceCreateResult;
+import org.activiti.rest.common.api.ActivitiUtil;
+import org.activiti.rest.service.api.RestResponseFactory;
+import org.activiti.rest.service.application.ActivitiRestServicesApplication;
+import org.restlet.resource.Post;
+
+
+/**
+ * Starts process instances in bulk, using {@link org.activiti.engine.RuntimeService#startProcessInstances(List, int)}.
+ * Each process instance is described like when starting one through the {@link ProcessInstanceCollectionResource}, 
+ * except that starting by message is not supported. A process instance that fails to start does not affect
+ * the others: its result holds the error message instead.
+ */
+public class ProcessInstanceBulkCreateResource extends BaseProcessInstanceResource {
+
+  @Post
+  public List<ProcessInstanceCreateResultResponse> createProcessInstances(ProcessInstanceBulkCreateRequest request) {
+    
+    if(!authenticate()) {
+      return null;
+    }
+    
+    if(request.getProcessInstances() == null) {
+      throw new ActivitiIllegalArgumentException("processInstances is required.");
+    }
+    
+    List<org.activiti.engine.runtime.ProcessInstanceCreateRequest> createRequests = 
+        new ArrayList<org.activiti.engine.runtime.ProcessInstanceCreateRequest>();
+    for(ProcessInstanceCreateRequest processInstance : request.getProcessInstances()) {
+      createRequests.add(createEngineRequest(processInstance));
+    }
+    
+    int chunkSize = request.getChunkSize() != null ? request.getChunkSize() : 0;
+    List<ProcessInstanceCreateResult> results = ActivitiUtil.getRuntimeService().startProcessInstances(createRequests, chunkSize);
+    
+    RestResponseFactory factory = getApplication(ActivitiRestServicesApplication.class).getRestResponseFactory();
+    List<ProcessInstanceCreateResultResponse> responses = new ArrayList<ProcessInstanceCreateResultResponse>();
+    for(ProcessInstanceCreateResult result : results) {
+      ProcessInstanceCreateResultResponse response = new ProcessInstanceCreateResultResponse();
+      if(result.isSuccessful()) {
+        response.setProcessInstance(factory.createProcessInstanceResponse(this, result.getProcessInstance()));
+      } else {
+        response.setErrorMessage(result.getException().getMessage());
+      }
+      responses.add(response);
+    }
+    return responses;
+  }
+  
+  protected org.activiti.engine.runtime.ProcessInstanceCreateRequest createEngineRequest(ProcessInstanceCreateRequest request) {
+    if(request.getMessage() != null) {
+      throw new ActivitiIllegalArgumentException("Starting process instances by message is not supported in bulk.");
+    }
+    
+    org.activiti.engine.runtime.ProcessInstanceCreateRequest createRequest = null;
+    if(request.getProcessDefinitionId() != null) {
+      if(request.getProcessDefinitionKey() != null) {
+        throw new ActivitiIllegalArgumentException("Only one of processDefinitionId or processDefinitionKey should be set.");
+      }
+      if(request.isCustomTenantSet()) {
+        throw new ActivitiIllegalArgumentException("TenantId can only be used with processDefinitionKey.");
+      }
+      createRequest = org.activiti.engine.runtime.ProcessInstanceCreateRequest.processDefinitionId(request.getProcessDefinitionId());
+      
+    } else if(request.getProcessDefinitionKey() != null) {
+      createRequest = org.activiti.engine.runtime.ProcessInstanceCreateRequest.processDefinitionKey(request.getProcessDefinitionKey());
+      if(request.isCustomTenantSet()) {
+        createRequest.tenantId(request.getTenantId());
+      }
+      
+    } else {
+      throw new ActivitiIllegalArgumentException("Either processDefinitionId or processDefinitionKey is required.");
+    }
+    
+    return createRequest
+        .businessKey(request.getBusinessKey())
+        .variables(getStartVariables(request.getVariables()));
+  }
+}
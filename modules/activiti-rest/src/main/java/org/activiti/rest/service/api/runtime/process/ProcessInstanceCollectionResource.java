@@ -14,7 +14,6 @@
 package org.activiti.rest.service.api.runtime.process;
 
 
-import java.util.HashMap;
 import java.util.Map;
 
 import org.activiti.engine.ActivitiIllegalArgumentException;
@@ -23,7 +22,6 @@ import org.activiti.engine.runtime.ProcessInstance;
 import org.activiti.rest.common.api.ActivitiUtil;
 import org.activiti.rest.common.api.DataResponse;
 import org.activiti.rest.service.api.RestResponseFactory;
-import org.activiti.rest.service.api.engine.variable.RestVariable;
 import org.activiti.rest.service.application.ActivitiRestServicesApplication;
 import org.restlet.data.Form;
 import org.restlet.data.Status;
@@ -130,16 +128,7 @@ public class ProcessInstanceCollectionResource extends BaseProcessInstanceResour
     
     RestResponseFactory factory = getApplication(ActivitiRestServicesApplication.class).getRestResponseFactory();
     
-    Map<String, Object> startVariables = null;
-    if(request.getVariables() != null) {
-      startVariables = new HashMap<String, Object>();
-      for(RestVariable variable : request.getVariables()) {
-        if(variable.getName() == null) {
-          throw new ActivitiIllegalArgumentException("Variable name is required.");
-        }
-        startVariables.put(variable.getName(), factory.getVariableValue(variable));
-      }
-    }
+    Map<String, Object> startVariables = getStartVariables(request.getVariables());
     
     // Actually start the instance based on key or id
     try {
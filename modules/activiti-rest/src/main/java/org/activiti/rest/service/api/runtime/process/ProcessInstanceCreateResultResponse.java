@@ -0,0 +1,40 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.rest.service.api.runtime.process;
+
+
+/**
+ * Result of one process instance of a bulk start: either the started process instance 
+ * or the message of the exception that prevented it from being started.
+ */
+public class ProcessInstanceCreateResultResponse {
+
+  protected ProcessInstanceResponse processInstance;
+  protected String errorMessage;
+  
+  public ProcessInstanceResponse getProcessInstance() {
+    return processInstance;
+  }
+  
+  public void setProcessInstance(ProcessInstanceResponse processInstance) {
+    this.processInstance = processInstance;
+  }
+  
+  public String getErrorMessage() {
+    return errorMessage;
+  }
+  
+  public void setErrorMessage(String errorMessage) {
+    this.errorMessage = errorMessage;
+  }
+}
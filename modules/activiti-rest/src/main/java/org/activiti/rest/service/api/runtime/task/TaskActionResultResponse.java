@@ -0,0 +1,39 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.rest.service.api.runtime.task;
+
+
+/**
+ * Result of a bulk task action for one task: the error message is null when the action succeeded.
+ */
+public class TaskActionResultResponse {
+
+  protected String taskId;
+  protected String errorMessage;
+  
+  public String getTaskId() {
+    return taskId;
+  }
+  
+  public void setTaskId(String taskId) {
+    this.taskId = taskId;
+  }
+  
+  public String getErrorMessage() {
+    return errorMessage;
+  }
+  
+  public void setErrorMessage(String errorMessage) {
+    this.errorMessage = errorMessage;
+  }
+}
@@ -15,6 +15,7 @@ package org.activiti.rest.service.api.runtime.task;
 
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.activiti.engine.ActivitiIllegalArgumentException;
 import org.activiti.engine.ActivitiObjectNotFoundException;
@@ -30,6 +31,7 @@ import org.activiti.rest.common.api.SecuredResource;
 import org.activiti.rest.service.api.RestResponseFactory;
 import org.activiti.rest.service.api.engine.variable.QueryVariable;
 import org.activiti.rest.service.api.engine.variable.QueryVariable.QueryVariableOperation;
+import org.activiti.rest.service.api.engine.variable.RestVariable;
 import org.activiti.rest.service.application.ActivitiRestServicesApplication;
 import org.restlet.data.Form;
 
@@ -454,4 +456,19 @@ switch(variable.getVariableOperation()) {
     }
     return task;
   }
+  
+  protected Map<String, Object> getVariablesToSet(List<RestVariable> variables) {
+    Map<String, Object> variablesToSet = new HashMap<String, Object>(); 
+    for(RestVariable var : variables) {
+      if(var.getName() == null) {
+        throw new ActivitiIllegalArgumentException("Variable name is required");
+      }
+      
+      Object actualVariableValue = getApplication(ActivitiRestServicesApplication.class).getRestResponseFactory()
+              .getVariableValue(var);
+      
+      variablesToSet.put(var.getName(), actualVariableValue);
+    }
+    return variablesToSet;
+  }
 }
@@ -0,0 +1,38 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.rest.service.api.runtime.task;
+
+import java.util.List;
+
+
+/**
+ * Action to execute on many tasks at once, in transactions of at most chunkSize tasks.
+ */
+public class TaskBulkActionRequest extends TaskActionRequest {
+
+  private List<String> taskIds;
+  private Integer chunkSize;
+  
+  public List<String> getTaskIds() {
+    return taskIds;
+  }
+  public void setTaskIds(List<String> taskIds) {
+    this.taskIds = taskIds;
+  }
+  public Integer getChunkSize() {
+    return chunkSize;
+  }
+  public void setChunkSize(Integer chunkSize) {
+    this.chunkSize = chunkSize;
+  }
+}
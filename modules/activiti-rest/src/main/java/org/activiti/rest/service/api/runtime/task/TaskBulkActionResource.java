@@ -0,0 +1,74 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.rest.service.api.runtime.task;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.activiti.engine.ActivitiIllegalArgumentException;
+import org.activiti.engine.task.TaskOperationResult;
+import org.activiti.rest.common.api.ActivitiUtil;
+import org.restlet.data.Status;
+import org.restlet.resource.Post;
+import org.restlet.resource.ResourceException;
+
+
+/**
+ * Completes or claims many tasks at once, using {@link org.activiti.engine.TaskService#completeTasks(List, Map, int)} 
+ * and {@link org.activiti.engine.TaskService#claimTasks(List, String, int)}. A task on which the action fails does 
+ * not affect the others: its result holds the error message.
+ */
+public class TaskBulkActionResource extends TaskBaseResource {
+
+  @Post
+  public List<TaskActionResultResponse> executeTaskAction(TaskBulkActionRequest actionRequest) {
+    if (!authenticate()) {
+      return null;
+    }
+
+    if (actionRequest == null) {
+      throw new ResourceException(new Status(Status.CLIENT_ERROR_UNSUPPORTED_MEDIA_TYPE.getCode(), "A request body was expected when executing a task action.",
+              null, null));
+    }
+    
+    if (actionRequest.getTaskIds() == null) {
+      throw new ActivitiIllegalArgumentException("taskIds is required.");
+    }
+    
+    int chunkSize = actionRequest.getChunkSize() != null ? actionRequest.getChunkSize() : 0;
+    List<TaskOperationResult> results = null;
+    if (TaskActionRequest.ACTION_COMPLETE.equals(actionRequest.getAction())) {
+      Map<String, Object> variablesToSet = null;
+      if (actionRequest.getVariables() != null) {
+        variablesToSet = getVariablesToSet(actionRequest.getVariables());
+      }
+      results = ActivitiUtil.getTaskService().completeTasks(actionRequest.getTaskIds(), variablesToSet, chunkSize);
+    } else if (TaskActionRequest.ACTION_CLAIM.equals(actionRequest.getAction())) {
+      results = ActivitiUtil.getTaskService().claimTasks(actionRequest.getTaskIds(), actionRequest.getAssignee(), chunkSize);
+    } else {
+      throw new ActivitiIllegalArgumentException("Invalid bulk action: '" + actionRequest.getAction() + "'.");
+    }
+    
+    List<TaskActionResultResponse> responses = new ArrayList<TaskActionResultResponse>();
+    for (TaskOperationResult result : results) {
+      TaskActionResultResponse response = new TaskActionResultResponse();
+      response.setTaskId(result.getTaskId());
+      if (!result.isSuccessful()) {
+        response.setErrorMessage(result.getException().getMessage());
+      }
+      responses.add(response);
+    }
+    return responses;
+  }
+}
@@ -13,13 +13,11 @@
 
 package org.activiti.rest.service.api.runtime.task;
 
-import java.util.HashMap;
 import java.util.Map;
 
 import org.activiti.engine.ActivitiIllegalArgumentException;
 import org.activiti.engine.task.Task;
 import org.activiti.rest.common.api.ActivitiUtil;
-import org.activiti.rest.service.api.engine.variable.RestVariable;
 import org.activiti.rest.service.application.ActivitiRestServicesApplication;
 import org.restlet.data.Form;
 import org.restlet.data.Status;
@@ -116,18 +114,7 @@ public class TaskResource extends TaskBaseResource {
 
   protected void completeTask(Task task, TaskActionRequest actionRequest) {
     if(actionRequest.getVariables() != null) {
-      Map<String, Object> variablesToSet = new HashMap<String, Object>(); 
-      for(RestVariable var : actionRequest.getVariables()) {
-        if(var.getName() == null) {
-          throw new ActivitiIllegalArgumentException("Variable name is required");
-        }
-        
-        Object actualVariableValue = getApplication(ActivitiRestServicesApplication.class).getRestResponseFactory()
-                .getVariableValue(var);
-        
-        variablesToSet.put(var.getName(), actualVariableValue);
-      }
-      
+      Map<String, Object> variablesToSet = getVariablesToSet(actionRequest.getVariables());
       ActivitiUtil.getTaskService().complete(task.getId(), variablesToSet);
     } else {
       ActivitiUtil.getTaskService().complete(task.getId());
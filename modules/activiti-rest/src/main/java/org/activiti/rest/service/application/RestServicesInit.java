@@ -108,6 +108,7 @@ import org.activiti.rest.service.api.runtime.process.ExecutionVariableCollection
 import org.activiti.rest.service.api.runtime.process.ExecutionVariableDataResource;
 import org.activiti.rest.service.api.runtime.process.ExecutionVariableResource;
 import org.activiti.rest.service.api.runtime.process.ProcessDefinitionPropertiesResource;
+import org.activiti.rest.service.api.runtime.process.ProcessInstanceBulkCreateResource;
 import org.activiti.rest.service.api.runtime.process.ProcessInstanceCollectionResource;
 import org.activiti.rest.service.api.runtime.process.ProcessInstanceIdentityLinkCollectionResource;
 import org.activiti.rest.service.api.runtime.process.ProcessInstanceIdentityLinkResource;
@@ -119,6 +120,7 @@ import org.activiti.rest.service.api.runtime.process.ProcessInstanceVariableReso
 import org.activiti.rest.service.api.runtime.task.TaskAttachmentCollectionResource;
 import org.activiti.rest.service.api.runtime.task.TaskAttachmentContentResource;
 import org.activiti.rest.service.api.runtime.task.TaskAttachmentResource;
+import org.activiti.rest.service.api.runtime.task.TaskBulkActionResource;
 import org.activiti.rest.service.api.runtime.task.TaskCollectionResource;
 import org.activiti.rest.service.api.runtime.task.TaskCommentCollectionResource;
 import org.activiti.rest.service.api.runtime.task.TaskCommentResource;
@@ -160,6 +162,7 @@ public class RestServicesInit {
     router.attach("/repository/models/{modelId}/source-extra", ModelSourceExtraResource.class);
     
     router.attach("/runtime/tasks", TaskCollectionResource.class);
+    router.attach("/runtime/tasks/bulk", TaskBulkActionResource.class);
     router.attach("/runtime/tasks/{taskId}", TaskResource.class);
     router.attach("/runtime/tasks/{taskId}/subtasks", TaskSubTaskCollectionResource.class);
     router.attach("/runtime/tasks/{taskId}/variables", TaskVariableCollectionResource.class);
@@ -176,6 +179,7 @@ public class RestServicesInit {
     router.attach("/runtime/tasks/{taskId}/attachments/{attachmentId}", TaskAttachmentResource.class);
     router.attach("/runtime/tasks/{taskId}/attachments/{attachmentId}/content", TaskAttachmentContentResource.class);
     
+    router.attach("/runtime/process-instances/bulk", ProcessInstanceBulkCreateResource.class);
     router.attach("/runtime/process-instances/{processInstanceId}", ProcessInstanceResource.class);
     router.attach("/runtime/process-instances", ProcessInstanceCollectionResource.class);
     router.attach("/runtime/process-instances/{processInstanceId}/variables", ProcessInstanceVariableCollectionResource.class);
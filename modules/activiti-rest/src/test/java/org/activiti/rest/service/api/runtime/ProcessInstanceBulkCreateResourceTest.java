@@ -0,0 +1,77 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.rest.service.api.runtime;
+
+import org.activiti.engine.test.Deployment;
+import org.activiti.rest.service.BaseRestTestCase;
+import org.activiti.rest.service.api.RestUrls;
+import org.codehaus.jackson.JsonNode;
+import org.codehaus.jackson.node.ArrayNode;
+import org.codehaus.jackson.node.ObjectNode;
+import org.restlet.data.Status;
+import org.restlet.representation.Representation;
+import org.restlet.resource.ClientResource;
+import org.restlet.resource.ResourceException;
+
+/**
+ * Test for starting process instances in bulk.
+ */
+public class ProcessInstanceBulkCreateResourceTest extends BaseRestTestCase {
+
+  @Deployment(resources = {"org/activiti/rest/service/api/runtime/ProcessInstanceResourceTest.process-one.bpmn20.xml"})
+  public void testStartProcessInstances() throws Exception {
+    ClientResource client = getAuthenticatedClient(RestUrls.createRelativeResourceUrl(RestUrls.URL_PROCESS_INSTANCE_BULK));
+    ObjectNode requestNode = objectMapper.createObjectNode();
+    requestNode.put("chunkSize", 2);
+    ArrayNode processInstancesNode = requestNode.putArray("processInstances");
+    
+    ObjectNode processInstanceNode = processInstancesNode.addObject();
+    processInstanceNode.put("processDefinitionKey", "processOne");
+    processInstanceNode.put("businessKey", "first");
+    
+    processInstanceNode = processInstancesNode.addObject();
+    processInstanceNode.put("processDefinitionKey", "unexistingKey");
+    
+    processInstanceNode = processInstancesNode.addObject();
+    processInstanceNode.put("processDefinitionId", repositoryService.createProcessDefinitionQuery()
+            .processDefinitionKey("processOne").singleResult().getId());
+    processInstanceNode.put("businessKey", "third");
+    
+    Representation response = client.post(requestNode);
+    assertEquals(Status.SUCCESS_OK, client.getResponse().getStatus());
+    
+    JsonNode responseNode = objectMapper.readTree(response.getStream());
+    assertEquals(3, responseNode.size());
+    assertEquals("first", responseNode.get(0).get("processInstance").get("businessKey").getTextValue());
+    assertTrue(responseNode.get(0).get("errorMessage").isNull());
+    assertTrue(responseNode.get(1).get("processInstance").isNull());
+    assertNotNull(responseNode.get(1).get("errorMessage").getTextValue());
+    assertEquals("third", responseNode.get(2).get("processInstance").get("businessKey").getTextValue());
+    
+    assertEquals(2, runtimeService.createProcessInstanceQuery().processDefinitionKey("processOne").count());
+  }
+  
+  public void testStartProcessInstancesByMessage() throws Exception {
+    ClientResource client = getAuthenticatedClient(RestUrls.createRelativeResourceUrl(RestUrls.URL_PROCESS_INSTANCE_BULK));
+    ObjectNode requestNode = objectMapper.createObjectNode();
+    requestNode.putArray("processInstances").addObject().put("message", "newInvoiceMessage");
+    
+    try {
+      client.post(requestNode);
+      fail("Exception expected");
+    } catch(ResourceException expected) {
+      assertEquals(Status.CLIENT_ERROR_BAD_REQUEST, expected.getStatus());
+      assertEquals("Starting process instances by message is not supported in bulk.", expected.getStatus().getDescription());
+    }
+  }
+}
@@ -0,0 +1,98 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.activiti.rest.service.api.runtime;
+
+import org.activiti.engine.task.Task;
+import org.activiti.engine.test.Deployment;
+import org.activiti.rest.service.BaseRestTestCase;
+import org.activiti.rest.service.api.RestUrls;
+import org.codehaus.jackson.JsonNode;
+import org.codehaus.jackson.node.ArrayNode;
+import org.codehaus.jackson.node.ObjectNode;
+import org.restlet.data.Status;
+import org.restlet.representation.Representation;
+import org.restlet.resource.ClientResource;
+import org.restlet.resource.ResourceException;
+
+/**
+ * Test for executing actions on many tasks at once.
+ */
+public class TaskBulkActionResourceTest extends BaseRestTestCase {
+
+  @Deployment(resources = {"org/activiti/rest/service/api/runtime/ProcessInstanceResourceTest.process-one.bpmn20.xml"})
+  public void testCompleteTasks() throws Exception {
+    String firstTaskId = taskService.createTaskQuery().processInstanceId(
+            runtimeService.startProcessInstanceByKey("processOne").getId()).singleResult().getId();
+    String secondTaskId = taskService.createTaskQuery().processInstanceId(
+            runtimeService.startProcessInstanceByKey("processOne").getId()).singleResult().getId();
+    
+    ClientResource client = getAuthenticatedClient(RestUrls.createRelativeResourceUrl(RestUrls.URL_TASK_BULK));
+    ObjectNode requestNode = objectMapper.createObjectNode();
+    requestNode.put("action", "complete");
+    ArrayNode taskIdsNode = requestNode.putArray("taskIds");
+    taskIdsNode.add(firstTaskId);
+    taskIdsNode.add("unexisting");
+    taskIdsNode.add(secondTaskId);
+    
+    Representation response = client.post(requestNode);
+    assertEquals(Status.SUCCESS_OK, client.getResponse().getStatus());
+    
+    JsonNode responseNode = objectMapper.readTree(response.getStream());
+    assertEquals(3, responseNode.size());
+    assertEquals(firstTaskId, responseNode.get(0).get("taskId").getTextValue());
+    assertTrue(responseNode.get(0).get("errorMessage").isNull());
+    assertEquals("unexisting", responseNode.get(1).get("taskId").getTextValue());
+    assertNotNull(responseNode.get(1).get("errorMessage").getTextValue());
+    assertEquals(secondTaskId, responseNode.get(2).get("taskId").getTextValue());
+    assertTrue(responseNode.get(2).get("errorMessage").isNull());
+    
+    assertEquals(0, taskService.createTaskQuery().count());
+  }
+  
+  public void testClaimTasks() throws Exception {
+    try {
+      Task task = taskService.newTask();
+      taskService.saveTask(task);
+      
+      ClientResource client = getAuthenticatedClient(RestUrls.createRelativeResourceUrl(RestUrls.URL_TASK_BULK));
+      ObjectNode requestNode = objectMapper.createObjectNode();
+      requestNode.put("action", "claim");
+      requestNode.put("assignee", "kermit");
+      requestNode.putArray("taskIds").add(task.getId());
+      
+      Representation response = client.post(requestNode);
+      assertEquals(Status.SUCCESS_OK, client.getResponse().getStatus());
+      JsonNode responseNode = objectMapper.readTree(response.getStream());
+      assertEquals(1, responseNode.size());
+      assertTrue(responseNode.get(0).get("errorMessage").isNull());
+      
+      assertEquals("kermit", taskService.createTaskQuery().taskId(task.getId()).singleResult().getAssignee());
+      
+      // Other actions are not supported in bulk
+      requestNode.put("action", "delegate");
+      try {
+        client.post(requestNode);
+        fail("Exception expected");
+      } catch(ResourceException expected) {
+        assertEquals(Status.CLIENT_ERROR_BAD_REQUEST, expected.getStatus());
+        assertEquals("Invalid bulk action: 'delegate'.", expected.getStatus().getDescription());
+      }
+      
+    } finally {
+      // Clean adhoc-tasks even if test fails
+      for(Task task : taskService.createTaskQuery().list()) {
+        taskService.deleteTask(task.getId(), true);
+      }
+    }
+  }
+}
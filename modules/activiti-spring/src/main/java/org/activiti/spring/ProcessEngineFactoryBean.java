@@ -61,7 +61,8 @@ public class ProcessEngineFactoryBean implements FactoryBean<ProcessEngine>, Dis
   protected void initializeExpressionManager() {
     if (processEngineConfiguration.getExpressionManager() == null && applicationContext != null) {
       processEngineConfiguration.setExpressionManager(
-          new SpringExpressionManager(applicationContext, processEngineConfiguration.getBeans()));
+          new SpringExpressionManager(applicationContext, processEngineConfiguration.getBeans(), 
+              processEngineConfiguration.getExpressionCacheSize()));
     }
   }
   
@@ -15,10 +15,8 @@ package org.activiti.spring;
 
 import java.util.Map;
 
-import org.activiti.engine.delegate.VariableScope;
 import org.activiti.engine.impl.el.ExpressionManager;
 import org.activiti.engine.impl.el.ReadOnlyMapELResolver;
-import org.activiti.engine.impl.el.VariableScopeElResolver;
 import org.activiti.engine.impl.javax.el.ArrayELResolver;
 import org.activiti.engine.impl.javax.el.BeanELResolver;
 import org.activiti.engine.impl.javax.el.CompositeELResolver;
@@ -47,15 +45,21 @@ public class SpringExpressionManager extends ExpressionManager {
    *          application-context will be exposed.
    */
   public SpringExpressionManager(ApplicationContext applicationContext, Map<Object, Object> beans) {
-    super(beans);
+    this(applicationContext, beans, DEFAULT_EXPRESSION_CACHE_SIZE);
+  }
+
+  /**
+   * @param expressionCacheSize
+   *          maximum number of parsed expression trees to cache.
+   */
+  public SpringExpressionManager(ApplicationContext applicationContext, Map<Object, Object> beans, int expressionCacheSize) {
+    super(beans, expressionCacheSize);
     this.applicationContext = applicationContext;
   }
 
   @Override
-  protected ELResolver createElResolver(VariableScope variableScope) {
+  protected ELResolver createSharedElResolver() {
     CompositeELResolver compositeElResolver = new CompositeELResolver();
-    compositeElResolver.add(new VariableScopeElResolver(variableScope));
-    
     if(beans != null) {
       // Only expose limited set of beans in expressions
       compositeElResolver.add(new ReadOnlyMapELResolver(beans));
@@ -67,6 +67,16 @@ public class SpringJobExecutor extends JobExecutor {
 		}
 	}
 
+	@Override
+	public boolean executeLockedJobs(List<String> jobIds) {
+		try {
+			taskExecutor.execute(new ExecuteJobsRunnable(this, jobIds));
+			return true;
+		} catch (RejectedExecutionException e) {
+			return false;
+		}
+	}
+
 	@Override
 	protected void startExecutingJobs() {
 		startJobAcquisitionThread();